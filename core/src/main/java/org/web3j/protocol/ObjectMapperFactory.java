@@ -17,21 +17,30 @@ import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.DeserializationConfig;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.RequestSerializer;
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.deserializer.RawResponseDeserializer;
 
 /** Factory for managing our ObjectMapper instances. */
 public class ObjectMapperFactory {
 
     private static final ObjectMapper DEFAULT_OBJECT_MAPPER = new ObjectMapper();
+    private static final ObjectMapper RAW_RESPONSE_OBJECT_MAPPER = new ObjectMapper();
 
     static {
         configureObjectMapper(DEFAULT_OBJECT_MAPPER, false);
+        configureObjectMapper(RAW_RESPONSE_OBJECT_MAPPER, true);
     }
 
     public static ObjectMapper getObjectMapper() {
@@ -43,7 +52,7 @@ public class ObjectMapperFactory {
             return DEFAULT_OBJECT_MAPPER;
         }
 
-        return configureObjectMapper(new ObjectMapper(), true);
+        return RAW_RESPONSE_OBJECT_MAPPER;
     }
 
     public static ObjectReader getObjectReader() {
@@ -52,8 +61,32 @@ public class ObjectMapperFactory {
 
     private static ObjectMapper configureObjectMapper(
             ObjectMapper objectMapper, boolean shouldIncludeRawResponses) {
+        SimpleModule module = new SimpleModule();
+        module.setSerializerModifier(
+                new BeanSerializerModifier() {
+                    @Override
+                    public JsonSerializer<?> modifySerializer(
+                            SerializationConfig config,
+                            BeanDescription beanDesc,
+                            JsonSerializer<?> serializer) {
+                        // Subclasses may declare additional properties, so they keep the
+                        // default bean serializer
+                        if (beanDesc.getBeanClass() == Request.class) {
+                            return new RequestSerializer();
+                        }
+
+                        return serializer;
+                    }
+                });
+
+        // Log and transaction results are either objects or hashes, elements read one at a time
+        // need to be told apart individually
+        module.addDeserializer(EthLog.LogResult.class, new EthLog.LogResultElementDeserialiser());
+        module.addDeserializer(
+                EthBlock.TransactionResult.class,
+                new EthBlock.TransactionResultElementDeserialiser());
+
         if (shouldIncludeRawResponses) {
-            SimpleModule module = new SimpleModule();
             module.setDeserializerModifier(
                     new BeanDeserializerModifier() {
                         @Override
@@ -68,10 +101,10 @@ public class ObjectMapperFactory {
                             return deserializer;
                         }
                     });
-
-            objectMapper.registerModule(module);
         }
 
+        objectMapper.registerModule(module);
+
         objectMapper.configure(JsonParser.Feature.ALLOW_UNQUOTED_FIELD_NAMES, true);
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
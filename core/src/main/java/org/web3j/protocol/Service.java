@@ -12,21 +12,27 @@
  */
 package org.web3j.protocol;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.reactivex.Emitter;
 import io.reactivex.Flowable;
 
 import org.web3j.protocol.core.BatchRequest;
 import org.web3j.protocol.core.BatchResponse;
 import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.exceptions.JsonRpcError;
 import org.web3j.protocol.websocket.events.Notification;
 import org.web3j.utils.Async;
 
@@ -41,9 +47,35 @@ public abstract class Service implements Web3jService {
 
     protected abstract InputStream performIO(String payload) throws IOException;
 
+    /**
+     * Perform IO with a request payload which has already been encoded as UTF-8. Services writing
+     * to a byte oriented transport should override this method, by default the payload is decoded
+     * and passed to {@link #performIO(String)}.
+     *
+     * @param payload UTF-8 encoded request payload
+     * @return response stream
+     * @throws IOException thrown if failed to perform a request
+     */
+    protected InputStream performIO(byte[] payload) throws IOException {
+        return performIO(new String(payload, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Perform IO for a request whose response is read incrementally. Services which are able to
+     * hand back the transport stream before the whole response has been received should override
+     * this method, by default the response is buffered as per {@link #performIO(byte[])}.
+     *
+     * @param payload UTF-8 encoded request payload
+     * @return response stream, closed by the caller once it has been consumed
+     * @throws IOException thrown if failed to perform a request
+     */
+    protected InputStream performStreamingIO(byte[] payload) throws IOException {
+        return performIO(payload);
+    }
+
     @Override
     public <T extends Response> T send(Request request, Class<T> responseType) throws IOException {
-        String payload = objectMapper.writeValueAsString(request);
+        byte[] payload = objectMapper.writeValueAsBytes(request);
 
         try (InputStream result = performIO(payload)) {
             if (result != null) {
@@ -60,13 +92,95 @@ public abstract class Service implements Web3jService {
         return Async.run(() -> send(jsonRpc20Request, responseType));
     }
 
+    @Override
+    public <T> Flowable<T> sendStreaming(Request request, Class<T> resultElementType) {
+        return Flowable.generate(
+                () -> openResultArray(request),
+                (ResultArray resultArray, Emitter<T> emitter) -> {
+                    if (resultArray.nextElement()) {
+                        emitter.onNext(
+                                objectMapper.readValue(resultArray.parser, resultElementType));
+                    } else {
+                        emitter.onComplete();
+                    }
+                },
+                ResultArray::close);
+    }
+
+    private ResultArray openResultArray(Request request) throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(request);
+
+        InputStream result = performStreamingIO(payload);
+        if (result == null) {
+            return new ResultArray(null);
+        }
+
+        JsonParser parser = objectMapper.getFactory().createParser(result);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Invalid JSON-RPC response, expected an object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("result".equals(fieldName)) {
+                    if (value == JsonToken.START_ARRAY) {
+                        return new ResultArray(parser);
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        throw new IOException(
+                                "Invalid JSON-RPC response, expected an array result");
+                    }
+                } else if ("error".equals(fieldName)) {
+                    Response.Error error = objectMapper.readValue(parser, Response.Error.class);
+                    if (error != null) {
+                        throw new JsonRpcError(error);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            parser.close();
+            throw e;
+        }
+
+        parser.close();
+        return new ResultArray(null);
+    }
+
+    /** Parser positioned within the result array of a JSON-RPC response. */
+    private static class ResultArray implements Closeable {
+        private final JsonParser parser;
+
+        ResultArray(JsonParser parser) {
+            this.parser = parser;
+        }
+
+        boolean nextElement() throws IOException {
+            if (parser == null) {
+                return false;
+            }
+            JsonToken token = parser.nextToken();
+            return token != null && token != JsonToken.END_ARRAY;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (parser != null) {
+                parser.close();
+            }
+        }
+    }
+
     @Override
     public BatchResponse sendBatch(BatchRequest batchRequest) throws IOException {
         if (batchRequest.getRequests().isEmpty()) {
             return new BatchResponse(Collections.emptyList(), Collections.emptyList());
         }
 
-        String payload = objectMapper.writeValueAsString(batchRequest.getRequests());
+        byte[] payload = objectMapper.writeValueAsBytes(batchRequest.getRequests());
 
         try (InputStream result = performIO(payload)) {
             if (result != null) {
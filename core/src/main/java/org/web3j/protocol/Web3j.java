@@ -14,6 +14,7 @@ package org.web3j.protocol;
 
 import java.util.concurrent.ScheduledExecutorService;
 
+import org.web3j.protocol.archive.BlockArchive;
 import org.web3j.protocol.core.Batcher;
 import org.web3j.protocol.core.BlobFee;
 import org.web3j.protocol.core.Ethereum;
@@ -49,6 +50,29 @@ public interface Web3j extends Ethereum, Web3jRx, Batcher, BlobFee, AutoCloseabl
         return new JsonRpc2_0Web3j(web3jService, pollingInterval, scheduledExecutorService);
     }
 
+    /**
+     * Construct a new Web3j instance which reads replayed blocks from, and appends them to, a
+     * local archive.
+     *
+     * @param web3jService web3j service instance - i.e. HTTP or IPC
+     * @param pollingInterval polling interval for responses from network nodes
+     * @param scheduledExecutorService executor service to use for scheduled tasks. <strong>You are
+     *     responsible for terminating this thread pool</strong>
+     * @param blockArchive archive of finalized blocks. Replayed blocks are only appended once they
+     *     are {@link org.web3j.protocol.rx.JsonRpc2_0Rx#DEFAULT_ARCHIVE_CONFIRMATIONS} blocks
+     *     behind the head of the chain. <strong>You are responsible for closing this
+     *     archive</strong>
+     * @return new Web3j instance
+     */
+    static Web3j build(
+            Web3jService web3jService,
+            long pollingInterval,
+            ScheduledExecutorService scheduledExecutorService,
+            BlockArchive blockArchive) {
+        return new JsonRpc2_0Web3j(
+                web3jService, pollingInterval, scheduledExecutorService, blockArchive);
+    }
+
     /** Shutdowns a Web3j instance and closes opened resources. */
     void shutdown();
 }
@@ -13,6 +13,7 @@
 package org.web3j.protocol;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import io.reactivex.Flowable;
@@ -21,6 +22,7 @@ import org.web3j.protocol.core.BatchRequest;
 import org.web3j.protocol.core.BatchResponse;
 import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.Response;
+import org.web3j.protocol.exceptions.JsonRpcError;
 import org.web3j.protocol.websocket.events.Notification;
 
 /** Services API. */
@@ -48,6 +50,44 @@ public interface Web3jService {
      */
     <T extends Response> CompletableFuture<T> sendAsync(Request request, Class<T> responseType);
 
+    /**
+     * Perform a JSON-RPC request whose result is an array, emitting each element of the array as
+     * soon as it has been read instead of once the whole response has been deserialized. Elements
+     * are only read as they are requested downstream, so memory use is bounded by the demand of
+     * the subscriber rather than by the size of the result.
+     *
+     * <p>The default implementation sends the request as usual and emits the elements of the
+     * deserialized result, services able to read responses incrementally should override it.
+     *
+     * <p>Streamed responses are never held in memory as a whole, so they are not captured as raw
+     * responses, even if the service has been configured to include them.
+     *
+     * @param request request to perform
+     * @param resultElementType class of the elements of the result array
+     * @param <T> type of the elements of the result array
+     * @return a {@link Flowable} instance that emits the elements of the result array
+     */
+    default <T> Flowable<T> sendStreaming(Request request, Class<T> resultElementType) {
+        return Flowable.defer(
+                () -> {
+                    Response<?> response = send(request, request.getResponseType());
+                    if (response == null || response.getResult() == null) {
+                        if (response != null && response.hasError()) {
+                            throw new JsonRpcError(response.getError());
+                        }
+                        return Flowable.empty();
+                    }
+                    return Flowable.fromIterable((List<?>) response.getResult())
+                            .map(
+                                    element ->
+                                            resultElementType.isInstance(element)
+                                                    ? resultElementType.cast(element)
+                                                    : ObjectMapperFactory.getObjectMapper()
+                                                            .convertValue(
+                                                                    element, resultElementType));
+                });
+    }
+
     /**
      * Perform a synchronous JSON-RPC batch requests.
      *
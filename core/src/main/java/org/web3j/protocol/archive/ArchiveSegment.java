@@ -0,0 +1,166 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A single append-only segment file of a {@link BlockArchive}. Records are written through the
+ * file channel and read through a read-only mapping of the file. Records appended after the file
+ * was last mapped are read from the channel until the unmapped tail reaches {@link
+ * #REMAP_THRESHOLD}, so that reading recently appended records does not re-map the file each time.
+ */
+class ArchiveSegment implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveSegment.class);
+
+    static final long REMAP_THRESHOLD = 4L * 1024 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private volatile long size;
+    private volatile MappedByteBuffer mapped;
+
+    private ArchiveSegment(Path path, FileChannel channel) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    static ArchiveSegment open(Path path) throws IOException {
+        return new ArchiveSegment(
+                path,
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.READ,
+                        StandardOpenOption.WRITE));
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Read the headers of all records in this segment. A partially written record at the end of
+     * the segment, left behind if the process was stopped while appending, is truncated.
+     */
+    void scan(RecordVisitor visitor) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(RecordType.HEADER_SIZE);
+        long position = 0;
+
+        while (position + RecordType.HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+
+            RecordType type = RecordType.fromId(header.get());
+            long blockNumber = header.getLong();
+            int length = header.getInt();
+
+            long payloadOffset = position + RecordType.HEADER_SIZE;
+            if (payloadOffset + length > size) {
+                break;
+            }
+
+            visitor.visit(type, blockNumber, new RecordLocation(this, type, payloadOffset, length));
+            position = payloadOffset + length;
+        }
+
+        if (position < size) {
+            log.warn("Truncating incomplete record at offset {} of {}", position, path);
+            channel.truncate(position);
+            size = position;
+        }
+    }
+
+    /**
+     * Append a record to the end of this segment.
+     *
+     * @return offset of the payload within the segment
+     */
+    synchronized long append(ByteBuffer header, ByteBuffer payload) throws IOException {
+        long position = size;
+        long written = 0;
+        long length = header.remaining() + payload.remaining();
+        ByteBuffer[] buffers = new ByteBuffer[] {header, payload};
+
+        channel.position(position);
+        while (written < length) {
+            written += channel.write(buffers);
+        }
+
+        size = position + length;
+        return position + header.limit();
+    }
+
+    ByteBuffer slice(long offset, int length) throws IOException {
+        MappedByteBuffer buffer = mapped;
+        if (buffer == null || offset + length > buffer.capacity()) {
+            long mappedSize = buffer == null ? 0 : buffer.capacity();
+            if (size - mappedSize < REMAP_THRESHOLD) {
+                ByteBuffer record = ByteBuffer.allocate(length);
+                readFully(record, offset);
+                record.flip();
+                return record;
+            }
+            buffer = remap(offset + length);
+        }
+
+        ByteBuffer view = buffer.duplicate();
+        view.position((int) offset);
+        view.limit((int) offset + length);
+        return view.slice();
+    }
+
+    void flush() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        mapped = null;
+        channel.close();
+    }
+
+    private synchronized MappedByteBuffer remap(long requiredSize) throws IOException {
+        MappedByteBuffer buffer = mapped;
+        if (buffer == null || requiredSize > buffer.capacity()) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped = buffer;
+        }
+        return buffer;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of archive segment " + path);
+            }
+        }
+    }
+
+    interface RecordVisitor {
+        void visit(RecordType type, long blockNumber, RecordLocation location);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+
+/**
+ * Local, append-only archive of blocks, their transactions and transaction receipts.
+ *
+ * <p>Records are appended to segment files within the archive directory and read back through
+ * memory mapped {@link java.nio.channels.FileChannel}s. An index from block number to record
+ * location is rebuilt from the record headers when the archive is opened. If a block is appended
+ * more than once, the latest record is used. Archived blocks are served to block replays by {@link
+ * org.web3j.protocol.rx.JsonRpc2_0Rx}, archived receipts to {@link
+ * org.web3j.protocol.rx.BloomLogScanner}.
+ *
+ * <p>The archive assumes that the blocks it is given are final. Blocks close to the head of the
+ * chain, which may still be reorganised, should not be appended.
+ */
+public class BlockArchive implements Closeable {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 256L * 1024 * 1024;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final List<ArchiveSegment> segments = new ArrayList<>();
+    private final Map<Long, RecordLocation> blocks = new ConcurrentHashMap<>();
+    private final Map<Long, RecordLocation> receipts = new ConcurrentHashMap<>();
+
+    private final ObjectWriter recordWriter = createRecordWriter();
+    private final ObjectReader blockReader =
+            ObjectMapperFactory.getObjectReader().forType(EthBlock.Block.class);
+    private final ObjectReader receiptsReader =
+            ObjectMapperFactory.getObjectReader()
+                    .forType(new TypeReference<List<TransactionReceipt>>() {});
+
+    public BlockArchive(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public BlockArchive(Path directory, long segmentSize) throws IOException {
+        if (segmentSize <= RecordType.HEADER_SIZE || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+
+        Files.createDirectories(directory);
+        for (Path path : listSegments(directory)) {
+            ArchiveSegment segment = ArchiveSegment.open(path);
+            segments.add(segment);
+            segment.scan(this::index);
+        }
+    }
+
+    /**
+     * Append a block to the archive. Blocks with full transaction objects can be read back either
+     * with or without them, blocks with transaction hashes only with hashes.
+     *
+     * @param block block to append
+     * @throws IOException if the block could not be written
+     */
+    public synchronized void appendBlock(EthBlock.Block block) throws IOException {
+        RecordType type =
+                hasFullTransactionObjects(block) ? RecordType.FULL_BLOCK : RecordType.BLOCK;
+        append(type, block.getNumber().longValue(), recordWriter.writeValueAsBytes(block));
+    }
+
+    /**
+     * Append the transaction receipts of a block to the archive.
+     *
+     * @param blockNumber number of the block the receipts belong to
+     * @param transactionReceipts receipts of all transactions in the block
+     * @throws IOException if the receipts could not be written
+     */
+    public synchronized void appendReceipts(
+            long blockNumber, List<TransactionReceipt> transactionReceipts) throws IOException {
+        append(
+                RecordType.RECEIPTS,
+                blockNumber,
+                recordWriter.writeValueAsBytes(transactionReceipts));
+    }
+
+    /**
+     * Read a block from the archive.
+     *
+     * @param blockNumber number of the block to read
+     * @param fullTransactionObjects if true, the block is only returned if it was archived with
+     *     full transaction objects, otherwise transaction hashes are returned
+     * @return the archived block, or empty if it has not been archived
+     * @throws IOException if the block could not be read
+     */
+    public Optional<EthBlock> getBlock(long blockNumber, boolean fullTransactionObjects)
+            throws IOException {
+        RecordLocation location = blocks.get(blockNumber);
+        if (location == null
+                || (fullTransactionObjects && location.getType() != RecordType.FULL_BLOCK)) {
+            return Optional.empty();
+        }
+
+        EthBlock.Block block = blockReader.readValue(location.open());
+        if (!fullTransactionObjects && location.getType() == RecordType.FULL_BLOCK) {
+            block.setTransactions(toTransactionHashes(block.getTransactions()));
+        }
+
+        EthBlock ethBlock = new EthBlock();
+        ethBlock.setResult(block);
+        return Optional.of(ethBlock);
+    }
+
+    /**
+     * Read the transaction receipts of a block from the archive.
+     *
+     * @param blockNumber number of the block the receipts belong to
+     * @return the archived receipts, or empty if they have not been archived
+     * @throws IOException if the receipts could not be read
+     */
+    public Optional<List<TransactionReceipt>> getReceipts(long blockNumber) throws IOException {
+        RecordLocation location = receipts.get(blockNumber);
+        if (location == null) {
+            return Optional.empty();
+        }
+        return Optional.of(receiptsReader.readValue(location.open()));
+    }
+
+    public boolean containsBlock(long blockNumber, boolean fullTransactionObjects) {
+        RecordLocation location = blocks.get(blockNumber);
+        return location != null
+                && (!fullTransactionObjects || location.getType() == RecordType.FULL_BLOCK);
+    }
+
+    public boolean containsReceipts(long blockNumber) {
+        return receipts.containsKey(blockNumber);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Force all appended records to be written to the storage device.
+     *
+     * @throws IOException if the segments could not be flushed
+     */
+    public synchronized void flush() throws IOException {
+        for (ArchiveSegment segment : segments) {
+            segment.flush();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (ArchiveSegment segment : segments) {
+            segment.close();
+        }
+        segments.clear();
+        blocks.clear();
+        receipts.clear();
+    }
+
+    private void append(RecordType type, long blockNumber, byte[] payload) throws IOException {
+        ArchiveSegment segment = segmentFor(RecordType.HEADER_SIZE + payload.length);
+
+        ByteBuffer header = ByteBuffer.allocate(RecordType.HEADER_SIZE);
+        header.put(type.getId()).putLong(blockNumber).putInt(payload.length).flip();
+
+        long offset = segment.append(header, ByteBuffer.wrap(payload));
+        index(type, blockNumber, new RecordLocation(segment, type, offset, payload.length));
+    }
+
+    private void index(RecordType type, long blockNumber, RecordLocation location) {
+        if (type == RecordType.RECEIPTS) {
+            receipts.put(blockNumber, location);
+        } else {
+            blocks.put(blockNumber, location);
+        }
+    }
+
+    private ArchiveSegment segmentFor(int recordSize) throws IOException {
+        if (!segments.isEmpty()) {
+            ArchiveSegment current = segments.get(segments.size() - 1);
+            if (current.size() == 0 || current.size() + recordSize <= segmentSize) {
+                return current;
+            }
+        }
+
+        ArchiveSegment segment =
+                ArchiveSegment.open(
+                        directory.resolve(
+                                String.format(
+                                        "%s%08d%s",
+                                        SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX)));
+        segments.add(segment);
+        return segment;
+    }
+
+    private static List<Path> listSegments(Path directory) throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream =
+                Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(paths::add);
+        }
+        // Segment names are zero padded, so lexical order is append order
+        return paths.stream().sorted().collect(Collectors.toList());
+    }
+
+    private static boolean hasFullTransactionObjects(EthBlock.Block block) {
+        List<EthBlock.TransactionResult> transactions = block.getTransactions();
+        return transactions == null
+                || transactions.stream()
+                        .allMatch(result -> result instanceof EthBlock.TransactionObject);
+    }
+
+    private static List<EthBlock.TransactionResult> toTransactionHashes(
+            List<EthBlock.TransactionResult> transactions) {
+        if (transactions == null) {
+            return null;
+        }
+        return transactions.stream()
+                .map(
+                        result ->
+                                new EthBlock.TransactionHash(
+                                        ((EthBlock.TransactionObject) result).getHash()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Response objects expose decoded values through their getters, so records are written from
+     * their fields, which hold the values as returned by the node.
+     */
+    private static ObjectWriter createRecordWriter() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE);
+        objectMapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        objectMapper.addMixIn(EthBlock.TransactionHash.class, TransactionHashMixIn.class);
+        return objectMapper.writer();
+    }
+
+    /** Transaction hashes are written as plain strings, as they are returned by nodes. */
+    private abstract static class TransactionHashMixIn {
+        @JsonValue
+        abstract String get();
+    }
+}
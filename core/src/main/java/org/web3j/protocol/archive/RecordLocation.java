@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+/** Location of the payload of a record within an {@link ArchiveSegment}. */
+class RecordLocation {
+
+    private final ArchiveSegment segment;
+    private final RecordType type;
+    private final long offset;
+    private final int length;
+
+    RecordLocation(ArchiveSegment segment, RecordType type, long offset, int length) {
+        this.segment = segment;
+        this.type = type;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    RecordType getType() {
+        return type;
+    }
+
+    InputStream open() throws IOException {
+        return new ByteBufferBackedInputStream(segment.slice(offset, length));
+    }
+}
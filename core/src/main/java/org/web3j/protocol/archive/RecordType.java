@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.archive;
+
+/**
+ * Types of records stored in a {@link BlockArchive}. Every record starts with a header holding
+ * the type id, the block number and the length of the payload that follows.
+ */
+enum RecordType {
+    BLOCK((byte) 1),
+    FULL_BLOCK((byte) 2),
+    RECEIPTS((byte) 3);
+
+    static final int HEADER_SIZE = Byte.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final byte id;
+
+    RecordType(byte id) {
+        this.id = id;
+    }
+
+    byte getId() {
+        return id;
+    }
+
+    static RecordType fromId(byte id) {
+        for (RecordType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown archive record type: " + id);
+    }
+}
@@ -12,7 +12,11 @@
  */
 package org.web3j.protocol.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class BatchResponse {
 
@@ -34,4 +38,28 @@ public class BatchResponse {
     public List<Request<?, ? extends Response<?>>> getRequests() {
         return requests;
     }
+
+    /**
+     * Get the responses in the order of the requests they answer. Nodes are not required to
+     * return batch responses in request order, so responses are matched to requests by id.
+     * Responses with an id which matches no request are dropped.
+     *
+     * @return the response to each request, or null where the node returned no response
+     */
+    public List<Response<?>> getResponsesInRequestOrder() {
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            positions.put(requests.get(i).getId(), i);
+        }
+
+        List<Response<?>> ordered =
+                new ArrayList<>(Collections.<Response<?>>nCopies(requests.size(), null));
+        for (Response<?> response : responses) {
+            Integer position = positions.get(response.getId());
+            if (position != null) {
+                ordered.set(position, response);
+            }
+        }
+        return ordered;
+    }
 }
@@ -25,6 +25,7 @@ import io.reactivex.Flowable;
 
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.archive.BlockArchive;
 import org.web3j.protocol.core.methods.request.ShhFilter;
 import org.web3j.protocol.core.methods.request.ShhPost;
 import org.web3j.protocol.core.methods.request.Transaction;
@@ -89,9 +90,14 @@ import org.web3j.protocol.core.methods.response.Web3Sha3;
 import org.web3j.protocol.core.methods.response.admin.AdminDataDir;
 import org.web3j.protocol.core.methods.response.admin.AdminNodeInfo;
 import org.web3j.protocol.core.methods.response.admin.AdminPeers;
+import org.web3j.protocol.exceptions.JsonRpcError;
+import org.web3j.protocol.rx.BackpressurePolicy;
+import org.web3j.protocol.rx.BlockEvent;
 import org.web3j.protocol.rx.JsonRpc2_0Rx;
+import org.web3j.protocol.websocket.WebSocketService;
 import org.web3j.protocol.websocket.events.LogNotification;
 import org.web3j.protocol.websocket.events.NewHeadsNotification;
+import org.web3j.protocol.websocket.events.PendingTransactionObjectNotification;
 import org.web3j.utils.Async;
 import org.web3j.utils.Numeric;
 
@@ -115,8 +121,16 @@ public class JsonRpc2_0Web3j implements Web3j {
             Web3jService web3jService,
             long pollingInterval,
             ScheduledExecutorService scheduledExecutorService) {
+        this(web3jService, pollingInterval, scheduledExecutorService, null);
+    }
+
+    public JsonRpc2_0Web3j(
+            Web3jService web3jService,
+            long pollingInterval,
+            ScheduledExecutorService scheduledExecutorService,
+            BlockArchive blockArchive) {
         this.web3jService = web3jService;
-        this.web3jRx = new JsonRpc2_0Rx(this, scheduledExecutorService);
+        this.web3jRx = new JsonRpc2_0Rx(this, scheduledExecutorService, blockArchive);
         this.blockTime = pollingInterval;
         this.scheduledExecutorService = scheduledExecutorService;
     }
@@ -746,6 +760,18 @@ public class JsonRpc2_0Web3j implements Web3j {
                 NewHeadsNotification.class);
     }
 
+    @Override
+    public Flowable<PendingTransactionObjectNotification> pendingTransactionObjectsNotifications() {
+        return web3jService.subscribe(
+                new Request<>(
+                        "eth_subscribe",
+                        Arrays.asList("newPendingTransactions", true),
+                        web3jService,
+                        EthSubscribe.class),
+                "eth_unsubscribe",
+                PendingTransactionObjectNotification.class);
+    }
+
     @Override
     public Flowable<LogNotification> logsNotifications(
             List<String> addresses, List<String> topics) {
@@ -778,17 +804,59 @@ public class JsonRpc2_0Web3j implements Web3j {
         return web3jRx.ethBlockHashFlowable(blockTime);
     }
 
+    @Override
+    public Flowable<String> ethBlockHashFlowable(BackpressurePolicy backpressurePolicy) {
+        return web3jRx.ethBlockHashFlowable(blockTime, backpressurePolicy);
+    }
+
     @Override
     public Flowable<String> ethPendingTransactionHashFlowable() {
         return web3jRx.ethPendingTransactionHashFlowable(blockTime);
     }
 
+    @Override
+    public Flowable<String> ethPendingTransactionHashFlowable(
+            BackpressurePolicy backpressurePolicy) {
+        return web3jRx.ethPendingTransactionHashFlowable(blockTime, backpressurePolicy);
+    }
+
     @Override
     public Flowable<Log> ethLogFlowable(
             org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
         return web3jRx.ethLogFlowable(ethFilter, blockTime);
     }
 
+    @Override
+    public Flowable<Log> sharedEthLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        return web3jRx.sharedEthLogFlowable(ethFilter, blockTime);
+    }
+
+    @Override
+    public Flowable<Log> ethLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter,
+            BackpressurePolicy backpressurePolicy) {
+        return web3jRx.ethLogFlowable(ethFilter, blockTime, backpressurePolicy);
+    }
+
+    @Override
+    public Flowable<EthLog.LogResult> ethGetLogsStream(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        return web3jService.sendStreaming(ethGetLogs(ethFilter), EthLog.LogResult.class);
+    }
+
+    @Override
+    public Flowable<Log> replayPastLogsFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        return web3jRx.replayPastLogsFlowable(ethFilter);
+    }
+
+    @Override
+    public Flowable<Log> scanPastLogsFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        return web3jRx.scanPastLogsFlowable(ethFilter);
+    }
+
     @Override
     public Flowable<org.web3j.protocol.core.methods.response.Transaction> transactionFlowable() {
         return web3jRx.transactionFlowable(blockTime);
@@ -797,7 +865,22 @@ public class JsonRpc2_0Web3j implements Web3j {
     @Override
     public Flowable<org.web3j.protocol.core.methods.response.Transaction>
             pendingTransactionFlowable() {
-        return web3jRx.pendingTransactionFlowable(blockTime);
+        Flowable<org.web3j.protocol.core.methods.response.Transaction> polled =
+                web3jRx.pendingTransactionFlowable(blockTime);
+        if (!(web3jService instanceof WebSocketService)) {
+            return polled;
+        }
+        // Nodes which do not support the subscription reject it, in which case pending
+        // transactions are polled instead
+        return web3jRx.pendingTransactionFlowable(
+                        pendingTransactionObjectsNotifications()
+                                .map(notification -> notification.getParams().getResult()))
+                .onErrorResumeNext(
+                        error -> isSubscriptionRejected(error) ? polled : Flowable.error(error));
+    }
+
+    private static boolean isSubscriptionRejected(Throwable error) {
+        return error instanceof IOException && error.getCause() instanceof JsonRpcError;
     }
 
     @Override
@@ -823,6 +906,18 @@ public class JsonRpc2_0Web3j implements Web3j {
                 startBlock, endBlock, fullTransactionObjects, ascending);
     }
 
+    @Override
+    public Flowable<EthBlock> replayPastBlocksFlowable(
+            DefaultBlockParameter startBlock,
+            DefaultBlockParameter endBlock,
+            boolean fullTransactionObjects,
+            boolean ascending,
+            int batchSize,
+            int parallelism) {
+        return web3jRx.replayBlocksFlowable(
+                startBlock, endBlock, fullTransactionObjects, ascending, batchSize, parallelism);
+    }
+
     @Override
     public Flowable<EthBlock> replayPastBlocksFlowable(
             DefaultBlockParameter startBlock,
@@ -858,6 +953,19 @@ public class JsonRpc2_0Web3j implements Web3j {
                 startBlock, fullTransactionObjects, blockTime);
     }
 
+    @Override
+    public Flowable<BlockEvent> canonicalBlockFlowable(
+            boolean fullTransactionObjects, int confirmations) {
+        return web3jRx.canonicalBlockFlowable(fullTransactionObjects, confirmations, blockTime);
+    }
+
+    @Override
+    public Flowable<BlockEvent> replayPastAndFutureCanonicalBlocksFlowable(
+            DefaultBlockParameter startBlock, boolean fullTransactionObjects, int confirmations) {
+        return web3jRx.replayPastAndFutureCanonicalBlocksFlowable(
+                startBlock, fullTransactionObjects, confirmations, blockTime);
+    }
+
     @Override
     public Flowable<org.web3j.protocol.core.methods.response.Transaction>
             replayPastAndFutureTransactionsFlowable(DefaultBlockParameter startBlock) {
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * A jackson serializer for {@link Request} objects. Field names, the protocol version and method
+ * names are written from pre-encoded strings, and the hex string parameters used by most methods
+ * are written directly, rather than going through generic bean serialization.
+ */
+public class RequestSerializer extends StdSerializer<Request> {
+
+    private static final SerializedString JSONRPC = new SerializedString("jsonrpc");
+    private static final SerializedString METHOD = new SerializedString("method");
+    private static final SerializedString PARAMS = new SerializedString("params");
+    private static final SerializedString ID = new SerializedString("id");
+
+    private static final String JSONRPC_VERSION = "2.0";
+    private static final SerializedString ENCODED_JSONRPC_VERSION =
+            new SerializedString(JSONRPC_VERSION);
+
+    private static final ConcurrentMap<String, SerializableString> ENCODED_METHODS =
+            new ConcurrentHashMap<>();
+
+    public RequestSerializer() {
+        super(Request.class);
+    }
+
+    @Override
+    public void serialize(Request request, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject(request);
+
+        gen.writeFieldName(JSONRPC);
+        String jsonrpc = request.getJsonrpc();
+        if (JSONRPC_VERSION.equals(jsonrpc)) {
+            gen.writeString(ENCODED_JSONRPC_VERSION);
+        } else {
+            gen.writeString(jsonrpc);
+        }
+
+        gen.writeFieldName(METHOD);
+        String method = request.getMethod();
+        if (method != null) {
+            gen.writeString(ENCODED_METHODS.computeIfAbsent(method, SerializedString::new));
+        } else {
+            gen.writeNull();
+        }
+
+        gen.writeFieldName(PARAMS);
+        writeParams(request.getParams(), gen, provider);
+
+        gen.writeFieldName(ID);
+        gen.writeNumber(request.getId());
+
+        gen.writeEndObject();
+    }
+
+    private void writeParams(List<?> params, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        if (params == null) {
+            gen.writeNull();
+            return;
+        }
+
+        gen.writeStartArray(params, params.size());
+        for (Object param : params) {
+            if (param instanceof String) {
+                gen.writeString((String) param);
+            } else if (param instanceof DefaultBlockParameter) {
+                gen.writeString(((DefaultBlockParameter) param).getValue());
+            } else {
+                provider.defaultSerializeValue(param, gen);
+            }
+        }
+        gen.writeEndArray();
+    }
+}
@@ -12,6 +12,9 @@
  */
 package org.web3j.protocol.core;
 
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
@@ -29,6 +32,7 @@ public class Response<T> {
     private T result;
     private Error error;
     private String rawResponse;
+    private byte[] rawResponseBytes;
 
     public Response() {}
 
@@ -69,11 +73,36 @@ public class Response<T> {
     }
 
     public String getRawResponse() {
+        if (rawResponse == null && rawResponseBytes != null) {
+            // Raw responses are captured as bytes and only decoded when asked for
+            rawResponse = new String(rawResponseBytes, StandardCharsets.UTF_8);
+        }
         return rawResponse;
     }
 
     public void setRawResponse(String rawResponse) {
         this.rawResponse = rawResponse;
+        this.rawResponseBytes = null;
+    }
+
+    /**
+     * Returns the UTF-8 encoded raw response. The returned array may be shared with the buffer the
+     * response was read from, so it must not be modified.
+     *
+     * @return raw response bytes, or null if raw responses are not being captured
+     */
+    @JsonIgnore
+    public byte[] getRawResponseBytes() {
+        if (rawResponseBytes == null && rawResponse != null) {
+            return rawResponse.getBytes(StandardCharsets.UTF_8);
+        }
+        return rawResponseBytes;
+    }
+
+    @JsonIgnore
+    public void setRawResponseBytes(byte[] rawResponseBytes) {
+        this.rawResponseBytes = rawResponseBytes;
+        this.rawResponse = null;
     }
 
     public static class Error {
@@ -20,6 +20,7 @@ import java.util.Optional;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
@@ -33,6 +34,7 @@ import org.web3j.protocol.core.RpcErrors;
 import org.web3j.protocol.core.methods.response.EthFilter;
 import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.EthUninstallFilter;
+import org.web3j.protocol.polling.AdaptivePollingInterval;
 
 /** Class for creating managed filter requests with callbacks. */
 public abstract class Filter<T> {
@@ -50,6 +52,14 @@ public abstract class Filter<T> {
 
     private long blockTime;
 
+    volatile FilterManager filterManager;
+
+    private volatile AdaptivePollingInterval pollingInterval;
+
+    private volatile boolean cancelled;
+
+    private volatile BooleanSupplier pauseCondition;
+
     private static final String FILTER_NOT_FOUND_PATTERN = "(?i)\\bfilter\\s+not\\s+found\\b";
 
     public Filter(Web3j web3j, Callback<T> callback) {
@@ -58,6 +68,96 @@ public abstract class Filter<T> {
     }
 
     public void run(ScheduledExecutorService scheduledExecutorService, long blockTime) {
+        install();
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.blockTime = blockTime;
+
+        /*
+        We want the filter to be resilient against client issues. On numerous occasions
+        users have reported socket timeout exceptions when connected over HTTP to Geth and
+        Parity clients. For examples, refer to
+        https://github.com/web3j/web3j/issues/144 and
+        https://github.com/ethereum/go-ethereum/issues/15243.
+
+        Hence we consume errors and log them as errors, allowing our polling for changes to
+        resume. The downside of this approach is that users will not be notified of
+        downstream connection issues. But given the intermittent nature of the connection
+        issues, this seems like a reasonable compromise.
+
+        The alternative approach would be to have another thread that blocks waiting on
+        schedule.get(), catching any Exceptions thrown, and passing them back up to the
+        caller. However, the user would then be required to recreate subscriptions manually
+        which isn't ideal given the aforementioned issues.
+        */
+        schedule =
+                scheduledExecutorService.scheduleAtFixedRate(
+                        () -> {
+                            try {
+                                this.pollFilter();
+                            } catch (Throwable e) {
+                                // All exceptions must be caught, otherwise our job terminates
+                                // without
+                                // any notification
+                                log.warn("Error sending request", e);
+                            }
+                        },
+                        0,
+                        blockTime,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Run the filter, polling for changes at an interval which follows the block cadence of the
+     * node and backs off while no changes are returned.
+     *
+     * @param scheduledExecutorService executor service to poll with
+     * @param pollingInterval polling interval used by this filter only
+     */
+    public void run(
+            ScheduledExecutorService scheduledExecutorService,
+            AdaptivePollingInterval pollingInterval) {
+        install();
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.pollingInterval = pollingInterval;
+
+        synchronized (this) {
+            schedule =
+                    scheduledExecutorService.schedule(
+                            this::pollAdaptively, 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void pollAdaptively() {
+        boolean changed = false;
+        try {
+            changed = pollFilter();
+        } catch (Throwable e) {
+            // As with fixed rate polling, errors are logged and polling resumes
+            log.warn("Error sending request", e);
+        }
+
+        long delay = pollingInterval.getMaxInterval();
+        try {
+            delay = pollingInterval.nextDelay(changed);
+        } catch (Throwable e) {
+            log.warn("Error calculating polling interval", e);
+        }
+
+        synchronized (this) {
+            if (!cancelled) {
+                schedule =
+                        scheduledExecutorService.schedule(
+                                this::pollAdaptively, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Install the filter on the node and process its initial logs.
+     *
+     * @return the response to the filter installation
+     */
+    EthFilter install() {
         try {
             EthFilter ethFilter = sendRequest();
             if (ethFilter.hasError()) {
@@ -65,46 +165,13 @@ public abstract class Filter<T> {
             }
 
             filterId = ethFilter.getFilterId();
-            this.scheduledExecutorService = scheduledExecutorService;
-            this.blockTime = blockTime;
             // this runs in the caller thread as if any exceptions are encountered, we shouldn't
-            // proceed with creating the scheduled task below
+            // proceed with polling for changes
             getInitialFilterLogs();
-
-            /*
-            We want the filter to be resilient against client issues. On numerous occasions
-            users have reported socket timeout exceptions when connected over HTTP to Geth and
-            Parity clients. For examples, refer to
-            https://github.com/web3j/web3j/issues/144 and
-            https://github.com/ethereum/go-ethereum/issues/15243.
-
-            Hence we consume errors and log them as errors, allowing our polling for changes to
-            resume. The downside of this approach is that users will not be notified of
-            downstream connection issues. But given the intermittent nature of the connection
-            issues, this seems like a reasonable compromise.
-
-            The alternative approach would be to have another thread that blocks waiting on
-            schedule.get(), catching any Exceptions thrown, and passing them back up to the
-            caller. However, the user would then be required to recreate subscriptions manually
-            which isn't ideal given the aforementioned issues.
-            */
-            schedule =
-                    scheduledExecutorService.scheduleAtFixedRate(
-                            () -> {
-                                try {
-                                    this.pollFilter(ethFilter);
-                                } catch (Throwable e) {
-                                    // All exceptions must be caught, otherwise our job terminates
-                                    // without
-                                    // any notification
-                                    log.warn("Error sending request", e);
-                                }
-                            },
-                            0,
-                            blockTime,
-                            TimeUnit.MILLISECONDS);
+            return ethFilter;
         } catch (IOException e) {
             throwException(e);
+            return null;
         }
     }
 
@@ -130,13 +197,63 @@ public abstract class Filter<T> {
         }
     }
 
-    private void pollFilter(EthFilter ethFilter) {
+    /**
+     * Skip polling for changes while a condition holds, for instance while earlier changes have
+     * not been consumed. Changes are kept by the node until polling resumes, but the node may
+     * remove filters which are not polled for some minutes, in which case the filter is
+     * re-installed and the changes in between are lost.
+     *
+     * @param pauseCondition condition checked before each poll
+     */
+    public void pauseWhile(BooleanSupplier pauseCondition) {
+        this.pauseCondition = pauseCondition;
+    }
+
+    boolean isPaused() {
+        BooleanSupplier condition = pauseCondition;
+        return condition != null && condition.getAsBoolean();
+    }
+
+    private boolean pollFilter() {
+        if (isPaused()) {
+            return false;
+        }
         EthLog ethLog = null;
         try {
-            ethLog = web3j.ethGetFilterChanges(filterId).send();
+            ethLog = getFilterChanges().send();
         } catch (IOException e) {
             throwException(e);
         }
+        return processFilterChanges(ethLog);
+    }
+
+    Request<?, EthLog> getFilterChanges() {
+        return web3j.ethGetFilterChanges(filterId);
+    }
+
+    /**
+     * Poll for changes once more, outside of the polling schedule, to collect the changes of a
+     * filter which is about to be cancelled.
+     */
+    void pollFinalChanges() {
+        try {
+            EthLog ethLog = getFilterChanges().send();
+            if (ethLog.hasError()) {
+                throwException(ethLog.getError());
+            }
+            process(ethLog.getLogs());
+        } catch (IOException e) {
+            throwException(e);
+        }
+    }
+
+    /**
+     * Process the response to a poll for filter changes.
+     *
+     * @param ethLog response to eth_getFilterChanges
+     * @return true if any changes were returned
+     */
+    boolean processFilterChanges(EthLog ethLog) {
         if (ethLog.hasError()) {
             Error error = ethLog.getError();
             String message = error.getMessage();
@@ -150,9 +267,11 @@ public abstract class Filter<T> {
                     else throwException(error);
                     break;
             }
-        } else {
-            process(ethLog.getLogs());
+            return false;
         }
+        List<EthLog.LogResult> logResults = ethLog.getLogs();
+        process(logResults);
+        return !logResults.isEmpty();
     }
 
     protected abstract EthFilter sendRequest() throws IOException;
@@ -163,12 +282,23 @@ public abstract class Filter<T> {
         log.warn(
                 "Previously installed filter has not been found, trying to re-install. Filter id: {}",
                 filterId);
-        schedule.cancel(false);
-        this.run(scheduledExecutorService, blockTime);
+        if (filterManager != null || pollingInterval != null) {
+            install();
+        } else {
+            schedule.cancel(false);
+            this.run(scheduledExecutorService, blockTime);
+        }
     }
 
     public void cancel() {
-        schedule.cancel(false);
+        if (filterManager != null) {
+            filterManager.unregister(this);
+        } else {
+            synchronized (this) {
+                cancelled = true;
+                schedule.cancel(false);
+            }
+        }
 
         try {
             EthUninstallFilter ethUninstallFilter = uninstallFilter(filterId);
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthLog;
+
+/**
+ * Polls any number of filters from a single scheduled task. On every tick the
+ * eth_getFilterChanges requests of all registered filters are sent in one {@link BatchRequest},
+ * and the results are passed to the callback of each filter.
+ *
+ * <pre>
+ * FilterManager filterManager = new FilterManager(web3j, scheduledExecutorService, 1000);
+ * LogFilter logFilter = new LogFilter(web3j, callback, ethFilter);
+ * filterManager.register(logFilter);
+ * ...
+ * logFilter.cancel();
+ * </pre>
+ */
+public class FilterManager {
+
+    private static final Logger log = LoggerFactory.getLogger(FilterManager.class);
+
+    private final Web3j web3j;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final long pollingInterval;
+    private final List<Filter<?>> filters = new CopyOnWriteArrayList<>();
+
+    private ScheduledFuture<?> schedule;
+
+    public FilterManager(
+            Web3j web3j, ScheduledExecutorService scheduledExecutorService, long pollingInterval) {
+        this.web3j = web3j;
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.pollingInterval = pollingInterval;
+    }
+
+    /**
+     * Install a filter and poll it for changes until it is cancelled with {@link Filter#cancel()}.
+     *
+     * @param filter filter to register
+     * @throws FilterException if the filter could not be installed
+     */
+    public synchronized void register(Filter<?> filter) {
+        filter.install();
+        filter.filterManager = this;
+        filters.add(filter);
+
+        if (schedule == null) {
+            schedule =
+                    scheduledExecutorService.scheduleAtFixedRate(
+                            () -> {
+                                try {
+                                    poll();
+                                } catch (Throwable e) {
+                                    // All exceptions must be caught, otherwise our job terminates
+                                    // without any notification
+                                    log.warn("Error polling filters", e);
+                                }
+                            },
+                            0,
+                            pollingInterval,
+                            TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void unregister(Filter<?> filter) {
+        filters.remove(filter);
+        if (filters.isEmpty() && schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+        }
+    }
+
+    public int getFilterCount() {
+        return filters.size();
+    }
+
+    /** Stop polling. Registered filters are not uninstalled. */
+    public synchronized void shutdown() {
+        if (schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+        }
+    }
+
+    void poll() throws IOException {
+        if (filters.isEmpty()) {
+            return;
+        }
+
+        BatchRequest batchRequest = web3j.newBatch();
+        List<Filter<?>> requested = new ArrayList<>();
+        for (Filter<?> filter : filters) {
+            if (filter.isPaused()) {
+                continue;
+            }
+            Request<?, EthLog> request = filter.getFilterChanges();
+            requested.add(filter);
+            batchRequest.add(request);
+        }
+
+        if (requested.isEmpty()) {
+            return;
+        }
+
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            log.warn("No response received for filter changes");
+            return;
+        }
+
+        List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+        int unanswered = 0;
+        for (int i = 0; i < requested.size(); i++) {
+            Response<?> response = responses.get(i);
+            if (response == null) {
+                unanswered++;
+                continue;
+            }
+            // A failing filter must not prevent the others from receiving their changes
+            try {
+                requested.get(i).processFilterChanges((EthLog) response);
+            } catch (Throwable e) {
+                log.warn("Error processing filter changes", e);
+            }
+        }
+        if (unanswered > 0) {
+            log.warn("No filter changes received for {} filters", unanswered);
+        }
+    }
+}
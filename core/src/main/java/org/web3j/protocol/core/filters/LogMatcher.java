@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.request.Filter.FilterTopic;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Bloom;
+
+/** Matches logs, and the logs blooms of blocks, against the addresses and topics of a filter. */
+public class LogMatcher {
+
+    private final Set<String> addresses;
+    private final List<Set<String>> topics;
+
+    public LogMatcher(EthFilter ethFilter) {
+        this.addresses = new HashSet<>();
+        if (ethFilter.getAddress() != null) {
+            for (String address : ethFilter.getAddress()) {
+                addresses.add(address.toLowerCase());
+            }
+        }
+        this.topics = topics(ethFilter);
+    }
+
+    /**
+     * Check whether a log matches the filter.
+     *
+     * @param log log to check
+     * @return true if the log was emitted by one of the filter addresses and matches its topics
+     */
+    public boolean matches(Log log) {
+        if (!addresses.isEmpty()
+                && (log.getAddress() == null
+                        || !addresses.contains(log.getAddress().toLowerCase()))) {
+            return false;
+        }
+        return matchesTopics(topics, log);
+    }
+
+    /**
+     * Check whether a block may contain logs matching the filter. Blooms can return false
+     * positives, but never false negatives.
+     *
+     * @param logsBloom logs bloom of the block
+     * @return false if the block contains no matching logs
+     */
+    public boolean mayMatch(Bloom logsBloom) {
+        if (isEmpty(logsBloom)) {
+            return false;
+        }
+        if (!addresses.isEmpty() && addresses.stream().noneMatch(logsBloom::test)) {
+            return false;
+        }
+        for (Set<String> values : topics) {
+            if (values != null && values.stream().noneMatch(logsBloom::test)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(Bloom bloom) {
+        for (byte b : bloom.getBytes()) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Convert the topics of a filter to the set of values accepted at each position, where null
+     * accepts any value. Trailing wildcards are removed.
+     */
+    static List<Set<String>> topics(EthFilter ethFilter) {
+        List<Set<String>> topics = new ArrayList<>();
+        for (FilterTopic<?> filterTopic : ethFilter.getTopics()) {
+            topics.add(values(filterTopic));
+        }
+        return trim(topics);
+    }
+
+    private static Set<String> values(FilterTopic<?> filterTopic) {
+        Object value = filterTopic.getValue();
+        if (value == null) {
+            return null;
+        }
+        if (!(value instanceof List)) {
+            return Collections.singleton(value.toString().toLowerCase());
+        }
+        Set<String> values = new LinkedHashSet<>();
+        for (Object topic : (List<?>) value) {
+            Set<String> topicValues = values((FilterTopic<?>) topic);
+            if (topicValues == null) {
+                return null;
+            }
+            values.addAll(topicValues);
+        }
+        return values;
+    }
+
+    static List<Set<String>> trim(List<Set<String>> topics) {
+        int size = topics.size();
+        while (size > 0 && topics.get(size - 1) == null) {
+            size--;
+        }
+        return new ArrayList<>(topics.subList(0, size));
+    }
+
+    static boolean matchesTopics(List<Set<String>> topics, Log log) {
+        List<String> logTopics =
+                log.getTopics() == null ? Collections.emptyList() : log.getTopics();
+        for (int i = 0; i < topics.size(); i++) {
+            Set<String> values = topics.get(i);
+            if (values == null) {
+                continue;
+            }
+            if (i >= logTopics.size()
+                    || logTopics.get(i) == null
+                    || !values.contains(logTopics.get(i).toLowerCase())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
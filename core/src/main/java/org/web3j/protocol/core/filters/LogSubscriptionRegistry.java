@@ -0,0 +1,330 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.Log;
+
+/**
+ * Shares node side log filters between subscribers.
+ *
+ * <p>Subscriptions with the same block range, addresses and polling interval are served by a
+ * single {@link LogFilter}. If the topics of a new subscription are not covered by the installed
+ * filter, a filter matching the union of all subscribed topics is installed in its place. Logs are
+ * matched against the topics of each subscription before they are passed to its callback, and the
+ * shared filter is cancelled once its last subscription is cancelled.
+ *
+ * <p>Only filters which start at the head of the chain can be shared, as subscribers joining an
+ * existing filter do not receive its historic logs. See {@link #isShareable(EthFilter)}. Sharing
+ * is opt-in, through {@link org.web3j.protocol.rx.Web3jRx#sharedEthLogFlowable(EthFilter)}.
+ */
+public class LogSubscriptionRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(LogSubscriptionRegistry.class);
+
+    /** Number of recently delivered logs remembered to suppress duplicates. */
+    static final int RECENT_LOG_COUNT = 1024;
+
+    private final Web3j web3j;
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final Map<String, SharedLogFilter> sharedFilters = new HashMap<>();
+
+    public LogSubscriptionRegistry(Web3j web3j, ScheduledExecutorService scheduledExecutorService) {
+        this.web3j = web3j;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    /**
+     * Check whether a filter can be shared with other subscribers. Filters on a block hash or
+     * starting at a given block return historic logs, which later subscribers would not receive.
+     *
+     * @param ethFilter filter to check
+     * @return true if the filter can be shared
+     */
+    public static boolean isShareable(EthFilter ethFilter) {
+        DefaultBlockParameter fromBlock = ethFilter.getFromBlock();
+        return ethFilter.getBlockHash() == null
+                && (fromBlock == null
+                        || fromBlock == DefaultBlockParameterName.LATEST
+                        || fromBlock == DefaultBlockParameterName.PENDING);
+    }
+
+    /**
+     * Subscribe to the logs matching a filter.
+     *
+     * @param ethFilter filter the logs must match, see {@link #isShareable(EthFilter)}
+     * @param callback callback to receive matching logs
+     * @param pollingInterval polling interval of the node side filter in milliseconds
+     * @return subscription, which must be cancelled to release the node side filter
+     * @throws FilterException if a node side filter could not be installed
+     */
+    public synchronized Subscription subscribe(
+            EthFilter ethFilter, Callback<Log> callback, long pollingInterval) {
+        if (!isShareable(ethFilter)) {
+            throw new IllegalArgumentException("Filter cannot be shared");
+        }
+
+        String key = key(ethFilter, pollingInterval);
+        Subscription subscription = new Subscription(ethFilter, callback);
+        SharedLogFilter sharedFilter = sharedFilters.get(key);
+        if (sharedFilter == null) {
+            sharedFilter = new SharedLogFilter(key, pollingInterval);
+            sharedFilter.subscriptions.add(subscription);
+            sharedFilter.install(ethFilter, LogMatcher.topics(ethFilter));
+            sharedFilters.put(key, sharedFilter);
+        } else {
+            sharedFilter.subscriptions.add(subscription);
+            if (!covers(sharedFilter.topics, subscription.topics)) {
+                try {
+                    sharedFilter.widen();
+                } catch (RuntimeException e) {
+                    sharedFilter.subscriptions.remove(subscription);
+                    throw e;
+                }
+            }
+        }
+        subscription.sharedFilter = sharedFilter;
+        return subscription;
+    }
+
+    /** @return the number of node side filters currently installed */
+    public synchronized int getFilterCount() {
+        return sharedFilters.size();
+    }
+
+    private synchronized void unsubscribe(Subscription subscription) {
+        SharedLogFilter sharedFilter = subscription.sharedFilter;
+        if (!sharedFilter.subscriptions.remove(subscription)
+                || !sharedFilter.subscriptions.isEmpty()) {
+            return;
+        }
+        sharedFilters.remove(sharedFilter.key);
+        sharedFilter.logFilter.cancel();
+    }
+
+    private static String key(EthFilter ethFilter, long pollingInterval) {
+        Set<String> addresses = new TreeSet<>();
+        if (ethFilter.getAddress() != null) {
+            for (String address : ethFilter.getAddress()) {
+                addresses.add(address.toLowerCase());
+            }
+        }
+        return value(ethFilter.getFromBlock())
+                + ":"
+                + value(ethFilter.getToBlock())
+                + ":"
+                + addresses
+                + ":"
+                + pollingInterval;
+    }
+
+    private static String value(DefaultBlockParameter blockParameter) {
+        return blockParameter == null ? "" : blockParameter.getValue();
+    }
+
+    static boolean covers(List<Set<String>> filterTopics, List<Set<String>> topics) {
+        for (int i = 0; i < filterTopics.size(); i++) {
+            Set<String> filterValues = filterTopics.get(i);
+            if (filterValues == null) {
+                continue;
+            }
+            if (i >= topics.size()
+                    || topics.get(i) == null
+                    || !filterValues.containsAll(topics.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static List<Set<String>> union(List<List<Set<String>>> topicsList) {
+        int size = Integer.MAX_VALUE;
+        for (List<Set<String>> topics : topicsList) {
+            size = Math.min(size, topics.size());
+        }
+
+        List<Set<String>> union = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            Set<String> values = new LinkedHashSet<>();
+            for (List<Set<String>> topics : topicsList) {
+                if (topics.get(i) == null) {
+                    values = null;
+                    break;
+                }
+                values.addAll(topics.get(i));
+            }
+            union.add(values);
+        }
+        return LogMatcher.trim(union);
+    }
+
+    private static EthFilter createFilter(EthFilter template, List<Set<String>> topics) {
+        EthFilter ethFilter =
+                new EthFilter(
+                        template.getFromBlock(), template.getToBlock(), template.getAddress());
+        for (Set<String> values : topics) {
+            if (values == null) {
+                ethFilter.addNullTopic();
+            } else if (values.size() == 1) {
+                ethFilter.addSingleTopic(values.iterator().next());
+            } else {
+                ethFilter.addOptionalTopics(values.toArray(new String[0]));
+            }
+        }
+        return ethFilter;
+    }
+
+    private static String id(Log value) {
+        if (value.getBlockHash() == null || value.getLogIndexRaw() == null) {
+            return null;
+        }
+        return value.getBlockHash() + ":" + value.getLogIndexRaw() + ":" + value.isRemoved();
+    }
+
+    /** Subscription to the logs of a shared filter. */
+    public class Subscription {
+
+        private final EthFilter ethFilter;
+        private final Callback<Log> callback;
+        private final List<Set<String>> topics;
+
+        private SharedLogFilter sharedFilter;
+
+        private Subscription(EthFilter ethFilter, Callback<Log> callback) {
+            this.ethFilter = ethFilter;
+            this.callback = callback;
+            this.topics = LogMatcher.topics(ethFilter);
+        }
+
+        public EthFilter getEthFilter() {
+            return ethFilter;
+        }
+
+        /**
+         * Cancel this subscription. The node side filter is cancelled once all of its
+         * subscriptions are cancelled.
+         */
+        public void cancel() {
+            unsubscribe(this);
+        }
+    }
+
+    private class SharedLogFilter {
+
+        private final String key;
+        private final long pollingInterval;
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        private final Map<String, Boolean> recentLogs =
+                new LinkedHashMap<String, Boolean>() {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                        return size() > RECENT_LOG_COUNT;
+                    }
+                };
+
+        private volatile List<Set<String>> topics;
+        private LogFilter logFilter;
+
+        private SharedLogFilter(String key, long pollingInterval) {
+            this.key = key;
+            this.pollingInterval = pollingInterval;
+        }
+
+        private void widen() {
+            List<List<Set<String>>> topicsList = new ArrayList<>();
+            for (Subscription subscription : subscriptions) {
+                topicsList.add(subscription.topics);
+            }
+            List<Set<String>> union = union(topicsList);
+            install(createFilter(subscriptions.get(0).ethFilter, union), union);
+        }
+
+        /**
+         * Install a filter in place of the current one. The new filter is running before the
+         * changes of the current one are polled a final time and it is cancelled, so that no logs
+         * are missed in between.
+         */
+        private void install(EthFilter ethFilter, List<Set<String>> filterTopics) {
+            LogFilter previous = logFilter;
+            List<Set<String>> previousTopics = topics;
+
+            topics = filterTopics;
+            LogFilter next = new LogFilter(web3j, this::dispatch, ethFilter);
+            try {
+                next.run(scheduledExecutorService, pollingInterval);
+            } catch (RuntimeException e) {
+                topics = previousTopics;
+                throw e;
+            }
+            logFilter = next;
+
+            if (previous != null) {
+                try {
+                    previous.pollFinalChanges();
+                } catch (RuntimeException e) {
+                    log.warn("Error polling replaced log filter", e);
+                }
+                try {
+                    previous.cancel();
+                } catch (RuntimeException e) {
+                    log.warn("Error cancelling replaced log filter", e);
+                }
+            }
+        }
+
+        /**
+         * Pass a log to the subscriptions it matches. While a filter is being replaced both
+         * filters may return the same log, so recently delivered logs are skipped.
+         */
+        private void dispatch(Log value) {
+            String id = id(value);
+            if (id != null) {
+                synchronized (recentLogs) {
+                    if (recentLogs.put(id, Boolean.TRUE) != null) {
+                        return;
+                    }
+                }
+            }
+
+            for (Subscription subscription : subscriptions) {
+                // Logs returned by a filter on exactly the subscribed topics need no matching
+                if (!subscription.topics.equals(topics)
+                        && !LogMatcher.matchesTopics(subscription.topics, value)) {
+                    continue;
+                }
+                try {
+                    subscription.callback.onEvent(value);
+                } catch (RuntimeException e) {
+                    log.warn("Error passing log to subscriber", e);
+                }
+            }
+        }
+    }
+}
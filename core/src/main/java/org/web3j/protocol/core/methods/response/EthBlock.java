@@ -925,6 +925,24 @@ public class EthBlock extends Response<EthBlock.Block> {
         }
     }
 
+    /**
+     * Deserialises a single transaction result, which is either a transaction object or a hash,
+     * as sent in pending transaction notifications.
+     */
+    public static class TransactionResultElementDeserialiser
+            extends JsonDeserializer<TransactionResult> {
+
+        @Override
+        public TransactionResult deserialize(
+                JsonParser jsonParser, DeserializationContext deserializationContext)
+                throws IOException {
+            if (jsonParser.currentToken() == JsonToken.VALUE_STRING) {
+                return new TransactionHash(jsonParser.getValueAsString());
+            }
+            return deserializationContext.readValue(jsonParser, TransactionObject.class);
+        }
+    }
+
     public static class Withdrawal {
         private String index;
         private String validatorIndex;
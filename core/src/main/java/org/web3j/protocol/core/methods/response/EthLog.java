@@ -157,4 +157,21 @@ public class EthLog extends Response<List<EthLog.LogResult>> {
             return logResults;
         }
     }
+
+    /**
+     * Deserialises a single element of a log result, which is either a log object or a hash, as
+     * when the elements of a result array are read one at a time.
+     */
+    public static class LogResultElementDeserialiser extends JsonDeserializer<LogResult> {
+
+        @Override
+        public LogResult deserialize(
+                JsonParser jsonParser, DeserializationContext deserializationContext)
+                throws IOException {
+            if (jsonParser.currentToken() == JsonToken.VALUE_STRING) {
+                return new Hash(jsonParser.getValueAsString());
+            }
+            return deserializationContext.readValue(jsonParser, LogObject.class);
+        }
+    }
 }
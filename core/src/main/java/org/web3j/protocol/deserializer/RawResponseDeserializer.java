@@ -14,8 +14,6 @@ package org.web3j.protocol.deserializer;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
-import java.util.Scanner;
 
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.DeserializationContext;
@@ -41,7 +39,7 @@ public class RawResponseDeserializer extends StdDeserializer<Response>
     public Response deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
         Response deserializedResponse = (Response) defaultDeserializer.deserialize(jp, ctxt);
 
-        deserializedResponse.setRawResponse(getRawResponse(jp));
+        deserializedResponse.setRawResponseBytes(getRawResponse(jp));
         return deserializedResponse;
     }
 
@@ -52,22 +50,18 @@ public class RawResponseDeserializer extends StdDeserializer<Response>
         ((ResolvableDeserializer) defaultDeserializer).resolve(ctxt);
     }
 
-    private String getRawResponse(JsonParser jp) throws IOException {
-        final InputStream inputSource = (InputStream) jp.getInputSource();
+    private byte[] getRawResponse(JsonParser jp) throws IOException {
+        final Object inputSource = jp.getInputSource();
 
-        if (inputSource == null) {
-            return "";
+        if (inputSource instanceof RawResponseInputStream) {
+            // The response has already been buffered, so there is no need to read it again
+            return ((RawResponseInputStream) inputSource).getBytes();
+        } else if (inputSource instanceof InputStream) {
+            InputStream input = (InputStream) inputSource;
+            input.reset();
+            return input.readAllBytes();
         }
 
-        inputSource.reset();
-
-        return streamToString(inputSource);
-    }
-
-    private String streamToString(InputStream input) throws IOException {
-        try (Scanner scanner =
-                new Scanner(input, StandardCharsets.UTF_8.name()).useDelimiter("\\Z")) {
-            return scanner.next();
-        }
+        return new byte[0];
     }
 }
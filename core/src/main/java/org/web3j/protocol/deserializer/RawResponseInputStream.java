@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.deserializer;
+
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+
+/**
+ * An input stream over a fully buffered response, which allows {@link RawResponseDeserializer} to
+ * capture the raw response from the buffer it was parsed from instead of re-reading the stream.
+ */
+public class RawResponseInputStream extends ByteArrayInputStream {
+
+    private final int offset;
+    private final int length;
+
+    public RawResponseInputStream(byte[] buf) {
+        this(buf, 0, buf.length);
+    }
+
+    public RawResponseInputStream(byte[] buf, int offset, int length) {
+        super(buf, offset, length);
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Returns the bytes this stream was created over. The underlying buffer is returned as is when
+     * the stream covers all of it, so callers must not modify the returned array.
+     *
+     * @return the buffered response
+     */
+    public byte[] getBytes() {
+        if (offset == 0 && length == buf.length) {
+            return buf;
+        }
+        return Arrays.copyOfRange(buf, offset, offset + length);
+    }
+}
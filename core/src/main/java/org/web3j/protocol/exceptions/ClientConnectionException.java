@@ -12,9 +12,38 @@
  */
 package org.web3j.protocol.exceptions;
 
+import java.util.Optional;
+
 /** Client connection exception. */
 public class ClientConnectionException extends RuntimeException {
+    private final Integer statusCode;
+
     public ClientConnectionException(String message) {
+        this(message, (Integer) null);
+    }
+
+    public ClientConnectionException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = null;
+    }
+
+    /**
+     * Create an exception for an unsuccessful HTTP response.
+     *
+     * @param message detail message
+     * @param statusCode HTTP status code of the response, or null if there was none
+     */
+    public ClientConnectionException(String message, Integer statusCode) {
         super(message);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Get the HTTP status code of the unsuccessful response which caused the exception.
+     *
+     * @return the status code, or empty if the exception was not caused by an HTTP response
+     */
+    public Optional<Integer> getStatusCode() {
+        return Optional.ofNullable(statusCode);
     }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.web3j.utils.Numeric;
+
+/** Column of variable length byte arrays, such as transaction input and log data. */
+public final class BytesColumn extends Column {
+
+    private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+
+    BytesColumn(String name) {
+        super(name, ColumnType.BYTES, 0);
+    }
+
+    /**
+     * Add hex encoded data.
+     *
+     * @param hexValue hex encoded data, or null
+     */
+    public void add(String hexValue) {
+        if (hexValue == null) {
+            addNull();
+        } else {
+            add(Numeric.hexStringToByteArray(hexValue));
+        }
+    }
+
+    /**
+     * Add a hex encoded quantity which may not fit in a long, such as a transaction value. It is
+     * stored as an unsigned big-endian byte array.
+     *
+     * @param quantity hex encoded quantity, or null
+     */
+    public void addQuantity(String quantity) {
+        if (quantity == null) {
+            addNull();
+            return;
+        }
+        byte[] bytes = Numeric.decodeQuantity(quantity).toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        add(bytes);
+    }
+
+    public void add(byte[] value) {
+        ColumnarFormat.writeVarLong(values, value.length);
+        values.write(value, 0, value.length);
+        added();
+    }
+
+    /**
+     * Decode a value added with {@link #addQuantity(String)}.
+     *
+     * @param value value read from the column
+     * @return the quantity
+     */
+    public static BigInteger toQuantity(byte[] value) {
+        return new BigInteger(1, value);
+    }
+
+    @Override
+    void writeValues(DataOutputStream out) throws IOException {
+        values.writeTo(out);
+    }
+
+    @Override
+    void resetValues() {
+        values.reset();
+    }
+}
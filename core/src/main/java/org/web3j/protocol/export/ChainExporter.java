@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import io.reactivex.Flowable;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.Transaction;
+
+/**
+ * Exports blocks, transactions and logs to columnar files, which can be read with {@link
+ * ColumnarReader}.
+ *
+ * <p>Blocks and logs are consumed from the replay flowables, with bounded prefetch, and written in
+ * row groups, so any range of the chain can be exported in bounded memory. Logs are fetched with
+ * {@link Web3j#replayPastLogsFlowable(EthFilter)}, which splits the range into requests that stay
+ * within provider limits. Hashes and addresses are stored in fixed
+ * width columns, numbers as variable length integers, and log addresses and event signatures
+ * (topic 0) are dictionary encoded.
+ */
+public class ChainExporter {
+
+    public static final String BLOCKS_FILE = "blocks.w3jc";
+    public static final String TRANSACTIONS_FILE = "transactions.w3jc";
+    public static final String LOGS_FILE = "logs.w3jc";
+
+    private static final int HASH_WIDTH = 32;
+    private static final int ADDRESS_WIDTH = 20;
+    private static final int TOPIC_COUNT = 4;
+
+    private final Web3j web3j;
+    private final Path directory;
+    private final int rowGroupSize;
+
+    public ChainExporter(Web3j web3j, Path directory) {
+        this(web3j, directory, ColumnarWriter.DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    public ChainExporter(Web3j web3j, Path directory, int rowGroupSize) {
+        this.web3j = web3j;
+        this.directory = directory;
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    /**
+     * Export the blocks, transactions and logs of a range of blocks.
+     *
+     * @param startBlock first block to export
+     * @param endBlock last block to export
+     * @throws IOException if the export files could not be written
+     */
+    public void export(DefaultBlockParameter startBlock, DefaultBlockParameter endBlock)
+            throws IOException {
+        exportBlocks(web3j.replayPastBlocksFlowable(startBlock, endBlock, true));
+        exportLogs(
+                web3j.replayPastLogsFlowable(
+                        new EthFilter(startBlock, endBlock, Collections.<String>emptyList())));
+    }
+
+    /**
+     * Export blocks to {@link #BLOCKS_FILE} and their transactions to {@link #TRANSACTIONS_FILE}.
+     *
+     * @param blocks blocks with full transaction objects
+     * @return the number of blocks exported
+     * @throws IOException if the export files could not be written
+     */
+    public long exportBlocks(Flowable<EthBlock> blocks) throws IOException {
+        Files.createDirectories(directory);
+        try (BlockTable blockTable = new BlockTable(directory.resolve(BLOCKS_FILE));
+                TransactionTable transactionTable =
+                        new TransactionTable(directory.resolve(TRANSACTIONS_FILE))) {
+            for (EthBlock ethBlock : blocks.blockingIterable()) {
+                EthBlock.Block block = ethBlock.getBlock();
+                if (block == null) {
+                    continue;
+                }
+                List<EthBlock.TransactionResult> transactions =
+                        block.getTransactions() == null
+                                ? Collections.emptyList()
+                                : block.getTransactions();
+                blockTable.add(block, transactions.size());
+                for (EthBlock.TransactionResult result : transactions) {
+                    if (!(result instanceof EthBlock.TransactionObject)) {
+                        throw new IllegalArgumentException(
+                                "Blocks must contain full transaction objects");
+                    }
+                    transactionTable.add((Transaction) result.get());
+                }
+            }
+            return blockTable.writer.getRowCount();
+        }
+    }
+
+    /**
+     * Export logs to {@link #LOGS_FILE}.
+     *
+     * @param logs logs to export
+     * @return the number of logs exported
+     * @throws IOException if the export file could not be written
+     */
+    public long exportLogs(Flowable<Log> logs) throws IOException {
+        Files.createDirectories(directory);
+        try (LogTable logTable = new LogTable(directory.resolve(LOGS_FILE))) {
+            for (Log log : logs.blockingIterable()) {
+                logTable.add(log);
+            }
+            return logTable.writer.getRowCount();
+        }
+    }
+
+    private abstract class Table implements AutoCloseable {
+
+        final ColumnarWriter writer;
+
+        Table(Path file) throws IOException {
+            writer = new ColumnarWriter(file, rowGroupSize);
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private class BlockTable extends Table {
+
+        private final VarLongColumn number = writer.varLongColumn("number");
+        private final FixedWidthColumn hash = writer.fixedWidthColumn("hash", HASH_WIDTH);
+        private final FixedWidthColumn parentHash =
+                writer.fixedWidthColumn("parentHash", HASH_WIDTH);
+        private final VarLongColumn timestamp = writer.varLongColumn("timestamp");
+        private final FixedWidthColumn miner = writer.fixedWidthColumn("miner", ADDRESS_WIDTH);
+        private final VarLongColumn gasLimit = writer.varLongColumn("gasLimit");
+        private final VarLongColumn gasUsed = writer.varLongColumn("gasUsed");
+        private final BytesColumn baseFeePerGas = writer.bytesColumn("baseFeePerGas");
+        private final VarLongColumn transactionCount = writer.varLongColumn("transactionCount");
+
+        BlockTable(Path file) throws IOException {
+            super(file);
+        }
+
+        void add(EthBlock.Block block, int transactions) throws IOException {
+            number.add(block.getNumberRaw());
+            hash.add(block.getHash());
+            parentHash.add(block.getParentHash());
+            timestamp.add(block.getTimestampRaw());
+            miner.add(block.getMiner());
+            gasLimit.add(block.getGasLimitRaw());
+            gasUsed.add(block.getGasUsedRaw());
+            baseFeePerGas.addQuantity(block.getBaseFeePerGasRaw());
+            transactionCount.add(transactions);
+            writer.endRow();
+        }
+    }
+
+    private class TransactionTable extends Table {
+
+        private final VarLongColumn blockNumber = writer.varLongColumn("blockNumber");
+        private final VarLongColumn transactionIndex = writer.varLongColumn("transactionIndex");
+        private final FixedWidthColumn hash = writer.fixedWidthColumn("hash", HASH_WIDTH);
+        private final FixedWidthColumn from = writer.fixedWidthColumn("from", ADDRESS_WIDTH);
+        private final FixedWidthColumn to = writer.fixedWidthColumn("to", ADDRESS_WIDTH);
+        private final VarLongColumn nonce = writer.varLongColumn("nonce");
+        private final BytesColumn value = writer.bytesColumn("value");
+        private final VarLongColumn gas = writer.varLongColumn("gas");
+        private final BytesColumn gasPrice = writer.bytesColumn("gasPrice");
+        private final BytesColumn input = writer.bytesColumn("input");
+
+        TransactionTable(Path file) throws IOException {
+            super(file);
+        }
+
+        void add(Transaction transaction) throws IOException {
+            blockNumber.add(transaction.getBlockNumberRaw());
+            transactionIndex.add(transaction.getTransactionIndexRaw());
+            hash.add(transaction.getHash());
+            from.add(transaction.getFrom());
+            to.add(transaction.getTo());
+            nonce.add(transaction.getNonceRaw());
+            value.addQuantity(transaction.getValueRaw());
+            gas.add(transaction.getGasRaw());
+            gasPrice.addQuantity(transaction.getGasPriceRaw());
+            input.add(transaction.getInput());
+            writer.endRow();
+        }
+    }
+
+    private class LogTable extends Table {
+
+        private final VarLongColumn blockNumber = writer.varLongColumn("blockNumber");
+        private final VarLongColumn transactionIndex = writer.varLongColumn("transactionIndex");
+        private final VarLongColumn logIndex = writer.varLongColumn("logIndex");
+        private final FixedWidthColumn transactionHash =
+                writer.fixedWidthColumn("transactionHash", HASH_WIDTH);
+        private final DictionaryColumn address =
+                writer.dictionaryColumn("address", ADDRESS_WIDTH);
+        private final DictionaryColumn topic0 = writer.dictionaryColumn("topic0", HASH_WIDTH);
+        private final FixedWidthColumn[] topics = new FixedWidthColumn[TOPIC_COUNT - 1];
+        private final BytesColumn data;
+
+        LogTable(Path file) throws IOException {
+            super(file);
+            for (int i = 1; i < TOPIC_COUNT; i++) {
+                topics[i - 1] = writer.fixedWidthColumn("topic" + i, HASH_WIDTH);
+            }
+            data = writer.bytesColumn("data");
+        }
+
+        void add(Log log) throws IOException {
+            List<String> logTopics = log.getTopics();
+            int topicCount = logTopics == null ? 0 : logTopics.size();
+
+            blockNumber.add(log.getBlockNumberRaw());
+            transactionIndex.add(log.getTransactionIndexRaw());
+            logIndex.add(log.getLogIndexRaw());
+            transactionHash.add(log.getTransactionHash());
+            address.add(log.getAddress());
+            topic0.add(topicCount > 0 ? logTopics.get(0) : null);
+            for (int i = 1; i < TOPIC_COUNT; i++) {
+                topics[i - 1].add(topicCount > i ? logTopics.get(i) : null);
+            }
+            data.add(log.getData());
+            writer.endRow();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A column of a {@link ColumnarWriter}. Values are buffered until the row group they belong to is
+ * written, after which the column is reset.
+ */
+public abstract class Column {
+
+    private final String name;
+    private final ColumnType type;
+    private final int width;
+    private final BitSet nulls = new BitSet();
+    private int size;
+
+    Column(String name, ColumnType type, int width) {
+        this.name = name;
+        this.type = type;
+        this.width = width;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    /** @return the width of fixed width values, or zero for variable length values */
+    public int getWidth() {
+        return width;
+    }
+
+    public void addNull() {
+        nulls.set(size++);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void added() {
+        size++;
+    }
+
+    void writeTo(DataOutputStream out) throws IOException {
+        if (nulls.isEmpty()) {
+            out.writeByte(0);
+        } else {
+            out.writeByte(1);
+            out.write(Arrays.copyOf(nulls.toByteArray(), (size + 7) / 8));
+        }
+        writeValues(out);
+    }
+
+    void reset() {
+        nulls.clear();
+        size = 0;
+        resetValues();
+    }
+
+    abstract void writeValues(DataOutputStream out) throws IOException;
+
+    abstract void resetValues();
+}
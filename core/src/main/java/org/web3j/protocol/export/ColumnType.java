@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+/** Encodings of the columns in a columnar export file. */
+public enum ColumnType {
+    /** Values of a fixed number of bytes, such as hashes and addresses. */
+    FIXED_WIDTH((byte) 1),
+    /** Non-negative numbers, stored as unsigned variable length integers. */
+    VAR_LONG((byte) 2),
+    /** Byte arrays of any length, each prefixed with its length. */
+    BYTES((byte) 3),
+    /** Fixed width values, stored as indexes into a per row group dictionary. */
+    DICTIONARY((byte) 4);
+
+    private final byte id;
+
+    ColumnType(byte id) {
+        this.id = id;
+    }
+
+    byte getId() {
+        return id;
+    }
+
+    static ColumnType fromId(byte id) {
+        for (ColumnType type : values()) {
+            if (type.id == id) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column type: " + id);
+    }
+}
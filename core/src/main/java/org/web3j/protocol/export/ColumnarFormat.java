@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of columnar export files.
+ *
+ * <p>A file starts with {@link #MAGIC}, a version byte and the column definitions: the column
+ * count, followed by the type, width and name of each column. Row groups follow, each starting
+ * with its row count and holding one length prefixed chunk per column, so that readers can skip
+ * the columns they do not need. A row count of zero marks the end of the file.
+ *
+ * <p>Every column chunk starts with a flag byte which is set if the chunk contains null values,
+ * in which case a bitmap of the null rows follows. Only non-null values are encoded.
+ */
+final class ColumnarFormat {
+
+    static final byte[] MAGIC = {'W', '3', 'J', 'C'};
+    static final byte VERSION = 1;
+
+    private ColumnarFormat() {}
+
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative values cannot be encoded: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /** Write a variable length integer to the in-memory buffer of a column. */
+    static void writeVarLong(ByteArrayOutputStream buffer, long value) {
+        try {
+            writeVarLong((OutputStream) buffer, value);
+        } catch (IOException e) {
+            // ByteArrayOutputStream does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static long readVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalStateException("Malformed variable length integer");
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a file written by {@link ColumnarWriter}, one row group at a time. Only the columns which
+ * are read are loaded from the file.
+ *
+ * <pre>
+ * try (ColumnarReader reader = new ColumnarReader(path)) {
+ *     while (reader.nextRowGroup()) {
+ *         long[] blockNumbers = reader.readLongs("blockNumber");
+ *         ...
+ *     }
+ * }
+ * </pre>
+ */
+public class ColumnarReader implements Closeable {
+
+    private final FileChannel channel;
+    private final DataInputStream in;
+    private final List<String> names = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private final ColumnType[] types;
+    private final int[] widths;
+    private final long[] chunkOffsets;
+    private final int[] chunkLengths;
+
+    private int rowCount = -1;
+
+    public ColumnarReader(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.READ);
+        // The stream reads directly from the channel, so the channel position follows it
+        in = new DataInputStream(Channels.newInputStream(channel));
+        try {
+            byte[] magic = new byte[ColumnarFormat.MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, ColumnarFormat.MAGIC)) {
+                throw new IOException("Not a columnar export file: " + file);
+            }
+            byte version = in.readByte();
+            if (version != ColumnarFormat.VERSION) {
+                throw new IOException("Unsupported columnar export version: " + version);
+            }
+
+            int columnCount = in.readInt();
+            types = new ColumnType[columnCount];
+            widths = new int[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                types[i] = ColumnType.fromId(in.readByte());
+                widths[i] = in.readInt();
+                byte[] name = new byte[in.readUnsignedShort()];
+                in.readFully(name);
+                names.add(new String(name, StandardCharsets.UTF_8));
+                indexes.put(names.get(i), i);
+            }
+            chunkOffsets = new long[columnCount];
+            chunkLengths = new int[columnCount];
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public List<String> getColumnNames() {
+        return Collections.unmodifiableList(names);
+    }
+
+    public ColumnType getColumnType(String column) {
+        return types[indexOf(column)];
+    }
+
+    /**
+     * Advance to the next row group.
+     *
+     * @return false if there are no more row groups
+     * @throws IOException if the row group could not be read
+     */
+    public boolean nextRowGroup() throws IOException {
+        int rows = in.readInt();
+        if (rows == 0) {
+            rowCount = -1;
+            return false;
+        }
+        for (int i = 0; i < types.length; i++) {
+            chunkLengths[i] = in.readInt();
+            chunkOffsets[i] = channel.position();
+            channel.position(chunkOffsets[i] + chunkLengths[i]);
+        }
+        rowCount = rows;
+        return true;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Read the null rows of a column in the current row group.
+     *
+     * @param column column name
+     * @return the indexes of the rows which are null
+     * @throws IOException if the column could not be read
+     */
+    public BitSet readNulls(String column) throws IOException {
+        return readNulls(readChunk(indexOf(column)));
+    }
+
+    /**
+     * Read a {@link ColumnType#VAR_LONG} column of the current row group. Null rows are read as
+     * zero, see {@link #readNulls(String)}.
+     *
+     * @param column column name
+     * @return the value of every row
+     * @throws IOException if the column could not be read
+     */
+    public long[] readLongs(String column) throws IOException {
+        int index = indexOf(column);
+        if (types[index] != ColumnType.VAR_LONG) {
+            throw new IllegalArgumentException("Not a numeric column: " + column);
+        }
+        ByteBuffer chunk = readChunk(index);
+        BitSet nulls = readNulls(chunk);
+        long[] values = new long[rowCount];
+        for (int i = 0; i < rowCount; i++) {
+            if (!nulls.get(i)) {
+                values[i] = ColumnarFormat.readVarLong(chunk);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Read a {@link ColumnType#FIXED_WIDTH}, {@link ColumnType#BYTES} or {@link
+     * ColumnType#DICTIONARY} column of the current row group. Rows of a dictionary column with the
+     * same value share the same array.
+     *
+     * @param column column name
+     * @return the value of every row, null for null rows
+     * @throws IOException if the column could not be read
+     */
+    public byte[][] readBytes(String column) throws IOException {
+        int index = indexOf(column);
+        ColumnType type = types[index];
+        if (type == ColumnType.VAR_LONG) {
+            throw new IllegalArgumentException("Numeric column: " + column);
+        }
+        ByteBuffer chunk = readChunk(index);
+        BitSet nulls = readNulls(chunk);
+
+        byte[][] dictionary = null;
+        if (type == ColumnType.DICTIONARY) {
+            dictionary = new byte[(int) ColumnarFormat.readVarLong(chunk)][];
+            for (int i = 0; i < dictionary.length; i++) {
+                dictionary[i] = read(chunk, widths[index]);
+            }
+        }
+
+        byte[][] values = new byte[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            if (nulls.get(i)) {
+                continue;
+            }
+            switch (type) {
+                case FIXED_WIDTH:
+                    values[i] = read(chunk, widths[index]);
+                    break;
+                case BYTES:
+                    values[i] = read(chunk, (int) ColumnarFormat.readVarLong(chunk));
+                    break;
+                default:
+                    values[i] = dictionary[(int) ColumnarFormat.readVarLong(chunk)];
+            }
+        }
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int indexOf(String column) {
+        Integer index = indexes.get(column);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown column: " + column);
+        }
+        return index;
+    }
+
+    private ByteBuffer readChunk(int index) throws IOException {
+        if (rowCount < 0) {
+            throw new IllegalStateException("No current row group");
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(chunkLengths[index]);
+        long position = chunkOffsets[index];
+        while (chunk.hasRemaining()) {
+            int read = channel.read(chunk, position);
+            if (read < 0) {
+                throw new EOFException("Truncated column: " + names.get(index));
+            }
+            position += read;
+        }
+        chunk.flip();
+        return chunk;
+    }
+
+    private BitSet readNulls(ByteBuffer chunk) {
+        if (chunk.get() == 0) {
+            return new BitSet();
+        }
+        return BitSet.valueOf(read(chunk, (rowCount + 7) / 8));
+    }
+
+    private static byte[] read(ByteBuffer chunk, int length) {
+        byte[] value = new byte[length];
+        chunk.get(value);
+        return value;
+    }
+}
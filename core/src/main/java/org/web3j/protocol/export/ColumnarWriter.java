@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a table to a columnar file, in row groups of a bounded number of rows.
+ *
+ * <p>Columns are defined before the first row is written. A row is written by adding one value,
+ * or null, to every column and then calling {@link #endRow()}. Only the current row group is held
+ * in memory, so tables of any size can be written.
+ *
+ * @see ColumnarReader
+ */
+public class ColumnarWriter implements Closeable {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 64 * 1024;
+
+    private final DataOutputStream out;
+    private final int rowGroupSize;
+    private final List<Column> columns = new ArrayList<>();
+    private final ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+
+    private boolean headerWritten;
+    private int rowGroupRows;
+    private long rowCount;
+
+    public ColumnarWriter(Path file) throws IOException {
+        this(file, DEFAULT_ROW_GROUP_SIZE);
+    }
+
+    public ColumnarWriter(Path file, int rowGroupSize) throws IOException {
+        if (rowGroupSize <= 0) {
+            throw new IllegalArgumentException("Invalid row group size: " + rowGroupSize);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        this.rowGroupSize = rowGroupSize;
+    }
+
+    public FixedWidthColumn fixedWidthColumn(String name, int width) {
+        return addColumn(new FixedWidthColumn(name, width));
+    }
+
+    public VarLongColumn varLongColumn(String name) {
+        return addColumn(new VarLongColumn(name));
+    }
+
+    public BytesColumn bytesColumn(String name) {
+        return addColumn(new BytesColumn(name));
+    }
+
+    public DictionaryColumn dictionaryColumn(String name, int width) {
+        return addColumn(new DictionaryColumn(name, width));
+    }
+
+    /**
+     * Complete the current row, writing the row group once it is full.
+     *
+     * @throws IOException if the row group could not be written
+     */
+    public void endRow() throws IOException {
+        for (Column column : columns) {
+            if (column.size() != rowGroupRows + 1) {
+                throw new IllegalStateException(
+                        "Column "
+                                + column.getName()
+                                + " has "
+                                + column.size()
+                                + " values, expected "
+                                + (rowGroupRows + 1));
+            }
+        }
+        rowGroupRows++;
+        rowCount++;
+        if (rowGroupRows == rowGroupSize) {
+            writeRowGroup();
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowGroupRows > 0) {
+                writeRowGroup();
+            }
+            writeHeader();
+            out.writeInt(0);
+        } finally {
+            out.close();
+        }
+    }
+
+    private <T extends Column> T addColumn(T column) {
+        if (headerWritten || rowGroupRows > 0) {
+            throw new IllegalStateException("Columns must be defined before rows are written");
+        }
+        columns.add(column);
+        return column;
+    }
+
+    private void writeRowGroup() throws IOException {
+        writeHeader();
+        out.writeInt(rowGroupRows);
+        for (Column column : columns) {
+            chunk.reset();
+            column.writeTo(new DataOutputStream(chunk));
+            out.writeInt(chunk.size());
+            chunk.writeTo(out);
+            column.reset();
+        }
+        rowGroupRows = 0;
+    }
+
+    private void writeHeader() throws IOException {
+        if (headerWritten) {
+            return;
+        }
+        out.write(ColumnarFormat.MAGIC);
+        out.writeByte(ColumnarFormat.VERSION);
+        out.writeInt(columns.size());
+        for (Column column : columns) {
+            byte[] name = column.getName().getBytes(StandardCharsets.UTF_8);
+            out.writeByte(column.getType().getId());
+            out.writeInt(column.getWidth());
+            out.writeShort(name.length);
+            out.write(name);
+        }
+        headerWritten = true;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.web3j.utils.Numeric;
+
+/**
+ * Column of fixed width values that repeat often, such as contract addresses and event
+ * signatures. Each row group stores the distinct values once, followed by an index into them for
+ * every row.
+ */
+public final class DictionaryColumn extends Column {
+
+    private final List<byte[]> dictionary = new ArrayList<>();
+    private final Map<ByteBuffer, Integer> indexes = new HashMap<>();
+    private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+
+    DictionaryColumn(String name, int width) {
+        super(name, ColumnType.DICTIONARY, width);
+    }
+
+    /**
+     * Add a hex encoded value, which is left padded with zeros to the column width.
+     *
+     * @param hexValue hex encoded value, or null
+     */
+    public void add(String hexValue) {
+        if (hexValue == null) {
+            addNull();
+        } else {
+            add(Numeric.hexStringToByteArray(hexValue));
+        }
+    }
+
+    public void add(byte[] value) {
+        byte[] padded = FixedWidthColumn.padded(value, getWidth());
+        Integer index = indexes.get(ByteBuffer.wrap(padded));
+        if (index == null) {
+            byte[] entry = padded.clone();
+            index = dictionary.size();
+            dictionary.add(entry);
+            indexes.put(ByteBuffer.wrap(entry), index);
+        }
+        ColumnarFormat.writeVarLong(values, index);
+        added();
+    }
+
+    @Override
+    void writeValues(DataOutputStream out) throws IOException {
+        ColumnarFormat.writeVarLong(out, dictionary.size());
+        for (byte[] value : dictionary) {
+            out.write(value);
+        }
+        values.writeTo(out);
+    }
+
+    @Override
+    void resetValues() {
+        dictionary.clear();
+        indexes.clear();
+        values.reset();
+    }
+}
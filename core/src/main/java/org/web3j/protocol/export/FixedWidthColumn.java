@@ -0,0 +1,70 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.web3j.utils.Numeric;
+
+/** Column of fixed width values, such as hashes and addresses. */
+public final class FixedWidthColumn extends Column {
+
+    private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+
+    FixedWidthColumn(String name, int width) {
+        super(name, ColumnType.FIXED_WIDTH, width);
+    }
+
+    /**
+     * Add a hex encoded value, which is left padded with zeros to the column width.
+     *
+     * @param hexValue hex encoded value, or null
+     */
+    public void add(String hexValue) {
+        if (hexValue == null) {
+            addNull();
+        } else {
+            add(Numeric.hexStringToByteArray(hexValue));
+        }
+    }
+
+    public void add(byte[] value) {
+        values.write(padded(value, getWidth()), 0, getWidth());
+        added();
+    }
+
+    @Override
+    void writeValues(DataOutputStream out) throws IOException {
+        values.writeTo(out);
+    }
+
+    @Override
+    void resetValues() {
+        values.reset();
+    }
+
+    static byte[] padded(byte[] value, int width) {
+        if (value.length == width) {
+            return value;
+        }
+        if (value.length > width) {
+            throw new IllegalArgumentException(
+                    "Value of " + value.length + " bytes exceeds column width of " + width);
+        }
+        byte[] result = new byte[width];
+        System.arraycopy(value, 0, result, width - value.length, value.length);
+        return result;
+    }
+}
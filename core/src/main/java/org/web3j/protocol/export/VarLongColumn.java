@@ -0,0 +1,58 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.web3j.utils.Numeric;
+
+/** Column of non-negative numbers, such as block numbers, timestamps and gas amounts. */
+public final class VarLongColumn extends Column {
+
+    private final ByteArrayOutputStream values = new ByteArrayOutputStream();
+
+    VarLongColumn(String name) {
+        super(name, ColumnType.VAR_LONG, 0);
+    }
+
+    /**
+     * Add a hex encoded quantity, as returned by nodes.
+     *
+     * @param quantity hex encoded quantity, or null
+     * @throws ArithmeticException if the quantity does not fit in a long
+     */
+    public void add(String quantity) {
+        if (quantity == null) {
+            addNull();
+        } else {
+            add(Numeric.decodeQuantity(quantity).longValueExact());
+        }
+    }
+
+    public void add(long value) {
+        ColumnarFormat.writeVarLong(values, value);
+        added();
+    }
+
+    @Override
+    void writeValues(DataOutputStream out) throws IOException {
+        values.writeTo(out);
+    }
+
+    @Override
+    void resetValues() {
+        values.reset();
+    }
+}
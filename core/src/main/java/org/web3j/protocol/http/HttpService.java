@@ -12,9 +12,9 @@
  */
 package org.web3j.protocol.http;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.web3j.protocol.Service;
+import org.web3j.protocol.deserializer.RawResponseInputStream;
 import org.web3j.protocol.exceptions.ClientConnectionException;
 
 import static okhttp3.ConnectionSpec.CLEARTEXT;
@@ -149,29 +150,56 @@ public class HttpService extends Service {
 
     @Override
     protected InputStream performIO(String request) throws IOException {
+        return performIO(request.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    protected InputStream performIO(byte[] request) throws IOException {
+        try (okhttp3.Response response = execute(request)) {
+            ResponseBody responseBody = response.body();
+            if (responseBody != null) {
+                return buildInputStream(responseBody);
+            } else {
+                return null;
+            }
+        }
+    }
 
+    @Override
+    protected InputStream performStreamingIO(byte[] request) throws IOException {
+        okhttp3.Response response = execute(request);
+        ResponseBody responseBody = response.body();
+        if (responseBody != null) {
+            // Closing the stream releases the response and its underlying connection
+            return responseBody.byteStream();
+        } else {
+            response.close();
+            return null;
+        }
+    }
+
+    private okhttp3.Response execute(byte[] request) throws IOException {
         RequestBody requestBody = RequestBody.create(request, JSON_MEDIA_TYPE);
         Headers headers = buildHeaders();
 
         okhttp3.Request httpRequest =
                 new okhttp3.Request.Builder().url(url).headers(headers).post(requestBody).build();
 
-        try (okhttp3.Response response = httpClient.newCall(httpRequest).execute()) {
+        okhttp3.Response response = httpClient.newCall(httpRequest).execute();
+        try {
             processHeaders(response.headers());
-            ResponseBody responseBody = response.body();
-            if (response.isSuccessful()) {
-                if (responseBody != null) {
-                    return buildInputStream(responseBody);
-                } else {
-                    return null;
-                }
-            } else {
+            if (!response.isSuccessful()) {
+                ResponseBody responseBody = response.body();
                 int code = response.code();
                 String text = responseBody == null ? "N/A" : responseBody.string();
 
                 throw new ClientConnectionException(
-                        "Invalid response received: " + code + "; " + text);
+                        "Invalid response received: " + code + "; " + text, code);
             }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
         }
     }
 
@@ -180,7 +208,7 @@ public class HttpService extends Service {
     }
 
     private InputStream buildInputStream(ResponseBody responseBody) throws IOException {
-        return new ByteArrayInputStream(responseBody.bytes());
+        return new RawResponseInputStream(responseBody.bytes());
     }
 
     private Headers buildHeaders() {
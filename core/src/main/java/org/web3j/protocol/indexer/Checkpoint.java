@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.indexer;
+
+import java.util.Objects;
+
+/** The last block which has been fully processed by a {@link LogIndexer}. */
+public class Checkpoint {
+
+    private final long blockNumber;
+    private final String blockHash;
+
+    public Checkpoint(long blockNumber, String blockHash) {
+        this.blockNumber = blockNumber;
+        this.blockHash = blockHash;
+    }
+
+    public long getBlockNumber() {
+        return blockNumber;
+    }
+
+    public String getBlockHash() {
+        return blockHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Checkpoint)) {
+            return false;
+        }
+        Checkpoint that = (Checkpoint) o;
+        return blockNumber == that.blockNumber && Objects.equals(blockHash, that.blockHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(blockNumber, blockHash);
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint{"
+                + "blockNumber="
+                + blockNumber
+                + ", blockHash='"
+                + blockHash
+                + '\''
+                + '}';
+    }
+}
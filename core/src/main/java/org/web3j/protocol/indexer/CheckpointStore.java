@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.indexer;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/** Persists the progress of a {@link LogIndexer}, so that it can resume after a restart. */
+public interface CheckpointStore {
+
+    /**
+     * Load the last saved checkpoint.
+     *
+     * @return the checkpoint, or empty if none has been saved
+     * @throws IOException if the checkpoint could not be read
+     */
+    Optional<Checkpoint> load() throws IOException;
+
+    /**
+     * Save a checkpoint, replacing the previous one.
+     *
+     * @param checkpoint checkpoint to save
+     * @throws IOException if the checkpoint could not be written
+     */
+    void save(Checkpoint checkpoint) throws IOException;
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.indexer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+/**
+ * Stores a checkpoint in a local file, as the block number and hash separated by a space. The file
+ * is replaced atomically, so a crash while saving leaves the previous checkpoint intact.
+ */
+public class FileCheckpointStore implements CheckpointStore {
+
+    private final Path file;
+    private final Path temporaryFile;
+
+    public FileCheckpointStore(Path file) {
+        this.file = file;
+        this.temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    @Override
+    public Optional<Checkpoint> load() throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim();
+        String[] fields = content.split(" ");
+        if (fields.length != 2) {
+            throw new IOException("Invalid checkpoint in " + file + ": " + content);
+        }
+        try {
+            return Optional.of(new Checkpoint(Long.parseLong(fields[0]), fields[1]));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid checkpoint in " + file + ": " + content, e);
+        }
+    }
+
+    @Override
+    public void save(Checkpoint checkpoint) throws IOException {
+        String content = checkpoint.getBlockNumber() + " " + checkpoint.getBlockHash();
+        Files.write(temporaryFile, content.getBytes(StandardCharsets.UTF_8));
+        Files.move(
+                temporaryFile,
+                file,
+                StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
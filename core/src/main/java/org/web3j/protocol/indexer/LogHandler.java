@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.indexer;
+
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+
+/** Processes the logs delivered by a {@link LogIndexer}. */
+public interface LogHandler {
+
+    /**
+     * Process a log. Logs are delivered in block order, but may be delivered again after a
+     * restart, so processing should be idempotent.
+     *
+     * @param log log matching the indexer filter
+     * @throws Exception if the log could not be processed, which stops the indexer
+     */
+    void onLog(Log log) throws Exception;
+
+    /**
+     * Called when a block whose logs have been delivered is removed from the canonical chain.
+     *
+     * <p>When the indexer resumes from a checkpoint which is no longer canonical, the blocks it
+     * rewinds over are rolled back, in descending order, before they are indexed again. Only the
+     * number of these blocks is known, and the hash of the checkpointed block.
+     *
+     * @param block the block which has been rolled back
+     * @throws Exception if the rollback could not be processed, which stops the indexer
+     */
+    default void onRollback(EthBlock.Block block) throws Exception {}
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.indexer;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.reactivex.Flowable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.exceptions.JsonRpcError;
+import org.web3j.protocol.rx.BlockEvent;
+import org.web3j.protocol.rx.BlockNumbers;
+import org.web3j.protocol.rx.CanonicalChainTracker;
+import org.web3j.utils.Numeric;
+
+/**
+ * Delivers the logs matching a filter to a {@link LogHandler}, from the filter's start block to
+ * the latest block and then as new blocks are created, saving its progress to a {@link
+ * CheckpointStore}.
+ *
+ * <p>Blocks up to the current head, less the confirmation depth, are backfilled with {@link
+ * Web3j#replayPastLogsFlowable(EthFilter)}. New blocks are then followed with {@link
+ * Web3j#replayPastAndFutureCanonicalBlocksFlowable(DefaultBlockParameter, boolean, int)}, which
+ * reports chain reorganisations to {@link LogHandler#onRollback(EthBlock.Block)}.
+ *
+ * <p>A checkpoint is saved once all the logs of a block have been processed, so on restart the
+ * indexer resumes after the last fully processed block and delivery is at-least-once. If the
+ * checkpointed block is no longer canonical, the indexer rolls back the blocks after the previous
+ * {@link CanonicalChainTracker#DEFAULT_DEPTH} blocks and re-indexes from there.
+ */
+public class LogIndexer {
+
+    public static final int DEFAULT_CONFIRMATIONS = 12;
+
+    private static final Logger log = LoggerFactory.getLogger(LogIndexer.class);
+
+    private final Web3j web3j;
+    private final EthFilter ethFilter;
+    private final CheckpointStore checkpointStore;
+    private final int confirmations;
+
+    public LogIndexer(Web3j web3j, EthFilter ethFilter, CheckpointStore checkpointStore) {
+        this(web3j, ethFilter, checkpointStore, DEFAULT_CONFIRMATIONS);
+    }
+
+    /**
+     * @param web3j web3j instance
+     * @param ethFilter filter criteria, the from block is used when there is no checkpoint and the
+     *     to block is ignored
+     * @param checkpointStore store for the indexer progress
+     * @param confirmations number of blocks which must be built on a block before its logs are
+     *     delivered
+     */
+    public LogIndexer(
+            Web3j web3j, EthFilter ethFilter, CheckpointStore checkpointStore, int confirmations) {
+        if (ethFilter.getBlockHash() != null) {
+            throw new IllegalArgumentException("Filter must not specify a block hash");
+        }
+        this.web3j = web3j;
+        this.ethFilter = ethFilter;
+        this.checkpointStore = checkpointStore;
+        this.confirmations = confirmations;
+    }
+
+    /**
+     * Create a {@link Flowable} instance which runs the indexer while subscribed to.
+     *
+     * @param handler handler to deliver logs to
+     * @return a {@link Flowable} instance that emits each checkpoint once it has been saved
+     */
+    public Flowable<Checkpoint> index(LogHandler handler) {
+        return Flowable.defer(
+                () -> {
+                    long startBlock = resumeBlock(handler);
+                    long safeHead =
+                            getBlockNumber(DefaultBlockParameterName.LATEST) - confirmations;
+                    long followBlock = Math.max(startBlock, safeHead + 1);
+
+                    Flowable<Checkpoint> backfill =
+                            startBlock <= safeHead
+                                    ? backfill(startBlock, safeHead, handler)
+                                    : Flowable.empty();
+                    return backfill.concatWith(
+                            Flowable.defer(() -> follow(followBlock, handler)));
+                });
+    }
+
+    private long resumeBlock(LogHandler handler) throws Exception {
+        Optional<Checkpoint> checkpoint = checkpointStore.load();
+        if (!checkpoint.isPresent()) {
+            return ethFilter.getFromBlock() == null
+                    ? 0
+                    : getBlockNumber(ethFilter.getFromBlock());
+        }
+
+        long blockNumber = checkpoint.get().getBlockNumber();
+        EthBlock.Block block =
+                web3j.ethGetBlockByNumber(new DefaultBlockParameterNumber(blockNumber), false)
+                        .send()
+                        .getBlock();
+        // A missing block means the chain is now shorter than the checkpoint, so the checkpoint
+        // is not canonical either
+        if (block != null && block.getHash().equals(checkpoint.get().getBlockHash())) {
+            return blockNumber + 1;
+        }
+
+        long rewindBlock = Math.max(0, blockNumber - CanonicalChainTracker.DEFAULT_DEPTH);
+        log.warn(
+                "Checkpoint {} is no longer canonical, resuming from block {}",
+                checkpoint.get(),
+                rewindBlock);
+        for (long rolledBack = blockNumber; rolledBack > rewindBlock; rolledBack--) {
+            handler.onRollback(
+                    rolledBackBlock(
+                            rolledBack,
+                            rolledBack == blockNumber ? checkpoint.get().getBlockHash() : null));
+        }
+        return rewindBlock;
+    }
+
+    private static EthBlock.Block rolledBackBlock(long blockNumber, String blockHash) {
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber(Numeric.encodeQuantity(BigInteger.valueOf(blockNumber)));
+        block.setHash(blockHash);
+        return block;
+    }
+
+    private Flowable<Checkpoint> backfill(long fromBlock, long toBlock, LogHandler handler) {
+        EthFilter rangeFilter =
+                new EthFilter(
+                        new DefaultBlockParameterNumber(fromBlock),
+                        new DefaultBlockParameterNumber(toBlock),
+                        ethFilter.getAddress());
+        rangeFilter.getTopics().addAll(ethFilter.getTopics());
+
+        return Flowable.defer(
+                () -> {
+                    // The block of the previous log, which is complete once a log of a later
+                    // block is seen
+                    AtomicReference<Checkpoint> pending = new AtomicReference<>();
+                    return web3j.replayPastLogsFlowable(rangeFilter)
+                            .concatMapIterable(
+                                    backfilledLog -> {
+                                        List<Checkpoint> saved = new ArrayList<>(1);
+                                        long blockNumber =
+                                                backfilledLog.getBlockNumber().longValueExact();
+                                        Checkpoint previous = pending.get();
+                                        if (previous != null
+                                                && previous.getBlockNumber() != blockNumber) {
+                                            saved.add(save(previous));
+                                        }
+                                        handler.onLog(backfilledLog);
+                                        pending.set(
+                                                new Checkpoint(
+                                                        blockNumber,
+                                                        backfilledLog.getBlockHash()));
+                                        return saved;
+                                    })
+                            .concatWith(Flowable.fromCallable(() -> save(checkpoint(toBlock))));
+                });
+    }
+
+    private Flowable<Checkpoint> follow(long fromBlock, LogHandler handler) {
+        return web3j.replayPastAndFutureCanonicalBlocksFlowable(
+                        new DefaultBlockParameterNumber(fromBlock), false, confirmations)
+                .map(event -> process(event, handler));
+    }
+
+    private Checkpoint process(BlockEvent event, LogHandler handler) throws Exception {
+        EthBlock.Block block = event.getBlock();
+        long blockNumber = block.getNumber().longValueExact();
+
+        if (event.getType() == BlockEvent.Type.ROLLBACK) {
+            handler.onRollback(block);
+            return save(new Checkpoint(blockNumber - 1, block.getParentHash()));
+        }
+
+        EthFilter blockFilter = new EthFilter(block.getHash(), ethFilter.getAddress());
+        blockFilter.getTopics().addAll(ethFilter.getTopics());
+        EthLog ethLog = web3j.ethGetLogs(blockFilter).send();
+        if (ethLog.hasError()) {
+            throw new JsonRpcError(ethLog.getError());
+        }
+        for (EthLog.LogResult result : ethLog.getLogs()) {
+            handler.onLog((Log) result.get());
+        }
+        return save(new Checkpoint(blockNumber, block.getHash()));
+    }
+
+    private Checkpoint checkpoint(long blockNumber) throws IOException {
+        EthBlock.Block block =
+                web3j.ethGetBlockByNumber(new DefaultBlockParameterNumber(blockNumber), false)
+                        .send()
+                        .getBlock();
+        if (block == null) {
+            throw new IOException("Block not found: " + blockNumber);
+        }
+        return new Checkpoint(blockNumber, block.getHash());
+    }
+
+    private Checkpoint save(Checkpoint checkpoint) throws IOException {
+        checkpointStore.save(checkpoint);
+        return checkpoint;
+    }
+
+    private long getBlockNumber(DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return BlockNumbers.resolve(web3j, defaultBlockParameter).longValueExact();
+    }
+}
@@ -12,14 +12,15 @@
  */
 package org.web3j.protocol.ipc;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.web3j.protocol.Service;
+import org.web3j.protocol.deserializer.RawResponseInputStream;
 
 /** Ipc service implementation. */
 public class IpcService extends Service {
@@ -51,7 +52,7 @@ public class IpcService extends Service {
         // It's not ideal converting back into an inputStream, but we want
         // to be consistent with the HTTPService API.
         // UTF-8 (the default encoding for JSON) is explicitly used here.
-        return new ByteArrayInputStream(result.getBytes("UTF-8"));
+        return new RawResponseInputStream(result.getBytes(StandardCharsets.UTF_8));
     }
 
     @Override
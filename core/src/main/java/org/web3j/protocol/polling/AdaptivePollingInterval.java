@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.polling;
+
+/**
+ * Polling interval that follows the block cadence of a node.
+ *
+ * <p>Each poll is scheduled shortly after the next block is expected. While consecutive polls
+ * observe no changes, the interval is doubled, up to the maximum interval, and it returns to the
+ * block cadence as soon as a change is observed.
+ *
+ * <p>An instance tracks the changes observed by a single poller and must not be shared; use a
+ * shared {@link BlockCadence} instead.
+ */
+public class AdaptivePollingInterval {
+
+    public static final long DEFAULT_MIN_INTERVAL = 100;
+    public static final long DEFAULT_MAX_INTERVAL = 60 * 1000;
+
+    static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final BlockCadence blockCadence;
+    private final long minInterval;
+    private final long maxInterval;
+
+    private int idlePolls;
+
+    public AdaptivePollingInterval(BlockCadence blockCadence) {
+        this(blockCadence, DEFAULT_MIN_INTERVAL, DEFAULT_MAX_INTERVAL);
+    }
+
+    public AdaptivePollingInterval(BlockCadence blockCadence, long minInterval, long maxInterval) {
+        if (minInterval <= 0 || maxInterval < minInterval) {
+            throw new IllegalArgumentException(
+                    "Invalid polling interval range: " + minInterval + " - " + maxInterval);
+        }
+        this.blockCadence = blockCadence;
+        this.minInterval = minInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    /**
+     * Calculate the delay until the next poll.
+     *
+     * @param changed true if the last poll observed changes
+     * @return delay in milliseconds
+     */
+    public long nextDelay(boolean changed) {
+        long now = System.currentTimeMillis();
+        blockCadence.refresh(now);
+        return nextDelay(changed, now);
+    }
+
+    synchronized long nextDelay(boolean changed, long now) {
+        idlePolls = changed ? 0 : idlePolls + 1;
+
+        long blockTime = blockCadence.getBlockTime();
+        // Poll just after the block is expected, to allow for its propagation
+        long delay = blockCadence.millisUntilNextBlock(now) + blockTime / 10;
+        // A single empty poll may only have been early, back off from the second one
+        if (idlePolls > 1) {
+            int shift = Math.min(idlePolls - 1, MAX_BACKOFF_SHIFT);
+            delay += blockTime * ((1L << shift) - 1);
+        }
+        return Math.max(minInterval, Math.min(maxInterval, delay));
+    }
+
+    public long getMinInterval() {
+        return minInterval;
+    }
+
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+}
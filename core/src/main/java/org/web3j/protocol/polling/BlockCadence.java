@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.polling;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+/**
+ * Estimates when the next block is produced from the timestamps of recent blocks.
+ *
+ * <p>The head block is sampled when the cadence is first used, and again after {@link
+ * #RESAMPLE_BLOCKS} expected blocks, unless blocks are passed to {@link #onBlock(long, long,
+ * long)} in between. The block time is averaged over the last {@link #SAMPLE_COUNT} samples, which
+ * keeps the estimate accurate for chains producing several blocks within the one second
+ * resolution of block timestamps.
+ *
+ * <p>A cadence may be shared by any number of {@link AdaptivePollingInterval}s polling the same
+ * node.
+ */
+public class BlockCadence {
+
+    private static final Logger log = LoggerFactory.getLogger(BlockCadence.class);
+
+    static final int SAMPLE_COUNT = 16;
+    static final int RESAMPLE_BLOCKS = 16;
+
+    private final Web3j web3j;
+    private final Deque<long[]> samples = new ArrayDeque<>();
+
+    private long blockTime;
+    private long clockOffset = Long.MAX_VALUE;
+    private long nextSampleAt;
+
+    /**
+     * @param web3j web3j instance used to sample the head block
+     * @param initialBlockTime block time in milliseconds to assume until blocks are sampled
+     */
+    public BlockCadence(Web3j web3j, long initialBlockTime) {
+        if (initialBlockTime <= 0) {
+            throw new IllegalArgumentException("Invalid block time: " + initialBlockTime);
+        }
+        this.web3j = web3j;
+        this.blockTime = initialBlockTime;
+    }
+
+    /**
+     * Record an observed block.
+     *
+     * @param blockNumber number of the block
+     * @param timestamp timestamp of the block in seconds
+     * @param observedAt local time in milliseconds at which the block was observed
+     */
+    public synchronized void onBlock(long blockNumber, long timestamp, long observedAt) {
+        long timestampMillis = timestamp * 1000;
+        long[] last = samples.peekLast();
+        if (last != null && blockNumber <= last[0]) {
+            // No new block since the last sample, check again after the next expected one
+            nextSampleAt = Math.max(nextSampleAt, observedAt + blockTime);
+            return;
+        }
+
+        samples.addLast(new long[] {blockNumber, timestampMillis});
+        if (samples.size() > SAMPLE_COUNT) {
+            samples.removeFirst();
+        }
+
+        long[] first = samples.peekFirst();
+        long blocks = blockNumber - first[0];
+        long elapsed = timestampMillis - first[1];
+        if (blocks > 0 && elapsed > 0) {
+            blockTime = Math.max(1, elapsed / blocks);
+        }
+
+        // Blocks are observed after they were produced, so the smallest difference between the
+        // local clock and block timestamps is the best estimate of the clock skew
+        clockOffset = Math.min(clockOffset, observedAt - timestampMillis);
+        nextSampleAt = observedAt + RESAMPLE_BLOCKS * blockTime;
+    }
+
+    /** @return the estimated block time in milliseconds */
+    public synchronized long getBlockTime() {
+        return blockTime;
+    }
+
+    /**
+     * Estimate the time until the next block is produced.
+     *
+     * @param now local time in milliseconds
+     * @return milliseconds until the next block is expected, at most the block time
+     */
+    public synchronized long millisUntilNextBlock(long now) {
+        long[] last = samples.peekLast();
+        if (last == null) {
+            return blockTime;
+        }
+        long elapsed = Math.max(0, now - (last[1] + clockOffset));
+        return blockTime - elapsed % blockTime;
+    }
+
+    /**
+     * Sample the head block if the estimate is due to be refreshed. The block is requested without
+     * holding the lock of this cadence, so that other pollers are not blocked by the request.
+     *
+     * @param now local time in milliseconds
+     */
+    public void refresh(long now) {
+        synchronized (this) {
+            if (now < nextSampleAt) {
+                return;
+            }
+            // Claim the sample, so that concurrent pollers do not request the block as well
+            nextSampleAt = now + blockTime;
+        }
+
+        try {
+            EthBlock ethBlock =
+                    web3j.ethGetBlockByNumber(DefaultBlockParameterName.LATEST, false).send();
+            if (ethBlock.hasError() || ethBlock.getBlock() == null) {
+                throw new IOException("Unable to get latest block");
+            }
+            EthBlock.Block block = ethBlock.getBlock();
+            onBlock(
+                    block.getNumber().longValue(),
+                    block.getTimestamp().longValue(),
+                    System.currentTimeMillis());
+        } catch (IOException e) {
+            log.warn("Unable to sample block cadence", e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import io.reactivex.BackpressureOverflowStrategy;
+import io.reactivex.BackpressureStrategy;
+import io.reactivex.Flowable;
+import io.reactivex.FlowableEmitter;
+import io.reactivex.functions.Action;
+
+import org.web3j.protocol.core.filters.Callback;
+
+/**
+ * Bounds the number of items a polling {@link Flowable} buffers for a subscriber which does not
+ * keep up with it.
+ *
+ * <p>While items are buffered, polling of the node is paused, so that new items are only fetched
+ * once the subscriber has requested the buffered ones. A single poll may still return more items
+ * than the subscriber has requested; when these exceed the capacity of the buffer, the {@link
+ * Overflow} policy applies.
+ *
+ * <p>The buffer depth and dropped item metrics of a policy are aggregated over all flowables
+ * created with it.
+ */
+public class BackpressurePolicy {
+
+    /** What to do with items which do not fit in a full buffer. */
+    public enum Overflow {
+        /** Drop new items. */
+        DROP,
+        /** Drop the oldest buffered items, keeping the latest ones. */
+        LATEST,
+        /** Signal a {@link io.reactivex.exceptions.MissingBackpressureException}. */
+        ERROR
+    }
+
+    private final int capacity;
+    private final Overflow overflow;
+    private final AtomicLong bufferDepth = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    public BackpressurePolicy(int capacity, Overflow overflow) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid buffer capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.overflow = overflow;
+    }
+
+    public static BackpressurePolicy drop(int capacity) {
+        return new BackpressurePolicy(capacity, Overflow.DROP);
+    }
+
+    public static BackpressurePolicy latest(int capacity) {
+        return new BackpressurePolicy(capacity, Overflow.LATEST);
+    }
+
+    public static BackpressurePolicy error(int capacity) {
+        return new BackpressurePolicy(capacity, Overflow.ERROR);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    /** @return the number of items currently buffered for subscribers */
+    public long getBufferDepth() {
+        return bufferDepth.get();
+    }
+
+    /** @return the number of items dropped since the policy was created */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Create a flowable applying this policy.
+     *
+     * @param source source of the items, which should pause polling while the supplied condition
+     *     is true
+     * @param <T> item type
+     * @return a bounded flowable
+     */
+    <T> Flowable<T> flowable(Source<T> source) {
+        return Flowable.defer(
+                () -> {
+                    AtomicLong depth = new AtomicLong();
+                    Flowable<T> emitted =
+                            Flowable.create(
+                                    emitter ->
+                                            source.subscribe(
+                                                    value -> {
+                                                        if (overflow == Overflow.DROP
+                                                                && depth.get() >= capacity) {
+                                                            droppedCount.incrementAndGet();
+                                                            return;
+                                                        }
+                                                        depth.incrementAndGet();
+                                                        bufferDepth.incrementAndGet();
+                                                        emitter.onNext(value);
+                                                    },
+                                                    () -> depth.get() > 0,
+                                                    emitter),
+                                    BackpressureStrategy.MISSING);
+
+                    Action onOverflow =
+                            () -> {
+                                droppedCount.incrementAndGet();
+                                if (overflow == Overflow.LATEST) {
+                                    depth.decrementAndGet();
+                                    bufferDepth.decrementAndGet();
+                                }
+                            };
+                    // Items are dropped before they are buffered with Overflow.DROP, so the buffer
+                    // itself never overflows
+                    BackpressureOverflowStrategy strategy =
+                            overflow == Overflow.LATEST
+                                    ? BackpressureOverflowStrategy.DROP_OLDEST
+                                    : BackpressureOverflowStrategy.ERROR;
+
+                    return emitted.onBackpressureBuffer(capacity, onOverflow, strategy)
+                            .doOnNext(
+                                    value -> {
+                                        depth.decrementAndGet();
+                                        bufferDepth.decrementAndGet();
+                                    })
+                            .doFinally(() -> bufferDepth.addAndGet(-depth.getAndSet(0)));
+                });
+    }
+
+    /** Source of the items of a bounded flowable. */
+    interface Source<T> {
+        void subscribe(Callback<T> callback, BooleanSupplier backlogged, FlowableEmitter<T> emitter)
+                throws Exception;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.util.Objects;
+
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+/**
+ * A change to the canonical chain. Blocks are applied in ascending order, and rolled back in
+ * descending order when they are replaced by a chain reorganisation.
+ */
+public class BlockEvent {
+
+    public enum Type {
+        APPLY,
+        ROLLBACK
+    }
+
+    private final Type type;
+    private final EthBlock.Block block;
+
+    public BlockEvent(Type type, EthBlock.Block block) {
+        this.type = type;
+        this.block = block;
+    }
+
+    public static BlockEvent apply(EthBlock.Block block) {
+        return new BlockEvent(Type.APPLY, block);
+    }
+
+    public static BlockEvent rollback(EthBlock.Block block) {
+        return new BlockEvent(Type.ROLLBACK, block);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public EthBlock.Block getBlock() {
+        return block;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BlockEvent)) {
+            return false;
+        }
+        BlockEvent that = (BlockEvent) o;
+        return type == that.type && Objects.equals(block, that.block);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, block);
+    }
+
+    @Override
+    public String toString() {
+        return "BlockEvent{"
+                + "type="
+                + type
+                + ", number="
+                + block.getNumberRaw()
+                + ", hash='"
+                + block.getHash()
+                + '\''
+                + '}';
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+/** Resolves block parameters such as latest or finalized to block numbers. */
+public final class BlockNumbers {
+
+    private BlockNumbers() {}
+
+    /**
+     * Resolve a block parameter to a block number. Block numbers are returned as they are, block
+     * tags are resolved by requesting the block from the node.
+     *
+     * @param web3j web3j instance used to request tagged blocks
+     * @param defaultBlockParameter block parameter, null for the latest block as with nodes
+     * @return the block number
+     * @throws IOException if the block could not be retrieved
+     */
+    public static BigInteger resolve(Web3j web3j, DefaultBlockParameter defaultBlockParameter)
+            throws IOException {
+        if (defaultBlockParameter == null) {
+            defaultBlockParameter = DefaultBlockParameterName.LATEST;
+        }
+        if (defaultBlockParameter instanceof DefaultBlockParameterNumber) {
+            return ((DefaultBlockParameterNumber) defaultBlockParameter).getBlockNumber();
+        }
+        EthBlock ethBlock = web3j.ethGetBlockByNumber(defaultBlockParameter, false).send();
+        if (ethBlock.hasError() || ethBlock.getBlock() == null) {
+            throw new IOException("Block not found: " + defaultBlockParameter.getValue());
+        }
+        return ethBlock.getBlock().getNumber();
+    }
+}
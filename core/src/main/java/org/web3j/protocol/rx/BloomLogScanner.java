@@ -0,0 +1,268 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.archive.BlockArchive;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.filters.LogMatcher;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.JsonRpcError;
+import org.web3j.utils.Bloom;
+
+/**
+ * Scans a block range for the logs matching a filter without using {@code eth_getLogs}, for nodes
+ * where it is disabled or slow.
+ *
+ * <p>Block headers are fetched in batches and the logs bloom of each block is tested against the
+ * addresses and topics of the filter. Receipts are only fetched, with {@code
+ * eth_getBlockReceipts}, for the blocks whose bloom may contain matching logs, and their logs are
+ * matched against the filter. Several batches are fetched concurrently, while logs are still
+ * emitted in block order.
+ *
+ * <p>If a {@link BlockArchive} is given, receipts are read from it when it holds them, and fetched
+ * receipts of blocks at least {@link JsonRpc2_0Rx#DEFAULT_ARCHIVE_CONFIRMATIONS} blocks behind the
+ * head of the chain are appended to it.
+ *
+ * <p>The range should only contain final blocks, as headers and receipts are fetched separately.
+ */
+public class BloomLogScanner {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final int DEFAULT_PARALLELISM = 4;
+
+    private static final Logger log = LoggerFactory.getLogger(BloomLogScanner.class);
+
+    private final Web3j web3j;
+    private final int batchSize;
+    private final int parallelism;
+    private final BlockArchive blockArchive;
+
+    public BloomLogScanner(Web3j web3j) {
+        this(web3j, DEFAULT_BATCH_SIZE, DEFAULT_PARALLELISM);
+    }
+
+    public BloomLogScanner(Web3j web3j, int batchSize, int parallelism) {
+        this(web3j, batchSize, parallelism, null);
+    }
+
+    /**
+     * Create a scanner.
+     *
+     * @param web3j web3j instance
+     * @param batchSize number of blocks per batch request
+     * @param parallelism number of batches fetched concurrently
+     * @param blockArchive archive that receipts are read from and appended to, may be null
+     */
+    public BloomLogScanner(
+            Web3j web3j, int batchSize, int parallelism, BlockArchive blockArchive) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.web3j = web3j;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.blockArchive = blockArchive;
+    }
+
+    /**
+     * Create a {@link Flowable} instance that emits all logs matching a filter.
+     *
+     * @param ethFilter filter with the block range to scan, block tags such as latest are resolved
+     *     when the flowable is subscribed to
+     * @return a {@link Flowable} instance to emit the logs in block order
+     */
+    public Flowable<Log> flowable(EthFilter ethFilter) {
+        if (ethFilter.getBlockHash() != null) {
+            throw new IllegalArgumentException("Filter must specify a block range");
+        }
+        LogMatcher logMatcher = new LogMatcher(ethFilter);
+
+        return Flowable.defer(
+                () -> {
+                    long fromBlock = getBlockNumber(ethFilter.getFromBlock());
+                    long toBlock = getBlockNumber(ethFilter.getToBlock());
+                    long archiveLimit = getArchiveLimit();
+
+                    return Flowable.rangeLong(fromBlock, Math.max(0, toBlock - fromBlock + 1))
+                            .buffer(batchSize)
+                            .concatMapEager(
+                                    blockNumbers ->
+                                            scanFlowable(blockNumbers, logMatcher, archiveLimit),
+                                    parallelism,
+                                    1)
+                            .concatMapIterable(logs -> logs);
+                });
+    }
+
+    private Flowable<List<Log>> scanFlowable(
+            List<Long> blockNumbers, LogMatcher logMatcher, long archiveLimit) {
+        return Flowable.fromCallable(() -> scan(blockNumbers, logMatcher, archiveLimit))
+                .subscribeOn(Schedulers.io());
+    }
+
+    private List<Log> scan(List<Long> blockNumbers, LogMatcher logMatcher, long archiveLimit)
+            throws IOException {
+        List<Long> candidates = new ArrayList<>();
+        for (EthBlock ethBlock : sendBatch(blockNumbers, false)) {
+            EthBlock.Block block = ethBlock.getBlock();
+            if (block == null) {
+                throw new IOException("Block not found");
+            }
+            // Blocks without a bloom are scanned, as there is nothing to rule them out
+            if (block.getLogsBloom() == null
+                    || logMatcher.mayMatch(new Bloom(block.getLogsBloom()))) {
+                candidates.add(block.getNumber().longValueExact());
+            }
+        }
+
+        List<Log> logs = new ArrayList<>();
+        if (candidates.isEmpty()) {
+            return logs;
+        }
+
+        Map<Long, List<TransactionReceipt>> blockReceipts = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long blockNumber : candidates) {
+            Optional<List<TransactionReceipt>> archived = readArchivedReceipts(blockNumber);
+            if (archived.isPresent()) {
+                blockReceipts.put(blockNumber, archived.get());
+            } else {
+                missing.add(blockNumber);
+            }
+        }
+        if (!missing.isEmpty()) {
+            List<EthGetBlockReceipts> responses = sendBatch(missing, true);
+            for (int i = 0; i < missing.size(); i++) {
+                List<TransactionReceipt> receipts =
+                        responses
+                                .get(i)
+                                .getBlockReceipts()
+                                .orElseThrow(() -> new IOException("Block receipts not found"));
+                blockReceipts.put(missing.get(i), receipts);
+                archiveReceipts(missing.get(i), receipts, archiveLimit);
+            }
+        }
+
+        for (Long blockNumber : candidates) {
+            for (TransactionReceipt receipt : blockReceipts.get(blockNumber)) {
+                for (Log log : receipt.getLogs()) {
+                    if (logMatcher.matches(log)) {
+                        logs.add(log);
+                    }
+                }
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Request the headers or receipts of several blocks with a single batch request.
+     *
+     * @return the responses in the order of the block numbers
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Response<?>> List<T> sendBatch(List<Long> blockNumbers, boolean receipts)
+            throws IOException {
+        BatchRequest batchRequest = web3j.newBatch();
+        for (Long number : blockNumbers) {
+            DefaultBlockParameter blockNumber = new DefaultBlockParameterNumber(number);
+            if (receipts) {
+                batchRequest.add(web3j.ethGetBlockReceipts(blockNumber));
+            } else {
+                batchRequest.add(web3j.ethGetBlockByNumber(blockNumber, false));
+            }
+        }
+
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            throw new IOException("No response received for block batch request");
+        }
+
+        List<T> results = new ArrayList<>(blockNumbers.size());
+        for (Response<?> response : batchResponse.getResponsesInRequestOrder()) {
+            if (response == null) {
+                throw new IOException("Missing responses in block batch");
+            }
+            if (response.hasError()) {
+                throw new JsonRpcError(response.getError());
+            }
+            results.add((T) response);
+        }
+        return results;
+    }
+
+    private Optional<List<TransactionReceipt>> readArchivedReceipts(long blockNumber) {
+        if (blockArchive == null) {
+            return Optional.empty();
+        }
+        // The archive only acts as a cache, so any failure to use it falls back to the node
+        try {
+            return blockArchive.getReceipts(blockNumber);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read receipts of block {} from archive", blockNumber, e);
+            return Optional.empty();
+        }
+    }
+
+    private void archiveReceipts(
+            long blockNumber, List<TransactionReceipt> receipts, long archiveLimit) {
+        // The archive assumes blocks are final, so receipts of blocks which may still be
+        // reorganised are not appended
+        if (blockArchive == null || blockNumber > archiveLimit) {
+            return;
+        }
+        try {
+            blockArchive.appendReceipts(blockNumber, receipts);
+        } catch (IOException e) {
+            log.warn("Unable to append receipts of block {} to archive", blockNumber, e);
+        }
+    }
+
+    /** The highest block number whose receipts may be appended to the archive. */
+    private long getArchiveLimit() throws IOException {
+        if (blockArchive == null) {
+            return -1;
+        }
+        return getBlockNumber(DefaultBlockParameterName.LATEST)
+                - JsonRpc2_0Rx.DEFAULT_ARCHIVE_CONFIRMATIONS;
+    }
+
+    private long getBlockNumber(DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return BlockNumbers.resolve(web3j, defaultBlockParameter).longValueExact();
+    }
+}
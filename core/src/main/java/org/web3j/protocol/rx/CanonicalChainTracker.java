@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.exceptions.JsonRpcError;
+
+/**
+ * Tracks the canonical chain from the blocks reported by a node, detecting chain reorganisations.
+ *
+ * <p>The most recent blocks are kept in a ring buffer. A block whose parent is not the current
+ * head is connected to the buffer by fetching its ancestors by hash. Blocks on the abandoned
+ * branch are then rolled back, before the blocks of the new branch are applied. Blocks which the
+ * node skipped, for example between two polls, are fetched the same way.
+ *
+ * <p>Blocks can be held back until they have a number of confirmations, in which case only
+ * reorganisations deeper than that are visible as rollbacks.
+ */
+public class CanonicalChainTracker {
+
+    public static final int DEFAULT_DEPTH = 64;
+
+    private final Web3j web3j;
+    private final boolean fullTransactionObjects;
+    private final int confirmations;
+    private final int depth;
+
+    // Oldest block first
+    private final Deque<EthBlock.Block> blocks = new ArrayDeque<>();
+    private long lastApplied = -1;
+
+    public CanonicalChainTracker(Web3j web3j, boolean fullTransactionObjects, int confirmations) {
+        this(web3j, fullTransactionObjects, confirmations, DEFAULT_DEPTH);
+    }
+
+    /**
+     * @param web3j web3j instance used to fetch missing ancestors
+     * @param fullTransactionObjects if true, fetched ancestors include full transaction objects
+     * @param confirmations number of blocks which must be built on a block before it is applied
+     * @param depth number of blocks kept, which bounds the depth of detectable reorganisations
+     */
+    public CanonicalChainTracker(
+            Web3j web3j, boolean fullTransactionObjects, int confirmations, int depth) {
+        if (confirmations < 0 || depth <= confirmations) {
+            throw new IllegalArgumentException(
+                    "Invalid confirmations " + confirmations + " for depth " + depth);
+        }
+        this.web3j = web3j;
+        this.fullTransactionObjects = fullTransactionObjects;
+        this.confirmations = confirmations;
+        this.depth = depth;
+    }
+
+    /**
+     * Process a block reported by the node.
+     *
+     * @param block new block
+     * @return the resulting rollback and apply events, in order
+     * @throws IOException if an ancestor of the block could not be fetched
+     * @throws IllegalStateException if the block does not connect to the tracked chain within its
+     *     depth
+     */
+    public synchronized List<BlockEvent> onBlock(EthBlock.Block block) throws IOException {
+        List<BlockEvent> events = new ArrayList<>();
+        if (contains(block.getHash())) {
+            return events;
+        }
+
+        Deque<EthBlock.Block> branch = new ArrayDeque<>();
+        branch.addFirst(block);
+        if (!blocks.isEmpty()) {
+            EthBlock.Block ancestor = block;
+            while (!contains(ancestor.getParentHash())) {
+                if (number(ancestor) <= number(blocks.peekFirst())) {
+                    throw new IllegalStateException(
+                            "Block "
+                                    + block.getHash()
+                                    + " does not connect to the last "
+                                    + blocks.size()
+                                    + " blocks");
+                }
+                ancestor = fetchBlock(ancestor.getParentHash());
+                branch.addFirst(ancestor);
+            }
+
+            String forkPoint = ancestor.getParentHash();
+            while (!blocks.peekLast().getHash().equals(forkPoint)) {
+                EthBlock.Block removed = blocks.removeLast();
+                if (number(removed) <= lastApplied) {
+                    events.add(BlockEvent.rollback(removed));
+                    lastApplied = number(removed) - 1;
+                }
+            }
+        }
+
+        blocks.addAll(branch);
+
+        long head = number(block);
+        for (EthBlock.Block tracked : blocks) {
+            long number = number(tracked);
+            if (number > lastApplied && head - number >= confirmations) {
+                events.add(BlockEvent.apply(tracked));
+                lastApplied = number;
+            }
+        }
+
+        while (blocks.size() > depth) {
+            blocks.removeFirst();
+        }
+        return events;
+    }
+
+    private boolean contains(String hash) {
+        Iterator<EthBlock.Block> iterator = blocks.descendingIterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getHash().equals(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private EthBlock.Block fetchBlock(String blockHash) throws IOException {
+        EthBlock ethBlock = web3j.ethGetBlockByHash(blockHash, fullTransactionObjects).send();
+        if (ethBlock.hasError()) {
+            throw new JsonRpcError(ethBlock.getError());
+        }
+        if (ethBlock.getBlock() == null) {
+            throw new IOException("Block not found: " + blockHash);
+        }
+        return ethBlock.getBlock();
+    }
+
+    private static long number(EthBlock.Block block) {
+        return block.getNumber().longValueExact();
+    }
+}
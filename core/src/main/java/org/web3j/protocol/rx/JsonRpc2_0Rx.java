@@ -14,8 +14,18 @@ package org.web3j.protocol.rx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import io.reactivex.BackpressureStrategy;
@@ -23,16 +33,23 @@ import io.reactivex.Flowable;
 import io.reactivex.FlowableEmitter;
 import io.reactivex.Scheduler;
 import io.reactivex.schedulers.Schedulers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.archive.BlockArchive;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.DefaultBlockParameterNumber;
-import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.filters.BlockFilter;
 import org.web3j.protocol.core.filters.LogFilter;
+import org.web3j.protocol.core.filters.LogSubscriptionRegistry;
 import org.web3j.protocol.core.filters.PendingTransactionFilter;
 import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthTransaction;
 import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.Transaction;
 import org.web3j.utils.Flowables;
@@ -40,14 +57,56 @@ import org.web3j.utils.Flowables;
 /** web3j reactive API implementation. */
 public class JsonRpc2_0Rx {
 
+    private static final Logger log = LoggerFactory.getLogger(JsonRpc2_0Rx.class);
+
+    static final int PENDING_TRANSACTION_BATCH_SIZE = 100;
+    static final long PENDING_TRANSACTION_BATCH_TIMESPAN = 200;
+    static final int RESOLVED_TRANSACTION_CACHE_SIZE = 10_000;
+
+    public static final int DEFAULT_ARCHIVE_CONFIRMATIONS = 64;
+
     private final Web3j web3j;
     private final ScheduledExecutorService scheduledExecutorService;
     private final Scheduler scheduler;
+    private final BlockArchive blockArchive;
+    private final int archiveConfirmations;
+    private final LogSubscriptionRegistry logSubscriptionRegistry;
 
     public JsonRpc2_0Rx(Web3j web3j, ScheduledExecutorService scheduledExecutorService) {
+        this(web3j, scheduledExecutorService, null);
+    }
+
+    public JsonRpc2_0Rx(
+            Web3j web3j,
+            ScheduledExecutorService scheduledExecutorService,
+            BlockArchive blockArchive) {
+        this(web3j, scheduledExecutorService, blockArchive, DEFAULT_ARCHIVE_CONFIRMATIONS);
+    }
+
+    /**
+     * @param web3j web3j instance used to query the node
+     * @param scheduledExecutorService executor service to use for scheduled tasks
+     * @param blockArchive archive that replayed blocks are read from and appended to, may be null
+     * @param archiveConfirmations number of blocks a replayed block must be behind the head of
+     *     the chain to be appended to the archive, as blocks closer to the head may still be
+     *     reorganised
+     */
+    public JsonRpc2_0Rx(
+            Web3j web3j,
+            ScheduledExecutorService scheduledExecutorService,
+            BlockArchive blockArchive,
+            int archiveConfirmations) {
+        if (archiveConfirmations < 0) {
+            throw new IllegalArgumentException(
+                    "Invalid number of archive confirmations: " + archiveConfirmations);
+        }
         this.web3j = web3j;
         this.scheduledExecutorService = scheduledExecutorService;
         this.scheduler = Schedulers.from(scheduledExecutorService);
+        this.blockArchive = blockArchive;
+        this.archiveConfirmations = archiveConfirmations;
+        this.logSubscriptionRegistry =
+                new LogSubscriptionRegistry(web3j, scheduledExecutorService);
     }
 
     public Flowable<String> ethBlockHashFlowable(long pollingInterval) {
@@ -81,6 +140,67 @@ public class JsonRpc2_0Rx {
                 BackpressureStrategy.BUFFER);
     }
 
+    public Flowable<Log> sharedEthLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter, long pollingInterval) {
+        if (!LogSubscriptionRegistry.isShareable(ethFilter)) {
+            throw new IllegalArgumentException(
+                    "Only filters starting at the latest or pending block can be shared");
+        }
+        return Flowable.create(
+                subscriber -> {
+                    LogSubscriptionRegistry.Subscription subscription =
+                            logSubscriptionRegistry.subscribe(
+                                    ethFilter, subscriber::onNext, pollingInterval);
+                    subscriber.setCancellable(subscription::cancel);
+                },
+                BackpressureStrategy.BUFFER);
+    }
+
+    public Flowable<String> ethBlockHashFlowable(
+            long pollingInterval, BackpressurePolicy backpressurePolicy) {
+        return backpressurePolicy.flowable(
+                (callback, backlogged, subscriber) -> {
+                    BlockFilter blockFilter = new BlockFilter(web3j, callback);
+                    blockFilter.pauseWhile(backlogged);
+                    run(blockFilter, subscriber, pollingInterval);
+                });
+    }
+
+    public Flowable<String> ethPendingTransactionHashFlowable(
+            long pollingInterval, BackpressurePolicy backpressurePolicy) {
+        return backpressurePolicy.flowable(
+                (callback, backlogged, subscriber) -> {
+                    PendingTransactionFilter pendingTransactionFilter =
+                            new PendingTransactionFilter(web3j, callback);
+                    pendingTransactionFilter.pauseWhile(backlogged);
+                    run(pendingTransactionFilter, subscriber, pollingInterval);
+                });
+    }
+
+    public Flowable<Log> ethLogFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter,
+            long pollingInterval,
+            BackpressurePolicy backpressurePolicy) {
+        return backpressurePolicy.flowable(
+                (callback, backlogged, subscriber) -> {
+                    LogFilter logFilter = new LogFilter(web3j, callback, ethFilter);
+                    logFilter.pauseWhile(backlogged);
+                    run(logFilter, subscriber, pollingInterval);
+                });
+    }
+
+    public Flowable<Log> scanPastLogsFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        return new BloomLogScanner(web3j).flowable(ethFilter).subscribeOn(scheduler);
+    }
+
+    public Flowable<Log> replayPastLogsFlowable(
+            org.web3j.protocol.core.methods.request.EthFilter ethFilter) {
+        // We use a scheduler to ensure this Flowable runs asynchronously for users to be
+        // consistent with the other Flowables
+        return new LogBackfill(web3j).flowable(ethFilter).subscribeOn(scheduler);
+    }
+
     private <T> void run(
             org.web3j.protocol.core.filters.Filter<T> filter,
             FlowableEmitter<? super T> emitter,
@@ -95,12 +215,101 @@ public class JsonRpc2_0Rx {
     }
 
     public Flowable<Transaction> pendingTransactionFlowable(long pollingInterval) {
-        return ethPendingTransactionHashFlowable(pollingInterval)
-                .flatMap(
-                        transactionHash ->
-                                web3j.ethGetTransactionByHash(transactionHash).flowable())
-                .filter(ethTransaction -> ethTransaction.getTransaction().isPresent())
-                .map(ethTransaction -> ethTransaction.getTransaction().get());
+        return resolvePendingTransactions(ethPendingTransactionHashFlowable(pollingInterval));
+    }
+
+    /**
+     * Emit the transactions of pending transaction notifications. Transaction objects are emitted
+     * as they are, while plain hashes, sent by nodes which do not support full transaction objects
+     * in subscriptions, are resolved with batch requests.
+     *
+     * @param transactionResults transaction objects or hashes of pending transactions
+     * @return a {@link Flowable} instance that emits the pending transactions
+     */
+    public Flowable<Transaction> pendingTransactionFlowable(
+            Flowable<EthBlock.TransactionResult> transactionResults) {
+        return transactionResults.publish(
+                results ->
+                        Flowable.merge(
+                                results.ofType(EthBlock.TransactionObject.class)
+                                        .map(EthBlock.TransactionObject::get),
+                                resolvePendingTransactions(
+                                        results.ofType(EthBlock.TransactionHash.class)
+                                                .map(EthBlock.TransactionHash::get))));
+    }
+
+    private Flowable<Transaction> resolvePendingTransactions(Flowable<String> transactionHashes) {
+        // Hashes are collected for a short time and resolved with a single batch request
+        return Flowable.defer(
+                () -> {
+                    Map<String, Boolean> resolved = createResolvedTransactionCache();
+                    return transactionHashes
+                            .buffer(
+                                    PENDING_TRANSACTION_BATCH_TIMESPAN,
+                                    TimeUnit.MILLISECONDS,
+                                    scheduler,
+                                    PENDING_TRANSACTION_BATCH_SIZE)
+                            .filter(transactionHashes -> !transactionHashes.isEmpty())
+                            .concatMap(
+                                    transactionHashes ->
+                                            fetchTransactionsFlowable(transactionHashes, resolved))
+                            .concatMapIterable(transactions -> transactions);
+                });
+    }
+
+    private Flowable<List<Transaction>> fetchTransactionsFlowable(
+            List<String> transactionHashes, Map<String, Boolean> resolved) {
+        return Flowable.fromCallable(() -> fetchTransactions(transactionHashes, resolved))
+                .subscribeOn(Schedulers.io());
+    }
+
+    private List<Transaction> fetchTransactions(
+            List<String> transactionHashes, Map<String, Boolean> resolved) throws IOException {
+        Set<String> requested = new LinkedHashSet<>();
+        for (String transactionHash : transactionHashes) {
+            // Looking the hash up refreshes it in the access ordered cache
+            if (resolved.get(transactionHash) == null) {
+                requested.add(transactionHash);
+            }
+        }
+        if (requested.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        BatchRequest batchRequest = web3j.newBatch();
+        for (String transactionHash : requested) {
+            batchRequest.add(web3j.ethGetTransactionByHash(transactionHash));
+        }
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            throw new IOException("No response received for transaction batch request");
+        }
+
+        List<Transaction> transactions = new ArrayList<>();
+        Iterator<Response<?>> responses = batchResponse.getResponsesInRequestOrder().iterator();
+        for (String transactionHash : requested) {
+            Response<?> response = responses.next();
+            // Transactions which have already left the pool are not returned
+            Optional<Transaction> transaction =
+                    response == null
+                            ? Optional.empty()
+                            : ((EthTransaction) response).getTransaction();
+            if (transaction.isPresent()) {
+                resolved.put(transactionHash, Boolean.TRUE);
+                transactions.add(transaction.get());
+            }
+        }
+        return transactions;
+    }
+
+    /** Least recently used cache of the hashes of resolved transactions. */
+    private static Map<String, Boolean> createResolvedTransactionCache() {
+        return new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > RESOLVED_TRANSACTION_CACHE_SIZE;
+            }
+        };
     }
 
     public Flowable<EthBlock> blockFlowable(boolean fullTransactionObjects, long pollingInterval) {
@@ -129,6 +338,45 @@ public class JsonRpc2_0Rx {
                 .subscribeOn(scheduler);
     }
 
+    public Flowable<EthBlock> replayBlocksFlowable(
+            DefaultBlockParameter startBlock,
+            DefaultBlockParameter endBlock,
+            boolean fullTransactionObjects,
+            boolean ascending,
+            int batchSize,
+            int parallelism) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+
+        BigInteger startBlockNumber;
+        BigInteger endBlockNumber;
+        BigInteger archiveLimit;
+        try {
+            startBlockNumber = getBlockNumber(startBlock);
+            endBlockNumber = getBlockNumber(endBlock);
+            archiveLimit = getArchiveLimit();
+        } catch (IOException e) {
+            return Flowable.error(e);
+        }
+
+        // Batches are fetched concurrently on the IO scheduler, but emitted in order, so at most
+        // parallelism * batchSize blocks are buffered
+        return Flowables.range(startBlockNumber, endBlockNumber, ascending)
+                .buffer(batchSize)
+                .concatMapEager(
+                        blockNumbers ->
+                                fetchBlocksFlowable(
+                                        blockNumbers, fullTransactionObjects, archiveLimit),
+                        parallelism,
+                        1)
+                .concatMapIterable(ethBlocks -> ethBlocks)
+                .subscribeOn(scheduler);
+    }
+
     private Flowable<EthBlock> replayBlocksFlowableSync(
             DefaultBlockParameter startBlock,
             DefaultBlockParameter endBlock,
@@ -143,17 +391,142 @@ public class JsonRpc2_0Rx {
             boolean isAscending) {
         BigInteger startBlockNumber;
         BigInteger endBlockNumber;
+        BigInteger archiveLimit;
         try {
             startBlockNumber = getBlockNumber(startBlock);
             endBlockNumber = getBlockNumber(endBlock);
+            archiveLimit = getArchiveLimit();
         } catch (IOException e) {
             return Flowable.error(e);
         }
 
         return Flowables.range(startBlockNumber, endBlockNumber, isAscending)
-                .map(DefaultBlockParameterNumber::new)
-                .map(number -> web3j.ethGetBlockByNumber(number, containsFullTransactionObjects))
-                .flatMap(Request::flowable);
+                .flatMap(
+                        number ->
+                                fetchBlock(number, containsFullTransactionObjects, archiveLimit));
+    }
+
+    private Flowable<EthBlock> fetchBlock(
+            BigInteger blockNumber,
+            boolean containsFullTransactionObjects,
+            BigInteger archiveLimit) {
+        Optional<EthBlock> archived =
+                readArchivedBlock(blockNumber, containsFullTransactionObjects);
+        if (archived.isPresent()) {
+            return Flowable.just(archived.get());
+        }
+
+        Flowable<EthBlock> flowable =
+                web3j.ethGetBlockByNumber(
+                                new DefaultBlockParameterNumber(blockNumber),
+                                containsFullTransactionObjects)
+                        .flowable();
+        return blockArchive == null
+                ? flowable
+                : flowable.doOnNext(ethBlock -> archiveBlock(ethBlock, archiveLimit));
+    }
+
+    private Flowable<List<EthBlock>> fetchBlocksFlowable(
+            List<BigInteger> blockNumbers,
+            boolean containsFullTransactionObjects,
+            BigInteger archiveLimit) {
+        return Flowable.fromCallable(
+                        () ->
+                                fetchBlocks(
+                                        blockNumbers, containsFullTransactionObjects, archiveLimit))
+                .subscribeOn(Schedulers.io());
+    }
+
+    private List<EthBlock> fetchBlocks(
+            List<BigInteger> blockNumbers,
+            boolean containsFullTransactionObjects,
+            BigInteger archiveLimit)
+            throws IOException {
+        EthBlock[] ethBlocks = new EthBlock[blockNumbers.size()];
+        List<Integer> positions = new ArrayList<>();
+        BatchRequest batchRequest = web3j.newBatch();
+
+        for (int i = 0; i < blockNumbers.size(); i++) {
+            BigInteger blockNumber = blockNumbers.get(i);
+            Optional<EthBlock> archived =
+                    readArchivedBlock(blockNumber, containsFullTransactionObjects);
+            if (archived.isPresent()) {
+                ethBlocks[i] = archived.get();
+            } else {
+                positions.add(i);
+                batchRequest.add(
+                        web3j.ethGetBlockByNumber(
+                                new DefaultBlockParameterNumber(blockNumber),
+                                containsFullTransactionObjects));
+            }
+        }
+
+        if (!positions.isEmpty()) {
+            BatchResponse batchResponse = batchRequest.send();
+            if (batchResponse == null) {
+                throw new IOException("No response received for block batch request");
+            }
+            List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+            for (int i = 0; i < responses.size(); i++) {
+                Response<?> response = responses.get(i);
+                int position = positions.get(i);
+                if (response == null) {
+                    throw new IOException(
+                            "No response received for block " + blockNumbers.get(position));
+                }
+                if (response.hasError()) {
+                    throw new IOException(
+                            "Error fetching block "
+                                    + blockNumbers.get(position)
+                                    + ": "
+                                    + response.getError().getMessage());
+                }
+                ethBlocks[position] = (EthBlock) response;
+                if (blockArchive != null) {
+                    archiveBlock(ethBlocks[position], archiveLimit);
+                }
+            }
+        }
+        return Arrays.asList(ethBlocks);
+    }
+
+    private Optional<EthBlock> readArchivedBlock(
+            BigInteger blockNumber, boolean containsFullTransactionObjects) {
+        if (blockArchive == null) {
+            return Optional.empty();
+        }
+        // The archive only acts as a cache, so any failure to use it falls back to the node
+        try {
+            return blockArchive.getBlock(blockNumber.longValue(), containsFullTransactionObjects);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to read block {} from archive", blockNumber, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * The highest block number which may be appended to the archive, or null if there is no
+     * archive.
+     */
+    private BigInteger getArchiveLimit() throws IOException {
+        if (blockArchive == null) {
+            return null;
+        }
+        return getLatestBlockNumber().subtract(BigInteger.valueOf(archiveConfirmations));
+    }
+
+    private void archiveBlock(EthBlock ethBlock, BigInteger archiveLimit) {
+        EthBlock.Block block = ethBlock.getBlock();
+        // The archive assumes blocks are final, so blocks which may still be reorganised are not
+        // appended
+        if (block == null || block.getNumber().compareTo(archiveLimit) > 0) {
+            return;
+        }
+        try {
+            blockArchive.appendBlock(block);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Unable to append block {} to archive", block.getNumberRaw(), e);
+        }
     }
 
     public Flowable<Transaction> replayTransactionsFlowable(
@@ -225,6 +598,40 @@ public class JsonRpc2_0Rx {
                 blockFlowable(fullTransactionObjects, pollingInterval));
     }
 
+    public Flowable<BlockEvent> canonicalBlockFlowable(
+            boolean fullTransactionObjects, int confirmations, long pollingInterval) {
+        return canonicalBlockEvents(
+                blockFlowable(fullTransactionObjects, pollingInterval),
+                fullTransactionObjects,
+                confirmations);
+    }
+
+    public Flowable<BlockEvent> replayPastAndFutureCanonicalBlocksFlowable(
+            DefaultBlockParameter startBlock,
+            boolean fullTransactionObjects,
+            int confirmations,
+            long pollingInterval) {
+        return canonicalBlockEvents(
+                replayPastAndFutureBlocksFlowable(
+                        startBlock, fullTransactionObjects, pollingInterval),
+                fullTransactionObjects,
+                confirmations);
+    }
+
+    private Flowable<BlockEvent> canonicalBlockEvents(
+            Flowable<EthBlock> ethBlocks, boolean fullTransactionObjects, int confirmations) {
+        // Each subscriber tracks the chain independently
+        return Flowable.defer(
+                () -> {
+                    CanonicalChainTracker tracker =
+                            new CanonicalChainTracker(
+                                    web3j, fullTransactionObjects, confirmations);
+                    return ethBlocks
+                            .filter(ethBlock -> ethBlock.getBlock() != null)
+                            .concatMapIterable(ethBlock -> tracker.onBlock(ethBlock.getBlock()));
+                });
+    }
+
     public Flowable<Transaction> replayPastAndFutureTransactionsFlowable(
             DefaultBlockParameter startBlock, long pollingInterval) {
         return replayPastAndFutureBlocksFlowable(startBlock, true, pollingInterval)
@@ -237,13 +644,7 @@ public class JsonRpc2_0Rx {
 
     private BigInteger getBlockNumber(DefaultBlockParameter defaultBlockParameter)
             throws IOException {
-        if (defaultBlockParameter instanceof DefaultBlockParameterNumber) {
-            return ((DefaultBlockParameterNumber) defaultBlockParameter).getBlockNumber();
-        } else {
-            EthBlock latestEthBlock =
-                    web3j.ethGetBlockByNumber(defaultBlockParameter, false).send();
-            return latestEthBlock.getBlock().getNumber();
-        }
+        return BlockNumbers.resolve(web3j, defaultBlockParameter);
     }
 
     private static List<Transaction> toTransactions(EthBlock ethBlock) {
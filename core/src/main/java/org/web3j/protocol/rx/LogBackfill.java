@@ -0,0 +1,281 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.exceptions.JsonRpcError;
+
+/**
+ * Backfills the logs matching a filter over a block range of any size, using {@code eth_getLogs}.
+ *
+ * <p>The range is queried in chunks. Chunks which fail with a provider limit error, such as too
+ * many results or too wide a block range, are bisected and retried, and subsequent chunks are made
+ * smaller. Chunks which return few logs make subsequent chunks larger. Requests rejected by a
+ * provider rate limit, with a JSON-RPC error or HTTP status 429, are retried with exponential
+ * backoff. Several chunks are requested concurrently, while logs are still emitted in block order.
+ */
+public class LogBackfill {
+
+    public static final long DEFAULT_INITIAL_RANGE = 1_000;
+    public static final long DEFAULT_MAX_RANGE = 100_000;
+    public static final int DEFAULT_PARALLELISM = 4;
+    public static final long DEFAULT_RATE_LIMIT_BACKOFF = 500;
+    public static final int RATE_LIMIT_RETRIES = 5;
+
+    /** Chunks returning fewer logs than this are considered sparse. */
+    public static final int SPARSE_LOG_COUNT = 1_000;
+
+    private static final int RATE_LIMITED_CODE = 429;
+    private static final String[] LIMIT_ERROR_MESSAGES = {
+        "query returned more than",
+        "too many results",
+        "too many logs",
+        "response size",
+        "block range",
+        "range is too",
+        "range too",
+        "max range"
+    };
+    private static final String[] RATE_LIMIT_ERROR_MESSAGES = {
+        "rate limit", "too many requests", "request limit", "capacity exceeded"
+    };
+
+    private final Web3j web3j;
+    private final long initialRange;
+    private final long maxRange;
+    private final int parallelism;
+    private final long rateLimitBackoff;
+
+    public LogBackfill(Web3j web3j) {
+        this(web3j, DEFAULT_INITIAL_RANGE, DEFAULT_MAX_RANGE, DEFAULT_PARALLELISM);
+    }
+
+    public LogBackfill(Web3j web3j, long initialRange, long maxRange, int parallelism) {
+        this(web3j, initialRange, maxRange, parallelism, DEFAULT_RATE_LIMIT_BACKOFF);
+    }
+
+    /**
+     * @param web3j web3j instance used to query the node
+     * @param initialRange number of blocks in the first chunk
+     * @param maxRange maximum number of blocks in a chunk
+     * @param parallelism maximum number of chunks requested concurrently
+     * @param rateLimitBackoff delay in milliseconds before the first retry of a rate limited
+     *     request, doubled for every further retry
+     */
+    public LogBackfill(
+            Web3j web3j, long initialRange, long maxRange, int parallelism, long rateLimitBackoff) {
+        if (initialRange < 1 || maxRange < initialRange) {
+            throw new IllegalArgumentException(
+                    "Invalid block ranges: initial " + initialRange + ", maximum " + maxRange);
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+        }
+        this.web3j = web3j;
+        this.initialRange = initialRange;
+        this.maxRange = maxRange;
+        this.parallelism = parallelism;
+        this.rateLimitBackoff = rateLimitBackoff;
+    }
+
+    /**
+     * Create a {@link Flowable} instance that emits all logs matching a filter.
+     *
+     * @param ethFilter filter with the block range to backfill, block tags such as latest are
+     *     resolved when the flowable is subscribed to
+     * @return a {@link Flowable} instance to emit the logs in block order
+     */
+    public Flowable<Log> flowable(EthFilter ethFilter) {
+        if (ethFilter.getBlockHash() != null) {
+            throw new IllegalArgumentException("Filter must specify a block range");
+        }
+
+        return Flowable.defer(
+                () -> {
+                    long fromBlock = getBlockNumber(ethFilter.getFromBlock());
+                    long toBlock = getBlockNumber(ethFilter.getToBlock());
+                    AtomicLong range = new AtomicLong(initialRange);
+
+                    return chunks(fromBlock, toBlock, range)
+                            .concatMapEager(
+                                    chunk -> fetchLogsFlowable(ethFilter, chunk, range),
+                                    parallelism,
+                                    1)
+                            .concatMapIterable(logs -> logs);
+                });
+    }
+
+    /**
+     * Determine whether an error was caused by a provider limit on the block range or the number
+     * of results of a query, in which case the query is retried over smaller block ranges.
+     *
+     * @param error error returned by the node
+     * @return true if the error was caused by a limit on the query size
+     */
+    protected boolean isLimitError(Response.Error error) {
+        return !isRateLimitError(error) && containsAny(error, LIMIT_ERROR_MESSAGES);
+    }
+
+    /**
+     * Determine whether an error was caused by a provider rate limit, in which case the query is
+     * retried unchanged after a delay.
+     *
+     * @param error error returned by the node
+     * @return true if the error was caused by a rate limit
+     */
+    protected boolean isRateLimitError(Response.Error error) {
+        return error.getCode() == RATE_LIMITED_CODE
+                || containsAny(error, RATE_LIMIT_ERROR_MESSAGES);
+    }
+
+    /**
+     * Determine whether a failed HTTP request was rejected by a provider rate limit, in which case
+     * the query is retried unchanged after a delay.
+     *
+     * @param e exception thrown for the request
+     * @return true if the request was rejected with HTTP status 429
+     */
+    protected boolean isRateLimitError(ClientConnectionException e) {
+        return e.getStatusCode().filter(code -> code == RATE_LIMITED_CODE).isPresent();
+    }
+
+    private static boolean containsAny(Response.Error error, String[] fragments) {
+        String message =
+                error.getMessage() == null ? "" : error.getMessage().toLowerCase(Locale.ROOT);
+        for (String fragment : fragments) {
+            if (message.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Flowable<long[]> chunks(long fromBlock, long toBlock, AtomicLong range) {
+        // Chunks are generated on demand, so each one uses the range adapted to the results of
+        // the chunks requested before it
+        return Flowable.generate(
+                () -> fromBlock,
+                (next, emitter) -> {
+                    if (next > toBlock) {
+                        emitter.onComplete();
+                        return next;
+                    }
+                    long end = Math.min(toBlock, next + range.get() - 1);
+                    emitter.onNext(new long[] {next, end});
+                    return end + 1;
+                });
+    }
+
+    private Flowable<List<Log>> fetchLogsFlowable(
+            EthFilter ethFilter, long[] chunk, AtomicLong range) {
+        return Flowable.fromCallable(() -> fetchLogs(ethFilter, chunk[0], chunk[1], range))
+                .subscribeOn(Schedulers.io());
+    }
+
+    private List<Log> fetchLogs(
+            EthFilter ethFilter, long fromBlock, long toBlock, AtomicLong range)
+            throws IOException {
+        long size = toBlock - fromBlock + 1;
+        EthLog ethLog = sendWithRetry(chunkFilter(ethFilter, fromBlock, toBlock));
+
+        if (ethLog.hasError()) {
+            if (size == 1 || !isLimitError(ethLog.getError())) {
+                throw new JsonRpcError(ethLog.getError());
+            }
+            range.accumulateAndGet(Math.max(1, size / 2), Math::min);
+
+            long middle = fromBlock + size / 2 - 1;
+            List<Log> logs = fetchLogs(ethFilter, fromBlock, middle, range);
+            logs.addAll(fetchLogs(ethFilter, middle + 1, toBlock, range));
+            return logs;
+        }
+
+        List<EthLog.LogResult> results = ethLog.getLogs();
+        List<Log> logs = new ArrayList<>(results.size());
+        for (EthLog.LogResult result : results) {
+            logs.add((Log) result.get());
+        }
+
+        if (logs.size() < SPARSE_LOG_COUNT) {
+            range.accumulateAndGet(
+                    size, (current, fetched) -> fetched < current ? current : grow(current));
+        }
+        return logs;
+    }
+
+    private EthLog sendWithRetry(EthFilter chunkFilter) throws IOException {
+        for (int retry = 0; ; retry++) {
+            EthLog ethLog;
+            try {
+                ethLog = web3j.ethGetLogs(chunkFilter).send();
+            } catch (ClientConnectionException e) {
+                // Most providers signal rate limits with an HTTP status, not a JSON-RPC error
+                if (retry == RATE_LIMIT_RETRIES || !isRateLimitError(e)) {
+                    throw e;
+                }
+                backOff(retry);
+                continue;
+            }
+            if (!ethLog.hasError()
+                    || retry == RATE_LIMIT_RETRIES
+                    || !isRateLimitError(ethLog.getError())) {
+                return ethLog;
+            }
+            backOff(retry);
+        }
+    }
+
+    private void backOff(int retry) throws InterruptedIOException {
+        try {
+            Thread.sleep(rateLimitBackoff << retry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off from rate limit");
+        }
+    }
+
+    private long grow(long range) {
+        return Math.min(maxRange, range * 2);
+    }
+
+    private EthFilter chunkFilter(EthFilter ethFilter, long fromBlock, long toBlock) {
+        EthFilter chunkFilter =
+                new EthFilter(
+                        new DefaultBlockParameterNumber(fromBlock),
+                        new DefaultBlockParameterNumber(toBlock),
+                        ethFilter.getAddress());
+        chunkFilter.getTopics().addAll(ethFilter.getTopics());
+        return chunkFilter;
+    }
+
+    private long getBlockNumber(DefaultBlockParameter defaultBlockParameter) throws IOException {
+        return BlockNumbers.resolve(web3j, defaultBlockParameter).longValueExact();
+    }
+}
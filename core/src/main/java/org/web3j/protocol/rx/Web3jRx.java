@@ -19,10 +19,12 @@ import io.reactivex.Flowable;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.methods.request.EthFilter;
 import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.core.methods.response.Transaction;
 import org.web3j.protocol.websocket.events.LogNotification;
 import org.web3j.protocol.websocket.events.NewHeadsNotification;
+import org.web3j.protocol.websocket.events.PendingTransactionObjectNotification;
 
 /** The Flowables JSON-RPC client event API. */
 public interface Web3jRx {
@@ -35,6 +37,67 @@ public interface Web3jRx {
      */
     Flowable<Log> ethLogFlowable(EthFilter ethFilter);
 
+    /**
+     * Create an flowable to filter for specific log events on the blockchain, which shares a
+     * single node side filter with other shared flowables on the same addresses, see {@link
+     * org.web3j.protocol.core.filters.LogSubscriptionRegistry}. The node side filter is cancelled
+     * with the last of them.
+     *
+     * @param ethFilter filter criteria, which must start at the latest or pending block
+     * @return a {@link Flowable} instance that emits all Log events matching the filter
+     * @throws IllegalArgumentException if the filter has a block hash or a historic start block
+     */
+    Flowable<Log> sharedEthLogFlowable(EthFilter ethFilter);
+
+    /**
+     * Create an flowable to filter for specific log events on the blockchain, buffering at most a
+     * bounded number of logs for a slow subscriber.
+     *
+     * @param ethFilter filter criteria
+     * @param backpressurePolicy bound of the buffer and what to do when it overflows
+     * @return a {@link Flowable} instance that emits Log events matching the filter
+     */
+    Flowable<Log> ethLogFlowable(EthFilter ethFilter, BackpressurePolicy backpressurePolicy);
+
+    /**
+     * Create a {@link Flowable} instance that emits the logs returned by a single eth_getLogs
+     * request as they are read from the response, rather than once the whole result has been
+     * deserialized. Logs are only parsed as they are requested, so a slow subscriber limits how
+     * much of the response is held in memory at any one time.
+     *
+     * <p>As with {@link org.web3j.protocol.core.methods.response.EthLog#getLogs()}, results are
+     * either {@link org.web3j.protocol.core.methods.response.EthLog.LogObject}s or {@link
+     * org.web3j.protocol.core.methods.response.EthLog.Hash}es. Raw responses are not captured for
+     * streamed results.
+     *
+     * @param ethFilter filter criteria
+     * @return a {@link Flowable} instance that emits all log results matching the filter
+     */
+    Flowable<EthLog.LogResult> ethGetLogsStream(EthFilter ethFilter);
+
+    /**
+     * Create a {@link Flowable} instance that emits all logs matching a filter over its block
+     * range, however large. The range is queried with eth_getLogs in chunks which adapt to
+     * provider limits and to the density of matching logs, see {@link LogBackfill}.
+     *
+     * @param ethFilter filter criteria, including the block range to replay
+     * @return a {@link Flowable} instance that emits all Log events matching the filter in block
+     *     order
+     */
+    Flowable<Log> replayPastLogsFlowable(EthFilter ethFilter);
+
+    /**
+     * Create a {@link Flowable} instance that emits all logs matching a filter over its block
+     * range without using eth_getLogs. Block headers are tested against the filter with their logs
+     * bloom, and receipts are only fetched for the blocks which may contain matching logs, see
+     * {@link BloomLogScanner}.
+     *
+     * @param ethFilter filter criteria, including the block range to scan
+     * @return a {@link Flowable} instance that emits all Log events matching the filter in block
+     *     order
+     */
+    Flowable<Log> scanPastLogsFlowable(EthFilter ethFilter);
+
     /**
      * Create an Flowable to emit block hashes.
      *
@@ -43,6 +106,16 @@ public interface Web3jRx {
      */
     Flowable<String> ethBlockHashFlowable();
 
+    /**
+     * Create an Flowable to emit block hashes, buffering at most a bounded number of hashes for a
+     * slow subscriber. Polling is paused while hashes are buffered.
+     *
+     * @param backpressurePolicy bound of the buffer and what to do when it overflows
+     * @return a {@link Flowable} instance that emits new block hashes as new blocks are created on
+     *     the blockchain
+     */
+    Flowable<String> ethBlockHashFlowable(BackpressurePolicy backpressurePolicy);
+
     /**
      * Create an Flowable to emit pending transactions, i.e. those transactions that have been
      * submitted by a node, but don't yet form part of a block (haven't been mined yet).
@@ -51,6 +124,15 @@ public interface Web3jRx {
      */
     Flowable<String> ethPendingTransactionHashFlowable();
 
+    /**
+     * Create an Flowable to emit pending transactions hashes, buffering at most a bounded number of
+     * hashes for a slow subscriber. Polling is paused while hashes are buffered.
+     *
+     * @param backpressurePolicy bound of the buffer and what to do when it overflows
+     * @return a {@link Flowable} instance to emit pending transaction hashes.
+     */
+    Flowable<String> ethPendingTransactionHashFlowable(BackpressurePolicy backpressurePolicy);
+
     /**
      * Create an {@link Flowable} instance to emit all new transactions as they are confirmed on the
      * blockchain. i.e. they have been mined and are incorporated into a block.
@@ -63,6 +145,9 @@ public interface Web3jRx {
      * Create an {@link Flowable} instance to emit all pending transactions that have yet to be
      * placed into a block on the blockchain.
      *
+     * <p>Over WebSockets, full transaction objects are subscribed to where the node supports it.
+     * Otherwise pending transaction hashes are polled and resolved with batch requests.
+     *
      * @return a {@link Flowable} instance to emit pending transactions
      */
     Flowable<Transaction> pendingTransactionFlowable();
@@ -110,6 +195,31 @@ public interface Web3jRx {
             boolean fullTransactionObjects,
             boolean ascending);
 
+    /**
+     * Create an {@link Flowable} instance that emits all blocks from the blockchain contained
+     * within the requested range, fetching them in JSON-RPC batches.
+     *
+     * <p>Up to {@code parallelism} batches of {@code batchSize} blocks are requested concurrently,
+     * while blocks are still emitted in order.
+     *
+     * @param startBlock block number to commence with
+     * @param endBlock block number to finish with
+     * @param fullTransactionObjects if true, provides transactions embedded in blocks, otherwise
+     *     transaction hashes
+     * @param ascending if true, emits blocks in ascending order between range, otherwise in
+     *     descending order
+     * @param batchSize number of blocks requested per batch
+     * @param parallelism maximum number of batches in flight
+     * @return a {@link Flowable} instance to emit these blocks
+     */
+    Flowable<EthBlock> replayPastBlocksFlowable(
+            DefaultBlockParameter startBlock,
+            DefaultBlockParameter endBlock,
+            boolean fullTransactionObjects,
+            boolean ascending,
+            int batchSize,
+            int parallelism);
+
     /**
      * Create a {@link Flowable} instance that emits all transactions from the blockchain starting
      * with a provided block number. Once it has replayed up to the most current block, the provided
@@ -177,6 +287,32 @@ public interface Web3jRx {
     Flowable<EthBlock> replayPastAndFutureBlocksFlowable(
             DefaultBlockParameter startBlock, boolean fullTransactionObjects);
 
+    /**
+     * Create a {@link Flowable} instance that emits changes to the canonical chain as new blocks
+     * are created. Chain reorganisations are detected from the block parent hashes, and emitted
+     * as rollbacks of the abandoned blocks followed by the application of the new ones, see
+     * {@link CanonicalChainTracker}.
+     *
+     * @param fullTransactionObjects if we require full {@link Transaction} objects to be provided
+     *     in the {@link EthBlock} responses
+     * @param confirmations number of blocks which must be built on a block before it is applied
+     * @return a {@link Flowable} instance to emit block events
+     */
+    Flowable<BlockEvent> canonicalBlockFlowable(boolean fullTransactionObjects, int confirmations);
+
+    /**
+     * As per {@link #canonicalBlockFlowable(boolean, int)}, except that all blocks from the
+     * requested block number to the most current are applied first.
+     *
+     * @param startBlock the block number we wish to request from
+     * @param fullTransactionObjects if we require full {@link Transaction} objects to be provided
+     *     in the {@link EthBlock} responses
+     * @param confirmations number of blocks which must be built on a block before it is applied
+     * @return a {@link Flowable} instance to emit block events
+     */
+    Flowable<BlockEvent> replayPastAndFutureCanonicalBlocksFlowable(
+            DefaultBlockParameter startBlock, boolean fullTransactionObjects, int confirmations);
+
     /**
      * As per {@link #replayPastAndFutureBlocksFlowable(DefaultBlockParameter, boolean)}, except
      * that all transactions contained within the blocks are emitted.
@@ -194,6 +330,16 @@ public interface Web3jRx {
      */
     Flowable<NewHeadsNotification> newHeadsNotifications();
 
+    /**
+     * Creates a {@link Flowable} instance that emits a notification with the full transaction
+     * object of every transaction added to the pending pool of the node. This subscription is not
+     * supported by all nodes, and some nodes ignore the request for full transaction objects and
+     * notify transaction hashes only.
+     *
+     * @return a {@link Flowable} instance that emits a notification for every pending transaction
+     */
+    Flowable<PendingTransactionObjectNotification> pendingTransactionObjectsNotifications();
+
     /**
      * Creates aa {@link Flowable} instance that emits notifications for logs included in new
      * imported blocks.
@@ -48,6 +48,7 @@ import org.web3j.protocol.core.Request;
 import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.response.EthSubscribe;
 import org.web3j.protocol.core.methods.response.EthUnsubscribe;
+import org.web3j.protocol.exceptions.JsonRpcError;
 import org.web3j.protocol.websocket.events.Notification;
 
 /**
@@ -366,7 +367,8 @@ public class WebSocketService implements Web3jService {
         subject.onError(
                 new IOException(
                         String.format(
-                                "Subscription request failed with error: %s", error.getMessage())));
+                                "Subscription request failed with error: %s", error.getMessage()),
+                        new JsonRpcError(error)));
     }
 
     @SuppressWarnings("unchecked")
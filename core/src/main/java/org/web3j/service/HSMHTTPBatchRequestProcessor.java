@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+
+import org.web3j.crypto.HSMHTTPPass;
+import org.web3j.crypto.Sign;
+
+/**
+ * Request processor to a HSM through the HTTP, for HSMs whose HTTP API accepts multiple digests
+ * per request. Several message hashes are signed with a single request, a single message hash is
+ * signed with a request created by {@link #createRequest(byte[], HSMHTTPPass)}.
+ *
+ * @param <T> Object with required parameters to perform request to a HSM
+ */
+public abstract class HSMHTTPBatchRequestProcessor<T extends HSMHTTPPass>
+        extends HSMHTTPRequestProcessor<T> {
+
+    public HSMHTTPBatchRequestProcessor(OkHttpClient okHttpClient) {
+        super(okHttpClient);
+    }
+
+    @Override
+    public List<Sign.SignatureData> callHSMBatch(List<byte[]> dataToSign, HSMHTTPPass pass) {
+        if (dataToSign.size() < 2) {
+            return super.callHSMBatch(dataToSign, pass);
+        }
+        return execute(
+                createBatchRequest(dataToSign, pass),
+                response -> toSignatureData(readBatchSignatures(response), dataToSign, pass));
+    }
+
+    @Override
+    public CompletableFuture<List<Sign.SignatureData>> callHSMAsync(
+            List<byte[]> dataToSign, HSMHTTPPass pass) {
+        if (dataToSign.size() < 2) {
+            return super.callHSMAsync(dataToSign, pass);
+        }
+        return enqueue(
+                createBatchRequest(dataToSign, pass),
+                response -> toSignatureData(readBatchSignatures(response), dataToSign, pass));
+    }
+
+    /**
+     * Create a request to sign several message hashes at once.
+     *
+     * @param dataToSign message hashes to sign
+     * @param pass Object with required parameters to perform request to a HSM
+     * @return the request
+     */
+    protected abstract Request createBatchRequest(List<byte[]> dataToSign, HSMHTTPPass pass);
+
+    /**
+     * Read the response to a request created by {@link #createBatchRequest(List, HSMHTTPPass)}.
+     *
+     * @param responseData response body
+     * @return DER encoded signatures as hex strings, in the order of the message hashes
+     */
+    protected abstract List<String> readBatchResponse(InputStream responseData);
+
+    private List<String> readBatchSignatures(okhttp3.Response response) throws IOException {
+        return readBatchResponse(successfulBody(response).byteStream());
+    }
+}
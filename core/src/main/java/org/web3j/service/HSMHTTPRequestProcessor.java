@@ -14,13 +14,17 @@ package org.web3j.service;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.ResponseBody;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import org.web3j.crypto.CryptoUtils;
 import org.web3j.crypto.ECDSASignature;
@@ -32,13 +36,15 @@ import org.web3j.utils.Numeric;
 /**
  * Request processor to a HSM through the HTTP
  *
+ * <p>Asynchronous calls are enqueued on the OkHttp dispatcher, so no thread is blocked while a
+ * request is in flight. HSMs whose HTTP API accepts multiple digests per request are supported by
+ * {@link HSMHTTPBatchRequestProcessor}.
+ *
  * @param <T> Object with required parameters to perform request to a HSM
  */
 public abstract class HSMHTTPRequestProcessor<T extends HSMHTTPPass>
         implements HSMRequestProcessor<HSMHTTPPass> {
 
-    private static final Logger log = LoggerFactory.getLogger(HSMHTTPRequestProcessor.class);
-
     public static final MediaType JSON = MediaType.parse("application/json");
 
     private final OkHttpClient client;
@@ -49,34 +55,114 @@ public abstract class HSMHTTPRequestProcessor<T extends HSMHTTPPass>
 
     @Override
     public Sign.SignatureData callHSM(byte[] dataToSign, HSMHTTPPass pass) {
-        Request request = createRequest(dataToSign, pass);
+        return execute(
+                createRequest(dataToSign, pass),
+                response -> toSignatureData(readSignature(response), dataToSign, pass));
+    }
+
+    @Override
+    public CompletableFuture<List<Sign.SignatureData>> callHSMAsync(
+            List<byte[]> dataToSign, HSMHTTPPass pass) {
+        List<CompletableFuture<Sign.SignatureData>> futures = new ArrayList<>();
+        for (byte[] messageHash : dataToSign) {
+            futures.add(
+                    enqueue(
+                            createRequest(messageHash, pass),
+                            response ->
+                                    toSignatureData(readSignature(response), messageHash, pass)));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(
+                        v ->
+                                futures.stream()
+                                        .map(CompletableFuture::join)
+                                        .collect(Collectors.toList()));
+    }
+
+    protected abstract Request createRequest(byte[] dataToSign, HSMHTTPPass pass);
+
+    protected abstract String readResponse(InputStream responseData);
 
+    <R> R execute(Request request, ResponseReader<R> reader) {
         try (okhttp3.Response response = client.newCall(request).execute()) {
-            ResponseBody responseBody = response.body();
-            if (response.isSuccessful()) {
-                if (responseBody != null) {
-                    String signHex = readResponse(responseBody.byteStream());
-                    byte[] signBytes = Numeric.hexStringToByteArray(signHex);
-                    ECDSASignature signature = CryptoUtils.fromDerFormat(signBytes);
-
-                    return Sign.createSignatureData(signature, pass.getPublicKey(), dataToSign);
-                } else {
-                    return null;
-                }
-            } else {
-                int code = response.code();
-                String text = responseBody == null ? "N/A" : responseBody.string();
-                throw new ClientConnectionException(
-                        "Invalid response received: " + code + "; " + text);
-            }
+            return reader.read(response);
         } catch (IOException e) {
-            log.error(e.getMessage(), e);
+            throw requestFailed(e);
         }
+    }
 
-        return null;
+    <R> CompletableFuture<R> enqueue(Request request, ResponseReader<R> reader) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        client.newCall(request)
+                .enqueue(
+                        new Callback() {
+                            @Override
+                            public void onFailure(Call call, IOException e) {
+                                result.completeExceptionally(requestFailed(e));
+                            }
+
+                            @Override
+                            public void onResponse(Call call, okhttp3.Response response) {
+                                try (okhttp3.Response r = response) {
+                                    result.complete(reader.read(r));
+                                } catch (IOException e) {
+                                    result.completeExceptionally(requestFailed(e));
+                                } catch (Throwable e) {
+                                    result.completeExceptionally(e);
+                                }
+                            }
+                        });
+        return result;
     }
 
-    protected abstract Request createRequest(byte[] dataToSign, HSMHTTPPass pass);
+    private String readSignature(okhttp3.Response response) throws IOException {
+        return readResponse(successfulBody(response).byteStream());
+    }
 
-    protected abstract String readResponse(InputStream responseData);
+    static ResponseBody successfulBody(okhttp3.Response response) throws IOException {
+        ResponseBody responseBody = response.body();
+        if (!response.isSuccessful()) {
+            int code = response.code();
+            String text = responseBody == null ? "N/A" : responseBody.string();
+            throw new ClientConnectionException(
+                    "Invalid response received: " + code + "; " + text, code);
+        }
+        if (responseBody == null) {
+            throw new ClientConnectionException("Empty response received from HSM");
+        }
+        return responseBody;
+    }
+
+    static List<Sign.SignatureData> toSignatureData(
+            List<String> signHexes, List<byte[]> dataToSign, HSMHTTPPass pass) {
+        if (signHexes == null || signHexes.size() != dataToSign.size()) {
+            throw new ClientConnectionException(
+                    "Expected "
+                            + dataToSign.size()
+                            + " signatures from HSM, received "
+                            + (signHexes == null ? 0 : signHexes.size()));
+        }
+
+        List<Sign.SignatureData> signatures = new ArrayList<>(dataToSign.size());
+        for (int i = 0; i < dataToSign.size(); i++) {
+            signatures.add(toSignatureData(signHexes.get(i), dataToSign.get(i), pass));
+        }
+        return signatures;
+    }
+
+    private static Sign.SignatureData toSignatureData(
+            String signHex, byte[] dataToSign, HSMHTTPPass pass) {
+        byte[] signBytes = Numeric.hexStringToByteArray(signHex);
+        ECDSASignature signature = CryptoUtils.fromDerFormat(signBytes);
+
+        return Sign.createSignatureData(signature, pass.getPublicKey(), dataToSign);
+    }
+
+    private static ClientConnectionException requestFailed(IOException e) {
+        return new ClientConnectionException("HSM request failed: " + e.getMessage(), e);
+    }
+
+    interface ResponseReader<R> {
+        R read(okhttp3.Response response) throws IOException;
+    }
 }
@@ -12,8 +12,13 @@
  */
 package org.web3j.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 import org.web3j.crypto.HSMPass;
 import org.web3j.crypto.Sign;
+import org.web3j.utils.Async;
 
 /**
  * Request processor to a HSM (hardware security module).
@@ -30,4 +35,36 @@ public interface HSMRequestProcessor<T extends HSMPass> {
      * @return SignatureData v | r | s
      */
     Sign.SignatureData callHSM(byte[] dataToSign, T pass);
+
+    /**
+     * Call a HSM (hardware security module) to sign several message hashes. HSMs which accept
+     * multiple digests per request should override this method, the default implementation calls
+     * the HSM once per message hash.
+     *
+     * @param dataToSign message hashes to sign.
+     * @param pass Object with required parameters to perform request to a HSM.
+     * @return SignatureData v | r | s of each message hash, in the same order
+     */
+    default List<Sign.SignatureData> callHSMBatch(List<byte[]> dataToSign, T pass) {
+        List<Sign.SignatureData> signatures = new ArrayList<>(dataToSign.size());
+        for (byte[] messageHash : dataToSign) {
+            signatures.add(callHSM(messageHash, pass));
+        }
+        return signatures;
+    }
+
+    /**
+     * Call a HSM (hardware security module) asynchronously to sign several message hashes. The
+     * default implementation runs {@link #callHSMBatch(List, HSMPass)} on the {@link Async}
+     * executor.
+     *
+     * @param dataToSign message hashes to sign.
+     * @param pass Object with required parameters to perform request to a HSM.
+     * @return future completing with SignatureData v | r | s of each message hash, in the same
+     *     order, or exceptionally if the HSM could not be called
+     */
+    default CompletableFuture<List<Sign.SignatureData>> callHSMAsync(
+            List<byte[]> dataToSign, T pass) {
+        return Async.run(() -> callHSMBatch(dataToSign, pass));
+    }
 }
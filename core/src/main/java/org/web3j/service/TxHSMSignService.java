@@ -12,58 +12,245 @@
  */
 package org.web3j.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.web3j.crypto.HSMPass;
 import org.web3j.crypto.Hash;
 import org.web3j.crypto.RawTransaction;
 import org.web3j.crypto.Sign;
 import org.web3j.crypto.transaction.type.TransactionType;
+import org.web3j.protocol.exceptions.ClientConnectionException;
 import org.web3j.tx.ChainId;
 
 import static org.web3j.crypto.TransactionEncoder.createEip155SignatureData;
 import static org.web3j.crypto.TransactionEncoder.encode;
 
-/** Service to sign transaction with HSM (hardware security module). */
+/**
+ * Service to sign transaction with HSM (hardware security module).
+ *
+ * <p>Asynchronous signatures are queued, and at most {@code maxConcurrentRequests} requests are in
+ * flight to the HSM at any time. While all requests are in flight, further message hashes are
+ * collected and sent together, up to {@code maxBatchSize} per request, once a request completes.
+ * Batching should only be enabled for {@link HSMRequestProcessor}s which sign multiple digests in
+ * one request.
+ */
 public class TxHSMSignService<T extends HSMPass> implements TxSignService {
 
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 4;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 1;
+
     private final T hsmPass;
     private final HSMRequestProcessor<T> hsmRequestProcessor;
+    private final int maxConcurrentRequests;
+    private final int maxBatchSize;
+
+    private final Queue<PendingSignature> pendingSignatures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
 
     public TxHSMSignService(HSMRequestProcessor<T> hsmRequestProcessor, T hsmPass) {
+        this(
+                hsmRequestProcessor,
+                hsmPass,
+                DEFAULT_MAX_CONCURRENT_REQUESTS,
+                DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    /**
+     * Create a new HSM sign service.
+     *
+     * @param hsmRequestProcessor request processor to the HSM
+     * @param hsmPass Object with required parameters to perform request to a HSM
+     * @param maxConcurrentRequests maximum number of asynchronous requests in flight to the HSM
+     * @param maxBatchSize maximum number of message hashes per asynchronous request
+     */
+    public TxHSMSignService(
+            HSMRequestProcessor<T> hsmRequestProcessor,
+            T hsmPass,
+            int maxConcurrentRequests,
+            int maxBatchSize) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException(
+                    "Invalid maximum number of concurrent requests: " + maxConcurrentRequests);
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Invalid maximum batch size: " + maxBatchSize);
+        }
         this.hsmPass = hsmPass;
         this.hsmRequestProcessor = hsmRequestProcessor;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.maxBatchSize = maxBatchSize;
     }
 
     @Override
     public byte[] sign(RawTransaction rawTransaction, long chainId) {
-        byte[] finalBytes;
-        byte[] encodedTransaction;
-        Sign.SignatureData signatureData;
         // Legacy tx is tx before Eip1559, should have chainId as an additional parameter.
         // After Eip1559 chainId is a part of tx.
-        boolean isLegacy =
-                chainId > ChainId.NONE && rawTransaction.getType().equals(TransactionType.LEGACY);
+        boolean isLegacy = isLegacy(rawTransaction, chainId);
+        byte[] messageHash = messageHash(rawTransaction, chainId, isLegacy);
+
+        Sign.SignatureData signatureData = hsmRequestProcessor.callHSM(messageHash, hsmPass);
+
+        return encodeSigned(rawTransaction, chainId, isLegacy, signatureData);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> signAsync(RawTransaction rawTransaction, long chainId) {
+        PendingSignature pendingSignature;
+        try {
+            pendingSignature = new PendingSignature(rawTransaction, chainId);
+        } catch (Throwable e) {
+            CompletableFuture<byte[]> result = new CompletableFuture<>();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        pendingSignatures.add(pendingSignature);
+        dispatch();
+        return pendingSignature.future;
+    }
+
+    @Override
+    public String getAddress() {
+        return hsmPass.getAddress();
+    }
+
+    /**
+     * The number of asynchronous signatures which have not been sent to the HSM yet.
+     *
+     * @return number of queued signatures
+     */
+    public int getQueuedCount() {
+        return pendingSignatures.size();
+    }
+
+    private void dispatch() {
+        while (!pendingSignatures.isEmpty()) {
+            int inFlight = requestsInFlight.get();
+            if (inFlight >= maxConcurrentRequests) {
+                // The completion of a request in flight dispatches the queued signatures
+                return;
+            }
+            if (!requestsInFlight.compareAndSet(inFlight, inFlight + 1)) {
+                continue;
+            }
+
+            List<PendingSignature> batch = new ArrayList<>();
+            PendingSignature pendingSignature;
+            while (batch.size() < maxBatchSize
+                    && (pendingSignature = pendingSignatures.poll()) != null) {
+                batch.add(pendingSignature);
+            }
 
+            if (batch.isEmpty()) {
+                requestsInFlight.decrementAndGet();
+            } else {
+                send(batch);
+            }
+        }
+    }
+
+    private void send(List<PendingSignature> batch) {
+        List<byte[]> messageHashes = new ArrayList<>(batch.size());
+        for (PendingSignature pendingSignature : batch) {
+            messageHashes.add(pendingSignature.messageHash);
+        }
+
+        CompletableFuture<List<Sign.SignatureData>> request;
+        try {
+            request = hsmRequestProcessor.callHSMAsync(messageHashes, hsmPass);
+        } catch (Throwable e) {
+            request = new CompletableFuture<>();
+            request.completeExceptionally(e);
+        }
+
+        request.whenComplete(
+                (signatures, error) -> {
+                    requestsInFlight.decrementAndGet();
+                    complete(batch, signatures, error);
+                    dispatch();
+                });
+    }
+
+    private static void complete(
+            List<PendingSignature> batch, List<Sign.SignatureData> signatures, Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error == null && (signatures == null || signatures.size() != batch.size())) {
+            error =
+                    new ClientConnectionException(
+                            "Expected "
+                                    + batch.size()
+                                    + " signatures from HSM, received "
+                                    + (signatures == null ? 0 : signatures.size()));
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            PendingSignature pendingSignature = batch.get(i);
+            if (error != null) {
+                pendingSignature.future.completeExceptionally(error);
+                continue;
+            }
+            try {
+                pendingSignature.future.complete(
+                        encodeSigned(
+                                pendingSignature.rawTransaction,
+                                pendingSignature.chainId,
+                                pendingSignature.isLegacy,
+                                signatures.get(i)));
+            } catch (Throwable e) {
+                pendingSignature.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static boolean isLegacy(RawTransaction rawTransaction, long chainId) {
+        return chainId > ChainId.NONE && rawTransaction.getType().equals(TransactionType.LEGACY);
+    }
+
+    private static byte[] messageHash(
+            RawTransaction rawTransaction, long chainId, boolean isLegacy) {
+        byte[] encodedTransaction;
         if (isLegacy) {
             encodedTransaction = encode(rawTransaction, chainId);
         } else {
             encodedTransaction = encode(rawTransaction);
         }
 
-        byte[] messageHash = Hash.sha3(encodedTransaction);
-
-        signatureData = hsmRequestProcessor.callHSM(messageHash, hsmPass);
+        return Hash.sha3(encodedTransaction);
+    }
 
+    private static byte[] encodeSigned(
+            RawTransaction rawTransaction,
+            long chainId,
+            boolean isLegacy,
+            Sign.SignatureData signatureData) {
         if (isLegacy) {
             signatureData = createEip155SignatureData(signatureData, chainId);
         }
 
-        finalBytes = encode(rawTransaction, signatureData);
-
-        return finalBytes;
+        return encode(rawTransaction, signatureData);
     }
 
-    @Override
-    public String getAddress() {
-        return hsmPass.getAddress();
+    private static class PendingSignature {
+
+        private final RawTransaction rawTransaction;
+        private final long chainId;
+        private final boolean isLegacy;
+        private final byte[] messageHash;
+        private final CompletableFuture<byte[]> future = new CompletableFuture<>();
+
+        PendingSignature(RawTransaction rawTransaction, long chainId) {
+            this.rawTransaction = rawTransaction;
+            this.chainId = chainId;
+            this.isLegacy = TxHSMSignService.isLegacy(rawTransaction, chainId);
+            this.messageHash = messageHash(rawTransaction, chainId, isLegacy);
+        }
     }
 }
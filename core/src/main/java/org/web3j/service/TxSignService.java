@@ -12,6 +12,8 @@
  */
 package org.web3j.service;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.web3j.crypto.RawTransaction;
 
 /** Service to sign transaction. */
@@ -26,6 +28,25 @@ public interface TxSignService {
      */
     byte[] sign(RawTransaction rawTransaction, long chainId);
 
+    /**
+     * Sign raw transaction asynchronously. The default implementation signs on the calling thread,
+     * services which sign remotely should override it.
+     *
+     * @param rawTransaction Raw transaction
+     * @param chainId Ethereum chain id, -1 is NONE
+     * @return future completing with the transaction signature, or exceptionally if the
+     *     transaction could not be signed
+     */
+    default CompletableFuture<byte[]> signAsync(RawTransaction rawTransaction, long chainId) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        try {
+            result.complete(sign(rawTransaction, chainId));
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
     /**
      * Get key address of the current wallet
      *
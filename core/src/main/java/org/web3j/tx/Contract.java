@@ -50,6 +50,7 @@ import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.tx.exceptions.ContractCallException;
 import org.web3j.tx.gas.ContractEIP1559GasProvider;
 import org.web3j.tx.gas.ContractGasProvider;
+import org.web3j.tx.gas.EstimatingGasProvider;
 import org.web3j.tx.gas.StaticGasProvider;
 import org.web3j.tx.response.EmptyTransactionReceipt;
 
@@ -388,7 +389,9 @@ public abstract class Contract extends ManagedTransaction {
             throws TransactionException, IOException {
 
         TransactionReceipt receipt = null;
+        BigInteger gasLimit;
         try {
+            gasLimit = getGasLimit(data, weiValue, funcName, constructor);
             if (gasProvider instanceof ContractEIP1559GasProvider) {
                 ContractEIP1559GasProvider eip1559GasProvider =
                         (ContractEIP1559GasProvider) gasProvider;
@@ -399,7 +402,7 @@ public abstract class Contract extends ManagedTransaction {
                                     contractAddress,
                                     data,
                                     weiValue,
-                                    eip1559GasProvider.getGasLimit(funcName),
+                                    gasLimit,
                                     eip1559GasProvider.getMaxPriorityFeePerGas(funcName),
                                     eip1559GasProvider.getMaxFeePerGas(funcName),
                                     constructor);
@@ -413,7 +416,7 @@ public abstract class Contract extends ManagedTransaction {
                                 data,
                                 weiValue,
                                 gasProvider.getGasPrice(funcName),
-                                gasProvider.getGasLimit(funcName),
+                                gasLimit,
                                 constructor);
             }
         } catch (JsonRpcError error) {
@@ -428,6 +431,14 @@ public abstract class Contract extends ManagedTransaction {
             }
         }
 
+        if (gasProvider instanceof EstimatingGasProvider
+                && !constructor
+                && !(receipt instanceof EmptyTransactionReceipt)
+                && receipt != null) {
+            ((EstimatingGasProvider) gasProvider)
+                    .onTransactionReceipt(contractAddress, data, gasLimit, receipt);
+        }
+
         if (!(receipt instanceof EmptyTransactionReceipt)
                 && receipt != null
                 && !receipt.isStatusOK()) {
@@ -447,6 +458,20 @@ public abstract class Contract extends ManagedTransaction {
         return receipt;
     }
 
+    private BigInteger getGasLimit(
+            String data, BigInteger weiValue, String funcName, boolean constructor)
+            throws IOException {
+        if (gasProvider instanceof EstimatingGasProvider) {
+            return ((EstimatingGasProvider) gasProvider)
+                    .getGasLimit(
+                            transactionManager.getFromAddress(),
+                            constructor ? null : contractAddress,
+                            data,
+                            weiValue);
+        }
+        return gasProvider.getGasLimit(funcName);
+    }
+
     protected <T extends Type> RemoteFunctionCall<T> executeRemoteCallSingleValueReturn(
             Function function) {
         return new RemoteFunctionCall<>(function, () -> executeCallSingleValueReturn(function));
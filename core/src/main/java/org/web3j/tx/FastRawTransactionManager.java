@@ -14,20 +14,40 @@ package org.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
 
 import org.web3j.crypto.Credentials;
+import org.web3j.crypto.RawTransaction;
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.service.TxSignService;
 import org.web3j.tx.response.TransactionReceiptProcessor;
 
 /**
  * Simple RawTransactionManager derivative that manages nonces to facilitate multiple transactions
  * per block.
+ *
+ * <p>If a {@link NonceManager} is given, nonces are acquired from it instead, which allows many
+ * managers, for the same or different accounts, to send concurrently, and reuses the nonces of
+ * transactions that could not be sent.
  */
 public class FastRawTransactionManager extends RawTransactionManager {
 
+    private static final String[] NONCE_ERROR_MESSAGES = {
+        "nonce too low",
+        "oldnonce",
+        "already known",
+        "known transaction",
+        "replacement transaction underpriced",
+        "replacement underpriced"
+    };
+
     private volatile BigInteger nonce = BigInteger.valueOf(-1);
 
+    private NonceManager nonceManager;
+
     public FastRawTransactionManager(Web3j web3j, Credentials credentials, long chainId) {
         super(web3j, credentials, chainId);
     }
@@ -57,30 +77,158 @@ public class FastRawTransactionManager extends RawTransactionManager {
         super(web3j, credentials, chainId, transactionReceiptProcessor);
     }
 
+    public FastRawTransactionManager(
+            Web3j web3j, Credentials credentials, long chainId, NonceManager nonceManager) {
+        super(web3j, credentials, chainId);
+        this.nonceManager = nonceManager;
+    }
+
+    public FastRawTransactionManager(
+            Web3j web3j, TxSignService txSignService, long chainId, NonceManager nonceManager) {
+        super(web3j, txSignService, chainId);
+        this.nonceManager = nonceManager;
+    }
+
+    @Override
+    protected BigInteger getNonce() throws IOException {
+        if (nonceManager != null) {
+            return nonceManager.acquire(getFromAddress());
+        }
+
+        synchronized (this) {
+            if (nonce.signum() == -1) {
+                // obtain lock
+                nonce = super.getNonce();
+            } else {
+                nonce = nonce.add(BigInteger.ONE);
+            }
+            return nonce;
+        }
+    }
+
+    @Override
+    public EthSendTransaction signAndSend(RawTransaction rawTransaction) throws IOException {
+        if (nonceManager == null) {
+            return super.signAndSend(rawTransaction);
+        }
+
+        String hexValue;
+        try {
+            hexValue = sign(rawTransaction);
+        } catch (RuntimeException e) {
+            // Nothing was sent, so the nonce can be reused
+            nonceManager.release(getFromAddress(), rawTransaction.getNonce());
+            throw e;
+        }
+
+        EthSendTransaction ethSendTransaction;
+        try {
+            ethSendTransaction = sendSigned(hexValue);
+        } catch (IOException | RuntimeException e) {
+            settle(rawTransaction.getNonce(), null, e);
+            throw e;
+        }
+
+        settle(rawTransaction.getNonce(), ethSendTransaction, null);
+        return ethSendTransaction;
+    }
+
     @Override
-    protected synchronized BigInteger getNonce() throws IOException {
-        if (nonce.signum() == -1) {
-            // obtain lock
-            nonce = super.getNonce();
+    public CompletableFuture<EthSendTransaction> signAndSendAsync(RawTransaction rawTransaction) {
+        if (nonceManager == null) {
+            return super.signAndSendAsync(rawTransaction);
+        }
+
+        return signAsync(rawTransaction)
+                .whenComplete(
+                        (hexValue, error) -> {
+                            if (error != null) {
+                                nonceManager.release(getFromAddress(), rawTransaction.getNonce());
+                            }
+                        })
+                .thenCompose(
+                        hexValue ->
+                                sendSignedAsync(hexValue)
+                                        .whenComplete(
+                                                (ethSendTransaction, error) ->
+                                                        settle(
+                                                                rawTransaction.getNonce(),
+                                                                ethSendTransaction,
+                                                                error)));
+    }
+
+    /**
+     * Determine whether the node rejected a transaction because its nonce has already been used,
+     * e.g. by an earlier attempt to send the same transaction which appeared to fail.
+     *
+     * @param error error returned by the node
+     * @return true if the nonce of the transaction has been used
+     */
+    protected boolean isNonceError(Response.Error error) {
+        String message =
+                error.getMessage() == null ? "" : error.getMessage().toLowerCase(Locale.ROOT);
+        for (String fragment : NONCE_ERROR_MESSAGES) {
+            if (message.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Settle the nonce of a signed transaction. Only a rejection unrelated to the nonce, such as
+     * insufficient funds, returns it to be reused. If the transaction was accepted, its nonce was
+     * used, or sending it failed in a way that leaves open whether the node received it, e.g. a
+     * read timeout, the nonce is no longer in flight, and {@link NonceManager#detectGaps()}
+     * reissues it should the node not know the transaction.
+     */
+    private void settle(BigInteger nonce, EthSendTransaction ethSendTransaction, Throwable error) {
+        if (error == null
+                && ethSendTransaction != null
+                && ethSendTransaction.hasError()
+                && !isNonceError(ethSendTransaction.getError())) {
+            nonceManager.release(getFromAddress(), nonce);
         } else {
-            nonce = nonce.add(BigInteger.ONE);
+            nonceManager.confirm(getFromAddress(), nonce);
         }
-        return nonce;
+    }
+
+    public NonceManager getNonceManager() {
+        return nonceManager;
     }
 
     public BigInteger getCurrentNonce() {
+        if (nonceManager != null) {
+            BigInteger next = nonceManager.getNextNonce(getFromAddress());
+            return next.signum() == -1 ? next : next.subtract(BigInteger.ONE);
+        }
         return nonce;
     }
 
-    public synchronized void resetNonce() throws IOException {
-        nonce = super.getNonce().subtract(BigInteger.ONE);
+    public void resetNonce() throws IOException {
+        if (nonceManager != null) {
+            nonceManager.reset(getFromAddress());
+            return;
+        }
+
+        // Query the node without holding the lock, so concurrent senders are not blocked
+        BigInteger pending = super.getNonce();
+        synchronized (this) {
+            nonce = pending.subtract(BigInteger.ONE);
+        }
     }
 
     public synchronized void clearNonce() {
+        if (nonceManager != null) {
+            nonceManager.reset(getFromAddress());
+        }
         nonce = BigInteger.valueOf(-1);
     }
 
     public synchronized void setNonce(BigInteger value) {
+        if (nonceManager != null) {
+            nonceManager.setNextNonce(getFromAddress(), value.add(BigInteger.ONE));
+        }
         nonce = value;
     }
 }
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+
+/**
+ * Hands out nonces for any number of sender accounts without locking.
+ *
+ * <p>Each account keeps an atomic counter, which is initialised from the pending transaction
+ * count of the account the first time a nonce is acquired. Acquired nonces are in flight until
+ * they are either confirmed, once the node accepted the transaction, or released, if sending it
+ * failed. Released nonces are handed out again before the counter is advanced, so a failed send
+ * does not leave a gap that stalls the account.
+ *
+ * <p>Nonces can still go missing, e.g. if a node drops an accepted transaction from its pool.
+ * {@link #start(ScheduledExecutorService, long)} periodically compares the counters with the
+ * pending transaction counts reported by the node, in a single batch request, and reissues a
+ * missing nonce once the same gap has been observed twice in a row.
+ *
+ * <pre>
+ * NonceManager nonceManager = new NonceManager(web3j);
+ * nonceManager.start(scheduledExecutorService, 15000);
+ * TransactionManager transactionManager =
+ *         new FastRawTransactionManager(web3j, credentials, chainId, nonceManager);
+ * </pre>
+ */
+public class NonceManager {
+
+    private static final Logger log = LoggerFactory.getLogger(NonceManager.class);
+
+    private static final long UNINITIALISED = -1;
+
+    private final Web3j web3j;
+    private final ConcurrentMap<String, AccountNonces> accounts = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> schedule;
+
+    public NonceManager(Web3j web3j) {
+        this.web3j = web3j;
+    }
+
+    /**
+     * Acquire the next nonce of an account. The nonce must be passed to either {@link
+     * #confirm(String, BigInteger)} or {@link #release(String, BigInteger)} once the transaction
+     * using it has been sent.
+     *
+     * @param address sender account
+     * @return nonce to use for the next transaction of the account
+     * @throws IOException if the pending transaction count of the account could not be retrieved
+     */
+    public BigInteger acquire(String address) throws IOException {
+        AccountNonces account = account(address);
+        if (account.next.get() == UNINITIALISED) {
+            // Concurrent first acquisitions may all query the node, only one of them is used
+            account.next.compareAndSet(UNINITIALISED, getTransactionCount(address));
+        }
+        return BigInteger.valueOf(account.acquire());
+    }
+
+    /**
+     * Mark a nonce as used, after the transaction using it was accepted by the node, or may have
+     * reached it. {@link #detectGaps()} reissues the nonce should the node not know the
+     * transaction.
+     *
+     * @param address sender account
+     * @param nonce nonce returned by {@link #acquire(String)}
+     */
+    public void confirm(String address, BigInteger nonce) {
+        AccountNonces account = accounts.get(key(address));
+        if (account != null) {
+            account.inFlight.remove(nonce.longValue());
+        }
+    }
+
+    /**
+     * Return a nonce, after sending the transaction using it failed, so that it is reused by the
+     * next transaction of the account. Nonces below the pending transaction count seen by the last
+     * gap detection are not reused, as the node has already accepted a transaction using them.
+     *
+     * @param address sender account
+     * @param nonce nonce returned by {@link #acquire(String)}
+     */
+    public void release(String address, BigInteger nonce) {
+        AccountNonces account = accounts.get(key(address));
+        if (account != null) {
+            account.release(nonce.longValue());
+        }
+    }
+
+    /**
+     * Set the next nonce of an account, discarding any released nonces.
+     *
+     * @param address sender account
+     * @param nonce nonce to use for the next transaction of the account
+     */
+    public void setNextNonce(String address, BigInteger nonce) {
+        AccountNonces account = account(address);
+        account.released.clear();
+        account.reconciled = UNINITIALISED;
+        account.next.set(nonce.longValue());
+    }
+
+    /**
+     * The nonce the next transaction of an account will use, if no released nonce is reused.
+     *
+     * @param address sender account
+     * @return next nonce, or -1 if no nonce has been acquired for the account yet
+     */
+    public BigInteger getNextNonce(String address) {
+        AccountNonces account = accounts.get(key(address));
+        return BigInteger.valueOf(account == null ? UNINITIALISED : account.next.get());
+    }
+
+    public int getInFlightCount(String address) {
+        AccountNonces account = accounts.get(key(address));
+        return account == null ? 0 : account.inFlight.size();
+    }
+
+    /**
+     * Discard the state of an account, its counter is initialised from the node again on the
+     * next acquisition. Nonces acquired before the reset are ignored when they are confirmed or
+     * released.
+     *
+     * @param address sender account
+     */
+    public void reset(String address) {
+        accounts.remove(key(address));
+    }
+
+    /**
+     * Periodically check all accounts for gaps.
+     *
+     * @param scheduledExecutorService executor to run the checks on
+     * @param interval interval between checks in milliseconds
+     */
+    public synchronized void start(
+            ScheduledExecutorService scheduledExecutorService, long interval) {
+        if (schedule != null) {
+            return;
+        }
+        schedule =
+                scheduledExecutorService.scheduleAtFixedRate(
+                        () -> {
+                            try {
+                                detectGaps();
+                            } catch (Throwable e) {
+                                // All exceptions must be caught, otherwise our job terminates
+                                // without any notification
+                                log.warn("Error detecting nonce gaps", e);
+                            }
+                        },
+                        interval,
+                        interval,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    /** Stop checking for gaps. */
+    public synchronized void shutdown() {
+        if (schedule != null) {
+            schedule.cancel(false);
+            schedule = null;
+        }
+    }
+
+    /**
+     * Compare the counters of all accounts with their pending transaction counts.
+     *
+     * <ul>
+     *   <li>If the node reports a higher count, transactions were sent by another party and the
+     *       counter is advanced.
+     *   <li>Released nonces below the count are discarded, as they have been used.
+     *   <li>If the count is below the counter, and the nonce at the count is neither in flight
+     *       nor released, the node does not know the transaction using it. Once this has been
+     *       observed twice, the nonce is released to be reused.
+     * </ul>
+     *
+     * @throws IOException if the pending transaction counts could not be retrieved
+     */
+    public void detectGaps() throws IOException {
+        BatchRequest batchRequest = web3j.newBatch();
+        List<AccountNonces> requested = new ArrayList<>();
+        for (Map.Entry<String, AccountNonces> entry : accounts.entrySet()) {
+            if (entry.getValue().next.get() == UNINITIALISED) {
+                continue;
+            }
+            requested.add(entry.getValue());
+            batchRequest.add(
+                    web3j.ethGetTransactionCount(
+                            entry.getKey(), DefaultBlockParameterName.PENDING));
+        }
+
+        if (requested.isEmpty()) {
+            return;
+        }
+
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            throw new IOException("No response received for transaction counts");
+        }
+
+        List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+        for (int i = 0; i < requested.size(); i++) {
+            Response<?> response = responses.get(i);
+            if (response == null) {
+                continue;
+            }
+            if (response.hasError()) {
+                log.warn(
+                        "Error retrieving transaction count: {}",
+                        response.getError().getMessage());
+                continue;
+            }
+            long transactionCount =
+                    ((EthGetTransactionCount) response).getTransactionCount().longValue();
+            requested.get(i).reconcile(transactionCount);
+        }
+    }
+
+    private AccountNonces account(String address) {
+        return accounts.computeIfAbsent(key(address), k -> new AccountNonces());
+    }
+
+    private long getTransactionCount(String address) throws IOException {
+        EthGetTransactionCount ethGetTransactionCount =
+                web3j.ethGetTransactionCount(address, DefaultBlockParameterName.PENDING).send();
+        if (ethGetTransactionCount.hasError()) {
+            throw new IOException(
+                    "Error retrieving transaction count: "
+                            + ethGetTransactionCount.getError().getMessage());
+        }
+        return ethGetTransactionCount.getTransactionCount().longValue();
+    }
+
+    private static String key(String address) {
+        return address.toLowerCase();
+    }
+
+    private static class AccountNonces {
+
+        private final AtomicLong next = new AtomicLong(UNINITIALISED);
+        private final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+        private final ConcurrentSkipListSet<Long> released = new ConcurrentSkipListSet<>();
+
+        private long lastGap = UNINITIALISED;
+        /** Pending transaction count of the account at the last gap detection. */
+        private volatile long reconciled = UNINITIALISED;
+
+        long acquire() {
+            Long reused = released.pollFirst();
+            long nonce = reused != null ? reused : next.getAndIncrement();
+            inFlight.add(nonce);
+            return nonce;
+        }
+
+        void release(long nonce) {
+            if (!inFlight.remove(nonce) || nonce < reconciled) {
+                // The node accepted the transaction even though sending it appeared to fail
+                return;
+            }
+            // The most recently acquired nonce is returned to the counter, any other one is
+            // reused before the counter is advanced again
+            if (!next.compareAndSet(nonce + 1, nonce)) {
+                released.add(nonce);
+                if (nonce < reconciled) {
+                    // Gap detection ran concurrently
+                    released.remove(nonce);
+                }
+            }
+        }
+
+        void reconcile(long pending) {
+            long current;
+            do {
+                current = next.get();
+            } while (current != UNINITIALISED
+                    && pending > current
+                    && !next.compareAndSet(current, pending));
+
+            reconciled = pending;
+            released.headSet(pending).clear();
+
+            if (current == UNINITIALISED
+                    || pending >= current
+                    || inFlight.contains(pending)
+                    || released.contains(pending)) {
+                lastGap = UNINITIALISED;
+                return;
+            }
+
+            if (lastGap != pending) {
+                // The transaction may not have reached the node yet, check again next time
+                lastGap = pending;
+                return;
+            }
+
+            log.warn("Nonce {} is missing, it will be reused", pending);
+            lastGap = UNINITIALISED;
+            if (!next.compareAndSet(pending + 1, pending)) {
+                released.add(pending);
+            }
+        }
+    }
+}
@@ -14,6 +14,8 @@ package org.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import org.web3j.crypto.Credentials;
 import org.web3j.crypto.Hash;
@@ -188,10 +190,76 @@ public class RawTransactionManager extends TransactionManager {
         return Numeric.toHexString(signedMessage);
     }
 
+    /**
+     * Sign a transaction without blocking the calling thread, if the {@link TxSignService} signs
+     * asynchronously.
+     *
+     * @param rawTransaction a RawTransaction instance to be signed
+     * @return future completing with the transaction signed and encoded
+     */
+    public CompletableFuture<String> signAsync(RawTransaction rawTransaction) {
+        return txSignService.signAsync(rawTransaction, chainId).thenApply(Numeric::toHexString);
+    }
+
     public EthSendTransaction signAndSend(RawTransaction rawTransaction) throws IOException {
-        String hexValue = sign(rawTransaction);
+        return sendSigned(sign(rawTransaction));
+    }
+
+    /**
+     * Send a signed transaction, and verify the hash returned by the node.
+     *
+     * @param hexValue the transaction signed and encoded
+     * @return the response of the node
+     * @throws IOException if the transaction could not be sent, or the node returned a different
+     *     hash
+     */
+    protected EthSendTransaction sendSigned(String hexValue) throws IOException {
         EthSendTransaction ethSendTransaction = web3j.ethSendRawTransaction(hexValue).send();
 
+        verifyTxHash(hexValue, ethSendTransaction);
+
+        return ethSendTransaction;
+    }
+
+    /**
+     * Sign and send a transaction without blocking the calling thread. Transactions signed
+     * remotely, for instance by a HSM, can be submitted one after the other, so that their
+     * signatures are requested while earlier transactions are being sent.
+     *
+     * @param rawTransaction a RawTransaction instance to be signed and sent
+     * @return future completing with the response of the node, or exceptionally if the
+     *     transaction could not be signed or sent, or the node returned a different hash
+     */
+    public CompletableFuture<EthSendTransaction> signAndSendAsync(RawTransaction rawTransaction) {
+        return signAsync(rawTransaction).thenCompose(this::sendSignedAsync);
+    }
+
+    /**
+     * Send a signed transaction without blocking the calling thread, and verify the hash returned
+     * by the node.
+     *
+     * @param hexValue the transaction signed and encoded
+     * @return future completing with the response of the node, or exceptionally if the
+     *     transaction could not be sent, or the node returned a different hash
+     */
+    protected CompletableFuture<EthSendTransaction> sendSignedAsync(String hexValue) {
+        return web3j.ethSendRawTransaction(hexValue)
+                .sendAsync()
+                .thenApply(ethSendTransaction -> verifiedAsync(hexValue, ethSendTransaction));
+    }
+
+    private EthSendTransaction verifiedAsync(
+            String hexValue, EthSendTransaction ethSendTransaction) {
+        try {
+            verifyTxHash(hexValue, ethSendTransaction);
+        } catch (TxHashMismatchException e) {
+            throw new CompletionException(e);
+        }
+        return ethSendTransaction;
+    }
+
+    private void verifyTxHash(String hexValue, EthSendTransaction ethSendTransaction)
+            throws TxHashMismatchException {
         if (ethSendTransaction != null && !ethSendTransaction.hasError()) {
             String txHashLocal = Hash.sha3(hexValue);
             String txHashRemote = ethSendTransaction.getTransactionHash();
@@ -199,7 +267,5 @@ public class RawTransactionManager extends TransactionManager {
                 throw new TxHashMismatchException(txHashLocal, txHashRemote);
             }
         }
-
-        return ethSendTransaction;
     }
 }
@@ -0,0 +1,455 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.JsonRpcError;
+import org.web3j.protocol.exceptions.TransactionException;
+
+/**
+ * Replaces transactions which are not mined in time with copies paying higher fees.
+ *
+ * <p>Transactions sent with {@link #submit(RawTransactionManager, RawTransaction)} are tracked by
+ * account and nonce. On every new block, the receipts of all versions of all tracked transactions
+ * are requested in a single batch. A transaction which has not been mined {@code stuckBlocks}
+ * blocks after it was last sent is signed again with the same nonce, and its fees raised by
+ * {@code bumpPercent}, rounded up. Nodes only accept a replacement if all of its fees are raised
+ * by at least their price bump, 10% by default, so {@code bumpPercent} must not be lower than the
+ * one of the node.
+ *
+ * <p>The future returned by {@code submit} completes with the receipt of whichever version of the
+ * transaction is mined. It fails if the nonce of the transaction is used by another transaction,
+ * which is detected from the transaction count of the account in the latest block, or if no
+ * version has been mined {@code timeoutBlocks} blocks after the transaction was submitted.
+ * Replacements stop once their fees would exceed {@code maxFeePerGas}. Legacy and EIP-1559
+ * transactions are supported, other transaction types are tracked but not replaced. Only one
+ * transaction per account and nonce can be tracked at a time.
+ */
+public class StuckTransactionReplacer {
+
+    public static final int DEFAULT_STUCK_BLOCKS = 3;
+    public static final int DEFAULT_BUMP_PERCENT = 10;
+    public static final int DEFAULT_MAX_REPLACEMENTS = 5;
+    public static final int DEFAULT_TIMEOUT_BLOCKS = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(StuckTransactionReplacer.class);
+
+    private static final BigInteger ONE_HUNDRED = BigInteger.valueOf(100);
+
+    private final Web3j web3j;
+    private final Flowable<BigInteger> blockNumbers;
+    private final int stuckBlocks;
+    private final int bumpPercent;
+    private final int maxReplacements;
+    private final int timeoutBlocks;
+    private final BigInteger maxFeePerGas;
+    private final Map<String, TrackedTransaction> trackedTransactions = new ConcurrentHashMap<>();
+
+    private Disposable subscription;
+
+    public StuckTransactionReplacer(Web3j web3j) {
+        this(
+                web3j,
+                web3j.blockFlowable(false).map(ethBlock -> ethBlock.getBlock().getNumber()),
+                DEFAULT_STUCK_BLOCKS,
+                DEFAULT_BUMP_PERCENT,
+                DEFAULT_MAX_REPLACEMENTS);
+    }
+
+    /**
+     * Create a replacer without a fee ceiling.
+     *
+     * @param web3j web3j instance
+     * @param blockNumbers numbers of new blocks
+     * @param stuckBlocks number of blocks after which an unmined transaction is replaced
+     * @param bumpPercent percentage by which the fees of a replacement are raised
+     * @param maxReplacements maximum number of replacements per transaction
+     */
+    public StuckTransactionReplacer(
+            Web3j web3j,
+            Flowable<BigInteger> blockNumbers,
+            int stuckBlocks,
+            int bumpPercent,
+            int maxReplacements) {
+        this(
+                web3j,
+                blockNumbers,
+                stuckBlocks,
+                bumpPercent,
+                maxReplacements,
+                DEFAULT_TIMEOUT_BLOCKS,
+                null);
+    }
+
+    /**
+     * Create a replacer.
+     *
+     * @param web3j web3j instance
+     * @param blockNumbers numbers of new blocks
+     * @param stuckBlocks number of blocks after which an unmined transaction is replaced
+     * @param bumpPercent percentage by which the fees of a replacement are raised
+     * @param maxReplacements maximum number of replacements per transaction
+     * @param timeoutBlocks number of blocks after which a transaction which has not been mined
+     *     fails
+     * @param maxFeePerGas maximum gas price, or maximum fee per gas of EIP-1559 transactions, of
+     *     replacements, or null for no limit
+     */
+    public StuckTransactionReplacer(
+            Web3j web3j,
+            Flowable<BigInteger> blockNumbers,
+            int stuckBlocks,
+            int bumpPercent,
+            int maxReplacements,
+            int timeoutBlocks,
+            BigInteger maxFeePerGas) {
+        if (bumpPercent < 1) {
+            throw new IllegalArgumentException("Invalid bump percentage: " + bumpPercent);
+        }
+        this.web3j = web3j;
+        this.blockNumbers = blockNumbers;
+        this.stuckBlocks = stuckBlocks;
+        this.bumpPercent = bumpPercent;
+        this.maxReplacements = maxReplacements;
+        this.timeoutBlocks = timeoutBlocks;
+        this.maxFeePerGas = maxFeePerGas;
+    }
+
+    /**
+     * Sign and send a transaction, and replace it until it is mined.
+     *
+     * @param transactionManager transaction manager to sign and send the transaction and its
+     *     replacements with
+     * @param rawTransaction transaction to send
+     * @return future completing with the receipt of the mined version of the transaction, or
+     *     exceptionally if the transaction could not be sent or mined, or a transaction with the
+     *     same account and nonce is already tracked
+     */
+    public CompletableFuture<TransactionReceipt> submit(
+            RawTransactionManager transactionManager, RawTransaction rawTransaction) {
+        String account = transactionManager.getFromAddress().toLowerCase();
+        String key = account + ":" + rawTransaction.getNonce();
+        TrackedTransaction trackedTransaction =
+                new TrackedTransaction(transactionManager, rawTransaction, account);
+        if (trackedTransactions.putIfAbsent(key, trackedTransaction) != null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException(
+                            "A transaction with nonce "
+                                    + rawTransaction.getNonce()
+                                    + " of account "
+                                    + account
+                                    + " is already tracked"));
+        }
+
+        EthSendTransaction ethSendTransaction;
+        try {
+            ethSendTransaction = transactionManager.signAndSend(rawTransaction);
+        } catch (IOException | RuntimeException e) {
+            trackedTransactions.remove(key, trackedTransaction);
+            return CompletableFuture.failedFuture(e);
+        }
+        if (ethSendTransaction.hasError()) {
+            trackedTransactions.remove(key, trackedTransaction);
+            return CompletableFuture.failedFuture(new JsonRpcError(ethSendTransaction.getError()));
+        }
+
+        trackedTransaction.transactionHashes.add(ethSendTransaction.getTransactionHash());
+        subscribe();
+        return trackedTransaction.future;
+    }
+
+    public int getTrackedCount() {
+        return trackedTransactions.size();
+    }
+
+    /** Stop tracking transactions. Pending futures are not completed. */
+    public synchronized void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    private synchronized void subscribe() {
+        if (subscription != null) {
+            return;
+        }
+        subscription =
+                blockNumbers.subscribe(
+                        blockNumber -> {
+                            try {
+                                onBlock(blockNumber.longValue());
+                            } catch (Throwable e) {
+                                log.warn("Error checking transactions in block {}", blockNumber, e);
+                            }
+                        },
+                        e -> {
+                            log.warn("Error receiving new blocks, transactions are not tracked", e);
+                            synchronized (this) {
+                                subscription = null;
+                            }
+                        });
+    }
+
+    void onBlock(long blockNumber) throws IOException {
+        if (trackedTransactions.isEmpty()) {
+            return;
+        }
+
+        // Counts are requested before receipts, so that a version mined in between is found
+        Map<String, BigInteger> transactionCounts = getLatestTransactionCounts();
+        resolveMinedTransactions();
+
+        for (Map.Entry<String, TrackedTransaction> entry : trackedTransactions.entrySet()) {
+            TrackedTransaction trackedTransaction = entry.getValue();
+            if (trackedTransaction.transactionHashes.isEmpty()) {
+                // Not sent yet
+                continue;
+            }
+            BigInteger transactionCount = transactionCounts.get(trackedTransaction.account);
+            if (transactionCount != null
+                    && transactionCount.compareTo(trackedTransaction.rawTransaction.getNonce())
+                            > 0) {
+                fail(
+                        entry.getKey(),
+                        trackedTransaction,
+                        "Nonce "
+                                + trackedTransaction.rawTransaction.getNonce()
+                                + " of account "
+                                + trackedTransaction.account
+                                + " was used by another transaction");
+            } else if (trackedTransaction.sentAtBlock < 0) {
+                trackedTransaction.trackedAtBlock = blockNumber;
+                trackedTransaction.sentAtBlock = blockNumber;
+            } else if (blockNumber - trackedTransaction.trackedAtBlock >= timeoutBlocks) {
+                fail(
+                        entry.getKey(),
+                        trackedTransaction,
+                        "Transaction was not mined within " + timeoutBlocks + " blocks");
+            } else if (blockNumber - trackedTransaction.sentAtBlock >= stuckBlocks
+                    && trackedTransaction.replacements < maxReplacements) {
+                replace(trackedTransaction, blockNumber);
+            }
+        }
+    }
+
+    private Map<String, BigInteger> getLatestTransactionCounts() throws IOException {
+        BatchRequest batchRequest = web3j.newBatch();
+        List<String> accounts = new ArrayList<>();
+        for (TrackedTransaction trackedTransaction : trackedTransactions.values()) {
+            if (!accounts.contains(trackedTransaction.account)) {
+                accounts.add(trackedTransaction.account);
+                batchRequest.add(
+                        web3j.ethGetTransactionCount(
+                                trackedTransaction.account, DefaultBlockParameterName.LATEST));
+            }
+        }
+
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            throw new IOException("No response received for transaction counts");
+        }
+
+        Map<String, BigInteger> transactionCounts = new HashMap<>();
+        List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+        for (int i = 0; i < accounts.size(); i++) {
+            Response<?> response = responses.get(i);
+            if (response != null && !response.hasError()) {
+                transactionCounts.put(
+                        accounts.get(i),
+                        ((EthGetTransactionCount) response).getTransactionCount());
+            }
+        }
+        return transactionCounts;
+    }
+
+    private void fail(String key, TrackedTransaction trackedTransaction, String message) {
+        trackedTransactions.remove(key, trackedTransaction);
+        trackedTransaction.future.completeExceptionally(
+                new TransactionException(message, trackedTransaction.transactionHashes.get(0)));
+    }
+
+    private void resolveMinedTransactions() throws IOException {
+        BatchRequest batchRequest = web3j.newBatch();
+        List<TrackedTransaction> requested = new ArrayList<>();
+        for (TrackedTransaction trackedTransaction : trackedTransactions.values()) {
+            for (String transactionHash : trackedTransaction.transactionHashes) {
+                requested.add(trackedTransaction);
+                batchRequest.add(web3j.ethGetTransactionReceipt(transactionHash));
+            }
+        }
+
+        BatchResponse batchResponse = batchRequest.send();
+        if (batchResponse == null) {
+            throw new IOException("No response received for transaction receipts");
+        }
+
+        List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+        for (int i = 0; i < requested.size(); i++) {
+            TrackedTransaction trackedTransaction = requested.get(i);
+            Response<?> response = responses.get(i);
+            if (response == null || response.hasError()) {
+                continue;
+            }
+            ((EthGetTransactionReceipt) response)
+                    .getTransactionReceipt()
+                    .ifPresent(
+                            transactionReceipt -> {
+                                trackedTransactions.values().remove(trackedTransaction);
+                                trackedTransaction.future.complete(transactionReceipt);
+                            });
+        }
+    }
+
+    private void replace(TrackedTransaction trackedTransaction, long blockNumber) {
+        RawTransaction replacement = bump(trackedTransaction.rawTransaction, bumpPercent);
+        if (replacement == null) {
+            log.warn(
+                    "Transaction {} of type {} cannot be replaced",
+                    trackedTransaction.transactionHashes.get(0),
+                    trackedTransaction.rawTransaction.getType());
+            trackedTransaction.replacements = maxReplacements;
+            return;
+        }
+        if (maxFeePerGas != null && maxFeePerGas(replacement).compareTo(maxFeePerGas) > 0) {
+            log.warn(
+                    "Transaction {} is not replaced, its fees would exceed {}",
+                    trackedTransaction.transactionHashes.get(0),
+                    maxFeePerGas);
+            trackedTransaction.replacements = maxReplacements;
+            return;
+        }
+
+        EthSendTransaction ethSendTransaction;
+        try {
+            ethSendTransaction = trackedTransaction.transactionManager.signAndSend(replacement);
+        } catch (IOException e) {
+            log.warn(
+                    "Error replacing transaction {}",
+                    trackedTransaction.transactionHashes.get(0),
+                    e);
+            return;
+        }
+
+        // A rejected replacement, e.g. because it was underpriced, is bumped further next time
+        trackedTransaction.rawTransaction = replacement;
+        trackedTransaction.replacements++;
+        trackedTransaction.sentAtBlock = blockNumber;
+        if (ethSendTransaction.hasError()) {
+            log.warn(
+                    "Replacement of transaction {} was rejected: {}",
+                    trackedTransaction.transactionHashes.get(0),
+                    ethSendTransaction.getError().getMessage());
+        } else {
+            trackedTransaction.transactionHashes.add(ethSendTransaction.getTransactionHash());
+        }
+    }
+
+    /**
+     * Copy a transaction with its fees raised.
+     *
+     * @param rawTransaction transaction to copy
+     * @param bumpPercent percentage to raise the fees by, rounded up
+     * @return transaction with raised fees, or null if the type of the transaction is not
+     *     supported
+     */
+    static RawTransaction bump(RawTransaction rawTransaction, int bumpPercent) {
+        if (rawTransaction.getType().isEip1559()) {
+            Transaction1559 transaction = (Transaction1559) rawTransaction.getTransaction();
+            BigInteger maxPriorityFeePerGas =
+                    bump(transaction.getMaxPriorityFeePerGas(), bumpPercent);
+            BigInteger maxFeePerGas =
+                    bump(transaction.getMaxFeePerGas(), bumpPercent).max(maxPriorityFeePerGas);
+            return RawTransaction.createTransaction(
+                    transaction.getChainId(),
+                    transaction.getNonce(),
+                    transaction.getGasLimit(),
+                    transaction.getTo(),
+                    transaction.getValue(),
+                    transaction.getData(),
+                    maxPriorityFeePerGas,
+                    maxFeePerGas,
+                    transaction.getAccessList());
+        } else if (rawTransaction.getType().isLegacy()) {
+            return RawTransaction.createTransaction(
+                    rawTransaction.getNonce(),
+                    bump(rawTransaction.getGasPrice(), bumpPercent),
+                    rawTransaction.getGasLimit(),
+                    rawTransaction.getTo(),
+                    rawTransaction.getValue(),
+                    rawTransaction.getData());
+        }
+        return null;
+    }
+
+    private static BigInteger maxFeePerGas(RawTransaction rawTransaction) {
+        if (rawTransaction.getType().isEip1559()) {
+            return ((Transaction1559) rawTransaction.getTransaction()).getMaxFeePerGas();
+        }
+        return rawTransaction.getGasPrice();
+    }
+
+    private static BigInteger bump(BigInteger fee, int bumpPercent) {
+        BigInteger bumped =
+                fee.multiply(BigInteger.valueOf(100L + bumpPercent))
+                        .add(ONE_HUNDRED.subtract(BigInteger.ONE))
+                        .divide(ONE_HUNDRED);
+        return bumped.max(fee.add(BigInteger.ONE));
+    }
+
+    private static class TrackedTransaction {
+
+        private final RawTransactionManager transactionManager;
+        private final String account;
+        private final List<String> transactionHashes = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+
+        private volatile RawTransaction rawTransaction;
+        private volatile long trackedAtBlock = -1;
+        private volatile long sentAtBlock = -1;
+        private volatile int replacements;
+
+        TrackedTransaction(
+                RawTransactionManager transactionManager,
+                RawTransaction rawTransaction,
+                String account) {
+            this.transactionManager = transactionManager;
+            this.rawTransaction = rawTransaction;
+            this.account = account;
+        }
+    }
+}
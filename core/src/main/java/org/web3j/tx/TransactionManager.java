@@ -14,6 +14,7 @@ package org.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
 
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.DefaultBlockParameter;
@@ -120,6 +121,64 @@ public abstract class TransactionManager {
         return processResponse(ethSendTransaction);
     }
 
+    /**
+     * Send a transaction and wait for its receipt with {@link
+     * TransactionReceiptProcessor#waitForTransactionReceiptAsync(String)}, so that no thread is
+     * blocked while waiting, if the receipt processor supports it.
+     *
+     * @return future completing with the transaction receipt, or exceptionally if the transaction
+     *     could not be sent or no receipt was received
+     */
+    public CompletableFuture<TransactionReceipt> executeTransactionAsync(
+            BigInteger gasPrice,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value,
+            boolean constructor) {
+        EthSendTransaction ethSendTransaction;
+        try {
+            ethSendTransaction = sendTransaction(gasPrice, gasLimit, to, data, value, constructor);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return processResponseAsync(ethSendTransaction);
+    }
+
+    /**
+     * Send an EIP-1559 transaction and wait for its receipt without blocking, see {@link
+     * #executeTransactionAsync(BigInteger, BigInteger, String, String, BigInteger, boolean)}.
+     *
+     * @return future completing with the transaction receipt, or exceptionally if the transaction
+     *     could not be sent or no receipt was received
+     */
+    public CompletableFuture<TransactionReceipt> executeTransactionEIP1559Async(
+            long chainId,
+            BigInteger maxPriorityFeePerGas,
+            BigInteger maxFeePerGas,
+            BigInteger gasLimit,
+            String to,
+            String data,
+            BigInteger value,
+            boolean constructor) {
+        EthSendTransaction ethSendTransaction;
+        try {
+            ethSendTransaction =
+                    sendEIP1559Transaction(
+                            chainId,
+                            maxPriorityFeePerGas,
+                            maxFeePerGas,
+                            gasLimit,
+                            to,
+                            data,
+                            value,
+                            constructor);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return processResponseAsync(ethSendTransaction);
+    }
+
     public EthSendTransaction sendTransaction(
             BigInteger gasPrice, BigInteger gasLimit, String to, String data, BigInteger value)
             throws IOException {
@@ -180,6 +239,17 @@ public abstract class TransactionManager {
         return transactionReceiptProcessor.waitForTransactionReceipt(transactionHash);
     }
 
+    public CompletableFuture<TransactionReceipt> processResponseAsync(
+            EthSendTransaction transactionResponse) {
+        if (transactionResponse.hasError()) {
+            return CompletableFuture.failedFuture(new JsonRpcError(transactionResponse.getError()));
+        }
+
+        String transactionHash = transactionResponse.getTransactionHash();
+
+        return transactionReceiptProcessor.waitForTransactionReceiptAsync(transactionHash);
+    }
+
     static void assertCallNotReverted(EthCall ethCall) {
         if (ethCall.isReverted()) {
             throw new ContractCallException(
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.tx.exceptions.TxHashMismatchException;
+
+/**
+ * Signs transactions in parallel and sends them in JSON-RPC batches.
+ *
+ * <p>Transactions are signed on the given executor service, or asynchronously if their {@link
+ * org.web3j.service.TxSignService} signs remotely, and their hashes are computed alongside, so
+ * that they can be verified against the hashes returned by the node without further work. Signed
+ * transactions are sent in {@link BatchRequest}s of up to {@code batchSize} transactions. While a
+ * batch is in flight, further signed transactions are collected for the next one, so the number
+ * of round trips adapts to the rate of submissions.
+ *
+ * <p>Transactions of the same account are sent in nonce order: a transaction is not sent before
+ * all transactions of its account with lower nonces, which were submitted before it, have been
+ * signed. If a transaction cannot be signed, the later transactions of its account would leave a
+ * nonce gap, so they fail instead. This includes transactions submitted afterwards with higher
+ * nonces, until a transaction with the failed nonce is submitted again.
+ *
+ * <pre>
+ * TransactionPipeline pipeline = new TransactionPipeline(web3j, executorService);
+ * CompletableFuture&lt;EthSendTransaction&gt; future =
+ *         pipeline.submit(transactionManager, rawTransaction);
+ * </pre>
+ */
+public class TransactionPipeline {
+
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Comparator<Submission> NONCE_ORDER =
+            Comparator.comparing((Submission submission) -> submission.nonce)
+                    .thenComparingLong(submission -> submission.sequence);
+
+    private final Web3j web3j;
+    private final ExecutorService executorService;
+    private final int batchSize;
+
+    private final Map<String, TreeSet<Submission>> submissions = new HashMap<>();
+    private final Map<String, BigInteger> failedNonces = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean sending = new AtomicBoolean();
+
+    public TransactionPipeline(Web3j web3j, ExecutorService executorService) {
+        this(web3j, executorService, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Create a new pipeline.
+     *
+     * @param web3j web3j instance to send the transactions with
+     * @param executorService executor service to sign transactions on, batches are sent from it
+     *     too, one at a time
+     * @param batchSize maximum number of transactions per batch
+     */
+    public TransactionPipeline(Web3j web3j, ExecutorService executorService, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
+        this.web3j = web3j;
+        this.executorService = executorService;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sign and send a transaction.
+     *
+     * @param transactionManager transaction manager to sign the transaction and verify its hash
+     *     with
+     * @param rawTransaction transaction to send
+     * @return future completing with the response of the node, or exceptionally if the
+     *     transaction could not be signed or sent, or the node returned a different hash
+     */
+    public CompletableFuture<EthSendTransaction> submit(
+            RawTransactionManager transactionManager, RawTransaction rawTransaction) {
+        Submission submission =
+                new Submission(transactionManager, rawTransaction, sequence.getAndIncrement());
+        BigInteger failedNonce;
+        synchronized (submissions) {
+            failedNonce = failedNonces.get(submission.account);
+            if (failedNonce != null && submission.nonce.compareTo(failedNonce) <= 0) {
+                // The gap is being filled
+                failedNonces.remove(submission.account);
+                failedNonce = null;
+            }
+            if (failedNonce == null) {
+                submissions
+                        .computeIfAbsent(
+                                submission.account, account -> new TreeSet<>(NONCE_ORDER))
+                        .add(submission);
+            }
+        }
+        if (failedNonce != null) {
+            submission.future.completeExceptionally(nonceGap(submission, failedNonce));
+            return submission.future;
+        }
+
+        executorService.execute(
+                () ->
+                        transactionManager
+                                .signAsync(rawTransaction)
+                                .whenComplete(
+                                        (hexValue, error) ->
+                                                onSigned(submission, hexValue, error)));
+
+        return submission.future;
+    }
+
+    /**
+     * The number of transactions that have been submitted but not yet sent.
+     *
+     * @return number of pending transactions
+     */
+    public int getPendingCount() {
+        synchronized (submissions) {
+            return submissions.values().stream().mapToInt(TreeSet::size).sum();
+        }
+    }
+
+    private void onSigned(Submission submission, String hexValue, Throwable error) {
+        if (error == null) {
+            try {
+                submission.hexValue = hexValue;
+                submission.hash = Hash.sha3(hexValue);
+            } catch (Throwable e) {
+                submission.error = e;
+            }
+        } else {
+            submission.error =
+                    error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+        }
+        submission.signed = true;
+        scheduleSend();
+    }
+
+    private void scheduleSend() {
+        if (sending.compareAndSet(false, true)) {
+            executorService.execute(this::sendBatches);
+        }
+    }
+
+    private void sendBatches() {
+        try {
+            List<Submission> batch;
+            while (!(batch = nextBatch()).isEmpty()) {
+                send(batch);
+            }
+        } finally {
+            sending.set(false);
+        }
+        // A transaction may have been signed after the last batch was taken, but before the flag
+        // was cleared, in which case nobody else schedules it
+        if (hasSignedSubmissions()) {
+            scheduleSend();
+        }
+    }
+
+    private List<Submission> nextBatch() {
+        List<Submission> batch = new ArrayList<>();
+        Map<Submission, BigInteger> skipped = new HashMap<>();
+        synchronized (submissions) {
+            for (Map.Entry<String, TreeSet<Submission>> entry : submissions.entrySet()) {
+                TreeSet<Submission> accountSubmissions = entry.getValue();
+                while (batch.size() < batchSize
+                        && !accountSubmissions.isEmpty()
+                        && accountSubmissions.first().signed) {
+                    Submission submission = accountSubmissions.pollFirst();
+                    batch.add(submission);
+                    if (submission.error != null) {
+                        failedNonces.merge(entry.getKey(), submission.nonce, BigInteger::min);
+                        skipLaterSubmissions(accountSubmissions, submission.nonce, skipped);
+                    }
+                }
+            }
+            submissions.values().removeIf(TreeSet::isEmpty);
+        }
+        skipped.forEach(
+                (submission, failedNonce) ->
+                        submission.future.completeExceptionally(
+                                nonceGap(submission, failedNonce)));
+        return batch;
+    }
+
+    private static void skipLaterSubmissions(
+            TreeSet<Submission> accountSubmissions,
+            BigInteger failedNonce,
+            Map<Submission, BigInteger> skipped) {
+        accountSubmissions.removeIf(
+                submission -> {
+                    if (submission.nonce.compareTo(failedNonce) > 0) {
+                        skipped.put(submission, failedNonce);
+                        return true;
+                    }
+                    return false;
+                });
+    }
+
+    private static IOException nonceGap(Submission submission, BigInteger failedNonce) {
+        return new IOException(
+                "Transaction with nonce "
+                        + submission.nonce
+                        + " was not sent, as the transaction of account "
+                        + submission.account
+                        + " with nonce "
+                        + failedNonce
+                        + " could not be signed");
+    }
+
+    private boolean hasSignedSubmissions() {
+        synchronized (submissions) {
+            return submissions.values().stream()
+                    .anyMatch(accountSubmissions -> accountSubmissions.first().signed);
+        }
+    }
+
+    private void send(List<Submission> batch) {
+        BatchRequest batchRequest = web3j.newBatch();
+        List<Submission> requested = new ArrayList<>();
+        for (Submission submission : batch) {
+            if (submission.error != null) {
+                submission.future.completeExceptionally(submission.error);
+                continue;
+            }
+            requested.add(submission);
+            batchRequest.add(web3j.ethSendRawTransaction(submission.hexValue));
+        }
+
+        if (requested.isEmpty()) {
+            return;
+        }
+
+        try {
+            BatchResponse batchResponse = batchRequest.send();
+            if (batchResponse == null) {
+                throw new IOException("No response received for transactions");
+            }
+            List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+            for (int i = 0; i < requested.size(); i++) {
+                Response<?> response = responses.get(i);
+                if (response == null) {
+                    requested
+                            .get(i)
+                            .future
+                            .completeExceptionally(
+                                    new IOException("No response received for transaction"));
+                } else {
+                    complete(requested.get(i), (EthSendTransaction) response);
+                }
+            }
+        } catch (Throwable e) {
+            // Submissions completed above are unaffected
+            requested.forEach(s -> s.future.completeExceptionally(e));
+        }
+    }
+
+    private static void complete(Submission submission, EthSendTransaction ethSendTransaction) {
+        if (!ethSendTransaction.hasError()) {
+            String txHashRemote = ethSendTransaction.getTransactionHash();
+            if (!submission.transactionManager
+                    .getTxHashVerifier()
+                    .verify(submission.hash, txHashRemote)) {
+                submission.future.completeExceptionally(
+                        new TxHashMismatchException(submission.hash, txHashRemote));
+                return;
+            }
+        }
+        submission.future.complete(ethSendTransaction);
+    }
+
+    private static class Submission {
+
+        private final RawTransactionManager transactionManager;
+        private final String account;
+        private final BigInteger nonce;
+        private final long sequence;
+        private final CompletableFuture<EthSendTransaction> future = new CompletableFuture<>();
+
+        private volatile String hexValue;
+        private volatile String hash;
+        private volatile Throwable error;
+        private volatile boolean signed;
+
+        Submission(
+                RawTransactionManager transactionManager,
+                RawTransaction rawTransaction,
+                long sequence) {
+            this.transactionManager = transactionManager;
+            this.account = transactionManager.getFromAddress().toLowerCase();
+            this.nonce = rawTransaction.getNonce();
+            this.sequence = sequence;
+        }
+    }
+}
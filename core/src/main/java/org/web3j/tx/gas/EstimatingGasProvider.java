@@ -0,0 +1,248 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.gas;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.JsonRpcError;
+
+/**
+ * Gas provider which estimates gas limits with eth_estimateGas, and caches them per contract and
+ * function selector.
+ *
+ * <p>The first transaction to a function of a contract is estimated, and the estimate plus a
+ * safety margin is cached. Receipts of later transactions, passed to {@link
+ * #onTransactionReceipt(String, String, BigInteger, TransactionReceipt)}, adjust the cached
+ * limit: it is raised immediately if a transaction used more gas than the limit allows for, and
+ * decays gradually towards the gas used otherwise. A transaction which failed having used all of
+ * its own gas limit discards the cached limit, so that the next one is estimated again. Cached
+ * limits also expire after {@code maxAge} milliseconds.
+ *
+ * <p>Gas prices, and gas limits for calls without a known contract and function, are taken from
+ * the given gas provider. {@link org.web3j.tx.Contract} uses this provider automatically.
+ */
+public class EstimatingGasProvider implements ContractEIP1559GasProvider {
+
+    public static final int DEFAULT_SAFETY_MARGIN_PERCENT = 20;
+    public static final long DEFAULT_MAX_AGE = 60 * 60 * 1000;
+
+    /** Fraction of the distance to the observed gas used the cached limit decays per receipt. */
+    private static final BigInteger DECAY_DENOMINATOR = BigInteger.valueOf(10);
+
+    private static final BigInteger ONE_HUNDRED = BigInteger.valueOf(100);
+
+    private final Web3j web3j;
+    private final ContractGasProvider gasProvider;
+    private final int safetyMarginPercent;
+    private final long maxAge;
+    private final Map<String, GasLimit> gasLimits = new ConcurrentHashMap<>();
+
+    public EstimatingGasProvider(Web3j web3j, ContractGasProvider gasProvider) {
+        this(web3j, gasProvider, DEFAULT_SAFETY_MARGIN_PERCENT, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Create a gas provider.
+     *
+     * @param web3j web3j instance to estimate gas with
+     * @param gasProvider gas provider for gas prices
+     * @param safetyMarginPercent percentage added to estimates and gas used
+     * @param maxAge time after which cached limits are estimated again, in milliseconds
+     */
+    public EstimatingGasProvider(
+            Web3j web3j, ContractGasProvider gasProvider, int safetyMarginPercent, long maxAge) {
+        if (safetyMarginPercent < 0) {
+            throw new IllegalArgumentException("Invalid safety margin: " + safetyMarginPercent);
+        }
+        this.web3j = web3j;
+        this.gasProvider = gasProvider;
+        this.safetyMarginPercent = safetyMarginPercent;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Get the gas limit of a transaction, estimating it if it is not cached.
+     *
+     * @param from sender of the transaction
+     * @param to contract address, or null or empty for contract deployments, which are always
+     *     estimated
+     * @param data transaction data
+     * @param value value of the transaction in Wei
+     * @return gas limit including the safety margin
+     * @throws IOException if the gas could not be estimated
+     */
+    public BigInteger getGasLimit(String from, String to, String data, BigInteger value)
+            throws IOException {
+        String key = key(to, data);
+        if (key == null) {
+            return withMargin(estimate(from, to, data, value));
+        }
+
+        long now = System.currentTimeMillis();
+        GasLimit gasLimit = gasLimits.get(key);
+        if (gasLimit != null && now - gasLimit.estimatedAt < maxAge) {
+            return gasLimit.limit;
+        }
+
+        // Concurrent first transactions may all estimate, the last one is cached
+        gasLimit = new GasLimit(withMargin(estimate(from, to, data, value)), now);
+        gasLimits.put(key, gasLimit);
+        return gasLimit.limit;
+    }
+
+    /**
+     * Adjust the cached gas limit of a contract function to the gas used by a transaction.
+     *
+     * @param to contract address the transaction was sent to
+     * @param data transaction data
+     * @param transactionGasLimit gas limit the transaction was sent with
+     * @param transactionReceipt receipt of the transaction
+     */
+    public void onTransactionReceipt(
+            String to,
+            String data,
+            BigInteger transactionGasLimit,
+            TransactionReceipt transactionReceipt) {
+        String key = key(to, data);
+        if (key == null || transactionReceipt.getGasUsedRaw() == null) {
+            return;
+        }
+
+        BigInteger gasUsed = transactionReceipt.getGasUsed();
+        boolean failed = !transactionReceipt.isStatusOK();
+        gasLimits.computeIfPresent(
+                key,
+                (k, gasLimit) -> {
+                    if (failed) {
+                        // Out of gas, or reverted close to it. The cached limit may have been
+                        // raised since the transaction was sent, so it is not compared to that
+                        return gasUsed.compareTo(transactionGasLimit) >= 0 ? null : gasLimit;
+                    }
+                    BigInteger target = withMargin(gasUsed);
+                    if (target.compareTo(gasLimit.limit) >= 0) {
+                        return new GasLimit(target, gasLimit.estimatedAt);
+                    }
+                    BigInteger decay =
+                            gasLimit.limit.subtract(target).divide(DECAY_DENOMINATOR);
+                    return new GasLimit(gasLimit.limit.subtract(decay), gasLimit.estimatedAt);
+                });
+    }
+
+    /**
+     * Get the cached gas limit of a contract function.
+     *
+     * @param to contract address
+     * @param data transaction data, of which only the function selector is used
+     * @return cached gas limit, or null if there is none
+     */
+    public BigInteger getCachedGasLimit(String to, String data) {
+        String key = key(to, data);
+        GasLimit gasLimit = key == null ? null : gasLimits.get(key);
+        return gasLimit == null ? null : gasLimit.limit;
+    }
+
+    @Override
+    public BigInteger getGasPrice(String contractFunc) {
+        return gasProvider.getGasPrice(contractFunc);
+    }
+
+    @Override
+    public BigInteger getGasPrice() {
+        return gasProvider.getGasPrice();
+    }
+
+    @Override
+    public BigInteger getGasLimit(String contractFunc) {
+        return gasProvider.getGasLimit(contractFunc);
+    }
+
+    @Override
+    public BigInteger getGasLimit() {
+        return gasProvider.getGasLimit();
+    }
+
+    @Override
+    public boolean isEIP1559Enabled() {
+        return gasProvider instanceof ContractEIP1559GasProvider
+                && ((ContractEIP1559GasProvider) gasProvider).isEIP1559Enabled();
+    }
+
+    @Override
+    public long getChainId() {
+        return eip1559GasProvider().getChainId();
+    }
+
+    @Override
+    public BigInteger getMaxFeePerGas(String contractFunc) {
+        return eip1559GasProvider().getMaxFeePerGas(contractFunc);
+    }
+
+    @Override
+    public BigInteger getMaxPriorityFeePerGas(String contractFunc) {
+        return eip1559GasProvider().getMaxPriorityFeePerGas(contractFunc);
+    }
+
+    private ContractEIP1559GasProvider eip1559GasProvider() {
+        if (!(gasProvider instanceof ContractEIP1559GasProvider)) {
+            throw new UnsupportedOperationException(
+                    "Gas provider "
+                            + gasProvider.getClass().getName()
+                            + " does not provide EIP-1559 fees");
+        }
+        return (ContractEIP1559GasProvider) gasProvider;
+    }
+
+    private BigInteger estimate(String from, String to, String data, BigInteger value)
+            throws IOException {
+        EthEstimateGas ethEstimateGas =
+                web3j.ethEstimateGas(
+                                Transaction.createEthCallTransaction(
+                                        from, to == null || to.isEmpty() ? null : to, data, value))
+                        .send();
+        if (ethEstimateGas.hasError()) {
+            throw new JsonRpcError(ethEstimateGas.getError());
+        }
+        return ethEstimateGas.getAmountUsed();
+    }
+
+    private BigInteger withMargin(BigInteger gas) {
+        return gas.multiply(BigInteger.valueOf(100L + safetyMarginPercent)).divide(ONE_HUNDRED);
+    }
+
+    /** Contract address and function selector, or null for contract deployments. */
+    private static String key(String to, String data) {
+        if (to == null || to.isEmpty()) {
+            return null;
+        }
+        String selector = data == null ? "" : data.substring(0, Math.min(data.length(), 10));
+        return to.toLowerCase() + ":" + selector.toLowerCase();
+    }
+
+    private static class GasLimit {
+
+        private final BigInteger limit;
+        private final long estimatedAt;
+
+        GasLimit(BigInteger limit, long estimatedAt) {
+            this.limit = limit;
+            this.estimatedAt = estimatedAt;
+        }
+    }
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.gas;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.protocol.core.methods.response.EthMaxPriorityFeePerGas;
+import org.web3j.protocol.exceptions.JsonRpcError;
+
+/**
+ * EIP-1559 gas provider which derives fees from eth_feeHistory.
+ *
+ * <p>The priority fee is the median, over the last {@code blockCount} non-empty blocks, of the
+ * priority fee paid at a reward percentile within each block. The maximum fee is the base fee of
+ * the next block, projected {@code baseFeeBlocks} blocks ahead at the maximum base fee increase
+ * of 12.5% per block, plus the priority fee. A transaction with these fees therefore stays
+ * includable even if the next {@code baseFeeBlocks} blocks are full.
+ *
+ * <p>Fees for several reward percentiles can be loaded with a single request, e.g. to offer slow,
+ * standard and fast fees through {@link #getMaxPriorityFeePerGas(double)} and {@link
+ * #getMaxFeePerGas(double)}. Contract transactions use the first percentile.
+ *
+ * <p>Fees are refreshed on every new block once {@link #start()} has been called, and are served
+ * from memory, so sending a transaction does not require any further requests. While the provider
+ * is started, fees older than {@code maxAge}, because no new block has been received or the
+ * refresh failed, are still served, a warning is logged and {@link #isStale()} returns true. If the
+ * provider was never started, fees are loaded on first use and reloaded once they are older than
+ * {@code maxAge}.
+ *
+ * <pre>
+ * FeeHistoryGasProvider gasProvider = new FeeHistoryGasProvider(web3j, chainId, gasLimit);
+ * gasProvider.start();
+ * ...
+ * gasProvider.shutdown();
+ * </pre>
+ */
+public class FeeHistoryGasProvider implements ContractEIP1559GasProvider {
+
+    public static final int DEFAULT_BLOCK_COUNT = 20;
+    public static final double DEFAULT_REWARD_PERCENTILE = 50;
+    public static final int DEFAULT_BASE_FEE_BLOCKS = 6;
+    /** Five block times on mainnet. */
+    public static final long DEFAULT_MAX_AGE = 60000;
+
+    private static final Logger log = LoggerFactory.getLogger(FeeHistoryGasProvider.class);
+
+    // Maximum base fee change per block: 1 / BASE_FEE_MAX_CHANGE_DENOMINATOR
+    private static final BigInteger BASE_FEE_MAX_CHANGE_DENOMINATOR = BigInteger.valueOf(8);
+
+    private final Web3j web3j;
+    private final long chainId;
+    private final BigInteger gasLimit;
+    private final int blockCount;
+    private final List<Double> rewardPercentiles;
+    private final List<Double> requestedPercentiles;
+    private final int baseFeeBlocks;
+    private final long maxAge;
+
+    private volatile Fees fees;
+    private volatile boolean staleWarned;
+    private volatile Disposable subscription;
+
+    public FeeHistoryGasProvider(Web3j web3j, long chainId, BigInteger gasLimit) {
+        this(
+                web3j,
+                chainId,
+                gasLimit,
+                DEFAULT_BLOCK_COUNT,
+                DEFAULT_REWARD_PERCENTILE,
+                DEFAULT_BASE_FEE_BLOCKS);
+    }
+
+    /**
+     * Create a gas provider.
+     *
+     * @param web3j web3j instance
+     * @param chainId chain id of transactions
+     * @param gasLimit gas limit of transactions
+     * @param blockCount number of blocks to derive the priority fee from
+     * @param rewardPercentile percentile of the priority fees paid within a block, from 0 to 100
+     * @param baseFeeBlocks number of blocks to project the base fee ahead
+     */
+    public FeeHistoryGasProvider(
+            Web3j web3j,
+            long chainId,
+            BigInteger gasLimit,
+            int blockCount,
+            double rewardPercentile,
+            int baseFeeBlocks) {
+        this(
+                web3j,
+                chainId,
+                gasLimit,
+                blockCount,
+                Collections.singletonList(rewardPercentile),
+                baseFeeBlocks,
+                DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Create a gas provider.
+     *
+     * @param web3j web3j instance
+     * @param chainId chain id of transactions
+     * @param gasLimit gas limit of transactions
+     * @param blockCount number of blocks to derive the priority fee from
+     * @param rewardPercentiles percentiles of the priority fees paid within a block, from 0 to
+     *     100, the first of which is used for contract transactions
+     * @param baseFeeBlocks number of blocks to project the base fee ahead
+     * @param maxAge age in milliseconds after which fees are stale, stale fees are reloaded when
+     *     they are used if the provider is not started
+     */
+    public FeeHistoryGasProvider(
+            Web3j web3j,
+            long chainId,
+            BigInteger gasLimit,
+            int blockCount,
+            List<Double> rewardPercentiles,
+            int baseFeeBlocks,
+            long maxAge) {
+        if (blockCount < 1) {
+            throw new IllegalArgumentException("Invalid block count: " + blockCount);
+        }
+        if (rewardPercentiles.isEmpty()) {
+            throw new IllegalArgumentException("No reward percentiles");
+        }
+        for (double rewardPercentile : rewardPercentiles) {
+            if (rewardPercentile < 0 || rewardPercentile > 100) {
+                throw new IllegalArgumentException(
+                        "Invalid reward percentile: " + rewardPercentile);
+            }
+        }
+        if (baseFeeBlocks < 0) {
+            throw new IllegalArgumentException("Invalid base fee blocks: " + baseFeeBlocks);
+        }
+        this.web3j = web3j;
+        this.chainId = chainId;
+        this.gasLimit = gasLimit;
+        this.blockCount = blockCount;
+        this.rewardPercentiles = new ArrayList<>(rewardPercentiles);
+        // Nodes require the percentiles in ascending order
+        this.requestedPercentiles =
+                rewardPercentiles.stream().distinct().sorted().collect(Collectors.toList());
+        this.baseFeeBlocks = baseFeeBlocks;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Load the current fees, and refresh them on every new block from {@link
+     * Web3j#ethBlockHashFlowable()}.
+     *
+     * @throws IOException if the current fees could not be loaded
+     */
+    public void start() throws IOException {
+        start(web3j.ethBlockHashFlowable());
+    }
+
+    /**
+     * Load the current fees, and refresh them on every item emitted by {@code newBlocks}, e.g.
+     * {@link Web3j#newHeadsNotifications()}.
+     *
+     * @param newBlocks flowable emitting an item for every new block
+     * @throws IOException if the current fees could not be loaded
+     */
+    public synchronized void start(Flowable<?> newBlocks) throws IOException {
+        if (subscription != null) {
+            return;
+        }
+        refresh();
+        subscription =
+                newBlocks.subscribe(
+                        block -> {
+                            try {
+                                refresh();
+                            } catch (Throwable e) {
+                                // Keep serving the last fees until the next block
+                                log.warn("Error refreshing fees", e);
+                            }
+                        },
+                        e -> log.warn("Error receiving new blocks, fees are not refreshed", e));
+    }
+
+    /** Stop refreshing fees. The last fees continue to be served. */
+    public synchronized void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    /**
+     * Load the current fees from the node.
+     *
+     * @throws IOException if the fee history could not be retrieved
+     */
+    public void refresh() throws IOException {
+        EthFeeHistory ethFeeHistory =
+                web3j.ethFeeHistory(
+                                blockCount, DefaultBlockParameterName.LATEST, requestedPercentiles)
+                        .send();
+        if (ethFeeHistory.hasError()) {
+            throw new JsonRpcError(ethFeeHistory.getError());
+        }
+
+        EthFeeHistory.FeeHistory feeHistory = ethFeeHistory.getFeeHistory();
+        List<BigInteger> maxPriorityFeesPerGas = new ArrayList<>();
+        BigInteger nodeMaxPriorityFeePerGas = null;
+        for (int i = 0; i < requestedPercentiles.size(); i++) {
+            BigInteger maxPriorityFeePerGas = medianReward(feeHistory, i);
+            if (maxPriorityFeePerGas == null) {
+                if (nodeMaxPriorityFeePerGas == null) {
+                    nodeMaxPriorityFeePerGas = getNodeMaxPriorityFeePerGas();
+                }
+                maxPriorityFeePerGas = nodeMaxPriorityFeePerGas;
+            }
+            maxPriorityFeesPerGas.add(maxPriorityFeePerGas);
+        }
+
+        // The last base fee is the one of the next block
+        List<BigInteger> baseFeePerGas = feeHistory.getBaseFeePerGas();
+        BigInteger baseFee = projectBaseFee(baseFeePerGas.get(baseFeePerGas.size() - 1));
+
+        fees = new Fees(baseFee, maxPriorityFeesPerGas, System.currentTimeMillis());
+        staleWarned = false;
+    }
+
+    /**
+     * Whether the fees are older than {@code maxAge}, or have not been loaded yet.
+     *
+     * @return true if the fees are stale
+     */
+    public boolean isStale() {
+        return isStale(fees);
+    }
+
+    /**
+     * Get the priority fee at one of the reward percentiles of this provider.
+     *
+     * @param rewardPercentile one of the reward percentiles given to the constructor
+     * @return the priority fee per gas
+     * @throws IllegalArgumentException if the percentile was not given to the constructor
+     */
+    public BigInteger getMaxPriorityFeePerGas(double rewardPercentile) {
+        return getFees().maxPriorityFeesPerGas.get(indexOf(rewardPercentile));
+    }
+
+    /**
+     * Get the maximum fee for the priority fee at one of the reward percentiles of this provider.
+     *
+     * @param rewardPercentile one of the reward percentiles given to the constructor
+     * @return the maximum fee per gas
+     * @throws IllegalArgumentException if the percentile was not given to the constructor
+     */
+    public BigInteger getMaxFeePerGas(double rewardPercentile) {
+        Fees current = getFees();
+        return current.baseFee.add(current.maxPriorityFeesPerGas.get(indexOf(rewardPercentile)));
+    }
+
+    @Override
+    public BigInteger getGasPrice(String contractFunc) {
+        return getMaxFeePerGas(rewardPercentiles.get(0));
+    }
+
+    @Override
+    public BigInteger getGasPrice() {
+        return getMaxFeePerGas(rewardPercentiles.get(0));
+    }
+
+    @Override
+    public BigInteger getGasLimit(String contractFunc) {
+        return gasLimit;
+    }
+
+    @Override
+    public BigInteger getGasLimit() {
+        return gasLimit;
+    }
+
+    @Override
+    public boolean isEIP1559Enabled() {
+        return true;
+    }
+
+    @Override
+    public long getChainId() {
+        return chainId;
+    }
+
+    @Override
+    public BigInteger getMaxFeePerGas(String contractFunc) {
+        return getMaxFeePerGas(rewardPercentiles.get(0));
+    }
+
+    @Override
+    public BigInteger getMaxPriorityFeePerGas(String contractFunc) {
+        return getMaxPriorityFeePerGas(rewardPercentiles.get(0));
+    }
+
+    private int indexOf(double rewardPercentile) {
+        int index = requestedPercentiles.indexOf(rewardPercentile);
+        if (index < 0) {
+            throw new IllegalArgumentException(
+                    "Reward percentile was not requested: " + rewardPercentile);
+        }
+        return index;
+    }
+
+    private Fees getFees() {
+        Fees current = fees;
+        if (current != null && !isStale(current)) {
+            return current;
+        }
+        if (current != null && subscription != null) {
+            // Fees are refreshed in the background, so sending never waits for a request
+            if (!staleWarned) {
+                staleWarned = true;
+                log.warn(
+                        "Serving fees loaded {} ms ago, they have not been refreshed since",
+                        System.currentTimeMillis() - current.loadedAt);
+            }
+            return current;
+        }
+        synchronized (this) {
+            current = fees;
+            if (current == null || (subscription == null && isStale(current))) {
+                try {
+                    refresh();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                current = fees;
+            }
+        }
+        return current;
+    }
+
+    private boolean isStale(Fees current) {
+        return current == null || System.currentTimeMillis() - current.loadedAt > maxAge;
+    }
+
+    private BigInteger getNodeMaxPriorityFeePerGas() throws IOException {
+        EthMaxPriorityFeePerGas ethMaxPriorityFeePerGas = web3j.ethMaxPriorityFeePerGas().send();
+        if (ethMaxPriorityFeePerGas.hasError()) {
+            throw new JsonRpcError(ethMaxPriorityFeePerGas.getError());
+        }
+        return ethMaxPriorityFeePerGas.getMaxPriorityFeePerGas();
+    }
+
+    /**
+     * Median of the rewards at a percentile of all non-empty blocks, or null if all blocks were
+     * empty.
+     */
+    static BigInteger medianReward(EthFeeHistory.FeeHistory feeHistory, int percentileIndex) {
+        if (feeHistory.getRewardRaw() == null) {
+            return null;
+        }
+        List<List<BigInteger>> reward = feeHistory.getReward();
+        List<Double> gasUsedRatio = feeHistory.getGasUsedRatio();
+        List<BigInteger> rewards = new ArrayList<>();
+        for (int i = 0; i < reward.size(); i++) {
+            if (gasUsedRatio != null && i < gasUsedRatio.size() && gasUsedRatio.get(i) == 0) {
+                continue;
+            }
+            if (reward.get(i).size() > percentileIndex) {
+                rewards.add(reward.get(i).get(percentileIndex));
+            }
+        }
+        if (rewards.isEmpty()) {
+            return null;
+        }
+        Collections.sort(rewards);
+        return rewards.get(rewards.size() / 2);
+    }
+
+    BigInteger projectBaseFee(BigInteger baseFee) {
+        BigInteger increase = BASE_FEE_MAX_CHANGE_DENOMINATOR.add(BigInteger.ONE);
+        return baseFee.multiply(increase.pow(baseFeeBlocks))
+                .divide(BASE_FEE_MAX_CHANGE_DENOMINATOR.pow(baseFeeBlocks));
+    }
+
+    private static class Fees {
+
+        private final BigInteger baseFee;
+        private final List<BigInteger> maxPriorityFeesPerGas;
+        private final long loadedAt;
+
+        Fees(BigInteger baseFee, List<BigInteger> maxPriorityFeesPerGas, long loadedAt) {
+            this.baseFee = baseFee;
+            this.maxPriorityFeesPerGas = maxPriorityFeesPerGas;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+
+/**
+ * Transaction receipt processor which resolves receipts from new blocks, rather than polling for
+ * each transaction.
+ *
+ * <p>For every new block while transactions are pending, the receipts of the whole block are
+ * requested with a single eth_getBlockReceipts call, and every pending transaction found in it is
+ * resolved. Transactions which have not been found after {@code stragglerBlocks} blocks, e.g.
+ * because they were included before they were registered, are polled for by hash on every
+ * subsequent block, in {@link BatchRequest}s. New blocks are only listened for while transactions
+ * are pending.
+ *
+ * <p>By default new blocks are taken from {@link Web3j#blockFlowable(boolean)}. With a WebSocket
+ * connection, the block numbers of {@link Web3j#newHeadsNotifications()} can be given instead:
+ *
+ * <pre>
+ * Flowable&lt;BigInteger&gt; blockNumbers =
+ *         web3j.newHeadsNotifications()
+ *                 .map(head -&gt; head.getParams().getResult().getNumber())
+ *                 .map(Numeric::decodeQuantity);
+ * </pre>
+ */
+public class BlockReceiptsTransactionReceiptProcessor extends TransactionReceiptProcessor {
+
+    public static final int DEFAULT_STRAGGLER_BLOCKS = 3;
+
+    /** Maximum number of blocks which are fetched if notifications for blocks were missed. */
+    private static final int MAX_SKIPPED_BLOCKS = 16;
+
+    /** Maximum number of receipt requests per batch when polling for stragglers. */
+    private static final int BATCH_SIZE = 100;
+
+    private static final Logger log =
+            LoggerFactory.getLogger(BlockReceiptsTransactionReceiptProcessor.class);
+
+    private final Flowable<BigInteger> blockNumbers;
+    private final long timeout;
+    private final int stragglerBlocks;
+    private final Map<String, PendingReceipt> pendingReceipts = new ConcurrentHashMap<>();
+
+    private Disposable subscription;
+    private long lastBlockNumber = -1;
+
+    /**
+     * Create a processor which takes new blocks from {@link Web3j#blockFlowable(boolean)}.
+     *
+     * @param web3j web3j instance
+     * @param timeout maximum time to wait for a receipt in milliseconds
+     */
+    public BlockReceiptsTransactionReceiptProcessor(Web3j web3j, long timeout) {
+        this(
+                web3j,
+                web3j.blockFlowable(false).map(ethBlock -> ethBlock.getBlock().getNumber()),
+                timeout,
+                DEFAULT_STRAGGLER_BLOCKS);
+    }
+
+    /**
+     * Create a processor.
+     *
+     * @param web3j web3j instance
+     * @param blockNumbers numbers of new blocks
+     * @param timeout maximum time to wait for a receipt in milliseconds
+     * @param stragglerBlocks number of blocks after which a transaction is polled for by hash
+     */
+    public BlockReceiptsTransactionReceiptProcessor(
+            Web3j web3j, Flowable<BigInteger> blockNumbers, long timeout, int stragglerBlocks) {
+        super(web3j);
+        this.blockNumbers = blockNumbers;
+        this.timeout = timeout;
+        this.stragglerBlocks = stragglerBlocks;
+    }
+
+    @Override
+    public TransactionReceipt waitForTransactionReceipt(String transactionHash)
+            throws IOException, TransactionException {
+        String key = transactionHash.toLowerCase();
+        PendingReceipt pendingReceipt =
+                pendingReceipts.computeIfAbsent(key, k -> new PendingReceipt());
+        subscribe();
+
+        try {
+            return pendingReceipt.future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw timedOut(transactionHash);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof TransactionException) {
+                throw (TransactionException) e.getCause();
+            }
+            throw new TransactionException(e.getCause());
+        } finally {
+            pendingReceipts.remove(key, pendingReceipt);
+            unsubscribeIfIdle();
+        }
+    }
+
+    /**
+     * Wait for a transaction receipt without blocking a thread, the returned future is completed
+     * when the receipt is found in a new block.
+     *
+     * @param transactionHash hash of the transaction
+     * @return future completing with the transaction receipt, or exceptionally with an {@link
+     *     IOException} or {@link TransactionException}
+     */
+    @Override
+    public CompletableFuture<TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        String key = transactionHash.toLowerCase();
+        PendingReceipt pendingReceipt =
+                pendingReceipts.computeIfAbsent(key, k -> new PendingReceipt());
+        subscribe();
+
+        CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+        // The timeout applies to this wait only, the pending receipt may be shared with others
+        pendingReceipt
+                .future
+                .copy()
+                .orTimeout(timeout, TimeUnit.MILLISECONDS)
+                .whenComplete(
+                        (receipt, error) -> {
+                            pendingReceipts.remove(key, pendingReceipt);
+                            unsubscribeIfIdle();
+                            if (error == null) {
+                                result.complete(receipt);
+                            } else {
+                                result.completeExceptionally(toFailure(error, transactionHash));
+                            }
+                        });
+        return result;
+    }
+
+    public int getPendingCount() {
+        return pendingReceipts.size();
+    }
+
+    /** Stop listening for new blocks. Pending transactions time out. */
+    public synchronized void shutdown() {
+        if (subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    private synchronized void subscribe() {
+        if (subscription != null) {
+            return;
+        }
+        lastBlockNumber = -1;
+        subscription =
+                blockNumbers.subscribe(
+                        blockNumber -> {
+                            try {
+                                onBlock(blockNumber.longValue());
+                            } catch (Throwable e) {
+                                log.warn("Error resolving receipts of block {}", blockNumber, e);
+                            }
+                        },
+                        this::onError);
+    }
+
+    private synchronized void unsubscribeIfIdle() {
+        // Transactions are registered before subscribing, so none can be left without blocks
+        if (pendingReceipts.isEmpty() && subscription != null) {
+            subscription.dispose();
+            subscription = null;
+        }
+    }
+
+    private void onError(Throwable throwable) {
+        synchronized (this) {
+            subscription = null;
+        }
+        for (PendingReceipt pendingReceipt : pendingReceipts.values()) {
+            pendingReceipt.future.completeExceptionally(throwable);
+        }
+    }
+
+    void onBlock(long blockNumber) {
+        if (pendingReceipts.isEmpty()) {
+            lastBlockNumber = blockNumber;
+            return;
+        }
+
+        // Blocks for which no notification was received are fetched too, a block which is not
+        // newer than the last one replaces it after a reorganisation
+        long from =
+                lastBlockNumber < 0 || blockNumber <= lastBlockNumber
+                        ? blockNumber
+                        : Math.max(lastBlockNumber + 1, blockNumber - MAX_SKIPPED_BLOCKS + 1);
+        lastBlockNumber = blockNumber;
+
+        boolean fetched = true;
+        for (long number = from; number <= blockNumber && fetched; number++) {
+            fetched = resolveBlockReceipts(number);
+        }
+
+        List<Map.Entry<String, PendingReceipt>> stragglers = new ArrayList<>();
+        for (Map.Entry<String, PendingReceipt> entry : pendingReceipts.entrySet()) {
+            PendingReceipt pendingReceipt = entry.getValue();
+            if (pendingReceipt.future.isDone()) {
+                continue;
+            }
+            // Without the block receipts, every pending transaction is polled for
+            if (++pendingReceipt.blocks >= stragglerBlocks || !fetched) {
+                stragglers.add(entry);
+            }
+        }
+
+        for (int i = 0; i < stragglers.size(); i += BATCH_SIZE) {
+            pollTransactionReceipts(
+                    stragglers.subList(i, Math.min(i + BATCH_SIZE, stragglers.size())));
+        }
+    }
+
+    private boolean resolveBlockReceipts(long blockNumber) {
+        EthGetBlockReceipts ethGetBlockReceipts;
+        try {
+            ethGetBlockReceipts =
+                    web3j.ethGetBlockReceipts(
+                                    DefaultBlockParameter.valueOf(BigInteger.valueOf(blockNumber)))
+                            .send();
+        } catch (IOException e) {
+            log.warn("Error retrieving receipts of block {}", blockNumber, e);
+            return false;
+        }
+        if (ethGetBlockReceipts.hasError()) {
+            log.warn(
+                    "Error retrieving receipts of block {}: {}",
+                    blockNumber,
+                    ethGetBlockReceipts.getError().getMessage());
+            return false;
+        }
+
+        Optional<List<TransactionReceipt>> blockReceipts = ethGetBlockReceipts.getBlockReceipts();
+        if (!blockReceipts.isPresent()) {
+            // The node has not processed the block yet
+            return false;
+        }
+        for (TransactionReceipt transactionReceipt : blockReceipts.get()) {
+            PendingReceipt pendingReceipt =
+                    pendingReceipts.get(transactionReceipt.getTransactionHash().toLowerCase());
+            if (pendingReceipt != null) {
+                pendingReceipt.future.complete(transactionReceipt);
+            }
+        }
+        return true;
+    }
+
+    private void pollTransactionReceipts(List<Map.Entry<String, PendingReceipt>> stragglers) {
+        BatchRequest batchRequest = web3j.newBatch();
+        for (Map.Entry<String, PendingReceipt> straggler : stragglers) {
+            batchRequest.add(web3j.ethGetTransactionReceipt(straggler.getKey()));
+        }
+
+        BatchResponse batchResponse;
+        try {
+            batchResponse = batchRequest.send();
+            if (batchResponse == null) {
+                throw new IOException("No response received for transaction receipts");
+            }
+        } catch (IOException e) {
+            // Stragglers are polled for again on the next block
+            log.warn("Error polling for transaction receipts", e);
+            return;
+        }
+
+        List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+        for (int i = 0; i < stragglers.size(); i++) {
+            EthGetTransactionReceipt response = (EthGetTransactionReceipt) responses.get(i);
+            if (response == null) {
+                continue;
+            }
+            PendingReceipt pendingReceipt = stragglers.get(i).getValue();
+            if (response.hasError()) {
+                pendingReceipt.future.completeExceptionally(
+                        new TransactionException(
+                                "Error processing request: " + response.getError().getMessage()));
+            } else {
+                response.getTransactionReceipt().ifPresent(pendingReceipt.future::complete);
+            }
+        }
+    }
+
+    private TransactionException timedOut(String transactionHash) {
+        return new TransactionException(
+                "Transaction receipt was not generated after "
+                        + (timeout / 1000)
+                        + " seconds for transaction: "
+                        + transactionHash,
+                transactionHash);
+    }
+
+    private Throwable toFailure(Throwable error, String transactionHash) {
+        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            return timedOut(transactionHash);
+        } else if (cause instanceof IOException || cause instanceof TransactionException) {
+            return cause;
+        }
+        return new TransactionException(cause);
+    }
+
+    private static class PendingReceipt {
+
+        private final CompletableFuture<TransactionReceipt> future = new CompletableFuture<>();
+
+        /** Number of blocks processed since the transaction was registered. */
+        private int blocks;
+    }
+}
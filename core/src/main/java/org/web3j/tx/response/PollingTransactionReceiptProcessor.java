@@ -14,21 +14,68 @@ package org.web3j.tx.response;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.protocol.polling.AdaptivePollingInterval;
+import org.web3j.protocol.polling.BlockCadence;
+import org.web3j.utils.Async;
 
 /** With each provided transaction hash, poll until we obtain a transaction receipt. */
 public class PollingTransactionReceiptProcessor extends TransactionReceiptProcessor {
 
     protected final long sleepDuration;
     protected final int attempts;
+    private final BlockCadence blockCadence;
+    private final ScheduledExecutorService scheduledExecutorService;
 
     public PollingTransactionReceiptProcessor(Web3j web3j, long sleepDuration, int attempts) {
+        this(web3j, sleepDuration, attempts, Async.sharedScheduledExecutorService());
+    }
+
+    /**
+     * Create a processor.
+     *
+     * @param web3j web3j instance
+     * @param sleepDuration duration between polls in milliseconds
+     * @param attempts maximum number of polls
+     * @param scheduledExecutorService executor service to schedule the polls of {@link
+     *     #waitForTransactionReceiptAsync(String)} on
+     */
+    public PollingTransactionReceiptProcessor(
+            Web3j web3j,
+            long sleepDuration,
+            int attempts,
+            ScheduledExecutorService scheduledExecutorService) {
         super(web3j);
         this.sleepDuration = sleepDuration;
         this.attempts = attempts;
+        this.blockCadence = null;
+        this.scheduledExecutorService = scheduledExecutorService;
+    }
+
+    /**
+     * Create a processor which polls shortly after each expected block, backing off while no
+     * receipt is available, for at most {@link AdaptivePollingInterval#DEFAULT_MAX_INTERVAL}
+     * between polls.
+     *
+     * @param web3j web3j instance
+     * @param blockCadence block cadence of the node
+     * @param attempts maximum number of polls
+     */
+    public PollingTransactionReceiptProcessor(
+            Web3j web3j, BlockCadence blockCadence, int attempts) {
+        super(web3j);
+        this.sleepDuration = AdaptivePollingInterval.DEFAULT_MAX_INTERVAL;
+        this.attempts = attempts;
+        this.blockCadence = blockCadence;
+        this.scheduledExecutorService = Async.sharedScheduledExecutorService();
     }
 
     @Override
@@ -38,10 +85,104 @@ public class PollingTransactionReceiptProcessor extends TransactionReceiptProces
         return getTransactionReceipt(transactionHash, sleepDuration, attempts);
     }
 
+    /**
+     * Poll for a transaction receipt from a shared timer, rather than sleeping on the calling
+     * thread in between polls. Receipts are requested asynchronously, so the timer is only used to
+     * schedule the next poll.
+     *
+     * @param transactionHash hash of the transaction
+     * @return future completing with the transaction receipt
+     */
+    @Override
+    public CompletableFuture<TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        CompletableFuture<TransactionReceipt> result = new CompletableFuture<>();
+        AdaptivePollingInterval pollingInterval =
+                blockCadence == null ? null : new AdaptivePollingInterval(blockCadence);
+        poll(transactionHash, result, pollingInterval, System.currentTimeMillis(), 0, 0);
+        return result;
+    }
+
+    private void poll(
+            String transactionHash,
+            CompletableFuture<TransactionReceipt> result,
+            AdaptivePollingInterval pollingInterval,
+            long start,
+            int attempt,
+            long delay) {
+        // Only the next poll is scheduled on the timer, the request is sent asynchronously
+        scheduledExecutorService.schedule(
+                () -> {
+                    if (result.isDone()) {
+                        // Cancelled by the caller
+                        return;
+                    }
+                    try {
+                        web3j.ethGetTransactionReceipt(transactionHash)
+                                .sendAsync()
+                                .whenComplete(
+                                        (ethGetTransactionReceipt, error) ->
+                                                onReceiptResponse(
+                                                        transactionHash,
+                                                        result,
+                                                        pollingInterval,
+                                                        start,
+                                                        attempt,
+                                                        ethGetTransactionReceipt,
+                                                        error));
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                },
+                delay,
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void onReceiptResponse(
+            String transactionHash,
+            CompletableFuture<TransactionReceipt> result,
+            AdaptivePollingInterval pollingInterval,
+            long start,
+            int attempt,
+            EthGetTransactionReceipt ethGetTransactionReceipt,
+            Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(
+                    error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error);
+        } else if (ethGetTransactionReceipt.hasError()) {
+            result.completeExceptionally(
+                    new TransactionException(
+                            "Error processing request: "
+                                    + ethGetTransactionReceipt.getError().getMessage()));
+        } else if (ethGetTransactionReceipt.getTransactionReceipt().isPresent()) {
+            result.complete(ethGetTransactionReceipt.getTransactionReceipt().get());
+        } else if (attempt < attempts - 1) {
+            try {
+                poll(
+                        transactionHash,
+                        result,
+                        pollingInterval,
+                        start,
+                        attempt + 1,
+                        pollingInterval == null ? sleepDuration : pollingInterval.nextDelay(false));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        } else {
+            result.completeExceptionally(
+                    receiptNotGenerated(transactionHash, pollingInterval, start));
+        }
+    }
+
     private TransactionReceipt getTransactionReceipt(
             String transactionHash, long sleepDuration, int attempts)
             throws IOException, TransactionException {
 
+        long start = System.currentTimeMillis();
+        AdaptivePollingInterval pollingInterval =
+                blockCadence == null ? null : new AdaptivePollingInterval(blockCadence);
         for (int i = 0; i < attempts; i++) {
             Optional<? extends TransactionReceipt> receiptOptional =
                     sendTransactionReceiptRequest(transactionHash);
@@ -53,16 +194,26 @@ public class PollingTransactionReceiptProcessor extends TransactionReceiptProces
             // Sleep unless it is the last attempt.
             if (i < attempts - 1) {
                 try {
-                    Thread.sleep(sleepDuration);
+                    Thread.sleep(
+                            pollingInterval == null
+                                    ? sleepDuration
+                                    : pollingInterval.nextDelay(false));
                 } catch (InterruptedException e) {
                     throw new TransactionException(e);
                 }
             }
         }
 
-        throw new TransactionException(
+        throw receiptNotGenerated(transactionHash, pollingInterval, start);
+    }
+
+    private TransactionException receiptNotGenerated(
+            String transactionHash, AdaptivePollingInterval pollingInterval, long start) {
+        return new TransactionException(
                 "Transaction receipt was not generated after "
-                        + ((sleepDuration * attempts) / 1000
+                        + ((pollingInterval == null
+                                        ? (sleepDuration * attempts) / 1000
+                                        : (System.currentTimeMillis() - start) / 1000)
                                 + " seconds for transaction: "
                                 + transactionHash),
                 transactionHash);
@@ -13,19 +13,37 @@
 package org.web3j.tx.response;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
 import org.web3j.utils.Async;
 
 /**
- * Transaction receipt processor that uses a single thread to query for transaction receipts.
+ * Transaction receipt processor that uses a single scheduled task to query for transaction
+ * receipts.
+ *
+ * <p>On every tick, the receipts of all transactions which are due are requested in {@link
+ * BatchRequest}s of up to {@code batchSize} requests. After every attempt without a receipt, the
+ * delay before the next attempt for the transaction is doubled, up to {@code maxBackoff}. Ticks are
+ * scheduled with a fixed delay, so they do not pile up if a tick takes longer than the polling
+ * frequency.
  *
  * <p><em>Note:</em>When initially invoked, this processor returns a transaction receipt containing
  * only the transaction hash of the submitted transaction. This is encapsulated in an {@link
@@ -33,75 +51,219 @@ import org.web3j.utils.Async;
  */
 public class QueuingTransactionReceiptProcessor extends TransactionReceiptProcessor {
 
+    public static final int DEFAULT_BATCH_SIZE = 100;
+
+    private static final Logger log =
+            LoggerFactory.getLogger(QueuingTransactionReceiptProcessor.class);
+
     private final int pollingAttemptsPerTxHash;
+    private final long pollingFrequency;
+    private final long maxBackoff;
+    private final int batchSize;
 
-    private final ScheduledExecutorService scheduledExecutorService;
     private final Callback callback;
-    private final BlockingQueue<RequestWrapper> pendingTransactions;
+    private final Map<String, RequestWrapper> pendingTransactions;
+    private final ScheduledFuture<?> schedule;
 
+    /**
+     * Create a processor which polls for every pending transaction on every tick, on an executor
+     * service shared by all processors created with this constructor.
+     *
+     * @param web3j web3j instance
+     * @param callback callback to pass receipts and failures to
+     * @param pollingAttemptsPerTxHash number of attempts per transaction before it fails
+     * @param pollingFrequency polling frequency in milliseconds
+     */
     public QueuingTransactionReceiptProcessor(
             Web3j web3j, Callback callback, int pollingAttemptsPerTxHash, long pollingFrequency) {
+        this(
+                web3j,
+                callback,
+                pollingAttemptsPerTxHash,
+                pollingFrequency,
+                pollingFrequency,
+                DEFAULT_BATCH_SIZE,
+                Async.sharedScheduledExecutorService());
+    }
+
+    /**
+     * Create a processor.
+     *
+     * @param web3j web3j instance
+     * @param callback callback to pass receipts and failures to
+     * @param pollingAttemptsPerTxHash number of attempts per transaction before it fails
+     * @param pollingFrequency polling frequency in milliseconds
+     * @param maxBackoff maximum delay between attempts for a transaction in milliseconds
+     * @param batchSize maximum number of receipt requests per batch
+     * @param scheduledExecutorService executor service to poll on, which may be shared with other
+     *     processors
+     */
+    public QueuingTransactionReceiptProcessor(
+            Web3j web3j,
+            Callback callback,
+            int pollingAttemptsPerTxHash,
+            long pollingFrequency,
+            long maxBackoff,
+            int batchSize,
+            ScheduledExecutorService scheduledExecutorService) {
         super(web3j);
-        this.scheduledExecutorService = Async.defaultExecutorService();
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+        }
         this.callback = callback;
-        this.pendingTransactions = new LinkedBlockingQueue<>();
+        this.pendingTransactions = new ConcurrentHashMap<>();
         this.pollingAttemptsPerTxHash = pollingAttemptsPerTxHash;
+        this.pollingFrequency = pollingFrequency;
+        this.maxBackoff = Math.max(maxBackoff, pollingFrequency);
+        this.batchSize = batchSize;
 
-        scheduledExecutorService.scheduleAtFixedRate(
-                this::sendTransactionReceiptRequests,
-                pollingFrequency,
-                pollingFrequency,
-                TimeUnit.MILLISECONDS);
+        schedule =
+                scheduledExecutorService.scheduleWithFixedDelay(
+                        () -> {
+                            try {
+                                sendTransactionReceiptRequests();
+                            } catch (Throwable e) {
+                                // All exceptions must be caught, otherwise our job terminates
+                                // without any notification
+                                log.warn("Error polling for transaction receipts", e);
+                            }
+                        },
+                        pollingFrequency,
+                        pollingFrequency,
+                        TimeUnit.MILLISECONDS);
     }
 
     @Override
     public TransactionReceipt waitForTransactionReceipt(String transactionHash)
             throws IOException, TransactionException {
-        pendingTransactions.add(new RequestWrapper(transactionHash));
+        pendingTransactions.putIfAbsent(transactionHash, new RequestWrapper(transactionHash));
 
         return new EmptyTransactionReceipt(transactionHash);
     }
 
-    private void sendTransactionReceiptRequests() {
-        for (RequestWrapper requestWrapper : pendingTransactions) {
-            try {
-                String transactionHash = requestWrapper.getTransactionHash();
-                Optional<? extends TransactionReceipt> transactionReceipt =
-                        sendTransactionReceiptRequest(transactionHash);
-                if (transactionReceipt.isPresent()) {
-                    callback.accept(transactionReceipt.get());
-                    pendingTransactions.remove(requestWrapper);
-                } else {
-                    if (requestWrapper.getCount() == pollingAttemptsPerTxHash) {
-                        throw new TransactionException(
-                                "No transaction receipt for txHash: "
-                                        + transactionHash
-                                        + "received after "
-                                        + pollingAttemptsPerTxHash
-                                        + " attempts",
-                                transactionHash);
-                    } else {
-                        requestWrapper.incrementCount();
-                    }
-                }
-            } catch (IOException | TransactionException e) {
-                pendingTransactions.remove(requestWrapper);
-                callback.exception(e);
+    /**
+     * Queue a transaction like {@link #waitForTransactionReceipt(String)}, which does not block, so
+     * no thread is used.
+     *
+     * @param transactionHash hash of the transaction
+     * @return completed future with an {@link EmptyTransactionReceipt}
+     */
+    @Override
+    public CompletableFuture<TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        pendingTransactions.putIfAbsent(transactionHash, new RequestWrapper(transactionHash));
+
+        return CompletableFuture.completedFuture(new EmptyTransactionReceipt(transactionHash));
+    }
+
+    public int getPendingCount() {
+        return pendingTransactions.size();
+    }
+
+    /** Stop polling. Pending transactions are not passed to the callback. */
+    public void shutdown() {
+        schedule.cancel(false);
+    }
+
+    void sendTransactionReceiptRequests() {
+        long now = System.currentTimeMillis();
+        List<RequestWrapper> due = new ArrayList<>();
+        for (RequestWrapper requestWrapper : pendingTransactions.values()) {
+            if (requestWrapper.getNextAttempt() <= now) {
+                due.add(requestWrapper);
             }
         }
+
+        for (int i = 0; i < due.size(); i += batchSize) {
+            sendTransactionReceiptRequests(due.subList(i, Math.min(i + batchSize, due.size())));
+        }
+    }
+
+    private void sendTransactionReceiptRequests(List<RequestWrapper> requestWrappers) {
+        BatchRequest batchRequest = web3j.newBatch();
+        for (RequestWrapper requestWrapper : requestWrappers) {
+            batchRequest.add(web3j.ethGetTransactionReceipt(requestWrapper.getTransactionHash()));
+        }
+
+        BatchResponse batchResponse;
+        try {
+            batchResponse = batchRequest.send();
+            if (batchResponse == null) {
+                throw new IOException("No response received for transaction receipts");
+            }
+        } catch (IOException e) {
+            // A transient failure counts as an attempt for every transaction of the batch
+            log.warn("Error requesting transaction receipts", e);
+            for (RequestWrapper requestWrapper : requestWrappers) {
+                retry(requestWrapper);
+            }
+            return;
+        }
+
+        List<Response<?>> responses = batchResponse.getResponsesInRequestOrder();
+        for (int i = 0; i < requestWrappers.size(); i++) {
+            RequestWrapper requestWrapper = requestWrappers.get(i);
+            Response<?> response = responses.get(i);
+            if (response == null) {
+                // Transactions without a response are retried like those without a receipt
+                retry(requestWrapper);
+                continue;
+            }
+
+            EthGetTransactionReceipt ethGetTransactionReceipt = (EthGetTransactionReceipt) response;
+            if (ethGetTransactionReceipt.hasError()) {
+                fail(
+                        requestWrapper,
+                        new TransactionException(
+                                "Error processing request: "
+                                        + ethGetTransactionReceipt.getError().getMessage()));
+                continue;
+            }
+
+            Optional<TransactionReceipt> transactionReceipt =
+                    ethGetTransactionReceipt.getTransactionReceipt();
+            if (transactionReceipt.isPresent()) {
+                pendingTransactions.remove(requestWrapper.getTransactionHash(), requestWrapper);
+                callback.accept(transactionReceipt.get());
+            } else {
+                retry(requestWrapper);
+            }
+        }
+    }
+
+    private void retry(RequestWrapper requestWrapper) {
+        String transactionHash = requestWrapper.getTransactionHash();
+        if (requestWrapper.getCount() == pollingAttemptsPerTxHash) {
+            fail(
+                    requestWrapper,
+                    new TransactionException(
+                            "No transaction receipt for txHash: "
+                                    + transactionHash
+                                    + " received after "
+                                    + pollingAttemptsPerTxHash
+                                    + " attempts",
+                            transactionHash));
+        } else {
+            requestWrapper.incrementCount();
+            long backoff = pollingFrequency << Math.min(requestWrapper.getCount() - 1, 30);
+            requestWrapper.setNextAttempt(
+                    System.currentTimeMillis() + Math.min(backoff, maxBackoff));
+        }
+    }
+
+    private void fail(RequestWrapper requestWrapper, Exception e) {
+        pendingTransactions.remove(requestWrapper.getTransactionHash(), requestWrapper);
+        callback.exception(e);
     }
 
     /**
-     * Java doesn't provide a concurrent linked hash set, so we use a simple wrapper to store
-     * details of the number of requests we've made against this specific transaction hash. This is
-     * so we can preserve submission order as we integrate over the outstanding transactions.
-     *
-     * <p>Note - the equals/hashcode methods only operate on the transactionHash field. This is
-     * intentional.
+     * Details of the number of requests we've made against a specific transaction hash, and when
+     * the next one is due.
      */
     private static class RequestWrapper {
         private final String transactionHash;
         private int count;
+        private long nextAttempt;
 
         RequestWrapper(String transactionHash) {
             this.transactionHash = transactionHash;
@@ -120,23 +282,12 @@ public class QueuingTransactionReceiptProcessor extends TransactionReceiptProces
             this.count += 1;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-
-            RequestWrapper that = (RequestWrapper) o;
-
-            return transactionHash.equals(that.transactionHash);
+        long getNextAttempt() {
+            return nextAttempt;
         }
 
-        @Override
-        public int hashCode() {
-            return transactionHash.hashCode();
+        void setNextAttempt(long nextAttempt) {
+            this.nextAttempt = nextAttempt;
         }
     }
 }
@@ -14,16 +14,18 @@ package org.web3j.tx.response;
 
 import java.io.IOException;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Async;
 
 /** Abstraction for managing how we wait for transaction receipts to be generated on the network. */
 public abstract class TransactionReceiptProcessor {
 
-    private final Web3j web3j;
+    protected final Web3j web3j;
 
     public TransactionReceiptProcessor(Web3j web3j) {
         this.web3j = web3j;
@@ -32,6 +34,20 @@ public abstract class TransactionReceiptProcessor {
     public abstract TransactionReceipt waitForTransactionReceipt(String transactionHash)
             throws IOException, TransactionException;
 
+    /**
+     * Wait for a transaction receipt without blocking the calling thread. By default {@link
+     * #waitForTransactionReceipt(String)} is run on {@link Async}'s thread pool, processors which
+     * do not need a thread while waiting override this.
+     *
+     * @param transactionHash hash of the transaction
+     * @return future completing with the transaction receipt, or exceptionally with an {@link
+     *     IOException} or {@link TransactionException}
+     */
+    public CompletableFuture<TransactionReceipt> waitForTransactionReceiptAsync(
+            String transactionHash) {
+        return Async.run(() -> waitForTransactionReceipt(transactionHash));
+    }
+
     Optional<? extends TransactionReceipt> sendTransactionReceiptRequest(String transactionHash)
             throws IOException, TransactionException {
         EthGetTransactionReceipt transactionReceipt =
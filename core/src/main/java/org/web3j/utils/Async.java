@@ -64,6 +64,17 @@ public class Async {
         return scheduledExecutorService;
     }
 
+    /**
+     * Provide the ScheduledExecutorService which is shared by all callers, for short running tasks
+     * such as polling timers. It is created on first use, and its threads do not prevent the
+     * application from terminating.
+     *
+     * @return shared ScheduledExecutorService
+     */
+    public static ScheduledExecutorService sharedScheduledExecutorService() {
+        return SharedScheduledExecutorServiceHolder.SCHEDULED_EXECUTOR_SERVICE;
+    }
+
     /**
      * Shutdown as per {@link ExecutorService} Javadoc recommendation.
      *
@@ -83,4 +94,15 @@ public class Async {
             Thread.currentThread().interrupt();
         }
     }
+
+    private static class SharedScheduledExecutorServiceHolder {
+        private static final ScheduledExecutorService SCHEDULED_EXECUTOR_SERVICE =
+                Executors.newScheduledThreadPool(
+                        getCpuCount(),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "web3j-scheduler");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
 }
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.archive;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BlockArchiveTest extends TempFileProvider {
+
+    private static final String TRANSACTION_HASH =
+            "0xc6ef2fc5426d6ad6fd9e2a26abeab0aa2411b7ab17f30a99d3cb96aed1d1055b";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private Path directory;
+    private BlockArchive blockArchive;
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        directory = Paths.get(tempDirPath);
+        blockArchive = new BlockArchive(directory);
+    }
+
+    @AfterEach
+    @Override
+    public void tearDown() throws Exception {
+        blockArchive.close();
+        super.tearDown();
+    }
+
+    @Test
+    public void testFullBlock() throws Exception {
+        EthBlock.Block block = createBlock(1, true);
+        blockArchive.appendBlock(block);
+
+        assertTrue(blockArchive.containsBlock(1, true));
+        assertEquals(block, blockArchive.getBlock(1, true).get().getBlock());
+
+        List<EthBlock.TransactionResult> transactions =
+                blockArchive.getBlock(1, false).get().getBlock().getTransactions();
+        assertEquals(
+                Collections.singletonList(new EthBlock.TransactionHash(TRANSACTION_HASH)),
+                transactions);
+    }
+
+    @Test
+    public void testBlockWithTransactionHashes() throws Exception {
+        EthBlock.Block block = createBlock(1, false);
+        blockArchive.appendBlock(block);
+
+        assertTrue(blockArchive.containsBlock(1, false));
+        assertFalse(blockArchive.containsBlock(1, true));
+        assertEquals(block, blockArchive.getBlock(1, false).get().getBlock());
+        assertFalse(blockArchive.getBlock(1, true).isPresent());
+        assertFalse(blockArchive.getBlock(2, false).isPresent());
+    }
+
+    @Test
+    public void testReceipts() throws Exception {
+        List<TransactionReceipt> receipts = Collections.singletonList(createReceipt(1));
+        blockArchive.appendReceipts(1, receipts);
+
+        assertTrue(blockArchive.containsReceipts(1));
+        assertFalse(blockArchive.containsBlock(1, false));
+        assertEquals(receipts, blockArchive.getReceipts(1).get());
+        assertFalse(blockArchive.getReceipts(2).isPresent());
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        EthBlock.Block block = createBlock(1, true);
+        List<TransactionReceipt> receipts = Collections.singletonList(createReceipt(1));
+        blockArchive.appendBlock(block);
+        blockArchive.appendReceipts(1, receipts);
+        blockArchive.close();
+
+        blockArchive = new BlockArchive(directory);
+        assertEquals(block, blockArchive.getBlock(1, true).get().getBlock());
+        assertEquals(receipts, blockArchive.getReceipts(1).get());
+    }
+
+    @Test
+    public void testSegmentRollover() throws Exception {
+        blockArchive.close();
+        blockArchive = new BlockArchive(directory, 1024);
+
+        for (int i = 0; i < 10; i++) {
+            blockArchive.appendBlock(createBlock(i, true));
+        }
+
+        File[] segments = directory.toFile().listFiles();
+        assertTrue(segments.length > 1);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(createBlock(i, true), blockArchive.getBlock(i, true).get().getBlock());
+        }
+    }
+
+    @Test
+    public void testReadAfterEachAppend() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            blockArchive.appendBlock(createBlock(i, true));
+            assertEquals(createBlock(i, true), blockArchive.getBlock(i, true).get().getBlock());
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(createBlock(i, true), blockArchive.getBlock(i, true).get().getBlock());
+        }
+    }
+
+    @Test
+    public void testPartialRecordIsDiscarded() throws Exception {
+        EthBlock.Block block = createBlock(1, false);
+        blockArchive.appendBlock(block);
+        blockArchive.close();
+
+        Path segment = directory.resolve("segment-00000000.dat");
+        Files.write(segment, new byte[] {1, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        blockArchive = new BlockArchive(directory);
+        assertEquals(block, blockArchive.getBlock(1, false).get().getBlock());
+
+        EthBlock.Block next = createBlock(2, false);
+        blockArchive.appendBlock(next);
+        assertEquals(next, blockArchive.getBlock(2, false).get().getBlock());
+    }
+
+    private EthBlock.Block createBlock(long number, boolean fullTransactionObjects)
+            throws Exception {
+        String transaction =
+                fullTransactionObjects
+                        ? "{\"hash\":\""
+                                + TRANSACTION_HASH
+                                + "\",\"nonce\":\"0x1\",\"blockNumber\":\""
+                                + Numeric.encodeQuantity(BigInteger.valueOf(number))
+                                + "\",\"transactionIndex\":\"0x0\","
+                                + "\"from\":\"0x407d73d8a49eeb85d32cf465507dd71d507100c1\","
+                                + "\"to\":\"0x85a43d8a49eeb85d32cf465507dd71d507100c1\","
+                                + "\"value\":\"0x7f110\",\"gas\":\"0x7f110\","
+                                + "\"gasPrice\":\"0x9184e72a000\",\"input\":\"0x603880600c\","
+                                + "\"v\":\"0x25\",\"r\":\"0x1\",\"s\":\"0x2\",\"type\":\"0x0\"}"
+                        : "\"" + TRANSACTION_HASH + "\"";
+        String json =
+                "{\"number\":\""
+                        + Numeric.encodeQuantity(BigInteger.valueOf(number))
+                        + "\",\"hash\":\"0x9646252be9520f6e71339a8df9c55e4d7619deeb\","
+                        + "\"parentHash\":\"0xe670ec64341771606e55d6b4ca35a1a6b75ee3d5\","
+                        + "\"gasLimit\":\"0x9f759\",\"gasUsed\":\"0x9f759\","
+                        + "\"timestamp\":\"0x54e34e8e\",\"transactions\":["
+                        + transaction
+                        + "],\"uncles\":[]}";
+        return objectMapper.readValue(json, EthBlock.Block.class);
+    }
+
+    private TransactionReceipt createReceipt(long blockNumber) throws Exception {
+        String json =
+                "{\"transactionHash\":\""
+                        + TRANSACTION_HASH
+                        + "\",\"transactionIndex\":\"0x0\",\"blockNumber\":\""
+                        + Numeric.encodeQuantity(BigInteger.valueOf(blockNumber))
+                        + "\",\"cumulativeGasUsed\":\"0x33bc\",\"gasUsed\":\"0x4dc\","
+                        + "\"status\":\"0x1\",\"logs\":[{\"removed\":false,"
+                        + "\"logIndex\":\"0x1\","
+                        + "\"address\":\"0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d\","
+                        + "\"data\":\"0x\",\"topics\":[\"0x59ebeb90bc63057b6515\"]}]}";
+        return objectMapper.readValue(json, TransactionReceipt.class);
+    }
+}
@@ -12,6 +12,9 @@
  */
 package org.web3j.protocol.core;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
 import org.web3j.protocol.BatchTester;
@@ -22,6 +25,8 @@ import org.web3j.protocol.core.methods.response.Web3Sha3;
 import org.web3j.protocol.http.HttpService;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class BatchTest extends BatchTester {
@@ -93,4 +98,29 @@ public class BatchTest extends BatchTester {
         NetVersion netVersion = (NetVersion) response.getResponses().get(2);
         assertEquals(netVersion.getNetVersion(), "59");
     }
+
+    @Test
+    public void testResponsesInRequestOrder() {
+        Request<?, NetVersion> first = web3j.netVersion();
+        Request<?, NetVersion> second = web3j.netVersion();
+        Request<?, NetVersion> third = web3j.netVersion();
+
+        NetVersion secondResponse = new NetVersion();
+        secondResponse.setId(second.getId());
+        NetVersion firstResponse = new NetVersion();
+        firstResponse.setId(first.getId());
+        NetVersion unknownResponse = new NetVersion();
+        unknownResponse.setId(-1);
+
+        BatchResponse response =
+                new BatchResponse(
+                        Arrays.asList(first, second, third),
+                        Arrays.asList(secondResponse, unknownResponse, firstResponse));
+
+        List<Response<?>> responses = response.getResponsesInRequestOrder();
+        assertEquals(3, responses.size());
+        assertSame(firstResponse, responses.get(0));
+        assertSame(secondResponse, responses.get(1));
+        assertNull(responses.get(2));
+    }
 }
@@ -12,13 +12,18 @@
  */
 package org.web3j.protocol.core;
 
+import java.nio.charset.StandardCharsets;
+
 import org.junit.jupiter.api.Test;
 
+import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.ResponseTester;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.Web3ClientVersion;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /** Raw Response tests. */
 public class RawResponseTest extends ResponseTester {
@@ -51,6 +56,22 @@ public class RawResponseTest extends ResponseTester {
         assertEquals(ethBlock.getRawResponse(), (LARGE_RAW_RESPONSE));
     }
 
+    @Test
+    public void testRawResponseBytesEnabled() {
+        configureWeb3Service(true);
+        final Web3ClientVersion web3ClientVersion = deserialiseWeb3ClientVersionResponse();
+        assertArrayEquals(
+                web3ClientVersion.getRawResponseBytes(),
+                RAW_RESPONSE.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRawResponseObjectMapperIsShared() {
+        assertSame(
+                ObjectMapperFactory.getObjectMapper(true),
+                ObjectMapperFactory.getObjectMapper(true));
+    }
+
     @Test
     public void testRawResponseDisabled() {
         configureWeb3Service(false);
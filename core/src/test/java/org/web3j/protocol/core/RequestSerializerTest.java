@@ -0,0 +1,152 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.request.Transaction;
+import org.web3j.protocol.core.methods.response.EthBlock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RequestSerializerTest {
+
+    /** Serializes requests as plain beans, as they were before {@link RequestSerializer}. */
+    private final ObjectMapper beanObjectMapper = new ObjectMapper();
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    @Test
+    public void testStringParams() throws Exception {
+        assertSerializedAsBean(
+                request(
+                        "eth_getBalance",
+                        Arrays.asList("0x407d73d8a49eeb85d32cf465507dd71d507100c1", "latest")));
+    }
+
+    @Test
+    public void testNumberAndBooleanParams() throws Exception {
+        assertSerializedAsBean(
+                request(
+                        "eth_feeHistory",
+                        Arrays.<Object>asList(
+                                4, BigInteger.valueOf(1024), 1.5, true, Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void testDefaultBlockParameterParams() throws Exception {
+        assertSerializedAsBean(
+                request(
+                        "eth_getBlockByNumber",
+                        Arrays.<Object>asList(
+                                DefaultBlockParameter.valueOf(BigInteger.valueOf(0x1b4)),
+                                DefaultBlockParameterName.FINALIZED,
+                                true)));
+    }
+
+    @Test
+    public void testListParams() throws Exception {
+        assertSerializedAsBean(
+                request(
+                        "eth_feeHistory",
+                        Arrays.<Object>asList(
+                                "0x4",
+                                DefaultBlockParameterName.LATEST,
+                                Arrays.asList(25.0, 75.0),
+                                Collections.emptyList())));
+    }
+
+    @Test
+    public void testNestedObjectParams() throws Exception {
+        Map<String, Object> overrides = new LinkedHashMap<>();
+        overrides.put("balance", "0x1");
+        overrides.put("stateDiff", Collections.singletonMap("0x0", "0x2"));
+
+        assertSerializedAsBean(
+                request(
+                        "eth_call",
+                        Arrays.<Object>asList(
+                                Transaction.createEthCallTransaction(
+                                        "0xa70e8dd61c5d32be8058bb8eb970870f07233155",
+                                        "0xb60e8dd61c5d32be8058bb8eb970870f07233155",
+                                        "0xd46e8dd67c5d32be8d46e8dd67c5d32be8058bb8eb970870f072445675"),
+                                DefaultBlockParameterName.PENDING,
+                                overrides)));
+        assertSerializedAsBean(
+                request(
+                        "eth_getLogs",
+                        Collections.singletonList(
+                                new EthFilter(
+                                                DefaultBlockParameterName.EARLIEST,
+                                                DefaultBlockParameter.valueOf(BigInteger.TEN),
+                                                "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d")
+                                        .addSingleTopic(
+                                                "0x59ebeb90bc63057b6515673c3ecf9438e5058bca0f92585014eced636878c9a5")
+                                        .addNullTopic())));
+    }
+
+    @Test
+    public void testNullAndEmptyParams() throws Exception {
+        assertSerializedAsBean(request("eth_blockNumber", Collections.emptyList()));
+        assertSerializedAsBean(request("eth_blockNumber", null));
+        assertSerializedAsBean(request("eth_getBalance", Arrays.asList("0x0", null)));
+    }
+
+    @Test
+    public void testNonStandardVersionAndMethod() throws Exception {
+        Request<Object, EthBlock> request = request(null, Collections.emptyList());
+        request.setJsonrpc("1.0");
+        assertSerializedAsBean(request);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Request<Object, EthBlock> request =
+                request(
+                        "eth_getBlockByNumber",
+                        Arrays.<Object>asList(DefaultBlockParameterName.LATEST, false));
+
+        Request<?, ?> deserialized =
+                objectMapper.readValue(objectMapper.writeValueAsBytes(request), Request.class);
+
+        assertEquals(request.getJsonrpc(), deserialized.getJsonrpc());
+        assertEquals(request.getMethod(), deserialized.getMethod());
+        assertEquals(Arrays.asList("latest", false), deserialized.getParams());
+        assertEquals(request.getId(), deserialized.getId());
+    }
+
+    private void assertSerializedAsBean(Request<?, ?> request) throws Exception {
+        String expected = beanObjectMapper.writeValueAsString(request);
+        String actual = new String(objectMapper.writeValueAsBytes(request), StandardCharsets.UTF_8);
+
+        assertEquals(expected, actual);
+        assertEquals(beanObjectMapper.readTree(expected), objectMapper.readTree(actual));
+    }
+
+    private static Request<Object, EthBlock> request(String method, List<?> params) {
+        @SuppressWarnings("unchecked")
+        List<Object> requestParams = (List<Object>) params;
+        return new Request<>(method, requestParams, null, EthBlock.class);
+    }
+}
@@ -12,11 +12,31 @@
  */
 package org.web3j.protocol.core.filters;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthFilter;
 import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthUninstallFilter;
+import org.web3j.protocol.polling.AdaptivePollingInterval;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 public class BlockFilterTest extends FilterTester {
@@ -34,4 +54,58 @@ public class BlockFilterTest extends FilterTester {
 
         runTest(ethLog, web3j.ethBlockHashFlowable());
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAdaptivePollingReschedulesUntilCancelled() throws Exception {
+        ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        ScheduledFuture<?> future = mock(ScheduledFuture.class);
+        List<Runnable> tasks = new ArrayList<>();
+        List<Long> delays = new ArrayList<>();
+        doAnswer(
+                        invocation -> {
+                            tasks.add(invocation.getArgument(0));
+                            delays.add(invocation.getArgument(1));
+                            return future;
+                        })
+                .when(executor)
+                .schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+        AdaptivePollingInterval pollingInterval = mock(AdaptivePollingInterval.class);
+        when(pollingInterval.nextDelay(true)).thenReturn(500L);
+
+        when(web3jService.send(any(Request.class), eq(EthFilter.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x1\"}",
+                                EthFilter.class));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":["
+                                        + "\"0x31c2342b1e0b8ffda1507fbffddf213c4b3c1e819ff6a84b943faabb0ebf2403\""
+                                        + "]}",
+                                EthLog.class));
+        when(web3jService.send(any(Request.class), eq(EthUninstallFilter.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":true}",
+                                EthUninstallFilter.class));
+
+        List<String> hashes = new ArrayList<>();
+        BlockFilter blockFilter = new BlockFilter(web3j, hashes::add);
+        blockFilter.run(executor, pollingInterval);
+        assertEquals(Arrays.asList(0L), delays);
+
+        tasks.get(0).run();
+        assertEquals(1, hashes.size());
+        assertEquals(Arrays.asList(0L, 500L), delays);
+
+        blockFilter.cancel();
+        verify(future).cancel(false);
+
+        // A poll which was already running when the filter was cancelled is not rescheduled
+        tasks.get(1).run();
+        assertEquals(Arrays.asList(0L, 500L), delays);
+    }
 }
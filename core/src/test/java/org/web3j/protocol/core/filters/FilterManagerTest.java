@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthUninstallFilter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FilterManagerTest {
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private Web3jService web3jService;
+    private ScheduledExecutorService scheduledExecutorService;
+    private ScheduledFuture<?> scheduledFuture;
+    private FilterManager filterManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        scheduledExecutorService = mock(ScheduledExecutorService.class);
+        scheduledFuture = mock(ScheduledFuture.class);
+        doReturn(scheduledFuture)
+                .when(scheduledExecutorService)
+                .scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(), any());
+
+        Web3j web3j = Web3j.build(web3jService);
+        filterManager = new FilterManager(web3j, scheduledExecutorService, 1000);
+
+        when(web3jService.send(any(Request.class), eq(EthFilter.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x1\"}",
+                                EthFilter.class));
+        when(web3jService.send(any(Request.class), eq(EthUninstallFilter.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":true}",
+                                EthUninstallFilter.class));
+    }
+
+    @Test
+    public void testFiltersArePolledInSingleBatch() throws Exception {
+        List<String> first = Collections.synchronizedList(new ArrayList<>());
+        List<String> second = Collections.synchronizedList(new ArrayList<>());
+        BlockFilter firstFilter = new BlockFilter(Web3j.build(web3jService), first::add);
+        BlockFilter secondFilter = new BlockFilter(Web3j.build(web3jService), second::add);
+
+        filterManager.register(firstFilter);
+        filterManager.register(secondFilter);
+        verify(scheduledExecutorService, times(1))
+                .scheduleAtFixedRate(
+                        any(Runnable.class), eq(0L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Request<?, ? extends Response<?>>> requests =
+                                    batchRequest.getRequests();
+                            // Respond in reverse order, responses are matched by id
+                            List<EthLog> responses = new ArrayList<>();
+                            for (int i = requests.size() - 1; i >= 0; i--) {
+                                responses.add(createEthLog(requests.get(i).getId(), "0x" + i));
+                            }
+                            return new BatchResponse(requests, responses);
+                        });
+
+        filterManager.poll();
+
+        verify(web3jService, times(1)).sendBatch(any(BatchRequest.class));
+        assertEquals(Collections.singletonList("0x0"), first);
+        assertEquals(Collections.singletonList("0x1"), second);
+    }
+
+    @Test
+    public void testCancelUnregistersFilter() throws Exception {
+        BlockFilter firstFilter = new BlockFilter(Web3j.build(web3jService), value -> {});
+        BlockFilter secondFilter = new BlockFilter(Web3j.build(web3jService), value -> {});
+
+        filterManager.register(firstFilter);
+        filterManager.register(secondFilter);
+        assertEquals(2, filterManager.getFilterCount());
+
+        firstFilter.cancel();
+        assertEquals(1, filterManager.getFilterCount());
+        verify(scheduledFuture, times(0)).cancel(false);
+
+        secondFilter.cancel();
+        assertEquals(0, filterManager.getFilterCount());
+        verify(scheduledFuture, times(1)).cancel(false);
+    }
+
+    @Test
+    public void testFailingFilterDoesNotAffectOthers() throws Exception {
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        BlockFilter failingFilter =
+                new BlockFilter(
+                        Web3j.build(web3jService),
+                        value -> {
+                            throw new IllegalStateException("callback failed");
+                        });
+        BlockFilter filter = new BlockFilter(Web3j.build(web3jService), results::add);
+
+        filterManager.register(failingFilter);
+        filterManager.register(filter);
+
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Request<?, ? extends Response<?>>> requests =
+                                    batchRequest.getRequests();
+                            List<EthLog> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request : requests) {
+                                responses.add(createEthLog(request.getId(), "0x2"));
+                            }
+                            return new BatchResponse(requests, responses);
+                        });
+
+        filterManager.poll();
+
+        assertEquals(Collections.singletonList("0x2"), results);
+    }
+
+    private EthLog createEthLog(long id, String blockHash) throws Exception {
+        return objectMapper.readValue(
+                "{\"jsonrpc\":\"2.0\",\"id\":" + id + ",\"result\":[\"" + blockHash + "\"]}",
+                EthLog.class);
+    }
+}
@@ -45,7 +45,7 @@ import static org.mockito.Mockito.when;
 
 public abstract class FilterTester {
 
-    private Web3jService web3jService;
+    Web3jService web3jService;
     Web3j web3j;
 
     final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
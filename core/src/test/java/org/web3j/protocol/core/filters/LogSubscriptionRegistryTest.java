@@ -0,0 +1,209 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.core.filters;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterName;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthUninstallFilter;
+import org.web3j.protocol.core.methods.response.Log;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogSubscriptionRegistryTest {
+
+    private static final String ADDRESS = "0x2a98c5f40bfa3dee83431103c535f6fae9a8ad38";
+    private static final String TOPIC_A =
+            "0x5a690ecd0cb15c1c1fd6b6f8a32df0d4f56cb41a54fea7e94020f013595de796";
+    private static final String TOPIC_B =
+            "0xa9c6cbc4bd352a6940479f6d802a1001550581858b310d7f68f7bea51218cda6";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    private Web3jService web3jService;
+    private LogSubscriptionRegistry registry;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        ScheduledExecutorService scheduledExecutorService = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class))
+                .when(scheduledExecutorService)
+                .scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(), any());
+        registry =
+                new LogSubscriptionRegistry(Web3j.build(web3jService), scheduledExecutorService);
+
+        when(web3jService.send(any(Request.class), eq(EthUninstallFilter.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":true}",
+                                EthUninstallFilter.class));
+    }
+
+    @Test
+    public void testEquivalentFiltersShareNodeFilter() throws Exception {
+        stubNewFilter("0x1");
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(createEthLog(createLog(TOPIC_A, "0x0")));
+
+        List<Log> first = new ArrayList<>();
+        List<Log> second = new ArrayList<>();
+        registry.subscribe(createFilter(TOPIC_A), first::add, 1000);
+        registry.subscribe(createFilter(TOPIC_A), second::add, 1000);
+
+        assertEquals(1, registry.getFilterCount());
+        verify(web3jService, times(1))
+                .send(
+                        any(Request.class),
+                        eq(org.web3j.protocol.core.methods.response.EthFilter.class));
+        assertEquals(Collections.singletonList(createLog(TOPIC_A, "0x0")), first);
+        // Historic logs of a shared filter are only passed to its first subscriber
+        assertTrue(second.isEmpty());
+    }
+
+    @Test
+    public void testOverlappingFiltersAreMergedAndDemultiplexed() throws Exception {
+        stubNewFilter("0x1");
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(createEthLog(createLog(TOPIC_A, "0x0")))
+                .thenReturn(createEthLog(createLog(TOPIC_A, "0x0"), createLog(TOPIC_B, "0x1")));
+
+        List<Log> first = new ArrayList<>();
+        List<Log> second = new ArrayList<>();
+        registry.subscribe(createFilter(TOPIC_A), first::add, 1000);
+        registry.subscribe(createFilter(TOPIC_B), second::add, 1000);
+
+        assertEquals(1, registry.getFilterCount());
+        // The narrower filter is replaced by one on both topics
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthUninstallFilter.class));
+        assertEquals(Collections.singletonList(createLog(TOPIC_A, "0x0")), first);
+        assertEquals(Collections.singletonList(createLog(TOPIC_B, "0x1")), second);
+    }
+
+    @Test
+    public void testReplacedFilterIsPolledBeforeCancelling() throws Exception {
+        stubNewFilter("0x1");
+        // Initial logs of the first and the widened filter, then the final changes of the first
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(createEthLog())
+                .thenReturn(createEthLog(createLog(TOPIC_B, "0x1")))
+                .thenReturn(createEthLog(createLog(TOPIC_A, "0x0"), createLog(TOPIC_B, "0x1")));
+
+        List<Log> first = new ArrayList<>();
+        List<Log> second = new ArrayList<>();
+        registry.subscribe(createFilter(TOPIC_A), first::add, 1000);
+        registry.subscribe(createFilter(TOPIC_B), second::add, 1000);
+
+        assertEquals(Collections.singletonList(createLog(TOPIC_A, "0x0")), first);
+        assertEquals(Collections.singletonList(createLog(TOPIC_B, "0x1")), second);
+    }
+
+    @Test
+    public void testNodeFilterIsCancelledWithLastSubscription() throws Exception {
+        stubNewFilter("0x1");
+        when(web3jService.send(any(Request.class), eq(EthLog.class))).thenReturn(createEthLog());
+
+        LogSubscriptionRegistry.Subscription first =
+                registry.subscribe(createFilter(TOPIC_A), value -> {}, 1000);
+        LogSubscriptionRegistry.Subscription second =
+                registry.subscribe(createFilter(TOPIC_A), value -> {}, 1000);
+
+        first.cancel();
+        assertEquals(1, registry.getFilterCount());
+        verify(web3jService, times(0)).send(any(Request.class), eq(EthUninstallFilter.class));
+
+        second.cancel();
+        assertEquals(0, registry.getFilterCount());
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthUninstallFilter.class));
+    }
+
+    @Test
+    public void testHistoricFiltersAreNotShareable() {
+        EthFilter historic =
+                new EthFilter(
+                        DefaultBlockParameter.valueOf(BigInteger.ONE),
+                        DefaultBlockParameterName.LATEST,
+                        ADDRESS);
+
+        assertTrue(LogSubscriptionRegistry.isShareable(createFilter(TOPIC_A)));
+        assertFalse(LogSubscriptionRegistry.isShareable(historic));
+        assertFalse(LogSubscriptionRegistry.isShareable(new EthFilter("0x1234")));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> registry.subscribe(historic, value -> {}, 1000));
+    }
+
+    private void stubNewFilter(String filterId) throws Exception {
+        when(web3jService.send(
+                        any(Request.class),
+                        eq(org.web3j.protocol.core.methods.response.EthFilter.class)))
+                .thenReturn(
+                        objectMapper.readValue(
+                                "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"" + filterId + "\"}",
+                                org.web3j.protocol.core.methods.response.EthFilter.class));
+    }
+
+    private EthFilter createFilter(String topic) {
+        return new EthFilter(
+                        DefaultBlockParameterName.LATEST, DefaultBlockParameterName.LATEST, ADDRESS)
+                .addSingleTopic(topic);
+    }
+
+    private EthLog.LogObject createLog(String topic, String logIndex) {
+        return new EthLog.LogObject(
+                false,
+                logIndex,
+                "0x0",
+                "0x9d8a4410204140a8fa7f191b0b1d9526822a87d212ade0b6a3cbd20a6e2ed2e9",
+                "0xd263df878c66b8a08c8509a8f33d6758bc3a1ee3c5ab3c9a765ea981ae9d72e3",
+                "0x2865a",
+                ADDRESS,
+                "0x",
+                null,
+                Collections.singletonList(topic));
+    }
+
+    private EthLog createEthLog(EthLog.LogObject... logs) {
+        EthLog ethLog = new EthLog();
+        ethLog.setResult(Arrays.<EthLog.LogResult>asList(logs));
+        return ethLog;
+    }
+}
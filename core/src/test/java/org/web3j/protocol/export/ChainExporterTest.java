@@ -0,0 +1,131 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+import org.web3j.protocol.ObjectMapperFactory;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class ChainExporterTest extends TempFileProvider {
+
+    private static final String TRANSACTION_HASH =
+            "0xc6ef2fc5426d6ad6fd9e2a26abeab0aa2411b7ab17f30a99d3cb96aed1d1055b";
+    private static final String TOPIC =
+            "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef";
+    private static final String ADDRESS = "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d";
+
+    private final ObjectMapper objectMapper = ObjectMapperFactory.getObjectMapper();
+
+    @Test
+    public void testExportBlocks() throws Exception {
+        Path directory = Paths.get(tempDirPath);
+        ChainExporter exporter = new ChainExporter(mock(Web3j.class), directory);
+
+        EthBlock ethBlock = new EthBlock();
+        ethBlock.setResult(createBlock());
+        assertEquals(1, exporter.exportBlocks(Flowable.just(ethBlock)));
+
+        try (ColumnarReader reader =
+                new ColumnarReader(directory.resolve(ChainExporter.BLOCKS_FILE))) {
+            assertTrue(reader.nextRowGroup());
+            assertArrayEquals(new long[] {0x1b4}, reader.readLongs("number"));
+            assertArrayEquals(new long[] {0x54e34e8e}, reader.readLongs("timestamp"));
+            assertArrayEquals(new long[] {1}, reader.readLongs("transactionCount"));
+            assertNull(reader.readBytes("baseFeePerGas")[0]);
+            assertFalse(reader.nextRowGroup());
+        }
+
+        try (ColumnarReader reader =
+                new ColumnarReader(directory.resolve(ChainExporter.TRANSACTIONS_FILE))) {
+            assertTrue(reader.nextRowGroup());
+            assertArrayEquals(
+                    Numeric.hexStringToByteArray(TRANSACTION_HASH), reader.readBytes("hash")[0]);
+            assertNull(reader.readBytes("to")[0]);
+            assertEquals(
+                    BigInteger.valueOf(0x7f110),
+                    BytesColumn.toQuantity(reader.readBytes("value")[0]));
+            assertArrayEquals(new long[] {0x1b4}, reader.readLongs("blockNumber"));
+            assertFalse(reader.nextRowGroup());
+        }
+    }
+
+    @Test
+    public void testExportLogs() throws Exception {
+        Path directory = Paths.get(tempDirPath);
+        ChainExporter exporter = new ChainExporter(mock(Web3j.class), directory);
+
+        Log log = new Log();
+        log.setBlockNumber("0x1b4");
+        log.setLogIndex("0x0");
+        log.setTransactionIndex("0x0");
+        log.setTransactionHash(TRANSACTION_HASH);
+        log.setAddress(ADDRESS);
+        log.setData("0x01");
+        log.setTopics(Arrays.asList(TOPIC, TRANSACTION_HASH));
+
+        assertEquals(2, exporter.exportLogs(Flowable.just(log, log)));
+
+        try (ColumnarReader reader =
+                new ColumnarReader(directory.resolve(ChainExporter.LOGS_FILE))) {
+            assertTrue(reader.nextRowGroup());
+            assertEquals(2, reader.getRowCount());
+
+            byte[][] topic0 = reader.readBytes("topic0");
+            assertArrayEquals(Numeric.hexStringToByteArray(TOPIC), topic0[0]);
+            assertSame(topic0[0], topic0[1]);
+            assertArrayEquals(
+                    Numeric.hexStringToByteArray(TRANSACTION_HASH), reader.readBytes("topic1")[0]);
+            assertNull(reader.readBytes("topic2")[0]);
+            assertArrayEquals(new byte[] {1}, reader.readBytes("data")[1]);
+            assertFalse(reader.nextRowGroup());
+        }
+    }
+
+    private EthBlock.Block createBlock() throws Exception {
+        String json =
+                "{\"number\":\"0x1b4\","
+                        + "\"hash\":\"0x9646252be9520f6e71339a8df9c55e4d7619deeb\","
+                        + "\"parentHash\":\"0xe670ec64341771606e55d6b4ca35a1a6b75ee3d5\","
+                        + "\"miner\":\"0x4e65fda2159562a496f9f3522f89122a3088497a\","
+                        + "\"gasLimit\":\"0x9f759\",\"gasUsed\":\"0x9f759\","
+                        + "\"timestamp\":\"0x54e34e8e\",\"transactions\":[{\"hash\":\""
+                        + TRANSACTION_HASH
+                        + "\",\"nonce\":\"0x1\",\"blockNumber\":\"0x1b4\","
+                        + "\"transactionIndex\":\"0x0\","
+                        + "\"from\":\"0x407d73d8a49eeb85d32cf465507dd71d507100c1\","
+                        + "\"to\":null,\"value\":\"0x7f110\",\"gas\":\"0x7f110\","
+                        + "\"gasPrice\":\"0x9184e72a000\",\"input\":\"0x603880600c\"}],"
+                        + "\"uncles\":[]}";
+        return objectMapper.readValue(json, EthBlock.Block.class);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.export;
+
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ColumnarWriterTest extends TempFileProvider {
+
+    private static final String ADDRESS_A = "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d";
+    private static final String ADDRESS_B = "0x407d73d8a49eeb85d32cf465507dd71d507100c1";
+
+    @Test
+    public void testRowGroups() throws Exception {
+        Path file = Paths.get(tempDirPath, "table.w3jc");
+
+        try (ColumnarWriter writer = new ColumnarWriter(file, 2)) {
+            VarLongColumn number = writer.varLongColumn("number");
+            FixedWidthColumn hash = writer.fixedWidthColumn("hash", 32);
+            BytesColumn value = writer.bytesColumn("value");
+            DictionaryColumn address = writer.dictionaryColumn("address", 20);
+
+            number.add("0x0");
+            hash.add("0x1");
+            value.addQuantity("0xde0b6b3a7640000");
+            address.add(ADDRESS_A);
+            writer.endRow();
+
+            number.add(Long.MAX_VALUE);
+            hash.addNull();
+            value.add("0x");
+            address.add(ADDRESS_B);
+            writer.endRow();
+
+            number.addNull();
+            hash.add("0x2");
+            value.addNull();
+            address.add(ADDRESS_A);
+            writer.endRow();
+
+            assertEquals(3, writer.getRowCount());
+        }
+
+        try (ColumnarReader reader = new ColumnarReader(file)) {
+            assertEquals(
+                    Arrays.asList("number", "hash", "value", "address"),
+                    reader.getColumnNames());
+            assertEquals(ColumnType.DICTIONARY, reader.getColumnType("address"));
+
+            assertTrue(reader.nextRowGroup());
+            assertEquals(2, reader.getRowCount());
+            assertArrayEquals(new long[] {0, Long.MAX_VALUE}, reader.readLongs("number"));
+
+            byte[][] hashes = reader.readBytes("hash");
+            assertArrayEquals(Numeric.toBytesPadded(BigInteger.ONE, 32), hashes[0]);
+            assertNull(hashes[1]);
+
+            byte[][] values = reader.readBytes("value");
+            assertEquals(
+                    new BigInteger("1000000000000000000"), BytesColumn.toQuantity(values[0]));
+            assertEquals(0, values[1].length);
+
+            byte[][] addresses = reader.readBytes("address");
+            assertArrayEquals(Numeric.hexStringToByteArray(ADDRESS_A), addresses[0]);
+            assertArrayEquals(Numeric.hexStringToByteArray(ADDRESS_B), addresses[1]);
+
+            assertTrue(reader.nextRowGroup());
+            assertEquals(1, reader.getRowCount());
+            BitSet nulls = reader.readNulls("number");
+            assertTrue(nulls.get(0));
+            assertArrayEquals(new long[] {0}, reader.readLongs("number"));
+            assertArrayEquals(
+                    Numeric.toBytesPadded(BigInteger.valueOf(2), 32), reader.readBytes("hash")[0]);
+            assertNull(reader.readBytes("value")[0]);
+
+            assertFalse(reader.nextRowGroup());
+        }
+    }
+
+    @Test
+    public void testDictionaryValuesAreShared() throws Exception {
+        Path file = Paths.get(tempDirPath, "table.w3jc");
+
+        try (ColumnarWriter writer = new ColumnarWriter(file)) {
+            DictionaryColumn address = writer.dictionaryColumn("address", 20);
+            for (int i = 0; i < 10; i++) {
+                address.add(i % 2 == 0 ? ADDRESS_A : ADDRESS_B);
+                writer.endRow();
+            }
+        }
+
+        try (ColumnarReader reader = new ColumnarReader(file)) {
+            assertTrue(reader.nextRowGroup());
+            byte[][] addresses = reader.readBytes("address");
+            assertEquals(10, addresses.length);
+            assertSame(addresses[0], addresses[8]);
+            assertSame(addresses[1], addresses[9]);
+        }
+    }
+
+    @Test
+    public void testIncompleteRow() throws Exception {
+        try (ColumnarWriter writer =
+                new ColumnarWriter(Paths.get(tempDirPath, "table.w3jc"))) {
+            writer.varLongColumn("number").add(1);
+            writer.varLongColumn("timestamp");
+            assertThrows(IllegalStateException.class, writer::endRow);
+        }
+    }
+
+    @Test
+    public void testColumnsAfterFirstRow() throws Exception {
+        try (ColumnarWriter writer =
+                new ColumnarWriter(Paths.get(tempDirPath, "table.w3jc"))) {
+            writer.varLongColumn("number").add(1);
+            writer.endRow();
+            assertThrows(IllegalStateException.class, () -> writer.varLongColumn("timestamp"));
+        }
+    }
+
+    @Test
+    public void testValueExceedsWidth() throws Exception {
+        try (ColumnarWriter writer =
+                new ColumnarWriter(Paths.get(tempDirPath, "table.w3jc"))) {
+            FixedWidthColumn address = writer.fixedWidthColumn("address", 20);
+            assertThrows(IllegalArgumentException.class, () -> address.add(ADDRESS_A + "ff"));
+        }
+    }
+}
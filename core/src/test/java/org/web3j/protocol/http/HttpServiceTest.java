@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 
 import okhttp3.Call;
 import okhttp3.OkHttpClient;
@@ -25,10 +26,16 @@ import okhttp3.ResponseBody;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameterName;
 import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
 import org.web3j.protocol.core.methods.response.EthBlockNumber;
+import org.web3j.protocol.core.methods.response.EthLog;
 import org.web3j.protocol.core.methods.response.EthSubscribe;
+import org.web3j.protocol.core.methods.response.Log;
 import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.exceptions.JsonRpcError;
 import org.web3j.protocol.websocket.events.NewHeadsNotification;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -121,4 +128,105 @@ public class HttpServiceTest {
                         httpService.subscribe(
                                 subscribeRequest, "eth_unsubscribe", NewHeadsNotification.class));
     }
+
+    @Test
+    public void testEthGetLogsStream() {
+        HttpService mockedHttpService =
+                createMockedHttpService(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":["
+                                + "{\"logIndex\":\"0x1\",\"blockNumber\":\"0x1b4\","
+                                + "\"address\":\"0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d\","
+                                + "\"topics\":[\"0x59ebeb90bc63057b6515673c3ecf9438e5058bca0f92585014eced636878c9a5\"]},"
+                                + "{\"logIndex\":\"0x2\",\"blockNumber\":\"0x1b5\","
+                                + "\"address\":\"0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d\","
+                                + "\"topics\":[]}"
+                                + "]}");
+
+        EthFilter ethFilter =
+                new EthFilter(
+                        DefaultBlockParameterName.EARLIEST,
+                        DefaultBlockParameterName.LATEST,
+                        "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d");
+
+        List<EthLog.LogResult> results =
+                Web3j.build(mockedHttpService).ethGetLogsStream(ethFilter).toList().blockingGet();
+
+        assertEquals(2, results.size());
+        List<Log> logs =
+                Arrays.asList((Log) results.get(0).get(), (Log) results.get(1).get());
+        assertEquals("0x1b4", logs.get(0).getBlockNumberRaw());
+        assertEquals(
+                Collections.singletonList(
+                        "0x59ebeb90bc63057b6515673c3ecf9438e5058bca0f92585014eced636878c9a5"),
+                logs.get(0).getTopics());
+        assertEquals("0x2", logs.get(1).getLogIndexRaw());
+    }
+
+    @Test
+    public void testEthGetLogsStreamHashes() {
+        HttpService mockedHttpService =
+                createMockedHttpService(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":["
+                                + "\"0x59ebeb90bc63057b6515673c3ecf9438e5058bca0f92585014eced636878c9a5\"]}");
+
+        EthFilter ethFilter =
+                new EthFilter(
+                        DefaultBlockParameterName.EARLIEST,
+                        DefaultBlockParameterName.LATEST,
+                        "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d");
+
+        List<EthLog.LogResult> results =
+                Web3j.build(mockedHttpService).ethGetLogsStream(ethFilter).toList().blockingGet();
+
+        assertEquals(
+                Collections.singletonList(
+                        new EthLog.Hash(
+                                "0x59ebeb90bc63057b6515673c3ecf9438e5058bca0f92585014eced636878c9a5")),
+                results);
+    }
+
+    @Test
+    public void testEthGetLogsStreamError() {
+        HttpService mockedHttpService =
+                createMockedHttpService(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":"
+                                + "{\"code\":-32005,\"message\":\"query returned more than 10000 results\"}}");
+
+        EthFilter ethFilter =
+                new EthFilter(
+                        DefaultBlockParameterName.EARLIEST,
+                        DefaultBlockParameterName.LATEST,
+                        "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d");
+
+        JsonRpcError error =
+                assertThrows(
+                        JsonRpcError.class,
+                        () ->
+                                Web3j.build(mockedHttpService)
+                                        .ethGetLogsStream(ethFilter)
+                                        .toList()
+                                        .blockingGet());
+        assertEquals(-32005, error.getCode());
+    }
+
+    private HttpService createMockedHttpService(String content) {
+        OkHttpClient httpClient = Mockito.mock(OkHttpClient.class);
+        Mockito.when(httpClient.newCall(Mockito.any()))
+                .thenAnswer(
+                        invocation -> {
+                            Response response =
+                                    new Response.Builder()
+                                            .code(200)
+                                            .message("")
+                                            .body(ResponseBody.create(content, null))
+                                            .request(invocation.getArgument(0))
+                                            .protocol(Protocol.HTTP_1_1)
+                                            .build();
+                            Call call = Mockito.mock(Call.class);
+                            Mockito.when(call.execute()).thenReturn(response);
+
+                            return call;
+                        });
+        return new HttpService(httpClient);
+    }
 }
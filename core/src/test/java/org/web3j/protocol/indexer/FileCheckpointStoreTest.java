@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.indexer;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class FileCheckpointStoreTest extends TempFileProvider {
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        FileCheckpointStore store =
+                new FileCheckpointStore(Paths.get(tempDirPath, "checkpoint"));
+        assertFalse(store.load().isPresent());
+
+        store.save(new Checkpoint(1, "0x1a"));
+        store.save(new Checkpoint(2, "0x2a"));
+
+        assertEquals(new Checkpoint(2, "0x2a"), store.load().get());
+        assertEquals(
+                new Checkpoint(2, "0x2a"),
+                new FileCheckpointStore(Paths.get(tempDirPath, "checkpoint")).load().get());
+    }
+
+    @Test
+    public void testInvalidCheckpoint() throws Exception {
+        Path file = Paths.get(tempDirPath, "checkpoint");
+        Files.write(file, "invalid".getBytes());
+
+        assertThrows(IOException.class, () -> new FileCheckpointStore(file).load());
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.indexer;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import io.reactivex.Flowable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.rx.BlockEvent;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogIndexerTest {
+
+    private static final long LATEST_BLOCK = 3;
+
+    private final List<Checkpoint> savedCheckpoints = new ArrayList<>();
+    private final List<Log> handledLogs = new ArrayList<>();
+
+    private Web3j web3j;
+    private Checkpoint storedCheckpoint;
+    private CheckpointStore checkpointStore;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() throws Exception {
+        web3j = mock(Web3j.class);
+        when(web3j.ethGetBlockByNumber(any(DefaultBlockParameter.class), anyBoolean()))
+                .thenAnswer(
+                        invocation -> {
+                            DefaultBlockParameter parameter = invocation.getArgument(0);
+                            long number =
+                                    parameter instanceof DefaultBlockParameterNumber
+                                            ? ((DefaultBlockParameterNumber) parameter)
+                                                    .getBlockNumber()
+                                                    .longValue()
+                                            : LATEST_BLOCK;
+                            EthBlock ethBlock = new EthBlock();
+                            ethBlock.setResult(block(number));
+                            Request<?, EthBlock> request = mock(Request.class);
+                            when(request.send()).thenReturn(ethBlock);
+                            return request;
+                        });
+
+        checkpointStore =
+                new CheckpointStore() {
+                    @Override
+                    public Optional<Checkpoint> load() {
+                        return Optional.ofNullable(storedCheckpoint);
+                    }
+
+                    @Override
+                    public void save(Checkpoint checkpoint) {
+                        storedCheckpoint = checkpoint;
+                        savedCheckpoints.add(checkpoint);
+                    }
+                };
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBackfillThenFollow() throws Exception {
+        when(web3j.replayPastLogsFlowable(any(EthFilter.class)))
+                .thenReturn(Flowable.<Log>just(log(1), log(1), log(3)));
+        when(web3j.replayPastAndFutureCanonicalBlocksFlowable(
+                        any(DefaultBlockParameter.class), eq(false), eq(0)))
+                .thenReturn(Flowable.just(BlockEvent.apply(block(4))));
+
+        EthLog ethLog = new EthLog();
+        ethLog.setResult(Collections.singletonList(log(4)));
+        Request<?, EthLog> request = mock(Request.class);
+        when(request.send()).thenReturn(ethLog);
+        when(web3j.ethGetLogs(any(EthFilter.class))).thenAnswer(invocation -> request);
+
+        List<Checkpoint> checkpoints =
+                new LogIndexer(web3j, createFilter(), checkpointStore, 0)
+                        .index(handledLogs::add)
+                        .toList()
+                        .blockingGet();
+
+        List<Checkpoint> expected =
+                Arrays.asList(
+                        new Checkpoint(1, hash(1)),
+                        new Checkpoint(3, hash(3)),
+                        new Checkpoint(4, hash(4)));
+        assertEquals(expected, checkpoints);
+        assertEquals(expected, savedCheckpoints);
+        assertEquals(4, handledLogs.size());
+    }
+
+    @Test
+    public void testResumesFromCheckpoint() throws Exception {
+        storedCheckpoint = new Checkpoint(LATEST_BLOCK, hash(LATEST_BLOCK));
+        when(web3j.replayPastAndFutureCanonicalBlocksFlowable(
+                        any(DefaultBlockParameter.class), anyBoolean(), anyInt()))
+                .thenReturn(Flowable.empty());
+
+        new LogIndexer(web3j, createFilter(), checkpointStore, 0)
+                .index(handledLogs::add)
+                .blockingSubscribe();
+
+        verify(web3j, never()).replayPastLogsFlowable(any(EthFilter.class));
+        verify(web3j)
+                .replayPastAndFutureCanonicalBlocksFlowable(
+                        argThat(
+                                parameter ->
+                                        ((DefaultBlockParameterNumber) parameter)
+                                                        .getBlockNumber()
+                                                        .longValue()
+                                                == LATEST_BLOCK + 1),
+                        eq(false),
+                        eq(0));
+    }
+
+    @Test
+    public void testRewindsFromStaleCheckpoint() throws Exception {
+        storedCheckpoint = new Checkpoint(LATEST_BLOCK, "0xabandoned");
+        when(web3j.replayPastLogsFlowable(any(EthFilter.class))).thenReturn(Flowable.empty());
+        when(web3j.replayPastAndFutureCanonicalBlocksFlowable(
+                        any(DefaultBlockParameter.class), anyBoolean(), anyInt()))
+                .thenReturn(Flowable.empty());
+
+        List<EthBlock.Block> rolledBack = new ArrayList<>();
+
+        new LogIndexer(web3j, createFilter(), checkpointStore, 0)
+                .index(recordingHandler(rolledBack))
+                .blockingSubscribe();
+
+        verify(web3j).replayPastLogsFlowable(any(EthFilter.class));
+        assertEquals(
+                Collections.singletonList(new Checkpoint(LATEST_BLOCK, hash(LATEST_BLOCK))),
+                savedCheckpoints);
+        assertEquals(
+                Arrays.asList(3L, 2L, 1L),
+                rolledBack.stream()
+                        .map(block -> block.getNumber().longValue())
+                        .collect(Collectors.toList()));
+        assertEquals("0xabandoned", rolledBack.get(0).getHash());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRewindsFromCheckpointBeyondHead() throws Exception {
+        storedCheckpoint = new Checkpoint(LATEST_BLOCK + 1, hash(LATEST_BLOCK + 1));
+        Request<?, EthBlock> missingBlock = mock(Request.class);
+        when(missingBlock.send()).thenReturn(new EthBlock());
+        when(web3j.ethGetBlockByNumber(
+                        argThat(
+                                parameter ->
+                                        parameter instanceof DefaultBlockParameterNumber
+                                                && ((DefaultBlockParameterNumber) parameter)
+                                                                .getBlockNumber()
+                                                                .longValue()
+                                                        == LATEST_BLOCK + 1),
+                        anyBoolean()))
+                .thenAnswer(invocation -> missingBlock);
+        when(web3j.replayPastLogsFlowable(any(EthFilter.class))).thenReturn(Flowable.empty());
+        when(web3j.replayPastAndFutureCanonicalBlocksFlowable(
+                        any(DefaultBlockParameter.class), anyBoolean(), anyInt()))
+                .thenReturn(Flowable.empty());
+        List<EthBlock.Block> rolledBack = new ArrayList<>();
+
+        new LogIndexer(web3j, createFilter(), checkpointStore, 0)
+                .index(recordingHandler(rolledBack))
+                .blockingSubscribe();
+
+        verify(web3j).replayPastLogsFlowable(any(EthFilter.class));
+        assertEquals(4, rolledBack.size());
+    }
+
+    private LogHandler recordingHandler(List<EthBlock.Block> rolledBack) {
+        return new LogHandler() {
+            @Override
+            public void onLog(Log log) {
+                handledLogs.add(log);
+            }
+
+            @Override
+            public void onRollback(EthBlock.Block block) {
+                rolledBack.add(block);
+            }
+        };
+    }
+
+    private static EthFilter createFilter() {
+        return new EthFilter(
+                new DefaultBlockParameterNumber(1),
+                new DefaultBlockParameterNumber(LATEST_BLOCK),
+                "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d");
+    }
+
+    private static String hash(long number) {
+        return "0x" + Long.toHexString(number) + "a";
+    }
+
+    private static EthBlock.Block block(long number) {
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber(Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        block.setHash(hash(number));
+        block.setParentHash(hash(number - 1));
+        return block;
+    }
+
+    private static EthLog.LogObject log(long blockNumber) {
+        EthLog.LogObject log = new EthLog.LogObject();
+        log.setBlockNumber(Numeric.encodeQuantity(BigInteger.valueOf(blockNumber)));
+        log.setBlockHash(hash(blockNumber));
+        return log;
+    }
+}
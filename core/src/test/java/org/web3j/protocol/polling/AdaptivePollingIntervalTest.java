@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.polling;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+public class AdaptivePollingIntervalTest {
+
+    private static final long NOW = 1_002_250;
+
+    private Web3j web3j;
+    private BlockCadence blockCadence;
+    private AdaptivePollingInterval pollingInterval;
+
+    @BeforeEach
+    public void setUp() {
+        web3j = mock(Web3j.class);
+        blockCadence = new BlockCadence(web3j, 15000);
+        // Ten blocks in two seconds, each observed 200ms after its timestamp
+        blockCadence.onBlock(100, 1000, 1_000_200);
+        blockCadence.onBlock(110, 1002, 1_002_200);
+        pollingInterval = new AdaptivePollingInterval(blockCadence, 10, 5000);
+    }
+
+    @Test
+    public void testBlockTimeEstimate() {
+        assertEquals(200, blockCadence.getBlockTime());
+        assertEquals(150, blockCadence.millisUntilNextBlock(NOW));
+        assertEquals(200, blockCadence.millisUntilNextBlock(1_002_200));
+    }
+
+    @Test
+    public void testPollsShortlyAfterNextBlock() {
+        assertEquals(170, pollingInterval.nextDelay(true, NOW));
+        assertEquals(170, pollingInterval.nextDelay(false, NOW));
+    }
+
+    @Test
+    public void testBackOffWhileIdle() {
+        pollingInterval.nextDelay(false, NOW);
+        assertEquals(370, pollingInterval.nextDelay(false, NOW));
+        assertEquals(770, pollingInterval.nextDelay(false, NOW));
+
+        for (int i = 0; i < 20; i++) {
+            pollingInterval.nextDelay(false, NOW);
+        }
+        assertEquals(5000, pollingInterval.nextDelay(false, NOW));
+
+        assertEquals(170, pollingInterval.nextDelay(true, NOW));
+    }
+
+    @Test
+    public void testRecentBlocksAreNotSampled() {
+        blockCadence.refresh(NOW);
+        verifyNoInteractions(web3j);
+    }
+}
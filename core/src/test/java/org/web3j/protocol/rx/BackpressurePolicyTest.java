@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import io.reactivex.Flowable;
+import io.reactivex.exceptions.MissingBackpressureException;
+import io.reactivex.subscribers.TestSubscriber;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BackpressurePolicyTest {
+
+    private final AtomicReference<BooleanSupplier> backlogged = new AtomicReference<>();
+
+    @Test
+    public void testDropNewItems() {
+        BackpressurePolicy policy = BackpressurePolicy.drop(3);
+        TestSubscriber<Integer> subscriber = createFlowable(policy, 10).test(0);
+
+        assertEquals(3, policy.getBufferDepth());
+        assertEquals(7, policy.getDroppedCount());
+        assertTrue(backlogged.get().getAsBoolean());
+
+        subscriber.request(10);
+        subscriber.assertValues(0, 1, 2);
+        assertEquals(0, policy.getBufferDepth());
+        assertFalse(backlogged.get().getAsBoolean());
+    }
+
+    @Test
+    public void testKeepLatestItems() {
+        BackpressurePolicy policy = BackpressurePolicy.latest(3);
+        TestSubscriber<Integer> subscriber = createFlowable(policy, 10).test(0);
+
+        assertEquals(3, policy.getBufferDepth());
+        assertEquals(7, policy.getDroppedCount());
+
+        subscriber.request(10);
+        subscriber.assertValues(7, 8, 9);
+        assertEquals(0, policy.getBufferDepth());
+    }
+
+    @Test
+    public void testErrorOnOverflow() {
+        BackpressurePolicy policy = BackpressurePolicy.error(3);
+        TestSubscriber<Integer> subscriber = createFlowable(policy, 4).test(0);
+
+        subscriber.assertError(MissingBackpressureException.class);
+        assertEquals(1, policy.getDroppedCount());
+        assertEquals(0, policy.getBufferDepth());
+    }
+
+    @Test
+    public void testItemsWithinCapacityAreDelivered() {
+        BackpressurePolicy policy = BackpressurePolicy.drop(3);
+        TestSubscriber<Integer> subscriber = createFlowable(policy, 3).test();
+
+        subscriber.assertValueSequence(Arrays.asList(0, 1, 2));
+        assertEquals(0, policy.getDroppedCount());
+        assertEquals(0, policy.getBufferDepth());
+    }
+
+    private Flowable<Integer> createFlowable(BackpressurePolicy policy, int count) {
+        return policy.flowable(
+                (callback, backlogged, emitter) -> {
+                    this.backlogged.set(backlogged);
+                    for (int i = 0; i < count; i++) {
+                        callback.onEvent(i);
+                    }
+                });
+    }
+}
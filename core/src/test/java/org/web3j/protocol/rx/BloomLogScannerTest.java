@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.math.BigInteger;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.TempFileProvider;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.archive.BlockArchive;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.utils.Bloom;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class BloomLogScannerTest extends TempFileProvider {
+
+    private static final String ADDRESS = "0x2a98c5f40bfa3dee83431103c535f6fae9a8ad38";
+    private static final String OTHER_ADDRESS = "0x3f37a1c95bbc0aa6bf62e99b30b147e68dee7b43";
+    private static final String TOPIC =
+            "0x5a690ecd0cb15c1c1fd6b6f8a32df0d4f56cb41a54fea7e94020f013595de796";
+    private static final String OTHER_TOPIC =
+            "0xa9c6cbc4bd352a6940479f6d802a1001550581858b310d7f68f7bea51218cda6";
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private final List<Long> receiptBlocks = Collections.synchronizedList(new ArrayList<>());
+    private volatile long latestBlock = 100;
+
+    @BeforeEach
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                long blockNumber =
+                                        ((DefaultBlockParameterNumber) request.getParams().get(0))
+                                                .getBlockNumber()
+                                                .longValue();
+                                Response<?> response =
+                                        request.getMethod().equals("eth_getBlockReceipts")
+                                                ? createReceipts(blockNumber)
+                                                : createBlock(blockNumber);
+                                response.setId(request.getId());
+                                // Responses may be returned in any order
+                                responses.add(0, response);
+                            }
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+        when(web3jService.send(any(Request.class), eq(EthBlock.class)))
+                .thenAnswer(invocation -> createBlock(latestBlock));
+    }
+
+    @Test
+    public void testOnlyCandidateBlocksAreScanned() {
+        EthFilter ethFilter =
+                new EthFilter(
+                                new DefaultBlockParameterNumber(0),
+                                new DefaultBlockParameterNumber(9),
+                                ADDRESS)
+                        .addSingleTopic(TOPIC);
+
+        List<Log> logs =
+                new BloomLogScanner(web3j, 4, 2).flowable(ethFilter).toList().blockingGet();
+
+        assertEquals(
+                Arrays.asList(3L, 7L),
+                logs.stream()
+                        .map(log -> log.getBlockNumber().longValue())
+                        .collect(Collectors.toList()));
+        // Batches are scanned concurrently
+        assertEquals(
+                Arrays.asList(3L, 7L),
+                receiptBlocks.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testFilterWithoutTopics() {
+        EthFilter ethFilter =
+                new EthFilter(
+                        new DefaultBlockParameterNumber(0),
+                        new DefaultBlockParameterNumber(9),
+                        OTHER_ADDRESS);
+
+        List<Log> logs = new BloomLogScanner(web3j).flowable(ethFilter).toList().blockingGet();
+
+        assertEquals(
+                Arrays.asList(3L, 5L, 7L),
+                logs.stream()
+                        .map(log -> log.getBlockNumber().longValue())
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testReceiptsAreReadFromArchive() throws Exception {
+        EthFilter ethFilter =
+                new EthFilter(
+                        new DefaultBlockParameterNumber(0),
+                        new DefaultBlockParameterNumber(9),
+                        OTHER_ADDRESS);
+
+        try (BlockArchive blockArchive = new BlockArchive(Paths.get(tempDirPath))) {
+            BloomLogScanner scanner = new BloomLogScanner(web3j, 4, 2, blockArchive);
+            List<Log> logs = scanner.flowable(ethFilter).toList().blockingGet();
+            assertEquals(3, logs.size());
+            assertEquals(
+                    Arrays.asList(3L, 5L, 7L),
+                    receiptBlocks.stream().sorted().collect(Collectors.toList()));
+
+            receiptBlocks.clear();
+            assertEquals(logs, scanner.flowable(ethFilter).toList().blockingGet());
+            assertEquals(Collections.emptyList(), receiptBlocks);
+        }
+    }
+
+    @Test
+    public void testReceiptsOfRecentBlocksAreNotArchived() throws Exception {
+        // Only blocks up to 70 - 64 = 6 are archived
+        latestBlock = 70;
+        EthFilter ethFilter =
+                new EthFilter(
+                        new DefaultBlockParameterNumber(0),
+                        new DefaultBlockParameterNumber(9),
+                        OTHER_ADDRESS);
+
+        try (BlockArchive blockArchive = new BlockArchive(Paths.get(tempDirPath))) {
+            BloomLogScanner scanner = new BloomLogScanner(web3j, 4, 2, blockArchive);
+            scanner.flowable(ethFilter).toList().blockingGet();
+            receiptBlocks.clear();
+
+            assertEquals(3, scanner.flowable(ethFilter).toList().blockingGet().size());
+            assertEquals(Collections.singletonList(7L), receiptBlocks);
+        }
+    }
+
+    /**
+     * Blocks 3 and 7 contain a log with the topic from the address, and one with another topic
+     * from another address. Block 5 only contains a log from the other address.
+     */
+    private EthBlock createBlock(long number) {
+        Bloom bloom = new Bloom();
+        for (Log log : createLogs(number)) {
+            bloom.add(log.getAddress());
+            for (String topic : log.getTopics()) {
+                bloom.add(topic);
+            }
+        }
+
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber(Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        block.setLogsBloom(bloom.getBytesHexString());
+        EthBlock ethBlock = new EthBlock();
+        ethBlock.setResult(block);
+        return ethBlock;
+    }
+
+    private EthGetBlockReceipts createReceipts(long number) {
+        receiptBlocks.add(number);
+        TransactionReceipt receipt = new TransactionReceipt();
+        receipt.setLogs(createLogs(number));
+        EthGetBlockReceipts ethGetBlockReceipts = new EthGetBlockReceipts();
+        ethGetBlockReceipts.setResult(Collections.singletonList(receipt));
+        return ethGetBlockReceipts;
+    }
+
+    private List<Log> createLogs(long number) {
+        List<Log> logs = new ArrayList<>();
+        if (number == 3 || number == 7) {
+            logs.add(createLog(number, ADDRESS, TOPIC));
+            logs.add(createLog(number, OTHER_ADDRESS, OTHER_TOPIC));
+        } else if (number == 5) {
+            logs.add(createLog(number, OTHER_ADDRESS, OTHER_TOPIC));
+        }
+        return logs;
+    }
+
+    private Log createLog(long number, String address, String topic) {
+        Log log = new Log();
+        log.setBlockNumber(Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        log.setAddress(address);
+        log.setTopics(Collections.singletonList(topic));
+        return log;
+    }
+}
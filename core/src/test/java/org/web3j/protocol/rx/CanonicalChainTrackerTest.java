@@ -0,0 +1,149 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthBlock;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CanonicalChainTrackerTest {
+
+    private final Map<String, EthBlock.Block> nodeBlocks = new HashMap<>();
+
+    private Web3j web3j;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        Web3jService web3jService = mock(Web3jService.class);
+        when(web3jService.send(any(Request.class), eq(EthBlock.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            EthBlock ethBlock = new EthBlock();
+                            ethBlock.setResult(nodeBlocks.get(request.getParams().get(0)));
+                            return ethBlock;
+                        });
+        web3j = Web3j.build(web3jService);
+    }
+
+    @Test
+    public void testLinearChain() throws Exception {
+        CanonicalChainTracker tracker = new CanonicalChainTracker(web3j, false, 0);
+        EthBlock.Block block1 = block(1, "0x1a", "0x0a");
+        EthBlock.Block block2 = block(2, "0x2a", "0x1a");
+
+        assertEquals(
+                Collections.singletonList(BlockEvent.apply(block1)), tracker.onBlock(block1));
+        assertEquals(
+                Collections.singletonList(BlockEvent.apply(block2)), tracker.onBlock(block2));
+        assertTrue(tracker.onBlock(block2).isEmpty());
+    }
+
+    @Test
+    public void testReorganisation() throws Exception {
+        CanonicalChainTracker tracker = new CanonicalChainTracker(web3j, false, 0);
+        EthBlock.Block block1 = block(1, "0x1a", "0x0a");
+        EthBlock.Block block2a = block(2, "0x2a", "0x1a");
+        EthBlock.Block block3a = block(3, "0x3a", "0x2a");
+        EthBlock.Block block2b = block(2, "0x2b", "0x1a");
+        EthBlock.Block block3b = block(3, "0x3b", "0x2b");
+        EthBlock.Block block4b = block(4, "0x4b", "0x3b");
+        nodeBlocks.put(block2b.getHash(), block2b);
+        nodeBlocks.put(block3b.getHash(), block3b);
+
+        tracker.onBlock(block1);
+        tracker.onBlock(block2a);
+        tracker.onBlock(block3a);
+
+        assertEquals(
+                Arrays.asList(
+                        BlockEvent.rollback(block3a),
+                        BlockEvent.rollback(block2a),
+                        BlockEvent.apply(block2b),
+                        BlockEvent.apply(block3b),
+                        BlockEvent.apply(block4b)),
+                tracker.onBlock(block4b));
+    }
+
+    @Test
+    public void testMissedBlocksAreFetched() throws Exception {
+        CanonicalChainTracker tracker = new CanonicalChainTracker(web3j, false, 0);
+        EthBlock.Block block1 = block(1, "0x1a", "0x0a");
+        EthBlock.Block block2 = block(2, "0x2a", "0x1a");
+        EthBlock.Block block3 = block(3, "0x3a", "0x2a");
+        nodeBlocks.put(block2.getHash(), block2);
+
+        tracker.onBlock(block1);
+        assertEquals(
+                Arrays.asList(BlockEvent.apply(block2), BlockEvent.apply(block3)),
+                tracker.onBlock(block3));
+    }
+
+    @Test
+    public void testConfirmations() throws Exception {
+        CanonicalChainTracker tracker = new CanonicalChainTracker(web3j, false, 2);
+        EthBlock.Block block1 = block(1, "0x1a", "0x0a");
+        EthBlock.Block block2 = block(2, "0x2a", "0x1a");
+        EthBlock.Block block3a = block(3, "0x3a", "0x2a");
+        EthBlock.Block block3b = block(3, "0x3b", "0x2a");
+        EthBlock.Block block4 = block(4, "0x4b", "0x3b");
+
+        assertTrue(tracker.onBlock(block1).isEmpty());
+        assertTrue(tracker.onBlock(block2).isEmpty());
+        assertEquals(
+                Collections.singletonList(BlockEvent.apply(block1)), tracker.onBlock(block3a));
+        // The reorganisation only replaces unconfirmed blocks
+        assertTrue(tracker.onBlock(block3b).isEmpty());
+        assertEquals(
+                Collections.singletonList(BlockEvent.apply(block2)), tracker.onBlock(block4));
+    }
+
+    @Test
+    public void testReorganisationDeeperThanDepth() throws Exception {
+        CanonicalChainTracker tracker = new CanonicalChainTracker(web3j, false, 0, 2);
+
+        tracker.onBlock(block(1, "0x1a", "0x0a"));
+        tracker.onBlock(block(2, "0x2a", "0x1a"));
+        tracker.onBlock(block(3, "0x3a", "0x2a"));
+
+        assertThrows(
+                IllegalStateException.class, () -> tracker.onBlock(block(1, "0x1b", "0x0b")));
+    }
+
+    private static EthBlock.Block block(long number, String hash, String parentHash) {
+        EthBlock.Block block = new EthBlock.Block();
+        block.setNumber(Numeric.encodeQuantity(BigInteger.valueOf(number)));
+        block.setHash(hash);
+        block.setParentHash(parentHash);
+        return block;
+    }
+}
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
@@ -32,12 +33,16 @@ import org.mockito.stubbing.OngoingStubbing;
 import org.web3j.protocol.ObjectMapperFactory;
 import org.web3j.protocol.Web3j;
 import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
 import org.web3j.protocol.core.DefaultBlockParameter;
 import org.web3j.protocol.core.DefaultBlockParameterNumber;
 import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.response.EthBlock;
 import org.web3j.protocol.core.methods.response.EthFilter;
 import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.EthTransaction;
 import org.web3j.protocol.core.methods.response.EthUninstallFilter;
 import org.web3j.protocol.core.methods.response.Transaction;
 import org.web3j.utils.Numeric;
@@ -51,6 +56,8 @@ import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class JsonRpc2_0RxTest {
@@ -146,6 +153,158 @@ public class JsonRpc2_0RxTest {
         assertTrue(subscription.isDisposed());
     }
 
+    @Test
+    public void testReplayBlocksFlowableInBatches() throws Exception {
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<EthBlock> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                DefaultBlockParameterNumber blockNumber =
+                                        (DefaultBlockParameterNumber) request.getParams().get(0);
+                                EthBlock ethBlock =
+                                        createBlock(blockNumber.getBlockNumber().intValue());
+                                ethBlock.setId(request.getId());
+                                // Responses may be returned in any order
+                                responses.add(0, ethBlock);
+                            }
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+
+        List<EthBlock> results =
+                web3j.replayPastBlocksFlowable(
+                                new DefaultBlockParameterNumber(BigInteger.ZERO),
+                                new DefaultBlockParameterNumber(BigInteger.valueOf(6)),
+                                false,
+                                true,
+                                2,
+                                3)
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(
+                Arrays.asList(0L, 1L, 2L, 3L, 4L, 5L, 6L),
+                results.stream()
+                        .map(ethBlock -> ethBlock.getBlock().getNumber().longValue())
+                        .collect(Collectors.toList()));
+        verify(web3jService, times(4)).sendBatch(any(BatchRequest.class));
+    }
+
+    @Test
+    public void testReplayBlocksFlowableInBatchesFailsOnErrorResponse() throws Exception {
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<EthBlock> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                EthBlock ethBlock = new EthBlock();
+                                ethBlock.setId(request.getId());
+                                ethBlock.setError(new Response.Error(-32000, "header not found"));
+                                responses.add(ethBlock);
+                            }
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+
+        Throwable error =
+                web3j.replayPastBlocksFlowable(
+                                new DefaultBlockParameterNumber(BigInteger.ZERO),
+                                new DefaultBlockParameterNumber(BigInteger.valueOf(1)),
+                                false,
+                                true,
+                                2,
+                                1)
+                        .ignoreElements()
+                        .blockingGet();
+
+        assertTrue(error instanceof IOException);
+        assertTrue(error.getMessage().contains("header not found"));
+    }
+
+    @Test
+    public void testPendingTransactionFlowableResolvesHashesInBatches() throws Exception {
+        EthFilter ethFilter =
+                objectMapper.readValue(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":\"0x1\"}", EthFilter.class);
+        EthLog ethLog =
+                objectMapper.readValue(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[\"0x1\",\"0x2\",\"0x1\"]}",
+                        EthLog.class);
+        EthLog emptyLog =
+                objectMapper.readValue(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[]}", EthLog.class);
+        EthUninstallFilter ethUninstallFilter =
+                objectMapper.readValue(
+                        "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":true}",
+                        EthUninstallFilter.class);
+
+        when(web3jService.send(any(Request.class), eq(EthFilter.class))).thenReturn(ethFilter);
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(ethLog)
+                .thenReturn(emptyLog);
+        when(web3jService.send(any(Request.class), eq(EthUninstallFilter.class)))
+                .thenReturn(ethUninstallFilter);
+
+        List<Integer> batchSizes = stubTransactionBatches();
+
+        List<Transaction> transactions =
+                web3j.pendingTransactionFlowable().take(2).toList().blockingGet();
+
+        assertEquals(
+                Arrays.asList("0x1", "0x2"),
+                transactions.stream().map(Transaction::getHash).collect(Collectors.toList()));
+        // Duplicate hashes are only requested once
+        assertEquals(Collections.singletonList(2), batchSizes);
+    }
+
+    @Test
+    public void testPendingTransactionNotificationsWithHashesAreResolved() throws Exception {
+        List<Integer> batchSizes = stubTransactionBatches();
+        EthBlock.TransactionResult transactionObject =
+                objectMapper.readValue("{\"hash\":\"0x3\"}", EthBlock.TransactionResult.class);
+        EthBlock.TransactionResult transactionHash =
+                objectMapper.readValue("\"0x4\"", EthBlock.TransactionResult.class);
+        assertTrue(transactionObject instanceof EthBlock.TransactionObject);
+        assertTrue(transactionHash instanceof EthBlock.TransactionHash);
+
+        List<Transaction> transactions =
+                new JsonRpc2_0Rx(web3j, Executors.newSingleThreadScheduledExecutor())
+                        .pendingTransactionFlowable(
+                                Flowable.just(transactionObject, transactionHash))
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(
+                Arrays.asList("0x3", "0x4"),
+                transactions.stream()
+                        .map(Transaction::getHash)
+                        .sorted()
+                        .collect(Collectors.toList()));
+        assertEquals(Collections.singletonList(1), batchSizes);
+    }
+
+    private List<Integer> stubTransactionBatches() throws IOException {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            batchSizes.add(batchRequest.getRequests().size());
+                            List<EthTransaction> responses = new ArrayList<>();
+                            for (Request<?, ?> request : batchRequest.getRequests()) {
+                                Transaction transaction = new Transaction();
+                                transaction.setHash((String) request.getParams().get(0));
+                                EthTransaction ethTransaction = new EthTransaction();
+                                ethTransaction.setResult(transaction);
+                                ethTransaction.setId(request.getId());
+                                responses.add(ethTransaction);
+                            }
+                            return new BatchResponse(batchRequest.getRequests(), responses);
+                        });
+        return batchSizes;
+    }
+
     @Test
     public void testReplayPastBlocksFlowable() throws Exception {
         List<EthBlock> expected =
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.protocol.rx;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.ResponseBody;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.DefaultBlockParameterNumber;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.request.EthFilter;
+import org.web3j.protocol.core.methods.response.EthLog;
+import org.web3j.protocol.core.methods.response.Log;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.protocol.exceptions.JsonRpcError;
+import org.web3j.protocol.http.HttpService;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class LogBackfillTest {
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+
+    @BeforeEach
+    public void setUp() {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+    }
+
+    @Test
+    public void testBisectsOnLimitErrors() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenAnswer(
+                        invocation -> {
+                            EthFilter ethFilter =
+                                    (EthFilter)
+                                            ((Request<?, ?>) invocation.getArgument(0))
+                                                    .getParams()
+                                                    .get(0);
+                            long from = blockNumber(ethFilter.getFromBlock());
+                            long to = blockNumber(ethFilter.getToBlock());
+                            if (to - from + 1 > 4) {
+                                return limitError();
+                            }
+                            return createLogs(from, to);
+                        });
+
+        List<Log> logs =
+                new LogBackfill(web3j, 16, 64, 2)
+                        .flowable(createFilter(0, 19))
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(
+                LongStream.rangeClosed(0, 19).boxed().collect(Collectors.toList()),
+                logs.stream()
+                        .map(log -> log.getBlockNumber().longValue())
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testGrowsOnSparseRanges() throws Exception {
+        List<Long> ranges = new ArrayList<>();
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenAnswer(
+                        invocation -> {
+                            EthFilter ethFilter =
+                                    (EthFilter)
+                                            ((Request<?, ?>) invocation.getArgument(0))
+                                                    .getParams()
+                                                    .get(0);
+                            long from = blockNumber(ethFilter.getFromBlock());
+                            long to = blockNumber(ethFilter.getToBlock());
+                            synchronized (ranges) {
+                                ranges.add(to - from + 1);
+                            }
+                            return createLogs(from, from);
+                        });
+
+        List<Log> logs =
+                new LogBackfill(web3j, 2, 8, 1)
+                        .flowable(createFilter(0, 29))
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(ranges.size(), logs.size());
+        assertEquals(2L, (long) ranges.get(0));
+        assertEquals(4L, (long) ranges.get(1));
+        assertEquals(8L, (long) ranges.get(2));
+        assertEquals(8L, (long) ranges.get(3));
+    }
+
+    @Test
+    public void testRetriesRateLimitedRequests() throws Exception {
+        EthLog rateLimited = new EthLog();
+        rateLimited.setError(new Response.Error(-32005, "rate limit exceeded"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenReturn(rateLimited, rateLimited, createLogs(0, 3));
+
+        List<Log> logs =
+                new LogBackfill(web3j, 16, 64, 1, 1)
+                        .flowable(createFilter(0, 3))
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(4, logs.size());
+        verify(web3jService, times(3)).send(any(Request.class), eq(EthLog.class));
+    }
+
+    @Test
+    public void testRetriesHttpRateLimitedRequests() {
+        AtomicInteger requests = new AtomicInteger();
+        OkHttpClient httpClient =
+                new OkHttpClient.Builder()
+                        .addInterceptor(
+                                chain -> {
+                                    boolean rateLimited = requests.incrementAndGet() <= 2;
+                                    String body =
+                                            rateLimited
+                                                    ? "Too Many Requests"
+                                                    : "{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":["
+                                                            + "{\"blockNumber\":\"0x0\"},"
+                                                            + "{\"blockNumber\":\"0x1\"}]}";
+                                    return new okhttp3.Response.Builder()
+                                            .request(chain.request())
+                                            .protocol(Protocol.HTTP_1_1)
+                                            .code(rateLimited ? 429 : 200)
+                                            .message(rateLimited ? "Too Many Requests" : "OK")
+                                            .body(
+                                                    ResponseBody.create(
+                                                            body, HttpService.JSON_MEDIA_TYPE))
+                                            .build();
+                                })
+                        .build();
+        Web3j httpWeb3j = Web3j.build(new HttpService(HttpService.DEFAULT_URL, httpClient));
+
+        List<Log> logs =
+                new LogBackfill(httpWeb3j, 16, 64, 1, 1)
+                        .flowable(createFilter(0, 1))
+                        .toList()
+                        .blockingGet();
+
+        assertEquals(2, logs.size());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void testHttpErrorsArePropagated() throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthLog.class)))
+                .thenThrow(new ClientConnectionException("Invalid response received: 500", 500));
+
+        assertThrows(
+                ClientConnectionException.class,
+                () -> new LogBackfill(web3j).flowable(createFilter(0, 10)).toList().blockingGet());
+    }
+
+    @Test
+    public void testLimitErrors() {
+        LogBackfill logBackfill = new LogBackfill(web3j);
+
+        assertTrue(
+                logBackfill.isLimitError(
+                        new Response.Error(-32005, "query returned more than 10000 results")));
+        assertTrue(
+                logBackfill.isLimitError(
+                        new Response.Error(
+                                -32602, "Log response size exceeded. Try a smaller range")));
+        assertTrue(
+                logBackfill.isLimitError(
+                        new Response.Error(-32000, "exceed maximum block range: 5000")));
+        assertFalse(logBackfill.isLimitError(new Response.Error(-32005, "rate limit exceeded")));
+        assertFalse(logBackfill.isLimitError(new Response.Error(-32005, "execution reverted")));
+        assertFalse(
+                logBackfill.isLimitError(new Response.Error(-32000, "gas limit exceeded")));
+        assertTrue(logBackfill.isRateLimitError(new Response.Error(429, "Too Many Requests")));
+        assertTrue(
+                logBackfill.isRateLimitError(
+                        new ClientConnectionException("Too Many Requests", 429)));
+        assertFalse(
+                logBackfill.isRateLimitError(new ClientConnectionException("Bad Gateway", 502)));
+        assertFalse(logBackfill.isRateLimitError(new ClientConnectionException("timeout")));
+    }
+
+    @Test
+    public void testOtherErrorsArePropagated() throws Exception {
+        EthLog ethLog = new EthLog();
+        ethLog.setError(new Response.Error(-32000, "header not found"));
+        when(web3jService.send(any(Request.class), eq(EthLog.class))).thenReturn(ethLog);
+
+        assertThrows(
+                JsonRpcError.class,
+                () -> new LogBackfill(web3j).flowable(createFilter(0, 10)).toList().blockingGet());
+    }
+
+    private static EthFilter createFilter(long from, long to) {
+        EthFilter ethFilter =
+                new EthFilter(
+                        new DefaultBlockParameterNumber(from),
+                        new DefaultBlockParameterNumber(to),
+                        "0x16c5785ac562ff41e2dcfdf829c5a142f1fccd7d");
+        ethFilter.addSingleTopic(
+                "0xddf252ad1be2c89b69c2b068fc378daa952ba7f163c4a11628f55a4df523b3ef");
+        return ethFilter;
+    }
+
+    private static long blockNumber(Object defaultBlockParameter) {
+        return ((DefaultBlockParameterNumber) defaultBlockParameter)
+                .getBlockNumber()
+                .longValue();
+    }
+
+    private static EthLog limitError() {
+        EthLog ethLog = new EthLog();
+        ethLog.setError(new Response.Error(-32005, "query returned more than 10000 results"));
+        return ethLog;
+    }
+
+    private static EthLog createLogs(long from, long to) {
+        List<EthLog.LogResult> logs = new ArrayList<>();
+        for (long blockNumber = from; blockNumber <= to; blockNumber++) {
+            EthLog.LogObject log = new EthLog.LogObject();
+            log.setBlockNumber(Numeric.encodeQuantity(BigInteger.valueOf(blockNumber)));
+            logs.add(log);
+        }
+        EthLog ethLog = new EthLog();
+        ethLog.setResult(logs);
+        return ethLog;
+    }
+}
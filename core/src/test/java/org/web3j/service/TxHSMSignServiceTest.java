@@ -0,0 +1,201 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.service;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.HSMHTTPPass;
+import org.web3j.crypto.HSMPass;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.crypto.Sign;
+import org.web3j.crypto.TransactionEncoder;
+import org.web3j.protocol.exceptions.ClientConnectionException;
+import org.web3j.tx.ChainId;
+import org.web3j.tx.HSMHTTPRequestProcessorTestImpl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TxHSMSignServiceTest {
+
+    private static final long CHAIN_ID = 1337;
+
+    private final HSMPass hsmPass =
+            new HSMPass(
+                    SampleKeys.CREDENTIALS.getAddress(),
+                    SampleKeys.CREDENTIALS.getEcKeyPair().getPublicKey());
+
+    @Test
+    public void testSignAsync() throws Exception {
+        TxHSMSignService<HSMPass> signService =
+                new TxHSMSignService<>(new LocalHSMRequestProcessor(), hsmPass);
+
+        RawTransaction rawTransaction = createRawTransaction(0);
+        byte[] signed = signService.signAsync(rawTransaction, CHAIN_ID).get(10, TimeUnit.SECONDS);
+
+        assertArrayEquals(
+                TransactionEncoder.signMessage(rawTransaction, CHAIN_ID, SampleKeys.CREDENTIALS),
+                signed);
+        assertArrayEquals(signService.sign(rawTransaction, CHAIN_ID), signed);
+    }
+
+    @Test
+    public void testQueuedSignaturesAreBatched() throws Exception {
+        LocalHSMRequestProcessor hsmRequestProcessor = new LocalHSMRequestProcessor();
+        hsmRequestProcessor.deferred = true;
+        TxHSMSignService<HSMPass> signService =
+                new TxHSMSignService<>(hsmRequestProcessor, hsmPass, 1, 10);
+
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(signService.signAsync(createRawTransaction(i), ChainId.NONE));
+        }
+
+        // Only one request may be in flight, the others wait for it
+        assertEquals(1, hsmRequestProcessor.requests.size());
+        assertEquals(1, hsmRequestProcessor.requests.get(0).size());
+        assertEquals(4, signService.getQueuedCount());
+
+        hsmRequestProcessor.completeNext();
+        assertEquals(2, hsmRequestProcessor.requests.size());
+        assertEquals(4, hsmRequestProcessor.requests.get(1).size());
+        assertEquals(0, signService.getQueuedCount());
+
+        hsmRequestProcessor.completeNext();
+        for (int i = 0; i < 5; i++) {
+            assertArrayEquals(
+                    TransactionEncoder.signMessage(
+                            createRawTransaction(i), SampleKeys.CREDENTIALS),
+                    futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testFailedRequestFailsSignatures() {
+        LocalHSMRequestProcessor hsmRequestProcessor = new LocalHSMRequestProcessor();
+        hsmRequestProcessor.deferred = true;
+        TxHSMSignService<HSMPass> signService =
+                new TxHSMSignService<>(hsmRequestProcessor, hsmPass, 1, 10);
+
+        CompletableFuture<byte[]> first = signService.signAsync(createRawTransaction(0), CHAIN_ID);
+        CompletableFuture<byte[]> second = signService.signAsync(createRawTransaction(1), CHAIN_ID);
+
+        ClientConnectionException error = new ClientConnectionException("HSM unavailable");
+        hsmRequestProcessor.pending.remove(0).completeExceptionally(error);
+
+        ExecutionException exception =
+                assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+        assertSame(error, exception.getCause());
+        // The failure frees the request for the queued signature
+        assertFalse(second.isDone());
+        assertEquals(2, hsmRequestProcessor.requests.size());
+    }
+
+    @Test
+    public void testHttpFailureIsPropagated() throws IOException {
+        OkHttpClient okHttpClient = mock(OkHttpClient.class);
+        Call call = mock(Call.class);
+        when(okHttpClient.newCall(any())).thenReturn(call);
+        IOException failure = new IOException("connection refused");
+        when(call.execute()).thenThrow(failure);
+        doAnswer(
+                        invocation -> {
+                            Callback callback = invocation.getArgument(0);
+                            callback.onFailure(call, failure);
+                            return null;
+                        })
+                .when(call)
+                .enqueue(any());
+
+        HSMHTTPPass hsmHttpPass =
+                new HSMHTTPPass(
+                        SampleKeys.CREDENTIALS.getAddress(),
+                        SampleKeys.CREDENTIALS.getEcKeyPair().getPublicKey(),
+                        "http://mock_request_url.com");
+        TxHSMSignService<HSMHTTPPass> signService =
+                new TxHSMSignService<>(
+                        new HSMHTTPRequestProcessorTestImpl<>(okHttpClient), hsmHttpPass);
+
+        ClientConnectionException syncException =
+                assertThrows(
+                        ClientConnectionException.class,
+                        () -> signService.sign(createRawTransaction(0), CHAIN_ID));
+        assertSame(failure, syncException.getCause());
+
+        CompletableFuture<byte[]> future = signService.signAsync(createRawTransaction(0), CHAIN_ID);
+        ExecutionException exception =
+                assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof ClientConnectionException);
+        assertSame(failure, exception.getCause().getCause());
+    }
+
+    private static RawTransaction createRawTransaction(long nonce) {
+        return RawTransaction.createEtherTransaction(
+                BigInteger.valueOf(nonce),
+                BigInteger.TEN,
+                BigInteger.valueOf(21000),
+                "0xadd5355",
+                BigInteger.ONE);
+    }
+
+    /** Signs with a local key, optionally completing requests only when told to. */
+    private static class LocalHSMRequestProcessor implements HSMRequestProcessor<HSMPass> {
+
+        private final List<List<byte[]>> requests = new ArrayList<>();
+        private final List<CompletableFuture<List<Sign.SignatureData>>> pending =
+                new ArrayList<>();
+        private boolean deferred;
+
+        @Override
+        public Sign.SignatureData callHSM(byte[] dataToSign, HSMPass pass) {
+            return Sign.signMessage(dataToSign, SampleKeys.CREDENTIALS.getEcKeyPair(), false);
+        }
+
+        @Override
+        public CompletableFuture<List<Sign.SignatureData>> callHSMAsync(
+                List<byte[]> dataToSign, HSMPass pass) {
+            requests.add(dataToSign);
+            if (!deferred) {
+                return CompletableFuture.completedFuture(callHSMBatch(dataToSign, pass));
+            }
+            CompletableFuture<List<Sign.SignatureData>> future = new CompletableFuture<>();
+            pending.add(future);
+            return future;
+        }
+
+        void completeNext() {
+            List<byte[]> dataToSign = requests.get(requests.size() - pending.size());
+            pending.remove(0).complete(callHSMBatch(dataToSign, null));
+        }
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.service.TxSignService;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class NonceManagerTest {
+
+    private static final String ADDRESS = "0x3d6cb163f7c72d20b0fcd6baae5889329d138a4a";
+
+    private Web3jService web3jService;
+    private Web3j web3j;
+    private NonceManager nonceManager;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        web3j = Web3j.build(web3jService);
+        nonceManager = new NonceManager(web3j);
+
+        when(web3jService.send(any(Request.class), eq(EthGetTransactionCount.class)))
+                .thenReturn(createTransactionCount(5));
+    }
+
+    @Test
+    public void testAcquireInitialisesFromNodeOnce() throws Exception {
+        assertEquals(BigInteger.valueOf(5), nonceManager.acquire(ADDRESS));
+        assertEquals(BigInteger.valueOf(6), nonceManager.acquire(ADDRESS.toUpperCase()));
+        assertEquals(BigInteger.valueOf(7), nonceManager.acquire(ADDRESS));
+
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthGetTransactionCount.class));
+        assertEquals(3, nonceManager.getInFlightCount(ADDRESS));
+        assertEquals(BigInteger.valueOf(8), nonceManager.getNextNonce(ADDRESS));
+    }
+
+    @Test
+    public void testReleasedNoncesAreReused() throws Exception {
+        BigInteger first = nonceManager.acquire(ADDRESS);
+        BigInteger second = nonceManager.acquire(ADDRESS);
+        BigInteger third = nonceManager.acquire(ADDRESS);
+        nonceManager.confirm(ADDRESS, first);
+
+        nonceManager.release(ADDRESS, second);
+        assertEquals(second, nonceManager.acquire(ADDRESS));
+
+        // The most recently acquired nonce is returned to the counter
+        nonceManager.release(ADDRESS, third);
+        assertEquals(third, nonceManager.getNextNonce(ADDRESS));
+        assertEquals(third, nonceManager.acquire(ADDRESS));
+
+        // Releasing twice has no effect
+        nonceManager.release(ADDRESS, first);
+        assertEquals(BigInteger.valueOf(8), nonceManager.acquire(ADDRESS));
+    }
+
+    @Test
+    public void testConcurrentAcquisitionsAreUnique() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<BigInteger>> tasks = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                int index = i;
+                tasks.add(
+                        () -> {
+                            BigInteger nonce = nonceManager.acquire(ADDRESS);
+                            if (index % 3 == 0) {
+                                nonceManager.release(ADDRESS, nonce);
+                                nonce = nonceManager.acquire(ADDRESS);
+                            }
+                            nonceManager.confirm(ADDRESS, nonce);
+                            return nonce;
+                        });
+            }
+
+            Set<BigInteger> nonces = new HashSet<>();
+            for (Future<BigInteger> future : executorService.invokeAll(tasks)) {
+                assertTrue(nonces.add(future.get()));
+            }
+            assertEquals(0, nonceManager.getInFlightCount(ADDRESS));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMissingNonceIsReusedAfterSecondDetection() throws Exception {
+        nonceManager.confirm(ADDRESS, nonceManager.acquire(ADDRESS));
+        nonceManager.confirm(ADDRESS, nonceManager.acquire(ADDRESS));
+        prepareBatchTransactionCount(5);
+
+        nonceManager.detectGaps();
+        assertEquals(BigInteger.valueOf(7), nonceManager.getNextNonce(ADDRESS));
+
+        nonceManager.detectGaps();
+        assertEquals(BigInteger.valueOf(5), nonceManager.acquire(ADDRESS));
+        assertEquals(BigInteger.valueOf(7), nonceManager.acquire(ADDRESS));
+    }
+
+    @Test
+    public void testNonceAcceptedByNodeIsNotReused() throws Exception {
+        BigInteger first = nonceManager.acquire(ADDRESS);
+        nonceManager.acquire(ADDRESS);
+        BigInteger third = nonceManager.acquire(ADDRESS);
+        prepareBatchTransactionCount(7);
+        nonceManager.detectGaps();
+
+        // Sending appeared to fail, but the node counts the transaction as pending
+        nonceManager.release(ADDRESS, first);
+        assertEquals(BigInteger.valueOf(8), nonceManager.acquire(ADDRESS));
+
+        nonceManager.release(ADDRESS, third);
+        assertEquals(third, nonceManager.acquire(ADDRESS));
+    }
+
+    @Test
+    public void testInFlightNonceIsNotAGap() throws Exception {
+        nonceManager.acquire(ADDRESS);
+        prepareBatchTransactionCount(5);
+
+        nonceManager.detectGaps();
+        nonceManager.detectGaps();
+
+        assertEquals(BigInteger.valueOf(6), nonceManager.acquire(ADDRESS));
+    }
+
+    @Test
+    public void testCounterAdvancesToNodeCount() throws Exception {
+        BigInteger nonce = nonceManager.acquire(ADDRESS);
+        nonceManager.acquire(ADDRESS);
+        nonceManager.release(ADDRESS, nonce);
+        prepareBatchTransactionCount(10);
+
+        nonceManager.detectGaps();
+
+        assertEquals(BigInteger.valueOf(10), nonceManager.acquire(ADDRESS));
+    }
+
+    @Test
+    public void testFastRawTransactionManagerReleasesNonceOnError() throws Exception {
+        FastRawTransactionManager transactionManager =
+                new FastRawTransactionManager(
+                        web3j, SampleKeys.CREDENTIALS, ChainId.NONE, nonceManager);
+        EthSendTransaction error = new EthSendTransaction();
+        error.setError(new Response.Error(-32000, "insufficient funds"));
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenReturn(error);
+
+        transactionManager.sendTransaction(
+                BigInteger.ONE, BigInteger.TEN, SampleKeys.ADDRESS, "", BigInteger.ONE);
+
+        assertEquals(0, nonceManager.getInFlightCount(SampleKeys.ADDRESS));
+        assertEquals(BigInteger.valueOf(5), nonceManager.getNextNonce(SampleKeys.ADDRESS));
+    }
+
+    @Test
+    public void testFastRawTransactionManagerConfirmsNonceOnNonceError() throws Exception {
+        FastRawTransactionManager transactionManager =
+                new FastRawTransactionManager(
+                        web3j, SampleKeys.CREDENTIALS, ChainId.NONE, nonceManager);
+        EthSendTransaction error = new EthSendTransaction();
+        error.setError(new Response.Error(-32000, "nonce too low"));
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenReturn(error);
+
+        transactionManager.sendTransaction(
+                BigInteger.ONE, BigInteger.TEN, SampleKeys.ADDRESS, "", BigInteger.ONE);
+
+        assertEquals(0, nonceManager.getInFlightCount(SampleKeys.ADDRESS));
+        assertEquals(BigInteger.valueOf(6), nonceManager.getNextNonce(SampleKeys.ADDRESS));
+    }
+
+    @Test
+    public void testFastRawTransactionManagerLeavesNonceToGapDetectionOnIOException()
+            throws Exception {
+        FastRawTransactionManager transactionManager =
+                new FastRawTransactionManager(
+                        web3j, SampleKeys.CREDENTIALS, ChainId.NONE, nonceManager);
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenThrow(new IOException("Read timed out"));
+
+        assertThrows(
+                IOException.class,
+                () ->
+                        transactionManager.sendTransaction(
+                                BigInteger.ONE,
+                                BigInteger.TEN,
+                                SampleKeys.ADDRESS,
+                                "",
+                                BigInteger.ONE));
+        assertEquals(BigInteger.valueOf(6), nonceManager.getNextNonce(SampleKeys.ADDRESS));
+
+        // The node does not know the transaction, so its nonce is reissued
+        prepareBatchTransactionCount(5);
+        nonceManager.detectGaps();
+        nonceManager.detectGaps();
+        assertEquals(BigInteger.valueOf(5), nonceManager.acquire(SampleKeys.ADDRESS));
+    }
+
+    @Test
+    public void testFastRawTransactionManagerReleasesNonceOnSigningError() throws Exception {
+        TxSignService txSignService = mock(TxSignService.class);
+        when(txSignService.getAddress()).thenReturn(SampleKeys.ADDRESS);
+        CompletableFuture<byte[]> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("HSM unavailable"));
+        when(txSignService.signAsync(any(RawTransaction.class), anyLong())).thenReturn(failed);
+        FastRawTransactionManager transactionManager =
+                new FastRawTransactionManager(web3j, txSignService, ChainId.NONE, nonceManager);
+
+        BigInteger nonce = nonceManager.acquire(SampleKeys.ADDRESS);
+        CompletableFuture<EthSendTransaction> result =
+                transactionManager.signAndSendAsync(
+                        RawTransaction.createEtherTransaction(
+                                nonce,
+                                BigInteger.ONE,
+                                BigInteger.TEN,
+                                SampleKeys.ADDRESS,
+                                BigInteger.ONE));
+
+        assertThrows(ExecutionException.class, result::get);
+        assertEquals(0, nonceManager.getInFlightCount(SampleKeys.ADDRESS));
+        assertEquals(BigInteger.valueOf(5), nonceManager.getNextNonce(SampleKeys.ADDRESS));
+        verify(web3jService, never()).sendAsync(any(Request.class), eq(EthSendTransaction.class));
+    }
+
+    private void prepareBatchTransactionCount(long count) throws Exception {
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Request<?, ? extends Response<?>>> requests =
+                                    batchRequest.getRequests();
+                            List<EthGetTransactionCount> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request : requests) {
+                                EthGetTransactionCount response = createTransactionCount(count);
+                                response.setId(request.getId());
+                                responses.add(response);
+                            }
+                            return new BatchResponse(requests, responses);
+                        });
+    }
+
+    private static EthGetTransactionCount createTransactionCount(long count) {
+        EthGetTransactionCount ethGetTransactionCount = new EthGetTransactionCount();
+        ethGetTransactionCount.setResult(Numeric.encodeQuantity(BigInteger.valueOf(count)));
+        return ethGetTransactionCount;
+    }
+}
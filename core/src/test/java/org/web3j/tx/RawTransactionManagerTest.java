@@ -14,6 +14,10 @@ package org.web3j.tx;
 
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.MediaType;
@@ -26,17 +30,23 @@ import org.junit.jupiter.api.Test;
 
 import org.web3j.crypto.HSMHTTPPass;
 import org.web3j.crypto.SampleKeys;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.JsonRpcError;
 import org.web3j.service.HSMHTTPRequestProcessor;
 import org.web3j.service.TxHSMSignService;
 import org.web3j.service.TxSignService;
 import org.web3j.tx.exceptions.TxHashMismatchException;
+import org.web3j.tx.response.TransactionReceiptProcessor;
 import org.web3j.utils.Convert;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class RawTransactionManagerTest extends ManagedTransactionTester {
@@ -97,4 +107,83 @@ public class RawTransactionManagerTest extends ManagedTransactionTester {
 
         assertEquals(TX_SIGN_RESULT_HEX, sign);
     }
+
+    @Test
+    public void testExecuteTransactionAsync() throws Exception {
+        TransactionReceipt transactionReceipt = prepareTransfer();
+        TransactionReceiptProcessor transactionReceiptProcessor =
+                mockReceiptProcessor(transactionReceipt);
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(
+                        web3j, SampleKeys.CREDENTIALS, ChainId.NONE, transactionReceiptProcessor);
+        transactionManager.setTxHashVerifier(txHashVerifier);
+
+        TransactionReceipt receipt =
+                transactionManager
+                        .executeTransactionAsync(
+                                BigInteger.ONE, BigInteger.TEN, ADDRESS, "", BigInteger.ONE, false)
+                        .get(10, TimeUnit.SECONDS);
+
+        assertEquals(transactionReceipt, receipt);
+        verify(transactionReceiptProcessor, never()).waitForTransactionReceipt(any());
+    }
+
+    @Test
+    public void testExecuteTransactionEIP1559Async() throws Exception {
+        TransactionReceipt transactionReceipt = prepareTransfer();
+        TransactionReceiptProcessor transactionReceiptProcessor =
+                mockReceiptProcessor(transactionReceipt);
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(
+                        web3j, SampleKeys.CREDENTIALS, 1, transactionReceiptProcessor);
+        transactionManager.setTxHashVerifier(txHashVerifier);
+
+        TransactionReceipt receipt =
+                transactionManager
+                        .executeTransactionEIP1559Async(
+                                1,
+                                BigInteger.ONE,
+                                BigInteger.TEN,
+                                BigInteger.valueOf(21000),
+                                ADDRESS,
+                                "",
+                                BigInteger.ONE,
+                                false)
+                        .get(10, TimeUnit.SECONDS);
+
+        assertEquals(transactionReceipt, receipt);
+        verify(transactionReceiptProcessor, never()).waitForTransactionReceipt(any());
+    }
+
+    @Test
+    public void testProcessResponseAsyncFailsOnError() throws Exception {
+        TransactionReceiptProcessor transactionReceiptProcessor =
+                mockReceiptProcessor(new TransactionReceipt());
+        RawTransactionManager transactionManager =
+                new RawTransactionManager(
+                        web3j, SampleKeys.CREDENTIALS, ChainId.NONE, transactionReceiptProcessor);
+        EthSendTransaction ethSendTransaction = new EthSendTransaction();
+        ethSendTransaction.setError(
+                new org.web3j.protocol.core.Response.Error(-32000, "insufficient funds"));
+
+        ExecutionException exception =
+                assertThrows(
+                        ExecutionException.class,
+                        () ->
+                                transactionManager
+                                        .processResponseAsync(ethSendTransaction)
+                                        .get(10, TimeUnit.SECONDS));
+
+        assertTrue(exception.getCause() instanceof JsonRpcError);
+        verify(transactionReceiptProcessor, never()).waitForTransactionReceiptAsync(any());
+    }
+
+    private static TransactionReceiptProcessor mockReceiptProcessor(
+            TransactionReceipt transactionReceipt) {
+        TransactionReceiptProcessor transactionReceiptProcessor =
+                mock(TransactionReceiptProcessor.class);
+        when(transactionReceiptProcessor.waitForTransactionReceiptAsync(TRANSACTION_HASH))
+                .thenReturn(CompletableFuture.completedFuture(transactionReceipt));
+        return transactionReceiptProcessor;
+    }
 }
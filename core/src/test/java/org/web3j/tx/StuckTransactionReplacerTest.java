@@ -0,0 +1,296 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.crypto.transaction.type.Transaction1559;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionCount;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class StuckTransactionReplacerTest {
+
+    private static final long CHAIN_ID = 1;
+
+    private Web3jService web3jService;
+    private PublishProcessor<BigInteger> blockNumbers;
+    private RawTransactionManager transactionManager;
+    private StuckTransactionReplacer replacer;
+
+    private final List<String> sentHashes = Collections.synchronizedList(new ArrayList<>());
+    private final Set<String> minedHashes = Collections.synchronizedSet(new HashSet<>());
+    private volatile long transactionCount = 7;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        blockNumbers = PublishProcessor.create();
+        Web3j web3j = Web3j.build(web3jService);
+        transactionManager = new RawTransactionManager(web3j, SampleKeys.CREDENTIALS, CHAIN_ID);
+        replacer = new StuckTransactionReplacer(web3j, blockNumbers, 3, 10, 5);
+
+        when(web3jService.send(any(Request.class), eq(EthSendTransaction.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Request<?, ?> request = invocation.getArgument(0);
+                            String hash = Hash.sha3((String) request.getParams().get(0));
+                            sentHashes.add(hash);
+                            EthSendTransaction response = new EthSendTransaction();
+                            response.setResult(hash);
+                            return response;
+                        });
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Request<?, ? extends Response<?>>> requests =
+                                    batchRequest.getRequests();
+                            List<Response<?>> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request : requests) {
+                                if (request.getMethod().equals("eth_getTransactionCount")) {
+                                    EthGetTransactionCount response = new EthGetTransactionCount();
+                                    response.setId(request.getId());
+                                    response.setResult(
+                                            Numeric.encodeQuantity(
+                                                    BigInteger.valueOf(transactionCount)));
+                                    responses.add(response);
+                                    continue;
+                                }
+                                String hash = (String) request.getParams().get(0);
+                                EthGetTransactionReceipt response = new EthGetTransactionReceipt();
+                                response.setId(request.getId());
+                                if (minedHashes.contains(hash)) {
+                                    TransactionReceipt receipt = new TransactionReceipt();
+                                    receipt.setTransactionHash(hash);
+                                    response.setResult(receipt);
+                                }
+                                responses.add(response);
+                            }
+                            return new BatchResponse(requests, responses);
+                        });
+    }
+
+    @Test
+    public void testStuckTransactionIsReplaced() throws Exception {
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+        assertEquals(1, sentHashes.size());
+
+        for (long block = 1; block <= 3; block++) {
+            blockNumbers.onNext(BigInteger.valueOf(block));
+        }
+        assertEquals(1, sentHashes.size());
+
+        blockNumbers.onNext(BigInteger.valueOf(4));
+        assertEquals(2, sentHashes.size());
+
+        minedHashes.add(sentHashes.get(1));
+        blockNumbers.onNext(BigInteger.valueOf(5));
+
+        assertEquals(sentHashes.get(1), future.get(1, TimeUnit.SECONDS).getTransactionHash());
+        assertEquals(0, replacer.getTrackedCount());
+    }
+
+    @Test
+    public void testOriginalTransactionMayStillBeMined() throws Exception {
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+        for (long block = 1; block <= 4; block++) {
+            blockNumbers.onNext(BigInteger.valueOf(block));
+        }
+        assertEquals(2, sentHashes.size());
+
+        minedHashes.add(sentHashes.get(0));
+        blockNumbers.onNext(BigInteger.valueOf(5));
+
+        assertEquals(sentHashes.get(0), future.get(1, TimeUnit.SECONDS).getTransactionHash());
+    }
+
+    @Test
+    public void testReplacementsAreLimited() throws Exception {
+        replacer = new StuckTransactionReplacer(Web3j.build(web3jService), blockNumbers, 1, 10, 2);
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+
+        for (long block = 1; block <= 10; block++) {
+            blockNumbers.onNext(BigInteger.valueOf(block));
+        }
+
+        assertEquals(3, sentHashes.size());
+        assertFalse(future.isDone());
+    }
+
+    @Test
+    public void testTransactionFailsWhenNonceIsUsedByAnotherTransaction() throws Exception {
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+        blockNumbers.onNext(BigInteger.ONE);
+        assertFalse(future.isDone());
+
+        transactionCount = 8;
+        blockNumbers.onNext(BigInteger.valueOf(2));
+
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TransactionException);
+        assertEquals(0, replacer.getTrackedCount());
+    }
+
+    @Test
+    public void testMinedTransactionIsNotFailedByItsOwnNonce() throws Exception {
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+        blockNumbers.onNext(BigInteger.ONE);
+
+        minedHashes.add(sentHashes.get(0));
+        transactionCount = 8;
+        blockNumbers.onNext(BigInteger.valueOf(2));
+
+        assertEquals(sentHashes.get(0), future.get(1, TimeUnit.SECONDS).getTransactionHash());
+    }
+
+    @Test
+    public void testTransactionFailsAfterTimeout() throws Exception {
+        replacer =
+                new StuckTransactionReplacer(
+                        Web3j.build(web3jService), blockNumbers, 1, 10, 2, 5, null);
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+
+        for (long block = 1; block <= 5; block++) {
+            blockNumbers.onNext(BigInteger.valueOf(block));
+        }
+        assertFalse(future.isDone());
+
+        blockNumbers.onNext(BigInteger.valueOf(6));
+
+        ExecutionException e =
+                assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TransactionException);
+        assertEquals(
+                sentHashes.get(0),
+                ((TransactionException) e.getCause()).getTransactionHash().get());
+    }
+
+    @Test
+    public void testDuplicateTransactionIsRejected() {
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+        CompletableFuture<TransactionReceipt> duplicate =
+                replacer.submit(transactionManager, createTransaction(200, 2000));
+
+        ExecutionException e = assertThrows(ExecutionException.class, duplicate::get);
+        assertTrue(e.getCause() instanceof IllegalStateException);
+        assertFalse(future.isDone());
+        assertEquals(1, sentHashes.size());
+        assertEquals(1, replacer.getTrackedCount());
+    }
+
+    @Test
+    public void testReplacementFeesAreLimited() throws Exception {
+        replacer =
+                new StuckTransactionReplacer(
+                        Web3j.build(web3jService),
+                        blockNumbers,
+                        1,
+                        10,
+                        5,
+                        StuckTransactionReplacer.DEFAULT_TIMEOUT_BLOCKS,
+                        BigInteger.valueOf(1250));
+        CompletableFuture<TransactionReceipt> future =
+                replacer.submit(transactionManager, createTransaction(100, 1000));
+
+        for (long block = 1; block <= 10; block++) {
+            blockNumbers.onNext(BigInteger.valueOf(block));
+        }
+
+        // 1000 is bumped to 1100 and 1210, 1331 exceeds the limit
+        assertEquals(3, sentHashes.size());
+        assertFalse(future.isDone());
+    }
+
+    @Test
+    public void testBumpRaisesFees() {
+        RawTransaction bumped = StuckTransactionReplacer.bump(createTransaction(100, 1005), 10);
+
+        Transaction1559 transaction = (Transaction1559) bumped.getTransaction();
+        assertEquals(BigInteger.valueOf(110), transaction.getMaxPriorityFeePerGas());
+        // 1105.5 is rounded up
+        assertEquals(BigInteger.valueOf(1106), transaction.getMaxFeePerGas());
+        assertEquals(BigInteger.valueOf(7), bumped.getNonce());
+        assertEquals(CHAIN_ID, transaction.getChainId());
+    }
+
+    @Test
+    public void testBumpRaisesSmallFees() {
+        RawTransaction legacy =
+                RawTransaction.createTransaction(
+                        BigInteger.ONE,
+                        BigInteger.ONE,
+                        BigInteger.valueOf(21000),
+                        SampleKeys.ADDRESS,
+                        BigInteger.ZERO,
+                        "");
+
+        RawTransaction bumped = StuckTransactionReplacer.bump(legacy, 10);
+
+        assertTrue(bumped.getType().isLegacy());
+        assertEquals(BigInteger.valueOf(2), bumped.getGasPrice());
+    }
+
+    private static RawTransaction createTransaction(long maxPriorityFee, long maxFee) {
+        return RawTransaction.createTransaction(
+                CHAIN_ID,
+                BigInteger.valueOf(7),
+                BigInteger.valueOf(21000),
+                SampleKeys.ADDRESS,
+                BigInteger.ONE,
+                "",
+                BigInteger.valueOf(maxPriorityFee),
+                BigInteger.valueOf(maxFee));
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.crypto.Hash;
+import org.web3j.crypto.RawTransaction;
+import org.web3j.crypto.SampleKeys;
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthSendTransaction;
+import org.web3j.service.TxSignService;
+import org.web3j.service.TxSignServiceImpl;
+import org.web3j.tx.exceptions.TxHashMismatchException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransactionPipelineTest {
+
+    private Web3jService web3jService;
+    private ExecutorService executorService;
+    private RawTransactionManager transactionManager;
+    private TransactionPipeline pipeline;
+
+    @BeforeEach
+    public void setUp() {
+        web3jService = mock(Web3jService.class);
+        executorService = Executors.newFixedThreadPool(4);
+        Web3j web3j = Web3j.build(web3jService);
+        transactionManager = new RawTransactionManager(web3j, SampleKeys.CREDENTIALS);
+        pipeline = new TransactionPipeline(web3j, executorService, 10);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testTransactionsAreSentInBatchesInNonceOrder() throws Exception {
+        List<String> sentHashes = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        prepareBatchResponse(sentHashes, batchSizes, false);
+
+        List<String> expectedHashes = new ArrayList<>();
+        List<CompletableFuture<EthSendTransaction>> futures = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            RawTransaction rawTransaction = createRawTransaction(i);
+            expectedHashes.add(Hash.sha3(transactionManager.sign(rawTransaction)));
+            futures.add(pipeline.submit(transactionManager, rawTransaction));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            EthSendTransaction ethSendTransaction = futures.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals(expectedHashes.get(i), ethSendTransaction.getTransactionHash());
+        }
+        assertEquals(expectedHashes, sentHashes);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        assertEquals(0, pipeline.getPendingCount());
+    }
+
+    @Test
+    public void testHashMismatchFailsTransaction() throws Exception {
+        prepareBatchResponse(
+                Collections.synchronizedList(new ArrayList<>()),
+                Collections.synchronizedList(new ArrayList<>()),
+                true);
+
+        CompletableFuture<EthSendTransaction> future =
+                pipeline.submit(transactionManager, createRawTransaction(0));
+
+        ExecutionException exception =
+                assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof TxHashMismatchException);
+    }
+
+    @Test
+    public void testFailedBatchFailsAllTransactions() throws Exception {
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenThrow(new IOException("connection refused"));
+
+        List<CompletableFuture<EthSendTransaction>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(pipeline.submit(transactionManager, createRawTransaction(i)));
+        }
+
+        for (CompletableFuture<EthSendTransaction> future : futures) {
+            ExecutionException exception =
+                    assertThrows(
+                            ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IOException);
+        }
+    }
+
+    @Test
+    public void testSigningFailureFailsLaterTransactionsOfAccount() throws Exception {
+        prepareBatchResponse(
+                Collections.synchronizedList(new ArrayList<>()),
+                Collections.synchronizedList(new ArrayList<>()),
+                false);
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        TxSignService txSignService =
+                new TxSignServiceImpl(SampleKeys.CREDENTIALS) {
+                    @Override
+                    public byte[] sign(RawTransaction rawTransaction, long chainId) {
+                        if (rawTransaction.getNonce().equals(BigInteger.valueOf(2))
+                                && failNext.getAndSet(false)) {
+                            throw new IllegalStateException("Signing failed");
+                        }
+                        return super.sign(rawTransaction, chainId);
+                    }
+                };
+        RawTransactionManager failingTransactionManager =
+                new RawTransactionManager(
+                        Web3j.build(web3jService), txSignService, ChainId.NONE);
+
+        List<CompletableFuture<EthSendTransaction>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(pipeline.submit(failingTransactionManager, createRawTransaction(i)));
+        }
+
+        futures.get(0).get(10, TimeUnit.SECONDS);
+        futures.get(1).get(10, TimeUnit.SECONDS);
+        ExecutionException exception =
+                assertThrows(
+                        ExecutionException.class,
+                        () -> futures.get(2).get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        for (int i = 3; i < 5; i++) {
+            CompletableFuture<EthSendTransaction> future = futures.get(i);
+            exception =
+                    assertThrows(
+                            ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+            assertTrue(exception.getCause() instanceof IOException);
+        }
+
+        // Later nonces fail until the failed nonce is submitted again
+        CompletableFuture<EthSendTransaction> gap =
+                pipeline.submit(failingTransactionManager, createRawTransaction(5));
+        assertTrue(gap.isCompletedExceptionally());
+        pipeline.submit(failingTransactionManager, createRawTransaction(2))
+                .get(10, TimeUnit.SECONDS);
+        pipeline.submit(failingTransactionManager, createRawTransaction(3))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(0, pipeline.getPendingCount());
+    }
+
+    private void prepareBatchResponse(
+            List<String> sentHashes, List<Integer> batchSizes, boolean mismatch)
+            throws IOException {
+        when(web3jService.sendBatch(any(BatchRequest.class)))
+                .thenAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Request<?, ? extends Response<?>>> requests =
+                                    batchRequest.getRequests();
+                            batchSizes.add(requests.size());
+                            List<EthSendTransaction> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request : requests) {
+                                String hash = Hash.sha3((String) request.getParams().get(0));
+                                sentHashes.add(hash);
+                                EthSendTransaction response = new EthSendTransaction();
+                                response.setId(request.getId());
+                                response.setResult(mismatch ? "0x0" : hash);
+                                responses.add(response);
+                            }
+                            // Responses are matched by id, not by position
+                            Collections.reverse(responses);
+                            return new BatchResponse(requests, responses);
+                        });
+    }
+
+    private static RawTransaction createRawTransaction(long nonce) {
+        return RawTransaction.createEtherTransaction(
+                BigInteger.valueOf(nonce),
+                BigInteger.ONE,
+                BigInteger.valueOf(21000),
+                SampleKeys.ADDRESS,
+                BigInteger.ONE);
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.gas;
+
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthEstimateGas;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.JsonRpcError;
+import org.web3j.utils.Numeric;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EstimatingGasProviderTest {
+
+    private static final String FROM = "0xef678007d18427e6022059dbc264f27507cd1ffc";
+    private static final String CONTRACT = "0x3d6cb163f7c72d20b0fcd6baae5889329d138a4a";
+    private static final String TRANSFER = "0xa9059cbb0000000000000000000000000000000000000001";
+    private static final String OTHER_TRANSFER =
+            "0xa9059cbb0000000000000000000000000000000000000002";
+    private static final String APPROVE = "0x095ea7b30000000000000000000000000000000000000001";
+    private static final BigInteger LIMIT = BigInteger.valueOf(60000);
+
+    private Web3jService web3jService;
+    private EstimatingGasProvider gasProvider;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        gasProvider =
+                new EstimatingGasProvider(
+                        Web3j.build(web3jService), new DefaultGasProvider(), 20, 60000);
+        prepareEstimate(50000);
+    }
+
+    @Test
+    public void testEstimateIsCachedPerFunctionSelector() throws Exception {
+        assertEquals(BigInteger.valueOf(60000), getGasLimit(TRANSFER));
+        assertEquals(BigInteger.valueOf(60000), getGasLimit(OTHER_TRANSFER));
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthEstimateGas.class));
+
+        getGasLimit(APPROVE);
+        verify(web3jService, times(2)).send(any(Request.class), eq(EthEstimateGas.class));
+    }
+
+    @Test
+    public void testDeploymentsAreNotCached() throws Exception {
+        gasProvider.getGasLimit(FROM, null, TRANSFER, BigInteger.ZERO);
+        gasProvider.getGasLimit(FROM, "", TRANSFER, BigInteger.ZERO);
+
+        verify(web3jService, times(2)).send(any(Request.class), eq(EthEstimateGas.class));
+    }
+
+    @Test
+    public void testLimitDecaysTowardsGasUsed() throws Exception {
+        getGasLimit(TRANSFER);
+
+        // 40000 with margin is 48000, the limit moves a tenth of the way from 60000
+        gasProvider.onTransactionReceipt(CONTRACT, TRANSFER, LIMIT, receipt(40000, "0x1"));
+        assertEquals(BigInteger.valueOf(58800), getGasLimit(TRANSFER));
+
+        // More gas used than the limit allows for raises it immediately
+        gasProvider.onTransactionReceipt(CONTRACT, TRANSFER, LIMIT, receipt(55000, "0x1"));
+        assertEquals(BigInteger.valueOf(66000), getGasLimit(TRANSFER));
+
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthEstimateGas.class));
+    }
+
+    @Test
+    public void testOutOfGasDiscardsLimit() throws Exception {
+        getGasLimit(TRANSFER);
+
+        gasProvider.onTransactionReceipt(CONTRACT, TRANSFER, LIMIT, receipt(30000, "0x0"));
+        assertEquals(BigInteger.valueOf(60000), gasProvider.getCachedGasLimit(CONTRACT, TRANSFER));
+
+        gasProvider.onTransactionReceipt(CONTRACT, TRANSFER, LIMIT, receipt(60000, "0x0"));
+        assertNull(gasProvider.getCachedGasLimit(CONTRACT, TRANSFER));
+
+        prepareEstimate(70000);
+        assertEquals(BigInteger.valueOf(84000), getGasLimit(TRANSFER));
+    }
+
+    @Test
+    public void testOutOfGasIsComparedToTransactionLimit() throws Exception {
+        getGasLimit(TRANSFER);
+
+        // The cached limit was raised after a transaction was sent with 60000
+        gasProvider.onTransactionReceipt(CONTRACT, TRANSFER, LIMIT, receipt(55000, "0x1"));
+        assertEquals(BigInteger.valueOf(66000), gasProvider.getCachedGasLimit(CONTRACT, TRANSFER));
+
+        gasProvider.onTransactionReceipt(CONTRACT, TRANSFER, LIMIT, receipt(60000, "0x0"));
+        assertNull(gasProvider.getCachedGasLimit(CONTRACT, TRANSFER));
+    }
+
+    @Test
+    public void testLegacyGasProviderHasNoEip1559Fees() {
+        assertFalse(gasProvider.isEIP1559Enabled());
+        assertThrows(UnsupportedOperationException.class, () -> gasProvider.getChainId());
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> gasProvider.getMaxFeePerGas(TRANSFER));
+        assertThrows(
+                UnsupportedOperationException.class,
+                () -> gasProvider.getMaxPriorityFeePerGas(TRANSFER));
+    }
+
+    @Test
+    public void testExpiredLimitIsEstimatedAgain() throws Exception {
+        gasProvider =
+                new EstimatingGasProvider(
+                        Web3j.build(web3jService), new DefaultGasProvider(), 20, 0);
+
+        getGasLimit(TRANSFER);
+        getGasLimit(TRANSFER);
+
+        verify(web3jService, times(2)).send(any(Request.class), eq(EthEstimateGas.class));
+    }
+
+    @Test
+    public void testEstimationErrorIsThrown() throws Exception {
+        EthEstimateGas ethEstimateGas = new EthEstimateGas();
+        ethEstimateGas.setError(new Response.Error(3, "execution reverted"));
+        when(web3jService.send(any(Request.class), eq(EthEstimateGas.class)))
+                .thenReturn(ethEstimateGas);
+
+        assertThrows(JsonRpcError.class, () -> getGasLimit(TRANSFER));
+        assertNull(gasProvider.getCachedGasLimit(CONTRACT, TRANSFER));
+    }
+
+    private BigInteger getGasLimit(String data) throws Exception {
+        return gasProvider.getGasLimit(FROM, CONTRACT, data, BigInteger.ZERO);
+    }
+
+    private void prepareEstimate(long gas) throws Exception {
+        EthEstimateGas ethEstimateGas = new EthEstimateGas();
+        ethEstimateGas.setResult(Numeric.encodeQuantity(BigInteger.valueOf(gas)));
+        when(web3jService.send(any(Request.class), eq(EthEstimateGas.class)))
+                .thenReturn(ethEstimateGas);
+    }
+
+    private static TransactionReceipt receipt(long gasUsed, String status) {
+        TransactionReceipt transactionReceipt = new TransactionReceipt();
+        transactionReceipt.setGasUsed(Numeric.encodeQuantity(BigInteger.valueOf(gasUsed)));
+        transactionReceipt.setStatus(status);
+        return transactionReceipt;
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.gas;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.methods.response.EthFeeHistory;
+import org.web3j.protocol.core.methods.response.EthMaxPriorityFeePerGas;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class FeeHistoryGasProviderTest {
+
+    private Web3jService web3jService;
+    private FeeHistoryGasProvider gasProvider;
+
+    @BeforeEach
+    public void setUp() {
+        web3jService = mock(Web3jService.class);
+        gasProvider =
+                new FeeHistoryGasProvider(
+                        Web3j.build(web3jService), 1, BigInteger.valueOf(21000), 4, 50, 2);
+    }
+
+    @Test
+    public void testFeesAreDerivedFromFeeHistory() throws Exception {
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0x64", "0x0", "0xc8", "0x12c"),
+                        Arrays.asList(0.5, 0.0, 0.5, 0.5),
+                        "0x3e8"));
+
+        gasProvider.refresh();
+
+        // Median of 100, 200 and 300, the empty block is ignored
+        assertEquals(BigInteger.valueOf(200), gasProvider.getMaxPriorityFeePerGas("transfer"));
+        // 1000 * (9 / 8)^2 + 200
+        assertEquals(BigInteger.valueOf(1465), gasProvider.getMaxFeePerGas("transfer"));
+        assertEquals(BigInteger.valueOf(1465), gasProvider.getGasPrice("transfer"));
+        assertEquals(BigInteger.valueOf(21000), gasProvider.getGasLimit("transfer"));
+    }
+
+    @Test
+    public void testFeesAreServedFromMemory() throws Exception {
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0x64", "0x64", "0x64", "0x64"),
+                        Arrays.asList(0.5, 0.5, 0.5, 0.5),
+                        "0x3e8"));
+        PublishProcessor<Object> newBlocks = PublishProcessor.create();
+
+        gasProvider.start(newBlocks);
+        for (int i = 0; i < 10; i++) {
+            gasProvider.getMaxFeePerGas("transfer");
+            gasProvider.getMaxPriorityFeePerGas("transfer");
+        }
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthFeeHistory.class));
+
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0xc8", "0xc8", "0xc8", "0xc8"),
+                        Arrays.asList(0.5, 0.5, 0.5, 0.5),
+                        "0x3e8"));
+        newBlocks.onNext(new Object());
+
+        assertEquals(BigInteger.valueOf(200), gasProvider.getMaxPriorityFeePerGas("transfer"));
+        verify(web3jService, times(2)).send(any(Request.class), eq(EthFeeHistory.class));
+
+        gasProvider.shutdown();
+        newBlocks.onNext(new Object());
+        verify(web3jService, times(2)).send(any(Request.class), eq(EthFeeHistory.class));
+    }
+
+    @Test
+    public void testEmptyBlocksFallBackToNodePriorityFee() throws Exception {
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0x0", "0x0", "0x0", "0x0"),
+                        Arrays.asList(0.0, 0.0, 0.0, 0.0),
+                        "0x3e8"));
+        EthMaxPriorityFeePerGas ethMaxPriorityFeePerGas = new EthMaxPriorityFeePerGas();
+        ethMaxPriorityFeePerGas.setResult("0xa");
+        when(web3jService.send(any(Request.class), eq(EthMaxPriorityFeePerGas.class)))
+                .thenReturn(ethMaxPriorityFeePerGas);
+
+        gasProvider.refresh();
+
+        assertEquals(BigInteger.TEN, gasProvider.getMaxPriorityFeePerGas("transfer"));
+        assertEquals(BigInteger.valueOf(1275), gasProvider.getMaxFeePerGas("transfer"));
+    }
+
+    @Test
+    public void testFeesAreLoadedOnFirstUseWithoutStart() throws Exception {
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0x64", "0x64", "0x64", "0x64"),
+                        Arrays.asList(0.5, 0.5, 0.5, 0.5),
+                        "0x0"));
+
+        assertEquals(BigInteger.valueOf(100), gasProvider.getMaxFeePerGas("transfer"));
+    }
+
+    @Test
+    public void testStaleFeesAreReloaded() throws Exception {
+        gasProvider =
+                new FeeHistoryGasProvider(
+                        Web3j.build(web3jService),
+                        1,
+                        BigInteger.valueOf(21000),
+                        4,
+                        Collections.singletonList(50.0),
+                        2,
+                        0);
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0x64", "0x64", "0x64", "0x64"),
+                        Arrays.asList(0.5, 0.5, 0.5, 0.5),
+                        "0x0"));
+        gasProvider.getMaxFeePerGas("transfer");
+
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0xc8", "0xc8", "0xc8", "0xc8"),
+                        Arrays.asList(0.5, 0.5, 0.5, 0.5),
+                        "0x0"));
+        Thread.sleep(10);
+
+        assertEquals(BigInteger.valueOf(200), gasProvider.getMaxFeePerGas("transfer"));
+        verify(web3jService, times(2)).send(any(Request.class), eq(EthFeeHistory.class));
+    }
+
+    @Test
+    public void testStaleFeesAreServedWhileStarted() throws Exception {
+        gasProvider =
+                new FeeHistoryGasProvider(
+                        Web3j.build(web3jService),
+                        1,
+                        BigInteger.valueOf(21000),
+                        4,
+                        Collections.singletonList(50.0),
+                        2,
+                        0);
+        prepareFeeHistory(
+                feeHistory(
+                        Arrays.asList("0x64", "0x64", "0x64", "0x64"),
+                        Arrays.asList(0.5, 0.5, 0.5, 0.5),
+                        "0x0"));
+        gasProvider.start(PublishProcessor.create());
+        Thread.sleep(10);
+
+        assertTrue(gasProvider.isStale());
+        assertEquals(BigInteger.valueOf(100), gasProvider.getMaxFeePerGas("transfer"));
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthFeeHistory.class));
+        gasProvider.shutdown();
+    }
+
+    @Test
+    public void testSeveralRewardPercentiles() throws Exception {
+        gasProvider =
+                new FeeHistoryGasProvider(
+                        Web3j.build(web3jService),
+                        1,
+                        BigInteger.valueOf(21000),
+                        4,
+                        Arrays.asList(50.0, 10.0, 90.0),
+                        2,
+                        FeeHistoryGasProvider.DEFAULT_MAX_AGE);
+        List<String> blockRewards = Arrays.asList("0xa", "0x64", "0x3e8");
+        EthFeeHistory ethFeeHistory = new EthFeeHistory();
+        ethFeeHistory.setResult(
+                new EthFeeHistory.FeeHistory(
+                        "0x1",
+                        Arrays.asList(blockRewards, blockRewards, blockRewards, blockRewards),
+                        Arrays.asList("0x1", "0x1", "0x1", "0x1", "0x0"),
+                        Arrays.asList(0.5, 0.5, 0.5, 0.5)));
+        prepareFeeHistory(ethFeeHistory);
+
+        // Percentiles are requested in ascending order, the first one is the default
+        assertEquals(BigInteger.valueOf(100), gasProvider.getMaxPriorityFeePerGas("transfer"));
+        assertEquals(BigInteger.TEN, gasProvider.getMaxPriorityFeePerGas(10));
+        assertEquals(BigInteger.valueOf(1000), gasProvider.getMaxFeePerGas(90));
+        assertThrows(IllegalArgumentException.class, () -> gasProvider.getMaxFeePerGas(75));
+        verify(web3jService, times(1)).send(any(Request.class), eq(EthFeeHistory.class));
+    }
+
+    @Test
+    public void testInvalidPercentile() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () ->
+                        new FeeHistoryGasProvider(
+                                mock(Web3j.class), 1, BigInteger.ONE, 4, 101, 2));
+    }
+
+    private void prepareFeeHistory(EthFeeHistory ethFeeHistory) throws Exception {
+        when(web3jService.send(any(Request.class), eq(EthFeeHistory.class)))
+                .thenReturn(ethFeeHistory);
+    }
+
+    private static EthFeeHistory feeHistory(
+            List<String> rewards, List<Double> gasUsedRatio, String baseFee) {
+        List<List<String>> reward =
+                rewards.stream().map(Collections::singletonList).collect(Collectors.toList());
+        EthFeeHistory ethFeeHistory = new EthFeeHistory();
+        ethFeeHistory.setResult(
+                new EthFeeHistory.FeeHistory(
+                        "0x1",
+                        reward,
+                        Arrays.asList("0x1", "0x1", "0x1", "0x1", baseFee),
+                        gasUsedRatio));
+        return ethFeeHistory;
+    }
+}
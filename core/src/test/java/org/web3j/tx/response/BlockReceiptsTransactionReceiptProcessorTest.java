@@ -0,0 +1,268 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.processors.PublishProcessor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.DefaultBlockParameter;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetBlockReceipts;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.utils.Async;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BlockReceiptsTransactionReceiptProcessorTest {
+
+    private static final String TRANSACTION_HASH = "0x01";
+    private static final String OTHER_TRANSACTION_HASH = "0x02";
+
+    private Web3j web3j;
+    private PublishProcessor<BigInteger> blockNumbers;
+
+    @BeforeEach
+    public void setUp() {
+        web3j = mock(Web3j.class);
+        blockNumbers = PublishProcessor.create();
+    }
+
+    @Test
+    public void testReceiptIsResolvedFromBlockReceipts() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(10000);
+        TransactionReceipt transactionReceipt = receipt(TRANSACTION_HASH);
+        doReturn(
+                        requestReturning(
+                                blockReceipts(
+                                        receipt(OTHER_TRANSACTION_HASH), transactionReceipt)))
+                .when(web3j)
+                .ethGetBlockReceipts(any(DefaultBlockParameter.class));
+
+        CompletableFuture<TransactionReceipt> future = waitForReceipt(processor);
+        blockNumbers.onNext(BigInteger.TEN);
+
+        assertEquals(transactionReceipt, future.get(10, TimeUnit.SECONDS));
+        verify(web3j, never()).ethGetTransactionReceipt(anyString());
+    }
+
+    @Test
+    public void testStragglersArePolledByHash() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(10000);
+        TransactionReceipt transactionReceipt = receipt(TRANSACTION_HASH);
+        doReturn(requestReturning(blockReceipts()))
+                .when(web3j)
+                .ethGetBlockReceipts(any(DefaultBlockParameter.class));
+        EthGetTransactionReceipt response = transactionReceiptResponse(transactionReceipt);
+        Request<?, EthGetTransactionReceipt> request = requestReturning(response);
+        doReturn(request).when(web3j).ethGetTransactionReceipt(TRANSACTION_HASH);
+        BatchRequest batchRequest = mock(BatchRequest.class);
+        when(batchRequest.add(any())).thenReturn(batchRequest);
+        when(batchRequest.send())
+                .thenReturn(
+                        new BatchResponse(
+                                Collections.singletonList(request),
+                                Collections.singletonList(response)));
+        doReturn(batchRequest).when(web3j).newBatch();
+
+        CompletableFuture<TransactionReceipt> future = waitForReceipt(processor);
+        blockNumbers.onNext(BigInteger.valueOf(1));
+        blockNumbers.onNext(BigInteger.valueOf(2));
+        verify(web3j, never()).ethGetTransactionReceipt(anyString());
+
+        blockNumbers.onNext(BigInteger.valueOf(3));
+
+        assertEquals(transactionReceipt, future.get(10, TimeUnit.SECONDS));
+        verify(web3j, times(1)).ethGetTransactionReceipt(TRANSACTION_HASH);
+        verify(batchRequest, times(1)).send();
+    }
+
+    @Test
+    public void testBlocksAreOnlyListenedForWhileTransactionsArePending() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(10000);
+        TransactionReceipt transactionReceipt = receipt(TRANSACTION_HASH);
+        doReturn(requestReturning(blockReceipts(transactionReceipt)))
+                .when(web3j)
+                .ethGetBlockReceipts(any(DefaultBlockParameter.class));
+
+        CompletableFuture<TransactionReceipt> future = waitForReceipt(processor);
+        blockNumbers.onNext(BigInteger.TEN);
+        future.get(10, TimeUnit.SECONDS);
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (blockNumbers.hasSubscribers() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(blockNumbers.hasSubscribers());
+
+        future = waitForReceipt(processor);
+        assertTrue(blockNumbers.hasSubscribers());
+        blockNumbers.onNext(BigInteger.valueOf(11));
+        assertEquals(transactionReceipt, future.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSkippedBlocksAreFetched() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(10000);
+        TransactionReceipt transactionReceipt = receipt(TRANSACTION_HASH);
+        doReturn(requestReturning(blockReceipts()))
+                .doReturn(requestReturning(blockReceipts()))
+                .doReturn(requestReturning(blockReceipts(transactionReceipt)))
+                .when(web3j)
+                .ethGetBlockReceipts(any(DefaultBlockParameter.class));
+
+        CompletableFuture<TransactionReceipt> future = waitForReceipt(processor);
+        blockNumbers.onNext(BigInteger.valueOf(10));
+        blockNumbers.onNext(BigInteger.valueOf(12));
+
+        assertEquals(transactionReceipt, future.get(10, TimeUnit.SECONDS));
+        verify(web3j, times(3)).ethGetBlockReceipts(any(DefaultBlockParameter.class));
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(100);
+
+        TransactionException exception =
+                assertThrows(
+                        TransactionException.class,
+                        () -> processor.waitForTransactionReceipt(TRANSACTION_HASH));
+
+        assertEquals(TRANSACTION_HASH, exception.getTransactionHash().get());
+        assertEquals(0, processor.getPendingCount());
+    }
+
+    @Test
+    public void testAsyncWaitIsCompletedByNewBlock() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(10000);
+        TransactionReceipt transactionReceipt = receipt(TRANSACTION_HASH);
+        doReturn(requestReturning(blockReceipts(transactionReceipt)))
+                .when(web3j)
+                .ethGetBlockReceipts(any(DefaultBlockParameter.class));
+
+        CompletableFuture<TransactionReceipt> future =
+                processor.waitForTransactionReceiptAsync(TRANSACTION_HASH);
+        assertEquals(1, processor.getPendingCount());
+        assertTrue(blockNumbers.hasSubscribers());
+
+        blockNumbers.onNext(BigInteger.TEN);
+
+        assertEquals(transactionReceipt, future.get(10, TimeUnit.SECONDS));
+        assertEquals(0, processor.getPendingCount());
+        assertFalse(blockNumbers.hasSubscribers());
+    }
+
+    @Test
+    public void testAsyncWaitTimeout() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(100);
+
+        CompletableFuture<TransactionReceipt> future =
+                processor.waitForTransactionReceiptAsync(TRANSACTION_HASH);
+
+        ExecutionException exception =
+                assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof TransactionException);
+        assertEquals(
+                TRANSACTION_HASH,
+                ((TransactionException) exception.getCause()).getTransactionHash().get());
+        assertEquals(0, processor.getPendingCount());
+        assertFalse(blockNumbers.hasSubscribers());
+    }
+
+    @Test
+    public void testBlockStreamErrorFailsPendingTransactions() throws Exception {
+        BlockReceiptsTransactionReceiptProcessor processor = createProcessor(10000);
+
+        CompletableFuture<TransactionReceipt> future = waitForReceipt(processor);
+        blockNumbers.onError(new IOException("connection closed"));
+
+        ExecutionException exception =
+                assertThrows(ExecutionException.class, () -> future.get(10, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof IOException);
+    }
+
+    private BlockReceiptsTransactionReceiptProcessor createProcessor(long timeout) {
+        return new BlockReceiptsTransactionReceiptProcessor(web3j, blockNumbers, timeout, 3);
+    }
+
+    private CompletableFuture<TransactionReceipt> waitForReceipt(
+            BlockReceiptsTransactionReceiptProcessor processor) throws InterruptedException {
+        CompletableFuture<TransactionReceipt> future =
+                Async.run(() -> processor.waitForTransactionReceipt(TRANSACTION_HASH));
+        long deadline = System.currentTimeMillis() + 10000;
+        while ((processor.getPendingCount() == 0 || !blockNumbers.hasSubscribers())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return future;
+    }
+
+    private static TransactionReceipt receipt(String transactionHash) {
+        TransactionReceipt transactionReceipt = new TransactionReceipt();
+        transactionReceipt.setTransactionHash(transactionHash);
+        return transactionReceipt;
+    }
+
+    private static EthGetBlockReceipts blockReceipts(TransactionReceipt... transactionReceipts) {
+        EthGetBlockReceipts ethGetBlockReceipts = new EthGetBlockReceipts();
+        List<TransactionReceipt> result =
+                transactionReceipts.length == 0
+                        ? Collections.emptyList()
+                        : Arrays.asList(transactionReceipts);
+        ethGetBlockReceipts.setResult(result);
+        return ethGetBlockReceipts;
+    }
+
+    private static EthGetTransactionReceipt transactionReceiptResponse(
+            TransactionReceipt transactionReceipt) {
+        EthGetTransactionReceipt response = new EthGetTransactionReceipt();
+        response.setResult(transactionReceipt);
+        return response;
+    }
+
+    private static <T extends Response<?>> Request requestReturning(T response) {
+        Request request = mock(Request.class);
+        try {
+            when(request.send()).thenReturn(response);
+        } catch (IOException e) {
+            // this will never happen
+        }
+        return request;
+    }
+}
@@ -13,6 +13,9 @@
 package org.web3j.tx.response;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,12 +26,16 @@ import org.web3j.protocol.core.Response;
 import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
 import org.web3j.protocol.core.methods.response.TransactionReceipt;
 import org.web3j.protocol.exceptions.TransactionException;
+import org.web3j.protocol.polling.BlockCadence;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class PollingTransactionReceiptProcessorTest {
@@ -73,6 +80,91 @@ public class PollingTransactionReceiptProcessorTest {
         }
     }
 
+    @Test
+    public void returnsTransactionReceiptWhenPollingAdaptively() throws Exception {
+        BlockCadence blockCadence = new BlockCadence(web3j, 100);
+        long now = System.currentTimeMillis();
+        blockCadence.onBlock(1, now / 1000, now);
+        processor = new PollingTransactionReceiptProcessor(web3j, blockCadence, attempts);
+
+        TransactionReceipt transactionReceipt = new TransactionReceipt();
+        doReturn(requestReturning(response(null)))
+                .doReturn(requestReturning(response(transactionReceipt)))
+                .when(web3j)
+                .ethGetTransactionReceipt(TRANSACTION_HASH);
+
+        TransactionReceipt receipt = processor.waitForTransactionReceipt(TRANSACTION_HASH);
+
+        assertEquals(receipt, (transactionReceipt));
+    }
+
+    @Test
+    public void returnsTransactionReceiptAsynchronously() throws Exception {
+        TransactionReceipt transactionReceipt = new TransactionReceipt();
+        doReturn(requestReturning(response(null)))
+                .doReturn(requestReturning(response(transactionReceipt)))
+                .when(web3j)
+                .ethGetTransactionReceipt(TRANSACTION_HASH);
+
+        TransactionReceipt receipt =
+                processor
+                        .waitForTransactionReceiptAsync(TRANSACTION_HASH)
+                        .get(10, TimeUnit.SECONDS);
+
+        assertEquals(receipt, (transactionReceipt));
+    }
+
+    @Test
+    public void failsAsynchronouslyWhenReceiptIsNotAvailableInTime() throws Exception {
+        doReturn(requestReturning(response(null)))
+                .when(web3j)
+                .ethGetTransactionReceipt(TRANSACTION_HASH);
+
+        ExecutionException exception =
+                assertThrows(
+                        ExecutionException.class,
+                        () ->
+                                processor
+                                        .waitForTransactionReceiptAsync(TRANSACTION_HASH)
+                                        .get(10, TimeUnit.SECONDS));
+
+        assertTrue(exception.getCause() instanceof TransactionException);
+        assertEquals(
+                TRANSACTION_HASH,
+                ((TransactionException) exception.getCause()).getTransactionHash().get());
+    }
+
+    @Test
+    public void pollsWithAsynchronousRequests() throws Exception {
+        TransactionReceipt transactionReceipt = new TransactionReceipt();
+        Request request = requestReturning(response(transactionReceipt));
+        doReturn(request).when(web3j).ethGetTransactionReceipt(TRANSACTION_HASH);
+
+        processor.waitForTransactionReceiptAsync(TRANSACTION_HASH).get(10, TimeUnit.SECONDS);
+
+        verify(request).sendAsync();
+        verify(request, never()).send();
+    }
+
+    @Test
+    public void failsAsynchronouslyWhenRequestFails() throws Exception {
+        Request request = mock(Request.class);
+        CompletableFuture<EthGetTransactionReceipt> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IOException("connection refused"));
+        when(request.sendAsync()).thenReturn(failed);
+        doReturn(request).when(web3j).ethGetTransactionReceipt(TRANSACTION_HASH);
+
+        ExecutionException exception =
+                assertThrows(
+                        ExecutionException.class,
+                        () ->
+                                processor
+                                        .waitForTransactionReceiptAsync(TRANSACTION_HASH)
+                                        .get(10, TimeUnit.SECONDS));
+
+        assertTrue(exception.getCause() instanceof IOException);
+    }
+
     private static <T extends Response<?>> Request requestReturning(T response) {
         Request request = mock(Request.class);
         try {
@@ -80,6 +172,7 @@ public class PollingTransactionReceiptProcessorTest {
         } catch (IOException e) {
             // this will never happen
         }
+        when(request.sendAsync()).thenReturn(CompletableFuture.completedFuture(response));
         return request;
     }
 
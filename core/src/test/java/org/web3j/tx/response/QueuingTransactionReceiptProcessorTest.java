@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 Web3 Labs Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.web3j.tx.response;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.web3j.protocol.Web3j;
+import org.web3j.protocol.Web3jService;
+import org.web3j.protocol.core.BatchRequest;
+import org.web3j.protocol.core.BatchResponse;
+import org.web3j.protocol.core.Request;
+import org.web3j.protocol.core.Response;
+import org.web3j.protocol.core.methods.response.EthGetTransactionReceipt;
+import org.web3j.protocol.core.methods.response.TransactionReceipt;
+import org.web3j.protocol.exceptions.TransactionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class QueuingTransactionReceiptProcessorTest {
+
+    private Web3jService web3jService;
+    private ScheduledExecutorService scheduledExecutorService;
+    private List<TransactionReceipt> receipts;
+    private List<Exception> exceptions;
+    private Callback callback;
+    private List<Integer> batchSizes;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        web3jService = mock(Web3jService.class);
+        scheduledExecutorService = mock(ScheduledExecutorService.class);
+        doReturn(mock(ScheduledFuture.class))
+                .when(scheduledExecutorService)
+                .scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any());
+
+        receipts = new ArrayList<>();
+        exceptions = new ArrayList<>();
+        callback =
+                new Callback() {
+                    @Override
+                    public void accept(TransactionReceipt transactionReceipt) {
+                        receipts.add(transactionReceipt);
+                    }
+
+                    @Override
+                    public void exception(Exception exception) {
+                        exceptions.add(exception);
+                    }
+                };
+        batchSizes = new ArrayList<>();
+    }
+
+    @Test
+    public void testReceiptsAreRequestedInChunkedBatches() throws Exception {
+        QueuingTransactionReceiptProcessor processor = createProcessor(3, 1000, 1000);
+        verify(scheduledExecutorService)
+                .scheduleWithFixedDelay(
+                        any(Runnable.class), eq(1000L), eq(1000L), eq(TimeUnit.MILLISECONDS));
+        prepareBatchResponse();
+
+        for (int i = 0; i < 250; i++) {
+            processor.waitForTransactionReceipt(transactionHash(i));
+        }
+        processor.sendTransactionReceiptRequests();
+
+        assertEquals(List.of(100, 100, 50), batchSizes);
+        assertEquals(125, receipts.size());
+        assertTrue(receipts.stream().allMatch(receipt -> isEven(receipt.getTransactionHash())));
+        assertEquals(125, processor.getPendingCount());
+        assertTrue(exceptions.isEmpty());
+    }
+
+    @Test
+    public void testAsyncWaitQueuesTransaction() throws Exception {
+        QueuingTransactionReceiptProcessor processor = createProcessor(3, 1000, 1000);
+
+        CompletableFuture<TransactionReceipt> future =
+                processor.waitForTransactionReceiptAsync(transactionHash(1));
+
+        assertTrue(future.isDone());
+        assertTrue(future.get() instanceof EmptyTransactionReceipt);
+        assertEquals(transactionHash(1), future.get().getTransactionHash());
+        assertEquals(1, processor.getPendingCount());
+    }
+
+    @Test
+    public void testTransactionsBackOffUntilDue() throws Exception {
+        QueuingTransactionReceiptProcessor processor = createProcessor(3, 60000, 120000);
+        prepareBatchResponse();
+
+        processor.waitForTransactionReceipt(transactionHash(1));
+        processor.sendTransactionReceiptRequests();
+        processor.sendTransactionReceiptRequests();
+
+        verify(web3jService, times(1)).sendBatch(any(BatchRequest.class));
+        assertEquals(1, processor.getPendingCount());
+    }
+
+    @Test
+    public void testTransactionFailsAfterAttempts() throws Exception {
+        QueuingTransactionReceiptProcessor processor = createProcessor(2, 0, 0);
+        prepareBatchResponse();
+
+        processor.waitForTransactionReceipt(transactionHash(1));
+        processor.sendTransactionReceiptRequests();
+        processor.sendTransactionReceiptRequests();
+        assertTrue(exceptions.isEmpty());
+
+        processor.sendTransactionReceiptRequests();
+        assertEquals(1, exceptions.size());
+        assertTrue(exceptions.get(0) instanceof TransactionException);
+        assertEquals(
+                "No transaction receipt for txHash: 0x1 received after 2 attempts",
+                exceptions.get(0).getMessage());
+        assertEquals(0, processor.getPendingCount());
+
+        processor.sendTransactionReceiptRequests();
+        verify(web3jService, times(3)).sendBatch(any(BatchRequest.class));
+    }
+
+    @Test
+    public void testFailedBatchIsRetried() throws Exception {
+        QueuingTransactionReceiptProcessor processor = createProcessor(2, 0, 0);
+        doThrow(new IOException("connection reset"))
+                .when(web3jService)
+                .sendBatch(any(BatchRequest.class));
+
+        processor.waitForTransactionReceipt(transactionHash(2));
+        processor.sendTransactionReceiptRequests();
+        assertTrue(exceptions.isEmpty());
+        assertEquals(1, processor.getPendingCount());
+
+        prepareBatchResponse();
+        processor.sendTransactionReceiptRequests();
+        assertEquals(1, receipts.size());
+        assertEquals(0, processor.getPendingCount());
+        assertTrue(exceptions.isEmpty());
+    }
+
+    @Test
+    public void testNoRequestsWithoutPendingTransactions() throws Exception {
+        QueuingTransactionReceiptProcessor processor = createProcessor(2, 0, 0);
+
+        processor.sendTransactionReceiptRequests();
+
+        verify(web3jService, never()).sendBatch(any(BatchRequest.class));
+    }
+
+    private QueuingTransactionReceiptProcessor createProcessor(
+            int attempts, long pollingFrequency, long maxBackoff) {
+        return new QueuingTransactionReceiptProcessor(
+                Web3j.build(web3jService),
+                callback,
+                attempts,
+                pollingFrequency,
+                maxBackoff,
+                100,
+                scheduledExecutorService);
+    }
+
+    /** Receipts are returned for transactions with even hashes. */
+    private void prepareBatchResponse() throws Exception {
+        doAnswer(
+                        invocation -> {
+                            BatchRequest batchRequest = invocation.getArgument(0);
+                            List<Request<?, ? extends Response<?>>> requests =
+                                    batchRequest.getRequests();
+                            batchSizes.add(requests.size());
+                            List<EthGetTransactionReceipt> responses = new ArrayList<>();
+                            for (Request<?, ? extends Response<?>> request : requests) {
+                                String hash = (String) request.getParams().get(0);
+                                EthGetTransactionReceipt response = new EthGetTransactionReceipt();
+                                response.setId(request.getId());
+                                if (isEven(hash)) {
+                                    TransactionReceipt receipt = new TransactionReceipt();
+                                    receipt.setTransactionHash(hash);
+                                    response.setResult(receipt);
+                                }
+                                responses.add(response);
+                            }
+                            Collections.reverse(responses);
+                            return new BatchResponse(requests, responses);
+                        })
+                .when(web3jService)
+                .sendBatch(any(BatchRequest.class));
+    }
+
+    private static boolean isEven(String transactionHash) {
+        return Integer.parseInt(transactionHash.substring(2), 16) % 2 == 0;
+    }
+
+    private static String transactionHash(int index) {
+        return "0x" + Integer.toHexString(index);
+    }
+}
@@ -17,11 +17,12 @@ import java.security.KeyPair;
 import java.util.Arrays;
 
 import org.bouncycastle.crypto.digests.SHA256Digest;
-import org.bouncycastle.crypto.params.ECPrivateKeyParameters;
-import org.bouncycastle.crypto.signers.ECDSASigner;
 import org.bouncycastle.crypto.signers.HMacDSAKCalculator;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPrivateKey;
 import org.bouncycastle.jcajce.provider.asymmetric.ec.BCECPublicKey;
+import org.bouncycastle.math.ec.ECPoint;
+import org.bouncycastle.math.ec.FixedPointCombMultiplier;
+import org.bouncycastle.util.BigIntegers;
 
 import org.web3j.utils.Numeric;
 
@@ -50,13 +51,76 @@ public class ECKeyPair {
      * @return An {@link ECDSASignature} of the hash
      */
     public ECDSASignature sign(byte[] transactionHash) {
-        ECDSASigner signer = new ECDSASigner(new HMacDSAKCalculator(new SHA256Digest()));
+        return generateSignature(transactionHash).signature;
+    }
+
+    /**
+     * Sign a hash with the private key of this key pair, and derive the recovery id of the
+     * signature from the point generated while signing, rather than by trying to recover the
+     * public key with each recovery id in turn.
+     *
+     * @param messageHash the hash to sign
+     * @return SignatureData v | r | s of the hash, without EIP-155 replay protection
+     */
+    public Sign.SignatureData signRecoverable(byte[] messageHash) {
+        RecoverableSignature recoverable = generateSignature(messageHash);
 
-        ECPrivateKeyParameters privKey = new ECPrivateKeyParameters(privateKey, Sign.CURVE);
-        signer.init(true, privKey);
-        BigInteger[] components = signer.generateSignature(transactionHash);
+        return new Sign.SignatureData(
+                Sign.getVFromRecId(recoverable.recId),
+                Numeric.toBytesPadded(recoverable.signature.r, 32),
+                Numeric.toBytesPadded(recoverable.signature.s, 32));
+    }
+
+    /**
+     * ECDSA signature generation as per SEC1v2 section 4.1.3, with the deterministic nonce of <a
+     * href="https://tools.ietf.org/html/rfc6979">RFC 6979</a>, as implemented by Bouncy Castle's
+     * {@link org.bouncycastle.crypto.signers.ECDSASigner}.
+     */
+    private RecoverableSignature generateSignature(byte[] messageHash) {
+        BigInteger n = Sign.CURVE.getN();
+        BigInteger e = calculateE(n, messageHash);
+
+        HMacDSAKCalculator kCalculator = new HMacDSAKCalculator(new SHA256Digest());
+        kCalculator.init(n, privateKey, messageHash);
+        FixedPointCombMultiplier multiplier = new FixedPointCombMultiplier();
+
+        BigInteger r;
+        BigInteger s;
+        int recId;
+        do {
+            BigInteger k;
+            do {
+                k = kCalculator.nextK();
+                ECPoint p = multiplier.multiply(Sign.CURVE.getG(), k).normalize();
+                BigInteger x = p.getAffineXCoord().toBigInteger();
+                r = x.mod(n);
+                // The recovery id encodes the parity of the y co-ordinate of R, and whether its
+                // x co-ordinate exceeded the curve order
+                recId =
+                        (p.getAffineYCoord().testBitZero() ? 1 : 0)
+                                | (x.compareTo(n) >= 0 ? 2 : 0);
+            } while (r.signum() == 0);
+            s = BigIntegers.modOddInverse(n, k).multiply(e.add(privateKey.multiply(r))).mod(n);
+        } while (s.signum() == 0);
+
+        if (s.compareTo(Sign.HALF_CURVE_ORDER) > 0) {
+            // Negating s corresponds to negating R, which flips the parity of its y co-ordinate
+            s = n.subtract(s);
+            recId ^= 1;
+        }
 
-        return new ECDSASignature(components[0], components[1]).toCanonicalised();
+        return new RecoverableSignature(new ECDSASignature(r, s), recId);
+    }
+
+    private static BigInteger calculateE(BigInteger n, byte[] message) {
+        int log2n = n.bitLength();
+        int messageBitLength = message.length * 8;
+
+        BigInteger e = new BigInteger(1, message);
+        if (log2n < messageBitLength) {
+            e = e.shiftRight(messageBitLength - log2n);
+        }
+        return e;
     }
 
     public static ECKeyPair create(KeyPair keyPair) {
@@ -111,4 +175,15 @@ public class ECKeyPair {
         result = 31 * result + (publicKey != null ? publicKey.hashCode() : 0);
         return result;
     }
+
+    private static class RecoverableSignature {
+
+        private final ECDSASignature signature;
+        private final int recId;
+
+        RecoverableSignature(ECDSASignature signature, int recId) {
+            this.signature = signature;
+            this.recId = recId;
+        }
+    }
 }
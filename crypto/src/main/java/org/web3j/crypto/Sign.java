@@ -91,7 +91,6 @@ public class Sign {
     }
 
     public static SignatureData signMessage(byte[] message, ECKeyPair keyPair, boolean needToHash) {
-        BigInteger publicKey = keyPair.getPublicKey();
         byte[] messageHash;
         if (needToHash) {
             messageHash = Hash.sha3(message);
@@ -99,15 +98,17 @@ public class Sign {
             messageHash = message;
         }
 
-        ECDSASignature sig = keyPair.sign(messageHash);
-
-        return createSignatureData(sig, publicKey, messageHash);
+        return keyPair.signRecoverable(messageHash);
     }
 
     /**
      * Signature without EIP-155 (Simple replay attack protection)
      * https://eips.ethereum.org/EIPS/eip-155 To add EIP-155 call
      * TransactionEncoder.createEip155SignatureData after that.
+     *
+     * <p>The recovery id is found by recovering the public key with each candidate, which is only
+     * needed for signatures created elsewhere, such as by a HSM. {@link
+     * ECKeyPair#signRecoverable(byte[])} derives it while signing.
      */
     public static Sign.SignatureData createSignatureData(
             ECDSASignature sig, BigInteger publicKey, byte[] messageHash) {
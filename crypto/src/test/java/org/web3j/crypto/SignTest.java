@@ -61,6 +61,54 @@ public class SignTest {
         assertEquals(key, (SampleKeys.PUBLIC_KEY));
     }
 
+    @Test
+    public void testSignRecoverableMatchesRecoveredId() throws Exception {
+        for (int i = 0; i < 32; i++) {
+            ECKeyPair keyPair = Keys.createEcKeyPair();
+            byte[] messageHash = Hash.sha3(BigInteger.valueOf(i).toByteArray());
+
+            Sign.SignatureData expected =
+                    Sign.createSignatureData(
+                            keyPair.sign(messageHash), keyPair.getPublicKey(), messageHash);
+
+            assertEquals(expected, keyPair.signRecoverable(messageHash));
+            assertEquals(expected, Sign.signMessage(messageHash, keyPair, false));
+        }
+    }
+
+    @Test
+    public void testSignMessageMatchesEcdsaSignerVectors() {
+        // Signatures produced by Bouncy Castle's ECDSASigner, before signing was done in ECKeyPair
+        assertSignature(
+                "",
+                (byte) 28,
+                "0x04c63f9fa859b42e4217e917576698ae463ff07e0454d6a89cec4434d6d0c0a8",
+                "0x4dd5b57d87899f4a67a998bc7c7dc52eed8c3246645579fa8310fc5f89b12b19");
+        assertSignature(
+                "A test message",
+                (byte) 27,
+                "0x9631f6d21dec448a213585a4a41a28ef3d4337548aa34734478b563036163786",
+                "0x2ff816ee6bbb82719e983ecd8a33a4b45d32a4b58377ef1381163d75eedc900b");
+        assertSignature(
+                "web3j",
+                (byte) 28,
+                "0x529d8a07b1b0f8826bdcbcaf436808d1252c24eddac6f9424232f413e0189fff",
+                "0x57a3c73707dc68431961ee379a2c8a41936a389483b714bd24e0a63bcf93f71d");
+    }
+
+    private static void assertSignature(String message, byte v, String r, String s) {
+        byte[] messageHash = Hash.sha3(message.getBytes());
+
+        Sign.SignatureData expected =
+                new Sign.SignatureData(
+                        v, Numeric.hexStringToByteArray(r), Numeric.hexStringToByteArray(s));
+
+        assertEquals(expected, Sign.signMessage(messageHash, SampleKeys.KEY_PAIR, false));
+        ECDSASignature signature = SampleKeys.KEY_PAIR.sign(messageHash);
+        assertEquals(Numeric.toBigInt(r), signature.r);
+        assertEquals(Numeric.toBigInt(s), signature.s);
+    }
+
     @Test
     public void testPublicKeyFromPrivateKey() {
         assertEquals(Sign.publicKeyFromPrivate(SampleKeys.PRIVATE_KEY), (SampleKeys.PUBLIC_KEY));